@@ -35,9 +35,17 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    // 로컬 단위 테스트에서 Log 등 android.jar 스텁이 예외 대신 기본값을 돌려주도록 (크롤러 부하 테스트)
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
+    // 전처리/디코딩/NMS (순수 자바 모듈)
+    implementation(project(":detection-core"))
+
     // TensorFlow Lite
     implementation("org.tensorflow:tensorflow-lite:2.14.0")
     implementation("org.tensorflow:tensorflow-lite-support:0.4.4")
@@ -0,0 +1,93 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 배치 크기별 이미지당 추론 지연 측정 (CPU/XNNPACK 경로)
+ * 결과는 logcat "BatchInferenceBenchmark" 태그로 출력된다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchInferenceBenchmark {
+    private static final String TAG = "BatchInferenceBenchmark";
+    private static final int[] BATCH_SIZES = {1, 2, 4, 8};
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    public void perImageLatencyByBatchSize() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        List<Bitmap> images = syntheticImages(8);
+
+        try (YOLOv5Detector detector = new YOLOv5Detector(context,
+                new YOLOv5Detector.Options().setUseGpu(false).setNumThreads(4))) {
+            for (int batch : BATCH_SIZES) {
+                List<Bitmap> input = images.subList(0, batch);
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    detector.detectObjects(input);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    List<List<YOLOv5Detector.Recognition>> results = detector.detectObjects(input);
+                    assertEquals(batch, results.size());
+                }
+                double perImageMs = (System.nanoTime() - start) / 1e6 / MEASURED_RUNS / batch;
+                Log.i(TAG, String.format("batch=%d: %.1f ms/image", batch, perImageMs));
+            }
+        }
+    }
+
+    @Test
+    public void batchResultsMatchSingleImageResults() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        List<Bitmap> images = syntheticImages(4);
+
+        try (YOLOv5Detector detector = new YOLOv5Detector(context,
+                new YOLOv5Detector.Options().setUseGpu(false))) {
+            List<List<YOLOv5Detector.Recognition>> batched = detector.detectObjects(images);
+            for (int i = 0; i < images.size(); i++) {
+                List<YOLOv5Detector.Recognition> single = detector.detectObjects(images.get(i));
+                assertEquals(single.size(), batched.get(i).size());
+                for (int k = 0; k < single.size(); k++) {
+                    assertEquals(single.get(k).getClassId(), batched.get(i).get(k).getClassId());
+                    assertEquals(single.get(k).getConfidence(), batched.get(i).get(k).getConfidence(), 1e-4f);
+                }
+            }
+        }
+    }
+
+    private static List<Bitmap> syntheticImages(int count) {
+        Random random = new Random(17);
+        Paint paint = new Paint();
+        List<Bitmap> images = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Bitmap bitmap = Bitmap.createBitmap(1280, 960, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(bitmap);
+            canvas.drawColor(Color.WHITE);
+            for (int r = 0; r < 20; r++) {
+                paint.setColor(0xFF000000 | random.nextInt(0x1000000));
+                float x = random.nextInt(1200);
+                float y = random.nextInt(880);
+                canvas.drawRect(x, y, x + 40 + random.nextInt(200), y + 40 + random.nextInt(200), paint);
+            }
+            images.add(bitmap);
+        }
+        return images;
+    }
+}
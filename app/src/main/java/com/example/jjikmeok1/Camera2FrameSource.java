@@ -0,0 +1,246 @@
+package com.example.jjikmeok1;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraDevice;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.params.OutputConfiguration;
+import android.hardware.camera2.params.SessionConfiguration;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.util.Size;
+import android.view.Surface;
+
+import com.example.jjikmeok1.detection.FrameSource;
+import com.example.jjikmeok1.detection.YuvFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Camera2 후면 카메라 YUV_420_888 프레임 공급원
+ *
+ * ImageReader에서 acquireLatestImage()로 가장 최근 프레임만 꺼내 YuvFrame으로 넘기고,
+ * 프레임이 release되면 Image를 닫아 카메라 버퍼를 돌려준다.
+ * 미리보기 Surface를 지정하면 같은 세션에서 미리보기도 함께 출력한다.
+ */
+public class Camera2FrameSource implements FrameSource {
+    private static final String TAG = "Camera2FrameSource";
+
+    // 모델 입력(640)에 가까운 분석 해상도
+    private static final int TARGET_WIDTH = 640;
+    private static final int TARGET_HEIGHT = 480;
+    // 분석기가 최대 2장(분석 중 + 대기)을 잡고 있어도 acquireLatestImage가 실패하지 않도록 여유를 둠
+    private static final int MAX_IMAGES = 4;
+
+    private final CameraManager cameraManager;
+    private final String cameraId;
+    private final Size frameSize;
+    private final int rotationDegrees;
+
+    private Surface previewSurface;
+    private HandlerThread cameraThread;
+    private Handler cameraHandler;
+    private ImageReader imageReader;
+    private CameraDevice cameraDevice;
+    private CameraCaptureSession captureSession;
+    private volatile boolean running;
+
+    /**
+     * @param displayRotationDegrees 현재 화면 회전 (세로 고정이면 0)
+     */
+    public Camera2FrameSource(Context context, int displayRotationDegrees) throws CameraAccessException {
+        cameraManager = context.getSystemService(CameraManager.class);
+        String selectedId = null;
+        CameraCharacteristics selected = null;
+        for (String id : cameraManager.getCameraIdList()) {
+            CameraCharacteristics characteristics = cameraManager.getCameraCharacteristics(id);
+            Integer facing = characteristics.get(CameraCharacteristics.LENS_FACING);
+            if (facing != null && facing == CameraCharacteristics.LENS_FACING_BACK) {
+                selectedId = id;
+                selected = characteristics;
+                break;
+            }
+        }
+        if (selectedId == null) {
+            throw new CameraAccessException(CameraAccessException.CAMERA_ERROR, "후면 카메라가 없습니다");
+        }
+        cameraId = selectedId;
+
+        StreamConfigurationMap map = selected.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+        frameSize = chooseSize(map.getOutputSizes(ImageFormat.YUV_420_888));
+        Integer sensorOrientation = selected.get(CameraCharacteristics.SENSOR_ORIENTATION);
+        rotationDegrees = ((sensorOrientation != null ? sensorOrientation : 90) - displayRotationDegrees + 360) % 360;
+        Log.d(TAG, "Camera " + cameraId + ": " + frameSize + ", rotation " + rotationDegrees);
+    }
+
+    /** 분석 프레임 크기 (센서 방향 기준) */
+    public Size getFrameSize() {
+        return frameSize;
+    }
+
+    /** start() 전에 호출 (null이면 분석 스트림만 사용) */
+    public void setPreviewSurface(Surface previewSurface) {
+        this.previewSurface = previewSurface;
+    }
+
+    @SuppressLint("MissingPermission") // 호출하는 쪽에서 CAMERA 권한을 확인
+    @Override
+    public synchronized void start(Listener listener) {
+        if (running) {
+            return;
+        }
+        running = true;
+        cameraThread = new HandlerThread("camera");
+        cameraThread.start();
+        cameraHandler = new Handler(cameraThread.getLooper());
+
+        imageReader = ImageReader.newInstance(frameSize.getWidth(), frameSize.getHeight(),
+                ImageFormat.YUV_420_888, MAX_IMAGES);
+        imageReader.setOnImageAvailableListener(reader -> {
+            Image image;
+            try {
+                image = reader.acquireLatestImage();
+            } catch (IllegalStateException e) {
+                return; // 버퍼를 모두 잡고 있음: 이번 프레임은 건너뜀
+            }
+            if (image == null) {
+                return;
+            }
+            if (!running) {
+                image.close();
+                return;
+            }
+            Image.Plane[] planes = image.getPlanes();
+            listener.onFrame(new YuvFrame(image.getWidth(), image.getHeight(),
+                    planes[0].getBuffer(), planes[1].getBuffer(), planes[2].getBuffer(),
+                    planes[0].getRowStride(), planes[1].getRowStride(), planes[1].getPixelStride(),
+                    rotationDegrees, image.getTimestamp(), image::close));
+        }, cameraHandler);
+
+        try {
+            cameraManager.openCamera(cameraId, new CameraDevice.StateCallback() {
+                @Override
+                public void onOpened(CameraDevice camera) {
+                    synchronized (Camera2FrameSource.this) {
+                        if (!running) {
+                            camera.close();
+                            return;
+                        }
+                        cameraDevice = camera;
+                        createSession(camera);
+                    }
+                }
+
+                @Override
+                public void onDisconnected(CameraDevice camera) {
+                    camera.close();
+                }
+
+                @Override
+                public void onError(CameraDevice camera, int error) {
+                    Log.e(TAG, "Camera error: " + error);
+                    camera.close();
+                }
+            }, cameraHandler);
+        } catch (CameraAccessException e) {
+            Log.e(TAG, "Failed to open camera", e);
+            stop();
+        }
+    }
+
+    private void createSession(CameraDevice camera) {
+        List<OutputConfiguration> outputs = new ArrayList<>();
+        outputs.add(new OutputConfiguration(imageReader.getSurface()));
+        if (previewSurface != null) {
+            outputs.add(new OutputConfiguration(previewSurface));
+        }
+        SessionConfiguration configuration = new SessionConfiguration(SessionConfiguration.SESSION_REGULAR,
+                outputs, cameraHandler::post, new CameraCaptureSession.StateCallback() {
+            @Override
+            public void onConfigured(CameraCaptureSession session) {
+                synchronized (Camera2FrameSource.this) {
+                    if (!running) {
+                        session.close();
+                        return;
+                    }
+                    captureSession = session;
+                    try {
+                        CaptureRequest.Builder request = camera.createCaptureRequest(CameraDevice.TEMPLATE_PREVIEW);
+                        request.addTarget(imageReader.getSurface());
+                        if (previewSurface != null) {
+                            request.addTarget(previewSurface);
+                        }
+                        request.set(CaptureRequest.CONTROL_AF_MODE,
+                                CaptureRequest.CONTROL_AF_MODE_CONTINUOUS_PICTURE);
+                        session.setRepeatingRequest(request.build(), null, cameraHandler);
+                    } catch (CameraAccessException e) {
+                        Log.e(TAG, "Failed to start repeating request", e);
+                    }
+                }
+            }
+
+            @Override
+            public void onConfigureFailed(CameraCaptureSession session) {
+                Log.e(TAG, "Capture session configuration failed");
+            }
+        });
+        try {
+            camera.createCaptureSession(configuration);
+        } catch (CameraAccessException e) {
+            Log.e(TAG, "Failed to create capture session", e);
+        }
+    }
+
+    /**
+     * 카메라와 ImageReader를 닫음
+     * 분석기에 넘어간 프레임이 닫힌 ImageReader의 버퍼를 읽지 않도록, 분석기를 먼저 닫은 뒤 호출할 것.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (captureSession != null) {
+            captureSession.close();
+            captureSession = null;
+        }
+        if (cameraDevice != null) {
+            cameraDevice.close();
+            cameraDevice = null;
+        }
+        if (imageReader != null) {
+            imageReader.close();
+            imageReader = null;
+        }
+        if (cameraThread != null) {
+            cameraThread.quitSafely();
+            cameraThread = null;
+            cameraHandler = null;
+        }
+    }
+
+    // TARGET 해상도 이상 중 가장 작은 크기 (없으면 가장 큰 크기)
+    private static Size chooseSize(Size[] sizes) {
+        Size best = null;
+        Size largest = null;
+        for (Size size : sizes) {
+            long area = (long) size.getWidth() * size.getHeight();
+            if (largest == null || area > (long) largest.getWidth() * largest.getHeight()) {
+                largest = size;
+            }
+            if (size.getWidth() >= TARGET_WIDTH && size.getHeight() >= TARGET_HEIGHT
+                    && (best == null || area < (long) best.getWidth() * best.getHeight())) {
+                best = size;
+            }
+        }
+        return best != null ? best : largest;
+    }
+}
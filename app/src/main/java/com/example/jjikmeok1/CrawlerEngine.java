@@ -0,0 +1,258 @@
+package com.example.jjikmeok1;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.LongSupplier;
+
+/**
+ * 앱 전체가 함께 쓰는 크롤링 실행기
+ *
+ * 고정 개수의 작업 스레드가 요청을 동시에 가져오되, 호스트마다 토큰 버킷으로 초당 요청 수를 제한해
+ * 10000recipe.com에 한꺼번에 몰리지 않게 한다.
+ * 우선순위 큐가 둘이라 화면에 보일 검색(USER)은 쌓여 있는 미리 가져오기(PREFETCH)보다 먼저 나가고,
+ * PREFETCH는 스레드 하나를 항상 비워 두므로 진행 중인 미리 가져오기 뒤에 검색이 막히지 않는다.
+ */
+public final class CrawlerEngine {
+
+    /** 요청 우선순위 (같은 우선순위 안에서는 먼저 넣은 순서) */
+    public enum Priority {
+        /** 사용자가 기다리는 요청 (검색, 상세 화면) */
+        USER,
+        /** 결과를 미리 받아 두는 요청 */
+        PREFETCH
+    }
+
+    // 공용 인스턴스: 동시 요청 4개, 호스트당 초당 3회 (순간 5회까지)
+    private static final int MAX_CONCURRENT = 4;
+    private static final double REQUESTS_PER_SECOND = 3;
+    private static final int BURST = 5;
+
+    private static CrawlerEngine shared;
+
+    private final int maxPrefetch;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final LongSupplier clock;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Task<?>> userQueue = new ArrayDeque<>();
+    private final ArrayDeque<Task<?>> prefetchQueue = new ArrayDeque<>();
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+    private final Thread[] workers;
+    private int runningPrefetch;
+    private boolean shutdown;
+    private long completed;
+    private long throttledNanos;
+
+    public static synchronized CrawlerEngine shared() {
+        if (shared == null) {
+            shared = new CrawlerEngine(MAX_CONCURRENT, REQUESTS_PER_SECOND, BURST);
+        }
+        return shared;
+    }
+
+    /**
+     * @param maxConcurrent 동시에 진행할 최대 요청 수 (작업 스레드 수)
+     * @param permitsPerSecond 호스트당 초당 요청 수
+     * @param burst 쉬고 있던 호스트에 한꺼번에 보낼 수 있는 요청 수
+     */
+    CrawlerEngine(int maxConcurrent, double permitsPerSecond, int burst) {
+        this.maxPrefetch = Math.max(1, maxConcurrent - 1);
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.clock = System::nanoTime;
+        workers = new Thread[Math.max(1, maxConcurrent)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::workLoop, "crawler-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * url의 호스트 제한에 맞춰 fetch를 실행
+     * 반환된 Future를 cancel하면 대기 중인 요청은 토큰을 쓰지 않고 버려지고, 진행 중인 요청은 인터럽트된다.
+     */
+    public <T> Future<T> submit(Priority priority, String url, Callable<T> fetch) {
+        Task<T> task = new Task<>(priority, hostOf(url), fetch);
+        synchronized (lock) {
+            if (shutdown) {
+                throw new IllegalStateException("CrawlerEngine is shut down");
+            }
+            (priority == Priority.USER ? userQueue : prefetchQueue).add(task);
+            lock.notifyAll();
+        }
+        return task;
+    }
+
+    /** 대기 중인 요청은 취소하고 작업 스레드 종료 (공용 인스턴스는 닫지 않음, 테스트용) */
+    void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            for (Task<?> task : userQueue) task.cancel(false);
+            for (Task<?> task : prefetchQueue) task.cancel(false);
+            userQueue.clear();
+            prefetchQueue.clear();
+            lock.notifyAll();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return userQueue.size() + prefetchQueue.size();
+        }
+    }
+
+    public long getCompleted() {
+        synchronized (lock) {
+            return completed;
+        }
+    }
+
+    /** 호스트 제한 때문에 작업 스레드가 기다린 시간 합계 */
+    public long getThrottledNanos() {
+        synchronized (lock) {
+            return throttledNanos;
+        }
+    }
+
+    private void workLoop() {
+        while (true) {
+            Task<?> task;
+            TokenBucket bucket;
+            synchronized (lock) {
+                while (true) {
+                    if (shutdown) {
+                        return;
+                    }
+                    task = next();
+                    if (task != null) {
+                        break;
+                    }
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // shutdown 확인 후 계속 대기
+                    }
+                }
+                take(task);
+                bucket = buckets.computeIfAbsent(task.host,
+                        host -> new TokenBucket(permitsPerSecond, burst, clock));
+            }
+            long waited = 0;
+            try {
+                // 꺼낸 순서대로 토큰을 예약하므로 USER 요청이 먼저 자리를 잡는다
+                waited = bucket.reserve();
+                if (waited > 0) {
+                    sleepNanos(waited);
+                }
+                task.run();
+            } finally {
+                Thread.interrupted(); // 취소로 걸린 인터럽트가 다음 작업에 남지 않게
+                synchronized (lock) {
+                    if (task.priority == Priority.PREFETCH) {
+                        runningPrefetch--;
+                    }
+                    completed++;
+                    throttledNanos += waited;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    // 취소된 작업은 건너뛰고 USER 우선, PREFETCH는 스레드 하나를 남겨 둘 때만
+    private Task<?> next() {
+        dropCancelled(userQueue);
+        if (!userQueue.isEmpty()) {
+            return userQueue.peek();
+        }
+        dropCancelled(prefetchQueue);
+        if (!prefetchQueue.isEmpty() && runningPrefetch < maxPrefetch) {
+            return prefetchQueue.peek();
+        }
+        return null;
+    }
+
+    private void take(Task<?> task) {
+        if (task.priority == Priority.USER) {
+            userQueue.poll();
+        } else {
+            prefetchQueue.poll();
+            runningPrefetch++;
+        }
+    }
+
+    private static void dropCancelled(ArrayDeque<Task<?>> queue) {
+        while (!queue.isEmpty() && queue.peek().isCancelled()) {
+            queue.poll();
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 요청 쪽에서 취소 여부를 확인하도록 남겨 둠
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static final class Task<T> extends FutureTask<T> {
+        final Priority priority;
+        final String host;
+
+        Task(Priority priority, String host, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+            this.host = host;
+        }
+    }
+
+    /**
+     * 호스트별 토큰 버킷 (토큰이 모자라면 앞당겨 빌려 쓰고, 빌린 만큼 기다릴 시간을 돌려줌)
+     */
+    static final class TokenBucket {
+        private final double permitsPerNano;
+        private final int burst;
+        private final LongSupplier clock;
+        private double tokens;
+        private long lastNanos;
+
+        TokenBucket(double permitsPerSecond, int burst, LongSupplier clock) {
+            this.permitsPerNano = permitsPerSecond / 1e9;
+            this.burst = Math.max(1, burst);
+            this.clock = clock;
+            this.tokens = this.burst;
+            this.lastNanos = clock.getAsLong();
+        }
+
+        /**
+         * 요청 한 번 예약
+         * @return 요청을 보내기 전에 기다려야 할 시간 (ns), 바로 보내도 되면 0
+         */
+        synchronized long reserve() {
+            long now = clock.getAsLong();
+            tokens = Math.min(burst, tokens + (now - lastNanos) * permitsPerNano);
+            lastNanos = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 카메라 미리보기 위에 탐지 박스를 그리는 투명 뷰
+ * 박스 좌표는 프레임(화면 방향) 기준이며, 뷰 크기에 맞춰 늘려서 그린다.
+ */
+public class DetectionOverlayView extends View {
+
+    private final Paint boxPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF drawRect = new RectF();
+    private List<YOLOv5Detector.Recognition> results = new ArrayList<>();
+    private int frameWidth = 1;
+    private int frameHeight = 1;
+
+    public DetectionOverlayView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        boxPaint.setStyle(Paint.Style.STROKE);
+        boxPaint.setStrokeWidth(5);
+        boxPaint.setColor(Color.RED);
+        textPaint.setColor(Color.RED);
+        textPaint.setTextSize(40);
+    }
+
+    /** 메인 스레드에서 호출 */
+    public void setResults(List<YOLOv5Detector.Recognition> results, int frameWidth, int frameHeight) {
+        this.results = results;
+        this.frameWidth = Math.max(1, frameWidth);
+        this.frameHeight = Math.max(1, frameHeight);
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float scaleX = (float) getWidth() / frameWidth;
+        float scaleY = (float) getHeight() / frameHeight;
+        for (YOLOv5Detector.Recognition result : results) {
+            RectF box = result.getLocation();
+            drawRect.set(box.left * scaleX, box.top * scaleY, box.right * scaleX, box.bottom * scaleY);
+            canvas.drawRect(drawRect, boxPaint);
+            canvas.drawText(result.getTitle() + " " + String.format("%.0f%%", result.getConfidence() * 100),
+                    drawRect.left, drawRect.top, textPaint);
+        }
+    }
+}
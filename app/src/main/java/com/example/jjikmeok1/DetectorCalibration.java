@@ -0,0 +1,172 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Build;
+import android.util.Log;
+
+import com.example.jjikmeok1.detection.BackendCalibrator;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 기기별 추론 백엔드 자동 선택
+ *
+ * CPU(XNNPACK 1/2/4/8 스레드), NNAPI, GPU(지원 기기만)로 탐지기를 하나씩 만들어 워밍업 후 시간을 재고
+ * 가장 빠른 백엔드를 SharedPreferences에 모델 버전별로 저장한다.
+ * 델리게이트 생성에 실패한 후보는 건너뛰므로 GPU가 없는 기기에서도 CPU 스레드 수는 측정된다.
+ */
+public final class DetectorCalibration {
+    private static final String TAG = "DetectorCalibration";
+    private static final String PREFS_NAME = "detector_calibration";
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    private static Thread backgroundThread;
+
+    private DetectorCalibration() {
+    }
+
+    /**
+     * 저장된 측정 결과가 있으면 그 백엔드를 쓰는 옵션, 없으면 기본 옵션 (측정하지 않음)
+     */
+    public static YOLOv5Detector.Options storedOptions(Context context, String modelPath) {
+        YOLOv5Detector.Options options = new YOLOv5Detector.Options().setModelPath(modelPath);
+        String key = prefs(context).getString(modelVersion(context, modelPath), null);
+        BackendCalibrator.Backend backend = BackendCalibrator.Backend.fromKey(key);
+        if (backend != null) {
+            options.setBackend(backend);
+        }
+        return options;
+    }
+
+    /**
+     * 저장된 결과가 없으면 측정해서 저장한 뒤 선택된 백엔드 옵션 반환 (수 초 걸릴 수 있음, 메인 스레드 금지)
+     */
+    public static YOLOv5Detector.Options calibratedOptions(Context context, String modelPath) {
+        Context appContext = context.getApplicationContext();
+        SharedPreferences prefs = prefs(appContext);
+        Bitmap sample = sampleImage();
+        try {
+            BackendCalibrator.Result result = new BackendCalibrator(WARMUP_RUNS, MEASURED_RUNS).select(
+                    modelVersion(appContext, modelPath),
+                    BackendCalibrator.defaultCandidates(Runtime.getRuntime().availableProcessors(),
+                            true, YOLOv5Detector.isGpuSupported()),
+                    backend -> open(appContext, modelPath, backend, sample),
+                    new BackendCalibrator.Store() {
+                        @Override
+                        public String load(String modelVersion) {
+                            return prefs.getString(modelVersion, null);
+                        }
+
+                        @Override
+                        public void save(String modelVersion, String backendKey) {
+                            prefs.edit().putString(modelVersion, backendKey).apply();
+                        }
+                    });
+            log(result);
+            return new YOLOv5Detector.Options()
+                    .setModelPath(modelPath)
+                    .setBackend(result.getBackend());
+        } finally {
+            sample.recycle();
+        }
+    }
+
+    /**
+     * 저장된 결과가 없을 때만 백그라운드 스레드에서 측정 (앱 시작 시 호출)
+     */
+    public static synchronized void calibrateInBackground(Context context, String modelPath) {
+        if (storedOptions(context, modelPath).getBackend() != null
+                || (backgroundThread != null && backgroundThread.isAlive())) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        backgroundThread = new Thread(() -> {
+            try {
+                calibratedOptions(appContext, modelPath);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Calibration failed", e);
+            }
+        }, "detector-calibration");
+        backgroundThread.setPriority(Thread.MIN_PRIORITY);
+        backgroundThread.start();
+    }
+
+    /** 저장된 측정 결과 삭제 (다음 호출에서 다시 측정) */
+    public static void clear(Context context) {
+        prefs(context).edit().clear().apply();
+    }
+
+    private static BackendCalibrator.Session open(Context context, String modelPath,
+                                                  BackendCalibrator.Backend backend, Bitmap sample)
+            throws IOException {
+        YOLOv5Detector detector = new YOLOv5Detector(context,
+                new YOLOv5Detector.Options().setModelPath(modelPath).setBackend(backend));
+        return new BackendCalibrator.Session() {
+            @Override
+            public void run() {
+                detector.detectObjects(sample);
+            }
+
+            @Override
+            public void close() {
+                detector.close();
+            }
+        };
+    }
+
+    /**
+     * 모델 버전 키: 모델 파일 이름 + 크기 + 기기 빌드 (모델 교체나 OS/드라이버 업데이트 시 다시 측정)
+     */
+    static String modelVersion(Context context, String modelPath) {
+        long length = -1;
+        try {
+            AssetFileDescriptor fd = context.getAssets().openFd(modelPath);
+            length = fd.getLength();
+            fd.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Model not found: " + modelPath);
+        }
+        return modelPath + "@" + length + "/" + Build.FINGERPRINT;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // 측정용 입력: 단색 이미지는 후보가 거의 없어 NMS 비용이 빠지므로 사각형 몇 개를 그려 둔다
+    private static Bitmap sampleImage() {
+        Bitmap bitmap = Bitmap.createBitmap(640, 640, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.drawColor(Color.WHITE);
+        Paint paint = new Paint();
+        int[] colors = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW};
+        for (int i = 0; i < colors.length; i++) {
+            paint.setColor(colors[i]);
+            canvas.drawRect(60 + i * 140, 100 + i * 80, 180 + i * 140, 260 + i * 80, paint);
+        }
+        return bitmap;
+    }
+
+    private static void log(BackendCalibrator.Result result) {
+        if (result.isFromStore()) {
+            Log.d(TAG, "Stored backend: " + result.getBackend());
+            return;
+        }
+        for (Map.Entry<BackendCalibrator.Backend, Long> entry : result.getMedianNanos().entrySet()) {
+            Log.d(TAG, String.format("%s: %.1f ms", entry.getKey(), entry.getValue() / 1e6));
+        }
+        for (Map.Entry<BackendCalibrator.Backend, String> entry : result.getFailures().entrySet()) {
+            Log.d(TAG, entry.getKey() + " unavailable: " + entry.getValue());
+        }
+        Log.i(TAG, "Selected backend: " + result.getBackend());
+    }
+}
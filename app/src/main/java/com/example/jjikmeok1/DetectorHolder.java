@@ -0,0 +1,165 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.jjikmeok1.detection.DetectionCache;
+import com.example.jjikmeok1.detection.DetectorStats;
+import com.example.jjikmeok1.detection.SharedResource;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 앱 전체가 함께 쓰는 탐지기
+ *
+ * 앱 시작 시(JjikmeokApplication) 백그라운드에서 모델 로드 + 더미 추론 워밍업을 시작하고,
+ * 화면은 acquire()로 준비 future를 받아 쓰고 onDestroy에서 release()한다.
+ * 화면을 닫아도 탐지기는 남아 있어 다시 열 때 모델/라벨/델리게이트를 새로 만들지 않는다.
+ * 메모리가 부족하면(onTrimMemory) 쓰는 화면이 없을 때만 닫는다.
+ */
+public final class DetectorHolder {
+    private static final String TAG = "DetectorHolder";
+
+    // 분석 결과 캐시: 메모리 32장, 디스크 1MB (한 장당 수백 바이트)
+    private static final int RESULT_CACHE_ENTRIES = 32;
+    private static final long RESULT_CACHE_DISK_BYTES = 1 << 20;
+
+    // 단계별 지연 시간 계측 (릴리스 빌드에서도 켜 둠, 끄면 계측 비용은 volatile 읽기뿐)
+    private static final boolean STATS_ENABLED = true;
+
+    private static DetectorHolder instance;
+
+    private final Context appContext;
+    private final SharedResource<YOLOv5Detector> detector;
+    // 분석 파이프라인용: 추론은 한 스레드에서 차례로, 디코딩/그리기는 별도 스레드에서
+    private final ExecutorService inferenceExecutor = Executors.newSingleThreadExecutor(daemon("detector-inference"));
+    private final ExecutorService backgroundExecutor = Executors.newFixedThreadPool(2, daemon("analysis-io"));
+    private final long launchMs = SystemClock.elapsedRealtime();
+    private volatile long loadMs = -1;
+    private volatile long warmupMs = -1;
+    private boolean firstDetectionLogged;
+    private volatile String modelVersion;
+    private DetectionCache resultCache;
+    // 탐지기를 다시 로드해도 이어서 쌓이도록 홀더가 가짐
+    private final DetectorStats stats = new DetectorStats(false);
+
+    private DetectorHolder(Context context) {
+        appContext = context.getApplicationContext();
+        ExecutorService loader = Executors.newSingleThreadExecutor(daemon("detector-loader"));
+        detector = new SharedResource<>(this::load, loader);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static synchronized DetectorHolder get(Context context) {
+        if (instance == null) {
+            instance = new DetectorHolder(context);
+        }
+        return instance;
+    }
+
+    /** 앱 시작 시 호출: 백그라운드 로딩/워밍업 시작 */
+    public CompletableFuture<YOLOv5Detector> preload() {
+        return detector.preload();
+    }
+
+    /** 화면에서 탐지기 빌리기 (onDestroy에서 release() 한 번) */
+    public CompletableFuture<YOLOv5Detector> acquire() {
+        return detector.acquire();
+    }
+
+    public void release() {
+        detector.release();
+    }
+
+    public boolean isReady() {
+        return detector.isReady();
+    }
+
+    /** 추론 단계용 단일 스레드 (같은 탐지기를 쓰는 작업이 락을 두고 다투지 않도록 한 줄로 세움) */
+    public Executor getInferenceExecutor() {
+        return inferenceExecutor;
+    }
+
+    /** 디코딩, 그리기 등 추론 외 단계용 */
+    public Executor getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
+
+    /**
+     * 같은 사진 재분석용 결과 캐시 (처음 호출 시 디스크 파일을 여므로 백그라운드 스레드에서 호출)
+     */
+    public synchronized DetectionCache getResultCache() {
+        if (resultCache == null) {
+            resultCache = new DetectionCache(RESULT_CACHE_ENTRIES,
+                    new File(appContext.getCacheDir(), "detections.bin"), RESULT_CACHE_DISK_BYTES);
+        }
+        return resultCache;
+    }
+
+    /** 디코딩/리사이즈/정규화/추론/앵커 디코딩/NMS 단계별 지연 시간과 NMS 전후 후보 수 */
+    public DetectorStats getStats() {
+        return stats;
+    }
+
+    /** 로드된 모델 버전 (파일 이름 + 크기 + 기기 빌드, 결과 캐시 키에 포함) */
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    /** 쓰는 화면이 없으면 탐지기를 닫아 메모리 반환 (다음 acquire()에서 다시 로드) */
+    public void trim() {
+        if (detector.trim()) {
+            Log.d(TAG, "Detector released on trim");
+        }
+    }
+
+    /**
+     * 탐지 결과를 처음 보여줄 때 호출: 앱 시작부터 첫 탐지까지 걸린 시간을 한 번만 로그로 남김
+     */
+    public synchronized void onDetectionShown() {
+        if (firstDetectionLogged) {
+            return;
+        }
+        firstDetectionLogged = true;
+        Log.i(TAG, String.format("Time to first detection: %d ms (model load %d ms, warmup %d ms)",
+                SystemClock.elapsedRealtime() - launchMs, loadMs, warmupMs));
+    }
+
+    private YOLOv5Detector load() throws Exception {
+        long start = SystemClock.elapsedRealtime();
+        modelVersion = DetectorCalibration.modelVersion(appContext, YOLOv5Detector.Options.DEFAULT_MODEL);
+        // 측정된 백엔드가 있으면 사용 (없으면 기본: GPU 지원 시 GPU, 아니면 CPU)
+        YOLOv5Detector loaded = new YOLOv5Detector(appContext,
+                DetectorCalibration.storedOptions(appContext, YOLOv5Detector.Options.DEFAULT_MODEL)
+                        .setStats(stats));
+        long loadedAt = SystemClock.elapsedRealtime();
+        stats.setEnabled(false);
+        loaded.warmUp();
+        long end = SystemClock.elapsedRealtime();
+        // 첫 추론(워밍업)은 델리게이트 초기화 비용이 섞이므로 통계에서 뺌
+        stats.setEnabled(STATS_ENABLED);
+        loadMs = loadedAt - start;
+        warmupMs = end - loadedAt;
+        Log.d(TAG, String.format("Detector ready %d ms after launch (load %d ms, warmup %d ms)",
+                end - launchMs, loadMs, warmupMs));
+
+        // 워밍업이 끝난 뒤에야 백엔드 측정을 시작해 첫 로딩과 CPU를 다투지 않게 한다
+        DetectorCalibration.calibrateInBackground(appContext, YOLOv5Detector.Options.DEFAULT_MODEL);
+        return loaded;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.example.jjikmeok1.detection.InferencePool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * 여러 이미지를 동시에 분석하기 위한 YOLOv5Detector 풀
+ * 탐지기(Interpreter + 전용 입출력 버퍼) N개를 만들고, 이미지마다 Future로 결과를 돌려준다.
+ *
+ * 풀에서는 GPU 델리게이트를 쓰지 않고 CPU(XNNPACK) 경로만 사용한다.
+ * 코어를 인터프리터들이 나눠 쓰도록 인터프리터당 스레드 수 = 코어 수 / 풀 크기 로 맞춘다.
+ */
+public class DetectorPool implements AutoCloseable {
+    private static final String TAG = "DetectorPool";
+
+    // 인터프리터 하나가 쓰는 기본 스레드 수 (풀 크기 자동 계산용)
+    private static final int DEFAULT_THREADS_PER_DETECTOR = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 32;
+
+    private final InferencePool<YOLOv5Detector> pool;
+
+    /**
+     * 코어 수에 맞춘 기본 크기의 풀 생성
+     */
+    public static DetectorPool create(Context context) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int size = InferencePool.recommendedSize(cores, DEFAULT_THREADS_PER_DETECTOR);
+        return new DetectorPool(context, size, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param poolSize 인터프리터 개수
+     * @param queueCapacity 대기 가능한 최대 이미지 수 (초과 시 submit이 RejectedExecutionException)
+     */
+    public DetectorPool(Context context, int poolSize, int queueCapacity) throws IOException {
+        Context appContext = context.getApplicationContext();
+        int cores = Runtime.getRuntime().availableProcessors();
+        YOLOv5Detector.Options options = new YOLOv5Detector.Options()
+                .setUseGpu(false)
+                .setNumThreads(InferencePool.threadsPerEngine(cores, poolSize));
+        try {
+            pool = new InferencePool<>(poolSize, queueCapacity, "detector",
+                    index -> new YOLOv5Detector(appContext, options));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("탐지기 풀 생성 실패", e);
+        }
+        Log.d(TAG, "Pool ready: " + poolSize + " detectors x " + options.getNumThreads() + " threads");
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * 이미지 한 장 분석 요청
+     */
+    public Future<List<YOLOv5Detector.Recognition>> submit(Bitmap bitmap) {
+        return pool.submit(detector -> detector.detectObjects(bitmap));
+    }
+
+    /**
+     * 이미지의 일부 영역 분석 요청 (타일 추론용, 결과 좌표는 원본 이미지 기준)
+     */
+    public Future<List<YOLOv5Detector.Recognition>> submitRegion(Bitmap bitmap, int left, int top,
+                                                                 int width, int height) {
+        return pool.submit(detector -> detector.detectRegion(bitmap, left, top, width, height));
+    }
+
+    /**
+     * 여러 이미지 분석 요청 (입력 순서대로 Future 반환)
+     */
+    public List<Future<List<YOLOv5Detector.Recognition>>> submitAll(List<Bitmap> bitmaps) {
+        List<Future<List<YOLOv5Detector.Recognition>>> futures = new ArrayList<>(bitmaps.size());
+        for (Bitmap bitmap : bitmaps) {
+            futures.add(submit(bitmap));
+        }
+        return futures;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.jjikmeok1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 재료별 나눠 검색하기: 검색어 구성과 결과 병합
+ *
+ * 인식된 재료를 전부 이어 붙인 검색어는 재료가 많을수록 결과가 비기 쉬우므로,
+ * 재료 하나씩과 앞쪽 재료 두 개씩을 따로 검색하고 레시피 id로 합친다.
+ * 순위는 레시피가 나온 검색어 수, 그 검색어들이 덮는 재료 수, 검색 결과 안에서 가장 앞선 위치 순.
+ *
+ * 시간 제한이 지나면 그때까지 온 결과만으로 끝낸다 (아무것도 오지 않았으면 빈 결과).
+ * 여러 작업 스레드에서 호출된다.
+ */
+final class FanOutSearch {
+
+    private final int queries;
+    private final Map<String, Ranked> merged = new LinkedHashMap<>();
+    private int succeeded;
+    private int failed;
+    private String firstError;
+    private boolean expired;
+    private boolean finished;
+
+    /** 병합 중인 레시피 하나 */
+    private static final class Ranked {
+        final RecipeCrawler.Recipe recipe;
+        final int order;
+        final Set<String> covered = new HashSet<>();
+        int hits;
+        int bestPosition = Integer.MAX_VALUE;
+
+        Ranked(RecipeCrawler.Recipe recipe, int order) {
+            this.recipe = recipe;
+            this.order = order;
+        }
+    }
+
+    /**
+     * @param queries 보낸 검색어 수
+     */
+    FanOutSearch(int queries) {
+        this.queries = queries;
+    }
+
+    /**
+     * 검색어 구성: 앞쪽 재료 maxSingles개를 하나씩, 앞쪽 재료끼리 짝지은 maxPairs개
+     * (재료 목록은 인식 신뢰도 순이라고 보고, 짝은 두 재료 순번의 합이 작은 것부터)
+     * @return 검색어마다 재료 목록, 공백/중복 재료는 뺌
+     */
+    static List<List<String>> plan(List<String> ingredients, int maxSingles, int maxPairs) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String ingredient : ingredients) {
+            if (ingredient != null && !ingredient.trim().isEmpty()) {
+                unique.add(ingredient.trim());
+            }
+        }
+        List<String> items = new ArrayList<>(unique);
+        List<List<String>> plan = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxSingles, items.size()); i++) {
+            plan.add(Collections.singletonList(items.get(i)));
+        }
+        for (int sum = 1; sum < 2 * items.size() - 2 && countPairs(plan) < maxPairs; sum++) {
+            for (int i = 0; i < items.size() && countPairs(plan) < maxPairs; i++) {
+                int j = sum - i;
+                if (j > i && j < items.size()) {
+                    List<String> pair = new ArrayList<>(2);
+                    pair.add(items.get(i));
+                    pair.add(items.get(j));
+                    plan.add(pair);
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static int countPairs(List<List<String>> plan) {
+        int pairs = 0;
+        for (List<String> query : plan) {
+            if (query.size() == 2) {
+                pairs++;
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * 검색어 하나의 결과 도착
+     * @return 지금 결과를 낼 차례면 true (한 번만 true)
+     */
+    synchronized boolean onResult(List<String> query, List<RecipeCrawler.Recipe> recipes) {
+        if (finished) {
+            return false;
+        }
+        succeeded++;
+        for (int position = 0; position < recipes.size(); position++) {
+            RecipeCrawler.Recipe recipe = recipes.get(position);
+            String key = key(recipe);
+            Ranked ranked = merged.get(key);
+            if (ranked == null) {
+                ranked = new Ranked(recipe, merged.size());
+                merged.put(key, ranked);
+            }
+            ranked.hits++;
+            ranked.covered.addAll(query);
+            ranked.bestPosition = Math.min(ranked.bestPosition, position);
+        }
+        return checkFinished();
+    }
+
+    private static String key(RecipeCrawler.Recipe recipe) {
+        return recipe.getId() != null && !recipe.getId().isEmpty() ? recipe.getId() : recipe.getUrl();
+    }
+
+    /** 검색어 하나 실패 (@return onResult와 같음) */
+    synchronized boolean onError(String errorMessage) {
+        if (finished) {
+            return false;
+        }
+        failed++;
+        if (firstError == null) {
+            firstError = errorMessage;
+        }
+        return checkFinished();
+    }
+
+    /** 시간 제한 도달 (@return onResult와 같음) */
+    synchronized boolean onBudgetExpired() {
+        if (finished) {
+            return false;
+        }
+        expired = true;
+        return checkFinished();
+    }
+
+    private boolean checkFinished() {
+        finished = succeeded + failed >= queries || expired;
+        return finished;
+    }
+
+    /** 모든 검색어가 실패했으면 첫 오류 메시지, 아니면 null (시간 제한으로 끝났으면 빈 결과일 수 있음) */
+    synchronized String getError() {
+        return failed >= queries ? firstError : null;
+    }
+
+    /** 결과가 도착한 검색어 수 (시간 제한으로 끝났으면 queries보다 작음) */
+    synchronized int getSucceeded() {
+        return succeeded;
+    }
+
+    synchronized int getFailed() {
+        return failed;
+    }
+
+    /** 레시피가 나온 검색어들의 재료 (모르는 레시피면 빈 목록) */
+    synchronized Set<String> getCovered(RecipeCrawler.Recipe recipe) {
+        Ranked ranked = merged.get(key(recipe));
+        return ranked != null ? new HashSet<>(ranked.covered) : Collections.emptySet();
+    }
+
+    /** 순위대로 정렬한 병합 결과 */
+    synchronized List<RecipeCrawler.Recipe> ranked() {
+        List<Ranked> all = new ArrayList<>(merged.values());
+        all.sort((a, b) -> {
+            if (a.hits != b.hits) {
+                return Integer.compare(b.hits, a.hits);
+            }
+            if (a.covered.size() != b.covered.size()) {
+                return Integer.compare(b.covered.size(), a.covered.size());
+            }
+            if (a.bestPosition != b.bestPosition) {
+                return Integer.compare(a.bestPosition, b.bestPosition);
+            }
+            return Integer.compare(a.order, b.order);
+        });
+        List<RecipeCrawler.Recipe> recipes = new ArrayList<>(all.size());
+        for (Ranked ranked : all) {
+            recipes.add(ranked.recipe);
+        }
+        return recipes;
+    }
+}
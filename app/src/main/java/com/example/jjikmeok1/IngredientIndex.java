@@ -0,0 +1,709 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+
+import com.example.jjikmeok1.detection.CoverageRanker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 재료 → 레시피 역색인 (기기 저장)
+ *
+ * 받아 온 RecipeDetail의 재료 목록을 정규화한 재료어마다 레시피 id 목록(posting)에 넣어 두고,
+ * 네트워크 없이 재료 AND/OR 검색에 답한다. posting은 정렬된 id의 차이값을 가변 길이 바이트(varint)로 적어
+ * id 하나가 보통 1~3바이트이고, 검색할 때만 int 배열로 풀어 작은 목록부터 교집합/합집합을 구한다.
+ * 레시피 표시에 필요한 제목/이미지/주소와 검색 목록에서 본 조회수도 함께 저장한다.
+ * 순위는 CoverageRanker(재료 비트셋)로 매기며, 색인이 바뀌기 전까지 만든 비트셋을 다시 쓴다.
+ *
+ * 변경은 메모리에 바로 반영하고 파일에는 SAVE_DELAY_MS 뒤에 모아서 쓴다 (임시 파일 후 교체).
+ * 파일 형식: "JII1" | version | 레시피 수 | (id, 제목, 이미지, 주소, 조회수, 재료어들, 줄별 재료어들)*
+ *           | 재료어 수 | (재료어, 개수, 바이트)*   (version 1은 조회수/줄별 재료어 없음)
+ */
+public final class IngredientIndex {
+
+    private static final int MAGIC = 0x4A494931; // "JII1"
+    private static final int VERSION = 2;
+    private static final long SAVE_DELAY_MS = 2000;
+    // 순위용 재료 어휘 크기 (자주 쓰이는 재료어부터)
+    private static final int MAX_VOCABULARY = 1024;
+    // 재료를 모르는 레시피의 부족 재료 수 추정 (색인된 후보가 없을 때)
+    private static final int UNKNOWN_MISSING = 5;
+
+    private static IngredientIndex shared;
+
+    // 수량/단위와 함께 떼어 낼 말 (10000recipe 재료 줄 끝의 "구매" 버튼 포함)
+    private static final Set<String> FILLER_WORDS = new HashSet<>(Arrays.asList(
+            "약간", "적당량", "적당히", "조금", "소량", "한줌", "한꼬집", "취향껏", "선택", "구매"));
+    private static final Pattern BRACKETS = Pattern.compile("\\([^)]*\\)|\\[[^]]*]");
+    private static final Pattern AMOUNT = Pattern.compile("[0-9½⅓⅔¼¾].*$");
+
+    /** 색인된 레시피 (목록 표시용) */
+    private static final class Doc {
+        final int id;
+        final String title;
+        final String imageUrl;
+        final String url;
+        final String[] terms;
+        // 재료 한 줄당 재료어 하나 (순위에서 "다진마늘"/"마늘"을 두 번 세지 않게 마지막 단어만)
+        final String[] heads;
+        long views;
+
+        Doc(int id, String title, String imageUrl, String url, String[] terms, String[] heads, long views) {
+            this.id = id;
+            this.title = title;
+            this.imageUrl = imageUrl;
+            this.url = url;
+            this.terms = terms;
+            this.heads = heads;
+            this.views = views;
+        }
+    }
+
+    /** 재료어 하나의 레시피 id 목록 (오름차순, 차이값 varint) */
+    static final class Postings {
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private int last = -1;
+
+        int size() {
+            return count;
+        }
+
+        int byteSize() {
+            return length;
+        }
+
+        /** @return 새로 추가했으면 true */
+        boolean add(int id) {
+            if (id > last) {
+                // 새 레시피는 id가 커서 대부분 끝에 붙음
+                length = writeVarint(ensure(5), length, last < 0 ? id : id - last);
+                last = id;
+                count++;
+                return true;
+            }
+            int[] ids = decode();
+            int at = Arrays.binarySearch(ids, id);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            int[] grown = new int[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, at);
+            grown[at] = id;
+            System.arraycopy(ids, at, grown, at + 1, ids.length - at);
+            encode(grown);
+            return true;
+        }
+
+        /** @return 있어서 지웠으면 true */
+        boolean remove(int id) {
+            int[] ids = decode();
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) {
+                return false;
+            }
+            int[] shrunk = new int[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, at);
+            System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+            encode(shrunk);
+            return true;
+        }
+
+        int[] decode() {
+            int[] ids = new int[count];
+            int position = 0;
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value = i == 0 ? delta : value + delta;
+                ids[i] = value;
+            }
+            return ids;
+        }
+
+        private void encode(int[] ids) {
+            length = 0;
+            count = 0;
+            last = -1;
+            for (int id : ids) {
+                add(id);
+            }
+        }
+
+        private byte[] ensure(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+            return data;
+        }
+
+        private static int writeVarint(byte[] out, int position, int value) {
+            while ((value & ~0x7F) != 0) {
+                out[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out[position++] = (byte) value;
+            return position;
+        }
+    }
+
+    private final File file;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    // 전체 레시피 순위용 비트셋 (색인이 바뀌면 다시 만듦)
+    private CoverageRanker ranker;
+    private Map<Integer, Integer> rankerRows;
+    private ScheduledExecutorService saver;
+    private ScheduledFuture<?> pendingSave;
+    private boolean loaded;
+    private long diskErrors;
+
+    IngredientIndex(File file) {
+        this.file = file;
+    }
+
+    public static synchronized IngredientIndex get(Context context) {
+        if (shared == null) {
+            shared = new IngredientIndex(new File(context.getApplicationContext().getFilesDir(), "ingredient_index.bin"));
+        }
+        return shared;
+    }
+
+    /**
+     * 재료 한 줄 → 색인 재료어 ("다진 마늘 1큰술" → [다진마늘, 마늘])
+     * 괄호, 수량 뒤쪽, 수량 대신 쓰는 말을 떼고 공백을 없앤 전체와, 여러 단어면 마지막 단어(꾸밈말 뒤 재료명)
+     */
+    static List<String> terms(String ingredient) {
+        if (ingredient == null) {
+            return Collections.emptyList();
+        }
+        String text = BRACKETS.matcher(ingredient).replaceAll(" ");
+        text = AMOUNT.matcher(text).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : text.trim().split("\\s+")) {
+            if (!word.isEmpty() && !FILLER_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        terms.add(String.join("", words));
+        terms.add(words.get(words.size() - 1));
+        return new ArrayList<>(terms);
+    }
+
+    /** 검색어 하나 → 재료어 (공백만 없앰, 수량은 안 붙는다고 봄) */
+    static String queryTerm(String ingredient) {
+        List<String> terms = terms(ingredient);
+        return terms.isEmpty() ? "" : terms.get(0);
+    }
+
+    /**
+     * 받아 온 상세 정보를 색인 (같은 레시피는 재료가 바뀐 만큼만 갱신)
+     * @return 색인이 바뀌었으면 true
+     */
+    public synchronized boolean add(RecipeCrawler.RecipeDetail detail) {
+        ensureLoaded();
+        int id = parseId(detail.getId());
+        if (id < 0 || detail.getIngredients() == null) {
+            return false;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        Set<String> heads = new LinkedHashSet<>();
+        for (String ingredient : detail.getIngredients()) {
+            List<String> lineTerms = terms(ingredient);
+            if (!lineTerms.isEmpty()) {
+                terms.addAll(lineTerms);
+                heads.add(lineTerms.get(lineTerms.size() - 1));
+            }
+        }
+        Doc previous = docs.get(id);
+        Doc doc = new Doc(id, detail.getTitle(), detail.getMainImageUrl(), detail.getUrl(),
+                terms.toArray(new String[0]), heads.toArray(new String[0]), previous != null ? previous.views : 0);
+        if (previous != null && Arrays.equals(previous.terms, doc.terms) && Arrays.equals(previous.heads, doc.heads)
+                && equals(previous.title, doc.title) && equals(previous.imageUrl, doc.imageUrl)) {
+            return false;
+        }
+        if (previous != null) {
+            for (String term : previous.terms) {
+                if (!terms.contains(term)) {
+                    removePosting(term, id);
+                }
+            }
+        }
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new Postings()).add(id);
+        }
+        docs.put(id, doc);
+        ranker = null;
+        scheduleSave();
+        return true;
+    }
+
+    /**
+     * 검색 목록에서 본 조회수를 색인된 레시피에 반영
+     */
+    public synchronized void notePopularity(List<RecipeCrawler.Recipe> recipes) {
+        ensureLoaded();
+        boolean changed = false;
+        for (RecipeCrawler.Recipe recipe : recipes) {
+            Doc doc = docs.get(parseId(recipe.getId()));
+            long views = CoverageRanker.parseViewCount(recipe.getViewCount());
+            if (doc != null && views > 0 && views != doc.views) {
+                doc.views = views;
+                if (ranker != null) {
+                    ranker.setViews(rankerRows.get(doc.id), views);
+                }
+                changed = true;
+            }
+        }
+        if (changed) {
+            scheduleSave();
+        }
+    }
+
+    public synchronized boolean remove(String recipeId) {
+        ensureLoaded();
+        int id = parseId(recipeId);
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        for (String term : doc.terms) {
+            removePosting(term, id);
+        }
+        ranker = null;
+        scheduleSave();
+        return true;
+    }
+
+    /** 재료를 모두 쓰는 레시피 id (오름차순) */
+    public synchronized int[] and(Collection<String> ingredients) {
+        ensureLoaded();
+        List<int[]> lists = new ArrayList<>();
+        for (String term : queryTerms(ingredients)) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list.decode());
+        }
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        // 짧은 목록부터 교집합 (결과는 가장 짧은 목록보다 길어질 수 없음)
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /** 재료 중 하나라도 쓰는 레시피 id (오름차순) */
+    public synchronized int[] or(Collection<String> ingredients) {
+        ensureLoaded();
+        int[] result = new int[0];
+        for (String term : queryTerms(ingredients)) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                result = union(result, list.decode());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 색인에서 재료 검색: 겹치는 재료가 많고 부족한 재료가 적고 조회수가 높은 순 (CoverageRanker)
+     * @param limit 최대 결과 수
+     */
+    public synchronized List<RecipeCrawler.Recipe> search(Collection<String> ingredients, int limit) {
+        ensureLoaded();
+        CoverageRanker ranker = ranker();
+        Set<String> terms = queryTerms(ingredients);
+        // 재료가 하나라도 겹치는 레시피만 후보로 (posting 합집합)
+        int[] candidates = or(terms);
+        int[] rows = new int[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            rows[i] = rankerRows.get(candidates[i]);
+        }
+        List<RecipeCrawler.Recipe> recipes = new ArrayList<>();
+        for (CoverageRanker.Scored scored : ranker.rank(ranker.mask(terms), rows, limit)) {
+            recipes.add(toRecipe(docs.get(Integer.parseInt(scored.id))));
+        }
+        return recipes;
+    }
+
+    /**
+     * 네트워크 검색 결과를 인식된 재료 기준으로 다시 정렬
+     * 색인된 레시피는 실제 재료로, 아닌 레시피는 fallbackTerms(예: 레시피가 나온 검색어의 재료)로 겹침을 세고
+     * 부족 재료 수는 색인된 후보들의 평균으로 어림한다. 겹치는 재료가 없는 레시피는 원래 순서대로 뒤에.
+     */
+    public synchronized List<RecipeCrawler.Recipe> rank(List<RecipeCrawler.Recipe> candidates,
+                                                        Collection<String> ingredients,
+                                                        Function<RecipeCrawler.Recipe, Collection<String>> fallbackTerms) {
+        ensureLoaded();
+        Set<String> query = queryTerms(ingredients);
+        List<String> vocabulary = new ArrayList<>(query);
+        List<Collection<String>> rowTerms = new ArrayList<>(candidates.size());
+        List<Doc> known = new ArrayList<>(candidates.size());
+        for (RecipeCrawler.Recipe recipe : candidates) {
+            Doc doc = docs.get(parseId(recipe.getId()));
+            known.add(doc);
+            Collection<String> terms;
+            if (doc != null) {
+                terms = Arrays.asList(doc.heads);
+            } else {
+                terms = queryTerms(fallbackTerms.apply(recipe));
+            }
+            vocabulary.addAll(terms);
+            rowTerms.add(terms);
+        }
+        CoverageRanker ranker = new CoverageRanker(vocabulary);
+        long[] mask = ranker.mask(query);
+
+        // 색인된 후보의 평균 부족 재료 수 → 재료를 모르는 레시피에 적용
+        int knownMissing = 0;
+        int knownCount = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (known.get(i) != null) {
+                knownMissing += missing(rowTerms.get(i), query);
+                knownCount++;
+            }
+        }
+        int unknownMissing = knownCount > 0 ? Math.round((float) knownMissing / knownCount) : UNKNOWN_MISSING;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            RecipeCrawler.Recipe recipe = candidates.get(i);
+            Doc doc = known.get(i);
+            long views = Math.max(CoverageRanker.parseViewCount(recipe.getViewCount()), doc != null ? doc.views : 0);
+            ranker.add(String.valueOf(i), rowTerms.get(i), views, doc != null ? 0 : unknownMissing);
+        }
+        List<RecipeCrawler.Recipe> ranked = new ArrayList<>(candidates.size());
+        boolean[] placed = new boolean[candidates.size()];
+        for (CoverageRanker.Scored scored : ranker.rank(mask, null, candidates.size())) {
+            ranked.add(candidates.get(scored.row));
+            placed[scored.row] = true;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!placed[i]) {
+                ranked.add(candidates.get(i));
+            }
+        }
+        return ranked;
+    }
+
+    private static int missing(Collection<String> terms, Set<String> query) {
+        int missing = 0;
+        for (String term : terms) {
+            if (!query.contains(term) && !CoverageRanker.PANTRY.contains(term)) {
+                missing++;
+            }
+        }
+        return missing;
+    }
+
+    // 자주 쓰이는 재료어부터 어휘로 삼아 전체 레시피 비트셋을 만듦
+    private CoverageRanker ranker() {
+        if (ranker != null) {
+            return ranker;
+        }
+        List<Map.Entry<String, Postings>> byFrequency = new ArrayList<>(postings.entrySet());
+        byFrequency.sort((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()));
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < Math.min(MAX_VOCABULARY, byFrequency.size()); i++) {
+            vocabulary.add(byFrequency.get(i).getKey());
+        }
+        ranker = new CoverageRanker(vocabulary);
+        rankerRows = new HashMap<>();
+        for (Doc doc : docs.values()) {
+            rankerRows.put(doc.id, ranker.add(String.valueOf(doc.id), Arrays.asList(doc.heads), doc.views, 0));
+        }
+        return ranker;
+    }
+
+    public synchronized int getRecipeCount() {
+        ensureLoaded();
+        return docs.size();
+    }
+
+    public synchronized int getTermCount() {
+        ensureLoaded();
+        return postings.size();
+    }
+
+    /** posting 전체 바이트 (압축 후) */
+    public synchronized long getPostingBytes() {
+        ensureLoaded();
+        long total = 0;
+        for (Postings list : postings.values()) {
+            total += list.byteSize();
+        }
+        return total;
+    }
+
+    public synchronized long getPostingCount() {
+        ensureLoaded();
+        long total = 0;
+        for (Postings list : postings.values()) {
+            total += list.size();
+        }
+        return total;
+    }
+
+    public synchronized long getDiskErrors() {
+        return diskErrors;
+    }
+
+    /** 예약된 저장을 지금 수행 */
+    public synchronized void flush() {
+        if (pendingSave != null) {
+            pendingSave.cancel(false);
+            pendingSave = null;
+            save();
+        }
+    }
+
+    private void removePosting(String term, int id) {
+        Postings list = postings.get(term);
+        if (list != null && list.remove(id) && list.size() == 0) {
+            postings.remove(term);
+        }
+    }
+
+    private static Set<String> queryTerms(Collection<String> ingredients) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String ingredient : ingredients) {
+            String term = queryTerm(ingredient);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    static int[] intersect(int[] small, int[] large) {
+        int[] out = new int[small.length];
+        int n = 0;
+        int from = 0;
+        for (int id : small) {
+            int at = Arrays.binarySearch(large, from, large.length, id);
+            if (at >= 0) {
+                out[n++] = id;
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static RecipeCrawler.Recipe toRecipe(Doc doc) {
+        RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+        recipe.setId(String.valueOf(doc.id));
+        recipe.setTitle(doc.title);
+        recipe.setImageUrl(doc.imageUrl);
+        recipe.setUrl(doc.url);
+        return recipe;
+    }
+
+    private static int parseId(String recipeId) {
+        try {
+            return recipeId != null ? Integer.parseInt(recipeId) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private void scheduleSave() {
+        if (pendingSave != null) {
+            return;
+        }
+        if (saver == null) {
+            saver = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ingredient-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingSave = saver.schedule(() -> {
+            synchronized (this) {
+                if (pendingSave != null) {
+                    pendingSave = null;
+                    save();
+                }
+            }
+        }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // 처음 쓸 때 파일에서 읽음 (형식이 다르거나 깨졌으면 빈 색인으로 시작)
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != VERSION) {
+                file.delete();
+                return;
+            }
+            int docCount = in.readInt();
+            for (int i = 0; i < docCount; i++) {
+                int id = in.readInt();
+                String title = RecipeCodec.readString(in);
+                String imageUrl = RecipeCodec.readString(in);
+                String url = RecipeCodec.readString(in);
+                long views = version >= 2 ? in.readLong() : 0;
+                String[] terms = readStrings(in);
+                String[] heads = version >= 2 ? readStrings(in) : terms;
+                docs.put(id, new Doc(id, title, imageUrl, url, terms, heads, views));
+            }
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                Postings list = new Postings();
+                list.count = in.readInt();
+                list.length = in.readInt();
+                list.data = new byte[Math.max(8, list.length)];
+                in.readFully(list.data, 0, list.length);
+                int[] ids = list.decode();
+                list.last = ids.length > 0 ? ids[ids.length - 1] : -1;
+                postings.put(term, list);
+            }
+        } catch (IOException | RuntimeException e) {
+            diskErrors++;
+            docs.clear();
+            postings.clear();
+            file.delete();
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private void save() {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            diskErrors++;
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(docs.size());
+            for (Doc doc : docs.values()) {
+                out.writeInt(doc.id);
+                RecipeCodec.writeString(out, doc.title);
+                RecipeCodec.writeString(out, doc.imageUrl);
+                RecipeCodec.writeString(out, doc.url);
+                out.writeLong(doc.views);
+                writeStrings(out, doc.terms);
+                writeStrings(out, doc.heads);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().count);
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue().data, 0, entry.getValue().length);
+            }
+        } catch (IOException e) {
+            diskErrors++;
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            diskErrors++;
+            temp.delete();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "IngredientIndex{recipes=%d, terms=%d, postings=%d, bytes=%d}",
+                docs.size(), postings.size(), getPostingCount(), getPostingBytes());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.jjikmeok1;
+
+import android.app.Application;
+
+/**
+ * 앱 시작 시 탐지기 로딩을 미리 시작해 첫 화면에서 기다리는 시간을 줄인다
+ */
+public class JjikmeokApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        DetectorHolder.get(this).preload();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            DetectorHolder.get(this).trim();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.jjikmeok1;
+
+import android.Manifest;
+import android.content.pm.PackageManager;
+import android.graphics.SurfaceTexture;
+import android.hardware.camera2.CameraAccessException;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Size;
+import android.view.Surface;
+import android.view.TextureView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+
+import com.example.jjikmeok1.detection.LatestFrameAnalyzer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 실시간 카메라 미리보기 탐지
+ *
+ * 카메라 프레임은 전용 분석 스레드(LatestFrameAnalyzer)에서 최신 프레임만 분석하고,
+ * 분석이 밀리면 오래된 프레임은 버린다. YUV 프레임은 Bitmap을 거치지 않고 바로 입력 버퍼로 변환된다.
+ * 전체 탐지는 몇 프레임에 한 번만 하고 사이 프레임은 추적기로 박스를 옮긴다 (TrackingDetector).
+ */
+public class LiveDetectionActivity extends AppCompatActivity {
+    private static final String TAG = "LiveDetection";
+
+    private TextureView texturePreview;
+    private DetectionOverlayView overlay;
+    private TextView tvStats;
+
+    private CompletableFuture<YOLOv5Detector> detectorFuture;
+    private volatile TrackingDetector trackingDetector;
+    private Camera2FrameSource frameSource;
+    private LatestFrameAnalyzer analyzer;
+    private Surface previewSurface;
+    private long streamStartMs;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_live_detection);
+
+        texturePreview = findViewById(R.id.texture_preview);
+        overlay = findViewById(R.id.overlay);
+        tvStats = findViewById(R.id.tv_stats);
+
+        if (ContextCompat.checkSelfPermission(this, Manifest.permission.CAMERA)
+                != PackageManager.PERMISSION_GRANTED) {
+            Toast.makeText(this, "카메라 권한이 필요합니다", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+
+        // 공유 탐지기 (준비되기 전 프레임은 분석하지 않고 버림)
+        detectorFuture = DetectorHolder.get(this).acquire();
+        try {
+            frameSource = new Camera2FrameSource(this, 0);
+        } catch (CameraAccessException e) {
+            Log.e(TAG, "Failed to initialize live detection", e);
+            Toast.makeText(this, "실시간 인식을 시작할 수 없습니다", Toast.LENGTH_SHORT).show();
+            finish();
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (frameSource == null) {
+            return;
+        }
+        if (texturePreview.isAvailable()) {
+            startStreaming(texturePreview.getSurfaceTexture());
+        } else {
+            texturePreview.setSurfaceTextureListener(new TextureView.SurfaceTextureListener() {
+                @Override
+                public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+                    startStreaming(surface);
+                }
+
+                @Override
+                public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+                }
+
+                @Override
+                public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+                    return true;
+                }
+
+                @Override
+                public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        stopStreaming();
+        super.onPause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (detectorFuture != null) DetectorHolder.get(this).release();
+    }
+
+    private void startStreaming(SurfaceTexture texture) {
+        if (analyzer != null || isFinishing()) {
+            return;
+        }
+        Size frameSize = frameSource.getFrameSize();
+        texture.setDefaultBufferSize(frameSize.getWidth(), frameSize.getHeight());
+        previewSurface = new Surface(texture);
+        frameSource.setPreviewSurface(previewSurface);
+
+        streamStartMs = SystemClock.elapsedRealtime();
+        trackingDetector = null;
+        analyzer = new LatestFrameAnalyzer("live-analysis", frame -> {
+            if (trackingDetector == null) {
+                YOLOv5Detector detector = detectorFuture.getNow(null);
+                if (detector == null) {
+                    return false;
+                }
+                trackingDetector = new TrackingDetector(detector);
+            }
+            List<YOLOv5Detector.Recognition> results = trackingDetector.process(frame);
+            int width = frame.getDisplayWidth();
+            int height = frame.getDisplayHeight();
+            runOnUiThread(() -> {
+                overlay.setResults(results, width, height);
+                updateStats();
+                DetectorHolder.get(this).onDetectionShown();
+            });
+            return true;
+        });
+        frameSource.start(analyzer);
+    }
+
+    private void stopStreaming() {
+        if (analyzer == null) {
+            return;
+        }
+        // 분석기를 먼저 닫아 진행 중인 분석을 끝내고 대기 프레임을 반환한 뒤 카메라를 닫는다
+        analyzer.close();
+        frameSource.stop();
+        Log.d(TAG, "Stream stopped: received=" + analyzer.getReceived()
+                + ", analyzed=" + analyzer.getAnalyzed() + ", dropped=" + analyzer.getDropped());
+        analyzer = null;
+        if (previewSurface != null) {
+            previewSurface.release();
+            previewSurface = null;
+        }
+    }
+
+    private void updateStats() {
+        TrackingDetector trackingDetector = this.trackingDetector;
+        if (analyzer == null || trackingDetector == null) {
+            return;
+        }
+        float seconds = Math.max(1, SystemClock.elapsedRealtime() - streamStartMs) / 1000f;
+        tvStats.setText(String.format("%.1f fps · 버린 프레임 %d / %d · 탐지 생략 %.0f%%",
+                analyzer.getAnalyzed() / seconds, analyzer.getDropped(), analyzer.getReceived(),
+                trackingDetector.getSkippedFraction() * 100));
+    }
+}
@@ -21,15 +21,15 @@ import androidx.core.view.WindowInsetsCompat;
 
 import com.google.android.material.button.MaterialButton;
 
-import java.io.IOException;
-
 public class MainActivity extends AppCompatActivity {
 
     private static final int CAMERA_PERMISSION_CODE = 100;
     private static final int STORAGE_PERMISSION_CODE = 101;
+    private static final int LIVE_CAMERA_PERMISSION_CODE = 102;
 
     private MaterialButton btnStartCamera;
     private MaterialButton btnUploadPhoto;
+    private MaterialButton btnLiveDetection;
 
     // ActivityResultLauncher for Camera
     private ActivityResultLauncher<Intent> cameraLauncher;
@@ -45,6 +45,7 @@ public class MainActivity extends AppCompatActivity {
         // 버튼 초기화
         btnStartCamera = findViewById(R.id.btn_start_camera);
         btnUploadPhoto = findViewById(R.id.btn_upload_photo);
+        btnLiveDetection = findViewById(R.id.btn_live_detection);
 
         // ActivityResultLauncher 초기화
         setupActivityResultLaunchers();
@@ -73,6 +74,17 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
+        // 실시간 인식 버튼 클릭 이벤트
+        btnLiveDetection.setOnClickListener(v -> {
+            if (checkCameraPermission()) {
+                openLiveDetection();
+            } else {
+                ActivityCompat.requestPermissions(this,
+                        new String[]{Manifest.permission.CAMERA},
+                        LIVE_CAMERA_PERMISSION_CODE);
+            }
+        });
+
         // EdgeToEdge Insets 설정
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
             Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
@@ -104,17 +116,9 @@ public class MainActivity extends AppCompatActivity {
                     if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                         Uri imageUri = result.getData().getData();
 
-                        try {
-                            Bitmap bitmap = MediaStore.Images.Media.getBitmap(
-                                    getContentResolver(), imageUri
-                            );
-
-                            // image_analyze 액티비티로 이동하면서 이미지 전달
-                            navigateToImageAnalyze(bitmap, imageUri);
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                            Toast.makeText(this, "이미지를 불러올 수 없습니다", Toast.LENGTH_SHORT).show();
-                        }
+                        // image_analyze 액티비티로 이동하면서 이미지 주소만 전달
+                        // (디코딩은 image_analyze가 필요한 크기로만 백그라운드에서 수행)
+                        navigateToImageAnalyze(null, imageUri);
                     }
                 }
         );
@@ -163,6 +167,11 @@ public class MainActivity extends AppCompatActivity {
         cameraLauncher.launch(cameraIntent);
     }
 
+    // 실시간 인식 화면 열기
+    private void openLiveDetection() {
+        startActivity(new Intent(MainActivity.this, LiveDetectionActivity.class));
+    }
+
     // 갤러리 열기
     private void openGallery() {
         Intent galleryIntent = new Intent(Intent.ACTION_PICK,
@@ -197,6 +206,12 @@ public class MainActivity extends AppCompatActivity {
             } else {
                 Toast.makeText(this, "카메라 권한이 필요합니다", Toast.LENGTH_SHORT).show();
             }
+        } else if (requestCode == LIVE_CAMERA_PERMISSION_CODE) {
+            if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
+                openLiveDetection();
+            } else {
+                Toast.makeText(this, "카메라 권한이 필요합니다", Toast.LENGTH_SHORT).show();
+            }
         } else if (requestCode == STORAGE_PERMISSION_CODE) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
                 openGallery();
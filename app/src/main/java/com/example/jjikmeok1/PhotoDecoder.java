@@ -0,0 +1,101 @@
+package com.example.jjikmeok1;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+import android.util.Log;
+import android.util.Size;
+
+import com.example.jjikmeok1.detection.ContentHash;
+import com.example.jjikmeok1.detection.DecodeSizing;
+
+import java.io.IOException;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 갤러리 사진을 필요한 크기로만 디코딩
+ *
+ * MediaStore.Images.Media.getBitmap은 원본(12~50MP)을 통째로 ARGB_8888로 풀어 수백 MB까지 쓰므로,
+ * ImageDecoder에 목표 크기를 넘겨 처음부터 추론용(긴 변 640, 타일 모드면 타일 크기 그대로 덮는 크기)과
+ * 화면용(ImageView를 덮는 크기) 두 장으로 디코딩한다. 두 크기가 비슷하면 한 번만 디코딩해 같이 쓴다.
+ */
+public final class PhotoDecoder {
+    private static final String TAG = "PhotoDecoder";
+
+    /** 디코딩 결과 (추론용과 화면용이 같은 비트맵일 수 있음) */
+    public static final class Decoded {
+        private final Bitmap inference;
+        private final Bitmap display;
+
+        Decoded(Bitmap inference, Bitmap display) {
+            this.inference = inference;
+            this.display = display;
+        }
+
+        public Bitmap getInference() { return inference; }
+        public Bitmap getDisplay() { return display; }
+
+        /** 화면용 좌표 / 추론용 좌표 */
+        public float getDisplayScale() {
+            return (float) display.getWidth() / inference.getWidth();
+        }
+    }
+
+    private PhotoDecoder() {
+    }
+
+    /**
+     * @param inferenceLongSide 원본 (가로, 세로) → 추론용 긴 변
+     * @param viewWidth 화면용 목표 (centerCrop ImageView 크기)
+     */
+    public static Decoded decode(ContentResolver resolver, Uri uri, IntBinaryOperator inferenceLongSide,
+                                 int viewWidth, int viewHeight) throws IOException {
+        ImageDecoder.Source source = ImageDecoder.createSource(resolver, uri);
+        DecodeSizing.Target[] targets = new DecodeSizing.Target[2];
+        long start = System.nanoTime();
+
+        Bitmap inference = ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+            Size size = info.getSize();
+            int width = size.getWidth();
+            int height = size.getHeight();
+            targets[0] = DecodeSizing.fitLongSide(width, height, inferenceLongSide.applyAsInt(width, height));
+            targets[1] = DecodeSizing.coverView(width, height, viewWidth, viewHeight);
+            // 두 목표가 비슷하면 큰 쪽으로 한 번만 디코딩
+            DecodeSizing.Target target = DecodeSizing.canShare(targets[0], targets[1])
+                    && targets[1].getBytes() > targets[0].getBytes() ? targets[1] : targets[0];
+            decoder.setTargetSize(target.getWidth(), target.getHeight());
+            // 전처리에서 소프트웨어 Canvas로 그리므로 하드웨어 비트맵 불가
+            decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+        });
+
+        Bitmap display = inference;
+        if (!DecodeSizing.canShare(targets[0], targets[1])) {
+            display = ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+                decoder.setTargetSize(targets[1].getWidth(), targets[1].getHeight());
+                decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+            });
+        }
+
+        long bytes = inference.getByteCount() + (display != inference ? display.getByteCount() : 0);
+        Log.d(TAG, String.format("Decoded inference %dx%d, display %dx%d (%.1f MB) in %.1f ms",
+                inference.getWidth(), inference.getHeight(), display.getWidth(), display.getHeight(),
+                bytes / 1e6, (System.nanoTime() - start) / 1e6));
+        return new Decoded(inference, display);
+    }
+
+    /**
+     * 디코딩된 픽셀 해시 (결과 캐시 키용). 전체 픽셀 배열 대신 한 행씩 읽음
+     */
+    public static long contentHash(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int[] row = new int[width];
+        ContentHash hash = new ContentHash().update(width).update(height);
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(row, 0, width, 0, y, width, 1);
+            hash.update(row, 0, width);
+        }
+        return hash.finish();
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+
+import com.example.jjikmeok1.detection.ContentHash;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색/상세 페이지 디스크 캐시 (URL 하나당 파일 하나)
+ *
+ * HTML이 아니라 파싱이 끝난 결과(RecipeCodec)를 저장하므로 캐시에서 꺼낼 때 네트워크와 Jsoup 파싱을 모두 건너뛴다.
+ * 항목마다 신선 기간(ttl)과 그 뒤 낡은 결과를 먼저 보여 줄 수 있는 기간(stale)을 두고,
+ * 그 기간도 지난 항목은 ETag / Last-Modified만 조건부 요청(304 확인)에 쓴다.
+ * 전체 크기가 maxBytes를 넘으면 오래 안 쓴 파일부터 지운다.
+ *
+ * 파일 형식: "JRC1" | version | url | storedAt | ttl | stale | etag | lastModified | networkBytes | payload
+ */
+public final class RecipeCache {
+
+    private static final int MAGIC = 0x4A524331; // "JRC1"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".rc";
+
+    // 앱 공용 인스턴스: cacheDir/recipes, 4MB
+    private static final long MAX_BYTES = 4L << 20;
+
+    private static RecipeCache shared;
+
+    /** 조회 시점 기준 항목 상태 */
+    public enum State {
+        /** ttl 이내: 그대로 사용 */
+        FRESH,
+        /** ttl은 지났지만 stale 기간 이내: 먼저 보여 주고 뒤에서 다시 확인 */
+        STALE,
+        /** 둘 다 지남: 조건부 요청용 검증값만 사용 */
+        EXPIRED
+    }
+
+    /** 캐시 항목 */
+    public static final class Entry {
+        final String url;
+        final long storedAt;
+        final long ttlMillis;
+        final long staleMillis;
+        final String etag;
+        final String lastModified;
+        final int networkBytes;
+        final byte[] payload;
+        private State state = State.EXPIRED;
+
+        Entry(String url, long storedAt, long ttlMillis, long staleMillis, String etag, String lastModified,
+              int networkBytes, byte[] payload) {
+            this.url = url;
+            this.storedAt = storedAt;
+            this.ttlMillis = ttlMillis;
+            this.staleMillis = staleMillis;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.networkBytes = networkBytes;
+            this.payload = payload;
+        }
+
+        public State getState() { return state; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public byte[] getPayload() { return payload; }
+    }
+
+    private final File dir;
+    private final long maxBytes;
+    private final LongSupplier clock;
+    private final Set<String> revalidating = new HashSet<>();
+
+    private long lookups;
+    private long freshHits;
+    private long staleHits;
+    private long notModified;
+    private long bytesSaved;
+    private long diskErrors;
+
+    /**
+     * @param clock 현재 시각 (ms)
+     */
+    RecipeCache(File dir, long maxBytes, LongSupplier clock) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    public static synchronized RecipeCache get(Context context) {
+        if (shared == null) {
+            shared = new RecipeCache(new File(context.getApplicationContext().getCacheDir(), "recipes"),
+                    MAX_BYTES, System::currentTimeMillis);
+        }
+        return shared;
+    }
+
+    /**
+     * 화면 요청용 조회 (조회 수 집계, 적중은 결과를 풀어 쓴 뒤 hit으로)
+     * @return 항목(상태 포함), 없거나 읽을 수 없으면 null
+     */
+    public synchronized Entry lookup(String url) {
+        lookups++;
+        return peek(url);
+    }
+
+    /**
+     * lookup으로 받은 신선/낡은 항목을 실제로 사용함 (적중률/절약 바이트 집계)
+     * 결과를 풀지 못해 다시 받는 손상 항목은 적중이 아니므로 부르지 않는다.
+     */
+    public synchronized void hit(Entry entry) {
+        if (entry.state == State.EXPIRED) {
+            return;
+        }
+        if (entry.state == State.FRESH) {
+            freshHits++;
+        } else {
+            staleHits++;
+        }
+        bytesSaved += entry.networkBytes;
+        fileOf(entry.url).setLastModified(clock.getAsLong()); // 최근 사용 순서
+    }
+
+    /** 집계 없이 조회 (백그라운드 재검증용) */
+    public synchronized Entry peek(String url) {
+        File file = fileOf(url);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                file.delete();
+                return null;
+            }
+            String storedUrl = in.readUTF();
+            if (!storedUrl.equals(url)) {
+                return null; // 해시 충돌
+            }
+            long storedAt = in.readLong();
+            long ttl = in.readLong();
+            long stale = in.readLong();
+            String etag = RecipeCodec.readString(in);
+            String lastModified = RecipeCodec.readString(in);
+            int networkBytes = in.readInt();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            Entry entry = new Entry(storedUrl, storedAt, ttl, stale, etag, lastModified, networkBytes, payload);
+            long age = clock.getAsLong() - storedAt;
+            entry.state = age < ttl ? State.FRESH : age < ttl + stale ? State.STALE : State.EXPIRED;
+            return entry;
+        } catch (IOException e) {
+            diskErrors++;
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * 네트워크에서 새로 받은 결과 저장
+     * @param networkBytes 받은 HTML 크기 (캐시로 대신하면 아낀 바이트로 집계)
+     */
+    public synchronized void put(String url, long ttlMillis, long staleMillis, String etag, String lastModified,
+                                 int networkBytes, byte[] payload) {
+        write(new Entry(url, clock.getAsLong(), ttlMillis, staleMillis, etag, lastModified, networkBytes, payload));
+        trim();
+    }
+
+    /**
+     * 조건부 요청이 304로 끝났을 때: 저장 시각만 지금으로 갱신
+     * @param counted 화면 요청이면 true (적중으로 집계)
+     */
+    public synchronized void markNotModified(Entry entry, boolean counted) {
+        if (counted) {
+            notModified++;
+            bytesSaved += entry.networkBytes;
+        }
+        write(new Entry(entry.url, clock.getAsLong(), entry.ttlMillis, entry.staleMillis,
+                entry.etag, entry.lastModified, entry.networkBytes, entry.payload));
+    }
+
+    public synchronized void remove(String url) {
+        fileOf(url).delete();
+    }
+
+    public synchronized void clear() {
+        for (File file : listFiles()) {
+            file.delete();
+        }
+    }
+
+    /** 같은 URL 재검증이 이미 진행 중이면 false */
+    public synchronized boolean beginRevalidation(String url) {
+        return revalidating.add(url);
+    }
+
+    public synchronized void endRevalidation(String url) {
+        revalidating.remove(url);
+    }
+
+    public synchronized long getLookups() { return lookups; }
+    public synchronized long getFreshHits() { return freshHits; }
+    public synchronized long getStaleHits() { return staleHits; }
+    public synchronized long getNotModified() { return notModified; }
+    public synchronized long getBytesSaved() { return bytesSaved; }
+    public synchronized long getDiskErrors() { return diskErrors; }
+
+    /** 화면 요청 중 HTML을 다시 받지 않은 비율 (신선/낡은 적중 + 304) */
+    public synchronized double getHitRatio() {
+        return lookups == 0 ? 0 : (double) (freshHits + staleHits + notModified) / lookups;
+    }
+
+    public synchronized long getSizeBytes() {
+        long total = 0;
+        for (File file : listFiles()) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private void write(Entry entry) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            diskErrors++;
+            return;
+        }
+        File file = fileOf(entry.url);
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(entry.url);
+            out.writeLong(entry.storedAt);
+            out.writeLong(entry.ttlMillis);
+            out.writeLong(entry.staleMillis);
+            RecipeCodec.writeString(out, entry.etag);
+            RecipeCodec.writeString(out, entry.lastModified);
+            out.writeInt(entry.networkBytes);
+            out.writeInt(entry.payload.length);
+            out.write(entry.payload);
+        } catch (IOException e) {
+            diskErrors++;
+            temp.delete();
+            return;
+        }
+        // 쓰다가 죽어도 이전 파일이 남도록 임시 파일에 쓰고 교체
+        if (!temp.renameTo(file)) {
+            diskErrors++;
+            temp.delete();
+            return;
+        }
+        file.setLastModified(entry.storedAt);
+    }
+
+    // 오래 안 쓴 파일부터 지워 maxBytes 이하로
+    private void trim() {
+        File[] files = listFiles();
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= file.length();
+            file.delete();
+        }
+    }
+
+    private File[] listFiles() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        return files != null ? files : new File[0];
+    }
+
+    private File fileOf(String url) {
+        return new File(dir, String.format(Locale.US, "%016x", new ContentHash().update(url).finish()) + SUFFIX);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "RecipeCache{lookups=%d, fresh=%d, stale=%d, notModified=%d, "
+                        + "hitRatio=%.2f, bytesSaved=%d}",
+                lookups, freshHits, staleHits, notModified, getHitRatio(), bytesSaved);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.jjikmeok1;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파싱이 끝난 Recipe 목록 / RecipeDetail을 캐시용 바이트로 변환
+ *
+ * HTML(수십~수백 KB) 대신 필요한 필드만 DataOutput으로 적어 보통 1KB 안팎이고,
+ * 읽을 때 Jsoup 파싱 없이 객체를 바로 만든다. 필드를 바꾸면 RecipeCache.VERSION을 올릴 것
+ * (오래 보관하는 RecipeStore는 형식이 따로 있으니 RecipeStore.VERSION도 함께).
+ */
+final class RecipeCodec {
+
+    interface Codec<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+        T read(DataInputStream in) throws IOException;
+    }
+
+    static final Codec<List<RecipeCrawler.Recipe>> RECIPES = new Codec<List<RecipeCrawler.Recipe>>() {
+        @Override
+        public void write(DataOutputStream out, List<RecipeCrawler.Recipe> recipes) throws IOException {
+            out.writeInt(recipes.size());
+            for (RecipeCrawler.Recipe recipe : recipes) {
+                writeString(out, recipe.getId());
+                writeString(out, recipe.getTitle());
+                writeString(out, recipe.getImageUrl());
+                writeString(out, recipe.getUrl());
+                writeString(out, recipe.getAuthor());
+                writeString(out, recipe.getViewCount());
+            }
+        }
+
+        @Override
+        public List<RecipeCrawler.Recipe> read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            List<RecipeCrawler.Recipe> recipes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+                recipe.setId(readString(in));
+                recipe.setTitle(readString(in));
+                recipe.setImageUrl(readString(in));
+                recipe.setUrl(readString(in));
+                recipe.setAuthor(readString(in));
+                recipe.setViewCount(readString(in));
+                recipes.add(recipe);
+            }
+            return recipes;
+        }
+    };
+
+    static final Codec<RecipeCrawler.RecipeDetail> DETAIL = new Codec<RecipeCrawler.RecipeDetail>() {
+        @Override
+        public void write(DataOutputStream out, RecipeCrawler.RecipeDetail detail) throws IOException {
+            writeString(out, detail.getId());
+            writeString(out, detail.getUrl());
+            writeString(out, detail.getTitle());
+            writeString(out, detail.getMainImageUrl());
+            writeString(out, detail.getIntro());
+            writeString(out, detail.getServings());
+            writeString(out, detail.getCookTime());
+            writeString(out, detail.getDifficulty());
+            List<String> ingredients = detail.getIngredients();
+            out.writeInt(ingredients != null ? ingredients.size() : -1);
+            if (ingredients != null) {
+                for (String ingredient : ingredients) {
+                    writeString(out, ingredient);
+                }
+            }
+            List<RecipeCrawler.RecipeStep> steps = detail.getSteps();
+            out.writeInt(steps != null ? steps.size() : -1);
+            if (steps != null) {
+                for (RecipeCrawler.RecipeStep step : steps) {
+                    out.writeInt(step.getStepNumber());
+                    writeString(out, step.getDescription());
+                    writeString(out, step.getImageUrl());
+                }
+            }
+        }
+
+        @Override
+        public RecipeCrawler.RecipeDetail read(DataInputStream in) throws IOException {
+            RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+            detail.setId(readString(in));
+            detail.setUrl(readString(in));
+            detail.setTitle(readString(in));
+            detail.setMainImageUrl(readString(in));
+            detail.setIntro(readString(in));
+            detail.setServings(readString(in));
+            detail.setCookTime(readString(in));
+            detail.setDifficulty(readString(in));
+            int ingredientCount = in.readInt();
+            if (ingredientCount >= 0) {
+                List<String> ingredients = new ArrayList<>(ingredientCount);
+                for (int i = 0; i < ingredientCount; i++) {
+                    ingredients.add(readString(in));
+                }
+                detail.setIngredients(ingredients);
+            }
+            int stepCount = in.readInt();
+            if (stepCount >= 0) {
+                List<RecipeCrawler.RecipeStep> steps = new ArrayList<>(stepCount);
+                for (int i = 0; i < stepCount; i++) {
+                    RecipeCrawler.RecipeStep step = new RecipeCrawler.RecipeStep();
+                    step.setStepNumber(in.readInt());
+                    step.setDescription(readString(in));
+                    step.setImageUrl(readString(in));
+                    steps.add(step);
+                }
+                detail.setSteps(steps);
+            }
+            return detail;
+        }
+    };
+
+    private RecipeCodec() {
+    }
+
+    static <T> byte[] encode(Codec<T> codec, T value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(out, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    static <T> T decode(Codec<T> codec, byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return codec.read(in);
+        }
+    }
+
+    // null 구분 + writeUTF (64KB 제한은 목록/상세 필드에 충분)
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
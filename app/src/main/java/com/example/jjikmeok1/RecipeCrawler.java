@@ -1,20 +1,33 @@
 package com.example.jjikmeok1;
 
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * 만개의 레시피 크롤링 클래스
@@ -25,14 +38,114 @@ import java.util.concurrent.Executors;
 public class RecipeCrawler {
     private static final String TAG = "RecipeCrawler";
     private static final String BASE_URL = "https://www.10000recipe.com";
-    private static final String SEARCH_URL = BASE_URL + "/recipe/list.html";
-
-    private ExecutorService executor;
-    private Handler mainHandler;
+    private static final String SEARCH_PATH = "/recipe/list.html";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    // 검색 결과 한 페이지의 레시피 수 (이보다 적으면 마지막 페이지)
+    static final int SEARCH_PAGE_SIZE = 40;
+
+    // 캐시 기간: 검색 결과는 자주 바뀌므로 10분 신선 + 1일 낡은 결과 허용, 상세는 1일 + 7일
+    private static final long SEARCH_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long SEARCH_STALE_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long DETAIL_TTL_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long DETAIL_STALE_MS = TimeUnit.DAYS.toMillis(7);
+
+    // 재료별 나눠 검색하기: 재료 하나씩 5개 + 두 개씩 3개, 기본 시간 제한 3초
+    private static final int FANOUT_SINGLES = 5;
+    private static final int FANOUT_PAIRS = 3;
+    public static final long FANOUT_BUDGET_MS = 3000;
+
+    // 네트워크를 쓰지 않는 짧은 작업: 나눠 검색하기 시간 제한, 기기 색인 검색 (작업 스레드를 붙잡지 않음)
+    private static final ScheduledExecutorService localExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "crawler-local");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String baseUrl;
+    // 요청은 앱 공용 CrawlerEngine에서 동시에(호스트당 속도 제한) 실행하고, 콜백은 callbackExecutor로 전달
+    private final CrawlerEngine engine;
+    private final Executor callbackExecutor;
+    private final RecipeCache cache; // null이면 매번 네트워크
+    private final IngredientIndex index; // 받은 상세 정보의 재료 색인, null이면 색인하지 않음
+    private final RecipeStore store; // 받은 목록 항목/상세 정보 보관, null이면 보관하지 않음
+    // 같은 검색어/페이지/레시피 id를 동시에 요청하면 한 번만 받아 결과를 나눔
+    private final SingleFlight flights;
+    private volatile boolean shutdown;
 
     public RecipeCrawler() {
-        executor = Executors.newSingleThreadExecutor();
-        mainHandler = new Handler(Looper.getMainLooper());
+        this(BASE_URL, CrawlerEngine.shared(), null, new Handler(Looper.getMainLooper())::post);
+    }
+
+    /** 앱 공용 디스크 캐시(RecipeCache), 재료 색인(IngredientIndex), 레시피 저장소(RecipeStore)를 쓰는 크롤러 */
+    public RecipeCrawler(Context context) {
+        this(BASE_URL, CrawlerEngine.shared(), RecipeCache.get(context), IngredientIndex.get(context),
+                RecipeStore.get(context), SingleFlight.shared(), new Handler(Looper.getMainLooper())::post);
+    }
+
+    /**
+     * @param baseUrl 사이트 주소 (테스트에서는 로컬 서버)
+     * @param cache 응답 캐시, null이면 캐시 없이 매번 네트워크
+     * @param callbackExecutor 결과 콜백을 실행할 곳 (기본은 메인 스레드)
+     */
+    RecipeCrawler(String baseUrl, CrawlerEngine engine, RecipeCache cache, Executor callbackExecutor) {
+        this(baseUrl, engine, cache, null, callbackExecutor);
+    }
+
+    /**
+     * @param index 상세 정보를 받을 때마다 재료를 색인할 곳, null이면 색인하지 않음
+     */
+    RecipeCrawler(String baseUrl, CrawlerEngine engine, RecipeCache cache, IngredientIndex index,
+                  Executor callbackExecutor) {
+        this(baseUrl, engine, cache, index, null, callbackExecutor);
+    }
+
+    /**
+     * @param store 받은 레시피를 보관할 곳 (오프라인 결과 보강, 상세 정보 받기 실패 시 대신 사용), null이면 보관하지 않음
+     */
+    RecipeCrawler(String baseUrl, CrawlerEngine engine, RecipeCache cache, IngredientIndex index,
+                  RecipeStore store, Executor callbackExecutor) {
+        this(baseUrl, engine, cache, index, store, new SingleFlight(), callbackExecutor);
+    }
+
+    /**
+     * @param flights 요청 합치기 (같이 쓰는 크롤러끼리도 같은 요청은 한 번만 받음)
+     */
+    RecipeCrawler(String baseUrl, CrawlerEngine engine, RecipeCache cache, IngredientIndex index,
+                  RecipeStore store, SingleFlight flights, Executor callbackExecutor) {
+        this.baseUrl = baseUrl;
+        this.engine = engine;
+        this.cache = cache;
+        this.index = index;
+        this.store = store;
+        this.flights = flights;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * HTML 파서 (Document → 결과 객체)
+     */
+    private interface PageParser<T> {
+        T parse(Document doc) throws IOException;
+    }
+
+    /** 응답 캐시 (적중률/절약 바이트 확인용), 없으면 null */
+    public RecipeCache getCache() {
+        return cache;
+    }
+
+    /** 재료 색인, 없으면 null */
+    public IngredientIndex getIndex() {
+        return index;
+    }
+
+    /** 레시피 저장소, 없으면 null */
+    public RecipeStore getStore() {
+        return store;
+    }
+
+    /** 요청 합치기 집계 (합친 요청 수 확인용) */
+    SingleFlight getSingleFlight() {
+        return flights;
     }
 
     /**
@@ -52,59 +165,505 @@ public class RecipeCrawler {
     }
 
     /**
-     * 여러 재료로 레시피 검색
+     * 점진 검색 콜백 인터페이스 (onRecipes가 여러 번 불린 뒤 onComplete 또는 onError)
+     */
+    public interface RecipeStreamCallback {
+        /** 새로 파싱된 레시피 묶음 */
+        void onRecipes(List<Recipe> recipes);
+        /** 검색 끝 (전달한 레시피 총 개수) */
+        void onComplete(int total);
+        void onError(String errorMessage);
+    }
+
+    /**
+     * 페이지 검색 결과 콜백 인터페이스
+     */
+    public interface RecipePageCallback {
+        void onSuccess(RecipePage page);
+        void onError(String errorMessage);
+    }
+
+    /**
+     * 여러 재료로 레시피 검색 (재료별로 나눠 검색, 기본 시간 제한)
      * @param ingredients 재료 리스트 (예: ["토마토", "양파"])
      * @param callback 결과 콜백
      */
     public void searchByIngredients(List<String> ingredients, RecipeSearchCallback callback) {
-        executor.execute(() -> {
-            try {
-                // 재료들을 공백으로 연결하여 검색어 생성
-                String query = String.join(" ", ingredients);
-                List<Recipe> recipes = performSearch(query);
+        // 재료를 전부 이어 붙인 검색어는 재료가 많으면 결과가 비므로 나눠서 검색
+        searchByIngredients(ingredients, FANOUT_BUDGET_MS, callback);
+    }
 
-                mainHandler.post(() -> callback.onSuccess(recipes));
-            } catch (Exception e) {
-                Log.e(TAG, "검색 중 오류: " + e.getMessage());
-                mainHandler.post(() -> callback.onError(e.getMessage()));
+    /**
+     * 재료를 나눠 여러 검색어로 동시에 검색하고 레시피 id로 합쳐 순위를 매김
+     * (재료 하나씩 + 앞쪽 재료 두 개씩, 여러 검색어에 나온 레시피가 앞으로)
+     * 색인이 있으면 겹치는 재료/부족한 재료/조회수 점수로 다시 정렬한다 (IngredientIndex.rank).
+     * budgetMillis가 지나면 늦은 검색어는 기다리지 않고 그때까지 온 결과로 끝낸다.
+     * 그때까지 온 결과가 하나도 없으면 기기 색인에서 찾은 결과(searchOffline과 같음, 색인이 없으면 빈 목록)를 준다.
+     * @param ingredients 재료 리스트 (인식 신뢰도 순)
+     * @param budgetMillis 전체 시간 제한
+     */
+    public void searchByIngredients(List<String> ingredients, long budgetMillis, RecipeSearchCallback callback) {
+        if (shutdown) {
+            return;
+        }
+        List<List<String>> queries = FanOutSearch.plan(ingredients, FANOUT_SINGLES, FANOUT_PAIRS);
+        if (queries.isEmpty()) {
+            deliver(() -> callback.onSuccess(new ArrayList<>()));
+            return;
+        }
+        FanOutSearch fanOut = new FanOutSearch(queries.size());
+        List<Runnable> leaves = new ArrayList<>(queries.size());
+        long start = System.nanoTime();
+        Runnable finish = () -> {
+            // 아직 시작하지 않은 검색어는 (다른 호출이 기다리지 않으면) 버리고, 진행 중인 것은 끝나면 캐시에만 남김
+            for (Runnable leave : leaves) {
+                leave.run();
+            }
+            String error = fanOut.getError();
+            List<Recipe> recipes = fanOut.ranked();
+            if (error == null && fanOut.getSucceeded() == 0) {
+                // 시간 제한까지 아무 검색어도 오지 않음: 기다리지 않고 기기 색인 결과로
+                recipes = offlineResults(ingredients, SEARCH_PAGE_SIZE);
+            } else if (index != null && error == null) {
+                // 색인된 레시피는 실제 재료로 겹침/부족 재료를 세어 다시 정렬
+                recipes = index.rank(recipes, ingredients, fanOut::getCovered);
+            }
+            Log.d(TAG, "나눠 검색: 검색어 " + fanOut.getSucceeded() + "/" + queries.size() + ", 레시피 "
+                    + recipes.size() + ", " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+            List<Recipe> result = recipes;
+            deliver(() -> {
+                if (error != null) {
+                    callback.onError(error);
+                } else {
+                    callback.onSuccess(result);
+                }
+            });
+        };
+        synchronized (leaves) {
+            for (List<String> query : queries) {
+                String text = String.join(" ", query);
+                // 결과는 작업 스레드에서 바로 합침 (같은 검색어를 다른 화면이 받는 중이면 그 결과를 같이 씀)
+                SingleFlight.Waiter<Void, List<Recipe>> waiter = new SingleFlight.Waiter<>(this, Runnable::run, null,
+                        recipes -> {
+                            if (fanOut.onResult(query, recipes)) {
+                                synchronized (leaves) {
+                                    finish.run();
+                                }
+                            }
+                        },
+                        error -> {
+                            if (fanOut.onError(error)) {
+                                synchronized (leaves) {
+                                    finish.run();
+                                }
+                            }
+                        });
+                String key = searchKey(text);
+                SingleFlight.Flight<Void, List<Recipe>> flight =
+                        flights.join(key, CrawlerEngine.Priority.USER, waiter);
+                if (flight != null) {
+                    submit(flight, baseUrl + SEARCH_PATH, () -> performSearch(text), "검색 중 오류: ");
+                }
+                leaves.add(() -> flights.leave(key, waiter));
+            }
+        }
+        localExecutor.schedule(() -> {
+            if (fanOut.onBudgetExpired()) {
+                synchronized (leaves) {
+                    finish.run();
+                }
             }
+        }, budgetMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 지금까지 받아 본 레시피 중에서 재료로 검색 (네트워크 없음, 겹치는 재료가 많은 순)
+     * 색인이 없으면 빈 목록
+     * @param limit 최대 결과 수
+     */
+    public void searchOffline(List<String> ingredients, int limit, RecipeSearchCallback callback) {
+        if (shutdown) {
+            return;
+        }
+        if (index == null) {
+            deliver(() -> callback.onSuccess(new ArrayList<>()));
+            return;
+        }
+        localExecutor.execute(() -> {
+            List<Recipe> recipes = offlineResults(ingredients, limit);
+            deliver(() -> callback.onSuccess(recipes));
         });
     }
 
+    // 기기 색인 검색 (색인이 없으면 빈 목록)
+    private List<Recipe> offlineResults(List<String> ingredients, int limit) {
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        List<Recipe> recipes = index.search(ingredients, limit);
+        if (store != null) {
+            // 색인에는 제목/이미지/주소만 있으므로 목록에서 본 작성자/조회수를 채움
+            for (Recipe recipe : recipes) {
+                Recipe listed = store.getRecipe(recipe.getId());
+                if (listed != null) {
+                    recipe.setAuthor(listed.getAuthor());
+                    recipe.setViewCount(listed.getViewCount());
+                }
+            }
+        }
+        return recipes;
+    }
+
     /**
      * 단일 검색어로 레시피 검색
      * @param query 검색어
      * @param callback 결과 콜백
      */
     public void search(String query, RecipeSearchCallback callback) {
-        executor.execute(() -> {
+        enqueue(CrawlerEngine.Priority.USER, baseUrl + SEARCH_PATH, searchKey(query), () -> performSearch(query),
+                callback::onSuccess, callback::onError, "검색 중 오류: ");
+    }
+
+    /**
+     * 검색 결과 한 페이지 가져오기
+     * @param cursor 가져올 페이지 (SearchCursor.first 또는 이전 RecipePage.getNext)
+     */
+    public void searchPage(SearchCursor cursor, RecipePageCallback callback) {
+        searchPage(cursor, CrawlerEngine.Priority.USER, callback);
+    }
+
+    /**
+     * 다음 페이지를 미리 받아 둠 (사용자 요청이 대기 중이면 그 뒤로 밀림)
+     */
+    public void prefetchSearchPage(SearchCursor cursor, RecipePageCallback callback) {
+        searchPage(cursor, CrawlerEngine.Priority.PREFETCH, callback);
+    }
+
+    private void searchPage(SearchCursor cursor, CrawlerEngine.Priority priority, RecipePageCallback callback) {
+        enqueue(priority, baseUrl + SEARCH_PATH, baseUrl + "\npage\n" + cursor.getQuery() + "\n" + cursor.getPage(),
+                () -> performSearchPage(cursor), callback::onSuccess, callback::onError, "검색 중 오류: ");
+    }
+
+    /**
+     * 엔진에 요청을 넣고 결과를 callbackExecutor로 전달 (shutdown 이후에는 전달하지 않음)
+     * 같은 key의 요청이 진행 중이면 새로 넣지 않고 그 결과를 같이 받는다.
+     */
+    private <T> void enqueue(CrawlerEngine.Priority priority, String url, String key, Callable<T> fetch,
+                             Consumer<T> onSuccess, Consumer<String> onError, String errorLog) {
+        enqueue(priority, url, key, sink -> fetch, null, onSuccess, onError, errorLog);
+    }
+
+    /**
+     * 부분 결과가 있는 요청 (fetch는 부분 결과를 받을 sink로 만듦)
+     */
+    private <P, T> void enqueue(CrawlerEngine.Priority priority, String url, String key,
+                                Function<Consumer<P>, Callable<T>> fetch, Consumer<P> onPartial,
+                                Consumer<T> onSuccess, Consumer<String> onError, String errorLog) {
+        if (shutdown) {
+            return;
+        }
+        SingleFlight.Flight<P, T> flight = flights.join(key, priority,
+                new SingleFlight.Waiter<>(this, this::deliver, onPartial, onSuccess, onError));
+        if (flight != null) {
+            submit(flight, url, fetch.apply(partial -> flights.partial(flight, partial)), errorLog);
+        }
+    }
+
+    private <P, T> void submit(SingleFlight.Flight<P, T> flight, String url, Callable<T> fetch, String errorLog) {
+        Future<?> future = engine.submit(flight.getPriority(), url, () -> {
+            if (!flights.begin(flight)) {
+                return null;
+            }
             try {
-                List<Recipe> recipes = performSearch(query);
-                mainHandler.post(() -> callback.onSuccess(recipes));
+                flights.succeed(flight, fetch.call());
             } catch (Exception e) {
-                Log.e(TAG, "검색 중 오류: " + e.getMessage());
-                mainHandler.post(() -> callback.onError(e.getMessage()));
+                Log.e(TAG, errorLog + e.getMessage());
+                flights.fail(flight, e.getMessage());
+            }
+            return null;
+        });
+        flights.attach(flight, future);
+    }
+
+    private String searchKey(String query) {
+        return baseUrl + "\nsearch\n" + query;
+    }
+
+    private void deliver(Runnable callback) {
+        callbackExecutor.execute(() -> {
+            if (!shutdown) {
+                callback.run();
             }
         });
     }
 
     /**
-     * 실제 검색 수행 (백그라운드 스레드에서 실행)
+     * 본문을 받는 대로 파싱해 레시피를 묶음 단위로 먼저 전달하는 검색
+     * limit개보다 많이 찾으면 나머지 본문은 받지 않는다. 캐시에 있으면 한 번에 전달
+     * @param limit 최대 결과 수
      */
-    private List<Recipe> performSearch(String query) throws IOException {
-        List<Recipe> recipes = new ArrayList<>();
+    public void searchStreaming(String query, int limit, RecipeStreamCallback callback) {
+        enqueue(CrawlerEngine.Priority.USER, baseUrl + SEARCH_PATH, baseUrl + "\nstream\n" + query + "\n" + limit,
+                sink -> () -> streamSearch(searchUrl(query), limit, sink),
+                callback::onRecipes, callback::onComplete, callback::onError, "검색 중 오류: ");
+    }
+
+    private String searchUrl(String query) throws IOException {
+        return searchUrl(query, 1);
+    }
 
+    // 1페이지는 page 인자 없이 (search/searchStreaming과 같은 캐시 항목을 씀)
+    private String searchUrl(String query, int page) throws IOException {
         // URL 인코딩
         String encodedQuery = URLEncoder.encode(query, "UTF-8");
-        String searchUrl = SEARCH_URL + "?q=" + encodedQuery;
+        String searchUrl = baseUrl + SEARCH_PATH + "?q=" + encodedQuery + (page > 1 ? "&page=" + page : "");
 
         Log.d(TAG, "검색 URL: " + searchUrl);
+        return searchUrl;
+    }
+
+    /**
+     * 점진 검색 수행 (백그라운드 스레드에서 실행)
+     * @return 전달한 레시피 수
+     */
+    private int streamSearch(String url, int limit, Consumer<List<Recipe>> sink) throws IOException {
+        if (cache != null) {
+            RecipeCache.Entry cached = cache.lookup(url);
+            if (cached != null && cached.getState() != RecipeCache.State.EXPIRED) {
+                try {
+                    List<Recipe> recipes = RecipeCodec.decode(RecipeCodec.RECIPES, cached.getPayload());
+                    cache.hit(cached);
+                    if (cached.getState() == RecipeCache.State.STALE) {
+                        revalidateInBackground(url, SEARCH_TTL_MS, SEARCH_STALE_MS,
+                                this::parseSearchPage, RecipeCodec.RECIPES);
+                    }
+                    return emit(recipes, limit, sink);
+                } catch (IOException e) {
+                    Log.w(TAG, "캐시 항목 손상: " + url);
+                    cache.remove(url);
+                }
+            }
+        }
+
+        Connection.Response response = connect(url).execute();
+        String charset = response.charset() != null ? response.charset() : "UTF-8";
+        List<Recipe> recipes = new ArrayList<>();
+        List<Recipe> batch = new ArrayList<>();
+        RecipeStreamParser parser = new RecipeStreamParser();
+        boolean complete;
+        // 아낀 바이트 집계용: 파서 길이는 UTF-16 문자 수라 한글 페이지에서는 실제 바이트의 1/2~1/3
+        CountingStream body = new CountingStream(response.bodyStream());
+        try (Reader reader = new InputStreamReader(body, charset)) {
+            complete = parser.parse(reader, url, new RecipeStreamParser.Listener() {
+                @Override
+                public boolean onItem(Element item) {
+                    try {
+                        Recipe recipe = parseRecipeElement(item);
+                        if (recipe != null) {
+                            recipes.add(recipe);
+                            if (recipes.size() <= limit) {
+                                batch.add(recipe);
+                            }
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "레시피 파싱 오류: " + e.getMessage());
+                    }
+                    // limit번째가 페이지의 마지막 항목이면 끝까지 읽어 캐시할 수 있도록, 하나 더 나와야 멈춤
+                    return recipes.size() <= limit;
+                }
+
+                @Override
+                public void onChunk() {
+                    flush(batch, sink);
+                }
+            });
+        }
+        flush(batch, sink);
+        Log.d(TAG, "찾은 레시피 수: " + recipes.size() + (complete ? "" : " (본문 일부만 읽음)"));
+
+        if (!complete) {
+            return Math.min(recipes.size(), limit); // 일부만 읽은 결과는 캐시하지 않음
+        }
+        List<Recipe> all = recipes;
+        if (parser.getItemCount() == 0) {
+            // 항목 구조가 다른 페이지: 이미 받은 본문으로 기존 전체 파싱
+            all = parseSearchPage(Jsoup.parse(parser.getText(), url));
+            emit(all, limit, sink);
+        }
+        remember(all);
+        if (cache != null) {
+            cache.put(url, SEARCH_TTL_MS, SEARCH_STALE_MS, response.header("ETag"),
+                    response.header("Last-Modified"), (int) Math.min(Integer.MAX_VALUE, body.getCount()),
+                    RecipeCodec.encode(RecipeCodec.RECIPES, all));
+        }
+        return Math.min(all.size(), limit);
+    }
+
+    // 목록에서 본 레시피를 보관하고 조회수를 색인에 반영 (오프라인 검색 결과/순위용)
+    private List<Recipe> remember(List<Recipe> recipes) {
+        if (index != null) {
+            index.notePopularity(recipes);
+        }
+        if (store != null) {
+            store.putRecipes(recipes);
+        }
+        return recipes;
+    }
+
+    private static int emit(List<Recipe> recipes, int limit, Consumer<List<Recipe>> sink) {
+        int count = Math.min(recipes.size(), limit);
+        if (count > 0) {
+            sink.accept(new ArrayList<>(recipes.subList(0, count)));
+        }
+        return count;
+    }
+
+    private static void flush(List<Recipe> batch, Consumer<List<Recipe>> sink) {
+        if (!batch.isEmpty()) {
+            sink.accept(new ArrayList<>(batch));
+            batch.clear();
+        }
+    }
+
+    // 읽은 바이트 수를 세는 응답 본문
+    private static final class CountingStream extends FilterInputStream {
+        private long count;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
 
-        // Jsoup으로 HTML 파싱
-        Document doc = Jsoup.connect(searchUrl)
+    /**
+     * 실제 검색 수행 (백그라운드 스레드에서 실행)
+     */
+    private List<Recipe> performSearch(String query) throws IOException {
+        String searchUrl = searchUrl(query);
+        return remember(load(searchUrl, SEARCH_TTL_MS, SEARCH_STALE_MS, this::parseSearchPage,
+                RecipeCodec.RECIPES));
+    }
+
+    /**
+     * 페이지 검색 수행 (백그라운드 스레드에서 실행)
+     * 페이지가 꽉 차 있으면 다음 페이지가 있다고 본다 (마지막 페이지가 딱 맞으면 빈 페이지 한 번 더)
+     */
+    private RecipePage performSearchPage(SearchCursor cursor) throws IOException {
+        List<Recipe> recipes = remember(load(searchUrl(cursor.getQuery(), cursor.getPage()),
+                SEARCH_TTL_MS, SEARCH_STALE_MS, this::parseSearchPage, RecipeCodec.RECIPES));
+        return new RecipePage(cursor, recipes, recipes.size() >= SEARCH_PAGE_SIZE ? cursor.next() : null);
+    }
+
+    /**
+     * 캐시를 거쳐 페이지 결과를 가져옴
+     * 신선하면 캐시 결과, 낡았으면 캐시 결과를 돌려주고 뒤에서 재검증, 없거나 만료면 조건부 요청
+     */
+    private <T> T load(String url, long ttlMillis, long staleMillis, PageParser<T> parser,
+                       RecipeCodec.Codec<T> codec) throws IOException {
+        if (cache == null) {
+            return parser.parse(connect(url).get());
+        }
+        RecipeCache.Entry cached = cache.lookup(url);
+        if (cached != null && cached.getState() != RecipeCache.State.EXPIRED) {
+            try {
+                T value = RecipeCodec.decode(codec, cached.getPayload());
+                cache.hit(cached);
+                if (cached.getState() == RecipeCache.State.STALE) {
+                    revalidateInBackground(url, ttlMillis, staleMillis, parser, codec);
+                }
+                return value;
+            } catch (IOException e) {
+                Log.w(TAG, "캐시 항목 손상: " + url);
+                cache.remove(url);
+                cached = null;
+            }
+        }
+        return fetch(url, cached, true, ttlMillis, staleMillis, parser, codec);
+    }
+
+    /**
+     * 네트워크 요청 (cached가 있으면 ETag/Last-Modified 조건부 요청, 304면 캐시 결과 재사용)
+     */
+    private <T> T fetch(String url, RecipeCache.Entry cached, boolean counted, long ttlMillis, long staleMillis,
+                        PageParser<T> parser, RecipeCodec.Codec<T> codec) throws IOException {
+        Connection connection = connect(url);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                connection.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                connection.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        Connection.Response response = connection.execute();
+        if (response.statusCode() == HTTP_NOT_MODIFIED && cached != null) {
+            cache.markNotModified(cached, counted);
+            return RecipeCodec.decode(codec, cached.getPayload());
+        }
+        byte[] body = response.bodyAsBytes();
+        T value = parser.parse(Jsoup.parse(new ByteArrayInputStream(body), response.charset(), url));
+        cache.put(url, ttlMillis, staleMillis, response.header("ETag"), response.header("Last-Modified"),
+                body.length, RecipeCodec.encode(codec, value));
+        return value;
+    }
+
+    // 낡은 결과를 이미 보여 줬으므로 재검증은 미리 가져오기 우선순위로, 같은 URL은 한 번만
+    private <T> void revalidateInBackground(String url, long ttlMillis, long staleMillis, PageParser<T> parser,
+                                            RecipeCodec.Codec<T> codec) {
+        if (!cache.beginRevalidation(url)) {
+            return;
+        }
+        engine.submit(CrawlerEngine.Priority.PREFETCH, url, () -> {
+            try {
+                fetch(url, cache.peek(url), false, ttlMillis, staleMillis, parser, codec);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "재검증 실패: " + url + " " + e);
+            } finally {
+                cache.endRevalidation(url);
+            }
+            return null;
+        });
+    }
+
+    private static Connection connect(String url) {
+        return Jsoup.connect(url)
                 .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                .timeout(10000)
-                .get();
+                .timeout(10000);
+    }
+
+    /**
+     * 검색 결과 페이지 파싱
+     */
+    private List<Recipe> parseSearchPage(Document doc) {
+        List<Recipe> recipes = new ArrayList<>();
 
         // 레시피 목록 추출 (만개의 레시피 HTML 구조에 맞게 수정 필요)
         // 일반적인 구조: ul.common_sp_list_ul > li
@@ -146,7 +705,7 @@ public class RecipeCrawler {
         if (linkElement != null) {
             String href = linkElement.attr("href");
             if (!href.startsWith("http")) {
-                href = BASE_URL + href;
+                href = baseUrl + href;
             }
             recipe.setUrl(href);
 
@@ -220,28 +779,49 @@ public class RecipeCrawler {
      * @param callback 결과 콜백
      */
     public void getRecipeDetail(String recipeId, RecipeDetailCallback callback) {
-        executor.execute(() -> {
-            try {
-                RecipeDetail detail = fetchRecipeDetail(recipeId);
-                mainHandler.post(() -> callback.onSuccess(detail));
-            } catch (Exception e) {
-                Log.e(TAG, "상세 정보 로드 오류: " + e.getMessage());
-                mainHandler.post(() -> callback.onError(e.getMessage()));
-            }
-        });
+        getRecipeDetail(recipeId, CrawlerEngine.Priority.USER, callback);
+    }
+
+    /**
+     * 목록에 보이는 레시피의 상세 정보를 미리 받아 둠 (사용자 검색이 대기 중이면 그 뒤로 밀림)
+     */
+    public void prefetchRecipeDetail(String recipeId, RecipeDetailCallback callback) {
+        getRecipeDetail(recipeId, CrawlerEngine.Priority.PREFETCH, callback);
+    }
+
+    private void getRecipeDetail(String recipeId, CrawlerEngine.Priority priority, RecipeDetailCallback callback) {
+        enqueue(priority, baseUrl + "/recipe/" + recipeId, baseUrl + "\ndetail\n" + recipeId, () -> fetchRecipeDetail(recipeId),
+                callback::onSuccess, callback::onError, "상세 정보 로드 오류: ");
     }
 
     /**
      * 레시피 상세 정보 파싱
      */
     private RecipeDetail fetchRecipeDetail(String recipeId) throws IOException {
-        String detailUrl = BASE_URL + "/recipe/" + recipeId;
-
-        Document doc = Jsoup.connect(detailUrl)
-                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                .timeout(10000)
-                .get();
+        String detailUrl = baseUrl + "/recipe/" + recipeId;
+        RecipeDetail detail;
+        try {
+            detail = load(detailUrl, DETAIL_TTL_MS, DETAIL_STALE_MS,
+                    doc -> parseDetailPage(doc, recipeId, detailUrl), RecipeCodec.DETAIL);
+        } catch (IOException e) {
+            // 네트워크가 안 되고 캐시도 지났으면 전에 받아 둔 상세 정보로
+            RecipeDetail stored = store != null ? store.getDetail(recipeId) : null;
+            if (stored == null) {
+                throw e;
+            }
+            Log.w(TAG, "상세 정보 받기 실패, 저장된 내용 사용: " + recipeId);
+            return stored;
+        }
+        if (index != null) {
+            index.add(detail);
+        }
+        if (store != null) {
+            store.putDetail(detail);
+        }
+        return detail;
+    }
 
+    private RecipeDetail parseDetailPage(Document doc, String recipeId, String detailUrl) {
         RecipeDetail detail = new RecipeDetail();
         detail.setId(recipeId);
         detail.setUrl(detailUrl);
@@ -311,12 +891,12 @@ public class RecipeCrawler {
     }
 
     /**
-     * 리소스 해제
+     * 이 크롤러가 넣은 요청 취소, 이후 콜백은 전달하지 않음 (공용 엔진은 계속 동작)
      */
     public void shutdown() {
-        if (executor != null && !executor.isShutdown()) {
-            executor.shutdown();
-        }
+        shutdown = true;
+        // 다른 화면도 기다리는 요청은 그대로 두고, 이 크롤러만 기다리던 요청은 취소
+        flights.leaveAll(this);
     }
 
     // ==================== 데이터 클래스 ====================
@@ -359,6 +939,56 @@ public class RecipeCrawler {
         }
     }
 
+    /**
+     * 검색 페이지 위치 (검색어 + 1부터 시작하는 페이지 번호)
+     */
+    public static final class SearchCursor {
+        private final String query;
+        private final int page;
+
+        private SearchCursor(String query, int page) {
+            this.query = query;
+            this.page = page;
+        }
+
+        public static SearchCursor first(String query) {
+            return new SearchCursor(query, 1);
+        }
+
+        public String getQuery() { return query; }
+        public int getPage() { return page; }
+
+        public SearchCursor next() {
+            return new SearchCursor(query, page + 1);
+        }
+
+        @Override
+        public String toString() {
+            return "SearchCursor{query='" + query + "', page=" + page + '}';
+        }
+    }
+
+    /**
+     * 검색 결과 한 페이지
+     */
+    public static final class RecipePage {
+        private final SearchCursor cursor;
+        private final List<Recipe> recipes;
+        private final SearchCursor next;
+
+        RecipePage(SearchCursor cursor, List<Recipe> recipes, SearchCursor next) {
+            this.cursor = cursor;
+            this.recipes = recipes;
+            this.next = next;
+        }
+
+        public SearchCursor getCursor() { return cursor; }
+        public List<Recipe> getRecipes() { return recipes; }
+
+        /** 다음 페이지, 마지막 페이지면 null */
+        public SearchCursor getNext() { return next; }
+    }
+
     /**
      * 레시피 상세 정보
      */
@@ -3,6 +3,7 @@ package com.example.jjikmeok1;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -31,6 +32,13 @@ public class RecipeListActivity extends AppCompatActivity {
 
     private static final String TAG = "RecipeListActivity";
 
+    // 목록 끝까지 이 개수보다 적게 남으면 다음 페이지를 미리 받음
+    private static final int PREFETCH_DISTANCE = 10;
+    // 재료가 이만큼 이상이면 이어 붙인 검색어 대신 재료별로 나눠 검색 (적으면 이어 붙인 검색어로 페이지 넘김)
+    private static final int FANOUT_MIN_INGREDIENTS = 5;
+    // 네트워크 결과가 오기 전에 보여 줄 기기 색인 결과 수
+    private static final int OFFLINE_RESULTS = 40;
+
     // Views
     private MaterialToolbar toolbar;
     private ChipGroup chipGroupIngredients;
@@ -42,6 +50,7 @@ public class RecipeListActivity extends AppCompatActivity {
     // Data
     private RecipeCrawler recipeCrawler;
     private RecipeAdapter adapter;
+    private RecipePager pager;
     private List<RecipeCrawler.Recipe> recipeList;
     private ArrayList<String> ingredientList;
 
@@ -59,8 +68,8 @@ public class RecipeListActivity extends AppCompatActivity {
         // 툴바 설정
         setupToolbar();
 
-        // 크롤러 초기화
-        recipeCrawler = new RecipeCrawler();
+        // 크롤러 초기화 (앱 공용 실행기 + 디스크 캐시)
+        recipeCrawler = new RecipeCrawler(this);
 
         // Intent에서 재료 리스트 받기
         ingredientList = getIntent().getStringArrayListExtra("ingredients");
@@ -109,8 +118,27 @@ public class RecipeListActivity extends AppCompatActivity {
             // startActivity(detailIntent);
         });
 
-        recyclerViewRecipes.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerViewRecipes.setLayoutManager(layoutManager);
         recyclerViewRecipes.setAdapter(adapter);
+
+        // 무한 스크롤: 끝에 가까워지면 다음 페이지, 실패한 뒤 맨 끝에서 멈추면 다시 시도
+        recyclerViewRecipes.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (pager != null && dy > 0) {
+                    pager.onScrolled(layoutManager.findLastVisibleItemPosition());
+                }
+            }
+
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                if (pager != null && newState == RecyclerView.SCROLL_STATE_IDLE
+                        && !recyclerView.canScrollVertically(1)) {
+                    pager.retry();
+                }
+            }
+        });
     }
 
     private void displayIngredientChips() {
@@ -131,17 +159,87 @@ public class RecipeListActivity extends AppCompatActivity {
         tvEmptyMessage.setVisibility(View.GONE);
         recyclerViewRecipes.setVisibility(View.GONE);
 
-        // 레시피 검색
+        recipeList.clear();
+        adapter.notifyDataSetChanged();
+
+        if (ingredientList.size() >= FANOUT_MIN_INGREDIENTS) {
+            searchEachIngredient();
+            return;
+        }
+
+        // 레시피 검색 (첫 페이지는 파싱되는 대로, 이후 페이지는 스크롤에 따라)
+        pager = new RecipePager(recipeCrawler, recipeList, PREFETCH_DISTANCE, new RecipePager.Listener() {
+            @Override
+            public void onRecipesInserted(int start, int count) {
+                if (start == 0) {
+                    progressBar.setVisibility(View.GONE);
+                    recyclerViewRecipes.setVisibility(View.VISIBLE);
+                }
+                adapter.notifyItemRangeInserted(start, count);
+                tvResultCount.setText(recipeList.size() + "개의 레시피");
+            }
+
+            @Override
+            public void onEnd(int total) {
+                progressBar.setVisibility(View.GONE);
+                Log.d(TAG, recipeCrawler.getCache() + " " + recipeCrawler.getSingleFlight());
+
+                if (total == 0) {
+                    showEmptyMessage();
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                progressBar.setVisibility(View.GONE);
+                if (!recipeList.isEmpty()) {
+                    // 이미 보여 준 결과는 그대로 둠
+                    Toast.makeText(RecipeListActivity.this,
+                            "다음 결과를 불러오지 못했습니다: " + errorMessage, Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                showError(errorMessage);
+            }
+        });
+        pager.start(String.join(" ", ingredientList));
+    }
+
+    /**
+     * 재료별로 나눠 동시에 검색하고 여러 검색어에 나온 레시피부터 표시 (페이지 넘김 없음)
+     * 기기 색인에 있는 결과를 먼저 보여 주고 네트워크 결과가 오면 바꿔 끼운다.
+     */
+    private void searchEachIngredient() {
+        pager = null;
+        boolean[] networkDone = {false};
+        recipeCrawler.searchOffline(ingredientList, OFFLINE_RESULTS, new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                if (networkDone[0] || recipes.isEmpty()) {
+                    return;
+                }
+                progressBar.setVisibility(View.GONE);
+                recyclerViewRecipes.setVisibility(View.VISIBLE);
+                recipeList.addAll(recipes);
+                adapter.notifyItemRangeInserted(0, recipes.size());
+                tvResultCount.setText(recipes.size() + "개의 레시피 (저장된 결과)");
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                // 색인 검색은 실패하지 않음
+            }
+        });
         recipeCrawler.searchByIngredients(ingredientList, new RecipeCrawler.RecipeSearchCallback() {
             @Override
             public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                networkDone[0] = true;
                 progressBar.setVisibility(View.GONE);
+                Log.d(TAG, recipeCrawler.getCache() + " " + recipeCrawler.getIndex() + " "
+                        + recipeCrawler.getSingleFlight());
 
-                if (recipes.isEmpty()) {
-                    tvEmptyMessage.setVisibility(View.VISIBLE);
-                    tvEmptyMessage.setText("검색 결과가 없습니다.\n다른 재료로 검색해보세요.");
-                    tvResultCount.setText("0개의 레시피");
-                } else {
+                if (recipes.isEmpty() && recipeList.isEmpty()) {
+                    showEmptyMessage();
+                } else if (!recipes.isEmpty()) {
                     recyclerViewRecipes.setVisibility(View.VISIBLE);
                     recipeList.clear();
                     recipeList.addAll(recipes);
@@ -152,15 +250,31 @@ public class RecipeListActivity extends AppCompatActivity {
 
             @Override
             public void onError(String errorMessage) {
+                networkDone[0] = true;
                 progressBar.setVisibility(View.GONE);
-                tvEmptyMessage.setVisibility(View.VISIBLE);
-                tvEmptyMessage.setText("오류가 발생했습니다.\n" + errorMessage);
-                Toast.makeText(RecipeListActivity.this,
-                        "레시피 검색 실패: " + errorMessage, Toast.LENGTH_SHORT).show();
+                if (!recipeList.isEmpty()) {
+                    // 저장된 결과는 그대로 둠
+                    Toast.makeText(RecipeListActivity.this,
+                            "새 결과를 불러오지 못했습니다: " + errorMessage, Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                showError(errorMessage);
             }
         });
     }
 
+    private void showEmptyMessage() {
+        tvEmptyMessage.setVisibility(View.VISIBLE);
+        tvEmptyMessage.setText("검색 결과가 없습니다.\n다른 재료로 검색해보세요.");
+        tvResultCount.setText("0개의 레시피");
+    }
+
+    private void showError(String errorMessage) {
+        tvEmptyMessage.setVisibility(View.VISIBLE);
+        tvEmptyMessage.setText("오류가 발생했습니다.\n" + errorMessage);
+        Toast.makeText(this, "레시피 검색 실패: " + errorMessage, Toast.LENGTH_SHORT).show();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
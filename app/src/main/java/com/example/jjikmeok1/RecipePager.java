@@ -0,0 +1,204 @@
+package com.example.jjikmeok1;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 검색 결과 무한 스크롤 (메인 스레드 전용)
+ *
+ * 첫 페이지는 searchStreaming으로 받는 대로 보여 주고, 목록 끝까지 prefetchDistance개 안쪽으로 스크롤하면
+ * 다음 페이지를 미리 가져오기 우선순위로 요청한다. 받기 전에 끝에 닿으면 같은 페이지를 사용자 요청으로 한 번 더 넣고
+ * 먼저 온 결과만 쓴다. 페이지 사이에 순위가 밀려 같은 레시피가 다시 나와도 id 기준으로 한 번만 넣는다.
+ */
+final class RecipePager {
+
+    interface Listener {
+        /** recipes 목록의 start 위치에 count개가 추가됨 */
+        void onRecipesInserted(int start, int count);
+        /** 마지막 페이지까지 받음 */
+        void onEnd(int total);
+        /** 페이지 요청 실패 (retry 전까지 자동으로 다시 요청하지 않음) */
+        void onError(String errorMessage);
+    }
+
+    private final RecipeCrawler crawler;
+    private final List<RecipeCrawler.Recipe> recipes;
+    private final int prefetchDistance;
+    private final Listener listener;
+    private final Set<String> seen = new HashSet<>();
+
+    private int generation;
+    private RecipeCrawler.SearchCursor next;    // 다음에 받을 페이지, null이면 끝
+    private RecipeCrawler.SearchCursor loading; // 요청 중인 페이지
+    private int inFlight;                       // loading에 대해 아직 안 끝난 요청 수
+    private boolean escalated;                  // loading을 사용자 요청으로도 넣었음
+    private boolean failed;
+    private int lastVisible = -1;
+    private int pagesLoaded;
+    private int duplicates;
+
+    /**
+     * @param recipes 화면 목록 (어댑터와 같은 리스트, 여기서만 추가)
+     * @param prefetchDistance 남은 항목이 이보다 적으면 다음 페이지 요청
+     */
+    RecipePager(RecipeCrawler crawler, List<RecipeCrawler.Recipe> recipes, int prefetchDistance, Listener listener) {
+        this.crawler = crawler;
+        this.recipes = recipes;
+        this.prefetchDistance = prefetchDistance;
+        this.listener = listener;
+    }
+
+    /** 새 검색 시작 (목록은 호출하는 쪽에서 비워 둘 것) */
+    void start(String query) {
+        int requested = ++generation;
+        RecipeCrawler.SearchCursor first = RecipeCrawler.SearchCursor.first(query);
+        seen.clear();
+        next = null;
+        loading = first;
+        inFlight = 1;
+        escalated = true;
+        failed = false;
+        lastVisible = -1;
+        pagesLoaded = 0;
+        duplicates = 0;
+        crawler.searchStreaming(query, RecipeCrawler.SEARCH_PAGE_SIZE, new RecipeCrawler.RecipeStreamCallback() {
+            @Override
+            public void onRecipes(List<RecipeCrawler.Recipe> batch) {
+                if (requested == generation) {
+                    append(batch);
+                }
+            }
+
+            @Override
+            public void onComplete(int total) {
+                if (requested == generation) {
+                    loaded(total >= RecipeCrawler.SEARCH_PAGE_SIZE ? first.next() : null);
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                if (requested == generation) {
+                    requestFailed(first, errorMessage);
+                }
+            }
+        });
+    }
+
+    /**
+     * 스크롤 위치 갱신
+     * @param lastVisiblePosition 화면에 보이는 마지막 항목 위치
+     */
+    void onScrolled(int lastVisiblePosition) {
+        lastVisible = lastVisiblePosition;
+        maybeLoad();
+    }
+
+    /** 실패한 페이지 다시 요청 */
+    void retry() {
+        if (failed) {
+            failed = false;
+            maybeLoad();
+        }
+    }
+
+    boolean hasMore() {
+        return next != null || loading != null;
+    }
+
+    boolean isLoading() {
+        return loading != null;
+    }
+
+    int getPagesLoaded() {
+        return pagesLoaded;
+    }
+
+    /** 앞 페이지와 겹쳐 버린 레시피 수 */
+    int getDuplicates() {
+        return duplicates;
+    }
+
+    private void maybeLoad() {
+        int remaining = recipes.size() - 1 - lastVisible;
+        if (loading != null) {
+            if (remaining <= 0 && !escalated) {
+                // 미리 가져오기가 아직 대기 중: 사용자 요청으로도 넣음
+                escalated = true;
+                request(loading, CrawlerEngine.Priority.USER);
+            }
+            return;
+        }
+        if (next == null || failed || remaining >= prefetchDistance) {
+            return;
+        }
+        loading = next;
+        inFlight = 0;
+        escalated = remaining <= 0;
+        request(loading, escalated ? CrawlerEngine.Priority.USER : CrawlerEngine.Priority.PREFETCH);
+    }
+
+    private void request(RecipeCrawler.SearchCursor cursor, CrawlerEngine.Priority priority) {
+        int requested = generation;
+        inFlight++;
+        RecipeCrawler.RecipePageCallback callback = new RecipeCrawler.RecipePageCallback() {
+            @Override
+            public void onSuccess(RecipeCrawler.RecipePage page) {
+                // 같은 페이지를 두 번 요청했으면 먼저 온 결과만
+                if (requested == generation && loading == cursor) {
+                    append(page.getRecipes());
+                    loaded(page.getNext());
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                if (requested == generation && loading == cursor) {
+                    requestFailed(cursor, errorMessage);
+                }
+            }
+        };
+        if (priority == CrawlerEngine.Priority.USER) {
+            crawler.searchPage(cursor, callback);
+        } else {
+            crawler.prefetchSearchPage(cursor, callback);
+        }
+    }
+
+    private void append(List<RecipeCrawler.Recipe> page) {
+        int start = recipes.size();
+        for (RecipeCrawler.Recipe recipe : page) {
+            String key = recipe.getId() != null && !recipe.getId().isEmpty() ? recipe.getId() : recipe.getUrl();
+            if (seen.add(key)) {
+                recipes.add(recipe);
+            } else {
+                duplicates++;
+            }
+        }
+        if (recipes.size() > start) {
+            listener.onRecipesInserted(start, recipes.size() - start);
+        }
+    }
+
+    private void loaded(RecipeCrawler.SearchCursor nextPage) {
+        loading = null;
+        next = nextPage;
+        pagesLoaded++;
+        if (next == null) {
+            listener.onEnd(recipes.size());
+        } else {
+            maybeLoad(); // 새 항목이 모두 중복이었거나 화면이 길면 바로 다음 페이지
+        }
+    }
+
+    private void requestFailed(RecipeCrawler.SearchCursor cursor, String errorMessage) {
+        if (--inFlight > 0) {
+            return; // 같은 페이지의 다른 요청이 아직 진행 중
+        }
+        loading = null;
+        next = cursor;
+        failed = true;
+        listener.onError(errorMessage);
+    }
+}
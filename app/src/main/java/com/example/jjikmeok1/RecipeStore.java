@@ -0,0 +1,679 @@
+package com.example.jjikmeok1;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 받아 온 레시피 목록 항목(Recipe)과 상세 정보(RecipeDetail) 저장소 (메모리 매핑, 덧붙이기 전용)
+ *
+ * 레코드는 파일 끝에 덧붙이기만 하고 메모리에는 레시피 id → 파일 위치 표만 둔다.
+ * 읽을 때는 매핑한 파일에서 그 레코드 하나만 풀어 객체를 만들므로, 수천 개를 저장해도 힙에는 위치 표만 남는다.
+ * 문자열 길이는 varint로 적고, 작성자/재료 이름/재료 양/인분처럼 되풀이되는 문자열은
+ * 문자열 레코드로 한 번만 적은 뒤 번호로 가리킨다.
+ * 같은 id를 다시 쓰면 새 레코드가 이기고, 내용이 같으면 쓰지 않는다.
+ * 덮어써서 죽은 바이트가 살아 있는 바이트보다 많아지면 새 파일로 옮겨 담는다 (compact).
+ *
+ * 파일 형식: "JRS1" | version | (본문 길이 | CRC32 | 본문)*
+ *   STRING 본문: 종류 | 문자열                  (문자열 번호는 파일 안 등장 순서)
+ *   RECIPE 본문: 종류 | id | 제목 | 이미지 | 주소 | 작성자# | 조회수
+ *   DETAIL 본문: 종류 | id | 주소 | 제목 | 대표 이미지 | 소개 | 인분# | 시간# | 난이도#
+ *               | 재료 수 | (이름# | 양#)* | 단계 수 | (번호 | 설명 | 이미지)*
+ *   문자열 = varint(UTF-8 길이 + 1) + 바이트, # = varint(문자열 번호 + 1), 수 = varint(개수 + 1) (모두 0이면 null)
+ * 끝이 잘렸거나 CRC가 맞지 않는 레코드부터는 버린다 (쓰다가 죽은 경우).
+ * 레코드는 매핑에 바로 쓰고, 매핑(과 파일)은 두 배씩 미리 늘려 두었다가 닫을 때 end로 잘라 낸다.
+ */
+public final class RecipeStore {
+
+    private static final int MAGIC = 0x4A525331; // "JRS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private static final byte STRING = 1;
+    private static final byte RECIPE = 2;
+    private static final byte DETAIL = 3;
+
+    // 죽은 바이트가 이보다 적으면 옮겨 담지 않음
+    private static final long COMPACT_MIN_BYTES = 256 * 1024;
+    // 매핑은 이 크기부터 두 배씩 늘림 (덧붙일 때마다 다시 매핑하지 않게)
+    private static final long MAP_MIN_BYTES = 64 * 1024;
+
+    private static RecipeStore shared;
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer map; // [0, 용량) 읽기/쓰기, 파일도 용량까지 0으로 늘어나 있음 (닫을 때 end로 자름)
+    private long end; // 올바른 레코드가 끝나는 위치 (= 다음 레코드를 쓸 위치)
+
+    // 레시피 id → 레코드 시작 위치
+    private final Map<String, Integer> recipes = new HashMap<>();
+    private final Map<String, Integer> details = new HashMap<>();
+    // 문자열 번호 → 문자열 본문 위치, 푼 문자열은 strings에 (필요할 때만)
+    private int[] stringOffsets = new int[64];
+    private String[] strings = new String[64];
+    private int stringCount;
+    private Map<String, Integer> stringIds; // 처음 쓸 때 만듦
+
+    private long garbageBytes;
+    private long diskErrors;
+    private int maps;
+    private boolean opened;
+
+    RecipeStore(File file) {
+        this.file = file;
+    }
+
+    public static synchronized RecipeStore get(Context context) {
+        if (shared == null) {
+            shared = new RecipeStore(new File(context.getApplicationContext().getFilesDir(), "recipe_store.bin"));
+        }
+        return shared;
+    }
+
+    /**
+     * 목록 항목 저장 (id 없는 항목은 건너뜀)
+     * @return 새로 쓴 항목 수 (내용이 같은 항목은 세지 않음)
+     */
+    public synchronized int putRecipes(List<RecipeCrawler.Recipe> list) {
+        if (!ensureOpen()) {
+            return 0;
+        }
+        Buffer out = new Buffer();
+        List<String> ids = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        for (RecipeCrawler.Recipe recipe : list) {
+            if (recipe.getId() == null || recipe.getId().isEmpty()) {
+                continue;
+            }
+            int mark = out.length;
+            int pendingStrings = stringCount;
+            Buffer body = new Buffer();
+            body.writeByte(RECIPE);
+            body.writeString(recipe.getId());
+            body.writeString(recipe.getTitle());
+            body.writeString(recipe.getImageUrl());
+            body.writeString(recipe.getUrl());
+            body.writeVarint(intern(recipe.getAuthor(), out));
+            body.writeString(recipe.getViewCount());
+            if (stringCount == pendingStrings && sameRecord(recipes.get(recipe.getId()), body)) {
+                out.length = mark;
+                continue;
+            }
+            ids.add(recipe.getId());
+            offsets.add((int) (end + out.length));
+            out.writeRecord(body);
+        }
+        if (!append(out)) {
+            return 0;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            replace(recipes, ids.get(i), offsets.get(i));
+        }
+        compactIfNeeded();
+        return ids.size();
+    }
+
+    public boolean putRecipe(RecipeCrawler.Recipe recipe) {
+        return putRecipes(Collections.singletonList(recipe)) > 0;
+    }
+
+    /**
+     * 상세 정보 저장
+     * @return 새로 썼으면 true (내용이 같거나 id가 없으면 false)
+     */
+    public synchronized boolean putDetail(RecipeCrawler.RecipeDetail detail) {
+        if (detail.getId() == null || detail.getId().isEmpty() || !ensureOpen()) {
+            return false;
+        }
+        Buffer out = new Buffer();
+        int pendingStrings = stringCount;
+        Buffer body = new Buffer();
+        body.writeByte(DETAIL);
+        body.writeString(detail.getId());
+        body.writeString(detail.getUrl());
+        body.writeString(detail.getTitle());
+        body.writeString(detail.getMainImageUrl());
+        body.writeString(detail.getIntro());
+        body.writeVarint(intern(detail.getServings(), out));
+        body.writeVarint(intern(detail.getCookTime(), out));
+        body.writeVarint(intern(detail.getDifficulty(), out));
+        List<String> ingredients = detail.getIngredients();
+        body.writeVarint(ingredients != null ? ingredients.size() + 1 : 0);
+        if (ingredients != null) {
+            for (String ingredient : ingredients) {
+                // "돼지고기 200g" → "돼지고기 " + "200g": 이름과 양을 따로 문자열 표에
+                int split = amountStart(ingredient);
+                body.writeVarint(intern(ingredient != null ? ingredient.substring(0, split) : null, out));
+                body.writeVarint(intern(ingredient != null ? ingredient.substring(split) : null, out));
+            }
+        }
+        List<RecipeCrawler.RecipeStep> steps = detail.getSteps();
+        body.writeVarint(steps != null ? steps.size() + 1 : 0);
+        if (steps != null) {
+            for (RecipeCrawler.RecipeStep step : steps) {
+                body.writeVarint(step.getStepNumber());
+                body.writeString(step.getDescription());
+                body.writeString(step.getImageUrl());
+            }
+        }
+        if (stringCount == pendingStrings && sameRecord(details.get(detail.getId()), body)) {
+            return false;
+        }
+        long offset = end + out.length;
+        out.writeRecord(body);
+        if (!append(out)) {
+            return false;
+        }
+        replace(details, detail.getId(), (int) offset);
+        compactIfNeeded();
+        return true;
+    }
+
+    /** 저장된 목록 항목, 없으면 null */
+    public synchronized RecipeCrawler.Recipe getRecipe(String id) {
+        ByteBuffer in = record(recipes, id);
+        if (in == null) {
+            return null;
+        }
+        try {
+            RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+            recipe.setId(readString(in));
+            recipe.setTitle(readString(in));
+            recipe.setImageUrl(readString(in));
+            recipe.setUrl(readString(in));
+            recipe.setAuthor(readRef(in));
+            recipe.setViewCount(readString(in));
+            return recipe;
+        } catch (RuntimeException e) {
+            return corrupt(recipes, id);
+        }
+    }
+
+    /** 저장된 상세 정보, 없으면 null */
+    public synchronized RecipeCrawler.RecipeDetail getDetail(String id) {
+        ByteBuffer in = record(details, id);
+        if (in == null) {
+            return null;
+        }
+        try {
+            RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+            detail.setId(readString(in));
+            detail.setUrl(readString(in));
+            detail.setTitle(readString(in));
+            detail.setMainImageUrl(readString(in));
+            detail.setIntro(readString(in));
+            detail.setServings(readRef(in));
+            detail.setCookTime(readRef(in));
+            detail.setDifficulty(readRef(in));
+            int ingredientCount = readVarint(in) - 1;
+            if (ingredientCount >= 0) {
+                List<String> ingredients = new ArrayList<>(ingredientCount);
+                for (int i = 0; i < ingredientCount; i++) {
+                    String name = readRef(in);
+                    String amount = readRef(in);
+                    ingredients.add(name != null ? name + amount : null);
+                }
+                detail.setIngredients(ingredients);
+            }
+            int stepCount = readVarint(in) - 1;
+            if (stepCount >= 0) {
+                List<RecipeCrawler.RecipeStep> steps = new ArrayList<>(stepCount);
+                for (int i = 0; i < stepCount; i++) {
+                    RecipeCrawler.RecipeStep step = new RecipeCrawler.RecipeStep();
+                    step.setStepNumber(readVarint(in));
+                    step.setDescription(readString(in));
+                    step.setImageUrl(readString(in));
+                    steps.add(step);
+                }
+                detail.setSteps(steps);
+            }
+            return detail;
+        } catch (RuntimeException e) {
+            return corrupt(details, id);
+        }
+    }
+
+    public synchronized boolean hasDetail(String id) {
+        return ensureOpen() && details.containsKey(id);
+    }
+
+    public synchronized int getRecipeCount() {
+        ensureOpen();
+        return recipes.size();
+    }
+
+    public synchronized int getDetailCount() {
+        ensureOpen();
+        return details.size();
+    }
+
+    public synchronized int getStringCount() {
+        ensureOpen();
+        return stringCount;
+    }
+
+    public synchronized long getFileBytes() {
+        ensureOpen();
+        return end;
+    }
+
+    /** 덮어써서 더는 읽지 않는 레코드 바이트 */
+    public synchronized long getGarbageBytes() {
+        ensureOpen();
+        return garbageBytes;
+    }
+
+    public synchronized long getDiskErrors() {
+        return diskErrors;
+    }
+
+    /** 파일을 (다시) 매핑한 횟수 */
+    synchronized int getMapCount() {
+        return maps;
+    }
+
+    /**
+     * 살아 있는 레코드만 새 파일로 옮겨 담음 (문자열 표도 쓰이는 것만 다시 만듦)
+     */
+    public synchronized void compact() {
+        if (!ensureOpen()) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        temp.delete();
+        RecipeStore fresh = new RecipeStore(temp);
+        List<RecipeCrawler.Recipe> list = new ArrayList<>(recipes.size());
+        for (String id : sortedByOffset(recipes)) {
+            RecipeCrawler.Recipe recipe = getRecipe(id);
+            if (recipe != null) {
+                list.add(recipe);
+            }
+        }
+        fresh.putRecipes(list);
+        for (String id : sortedByOffset(details)) {
+            RecipeCrawler.RecipeDetail detail = getDetail(id);
+            if (detail != null) {
+                fresh.putDetail(detail);
+            }
+        }
+        fresh.close();
+        close();
+        if (fresh.getDiskErrors() > 0 || !temp.renameTo(file)) {
+            diskErrors++;
+            temp.delete();
+        }
+    }
+
+    /** 파일을 닫음 (다음에 쓰거나 읽을 때 다시 엶) */
+    public synchronized void close() {
+        boolean mapped = map != null;
+        map = null;
+        if (raf != null) {
+            try {
+                if (mapped) {
+                    channel.truncate(end); // 미리 늘려 둔 뒤쪽 0을 잘라 냄
+                }
+                raf.close();
+            } catch (IOException e) {
+                diskErrors++;
+            }
+        }
+        raf = null;
+        channel = null;
+        map = null;
+        end = 0;
+        recipes.clear();
+        details.clear();
+        stringOffsets = new int[64];
+        strings = new String[64];
+        stringCount = 0;
+        stringIds = null;
+        garbageBytes = 0;
+        opened = false;
+    }
+
+    // 재료 한 줄에서 양이 시작하는 위치 (첫 숫자/분수, 없으면 끝)
+    static int amountStart(String ingredient) {
+        if (ingredient == null) {
+            return 0;
+        }
+        for (int i = 0; i < ingredient.length(); i++) {
+            char c = ingredient.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= '¼' && c <= '¾') || (c >= '⅐' && c <= '⅞')) {
+                return i;
+            }
+        }
+        return ingredient.length();
+    }
+
+    // 처음 쓸 때 파일을 열고 레코드 머리만 훑어 위치 표를 만듦 (본문은 풀지 않음)
+    private boolean ensureOpen() {
+        if (opened) {
+            return raf != null;
+        }
+        opened = true;
+        try {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) {
+                throw new IOException("디렉터리를 만들 수 없음: " + dir);
+            }
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_BYTES || raf.readInt() != MAGIC || raf.readInt() != VERSION) {
+                if (size > 0) {
+                    diskErrors++; // 형식이 다르거나 깨진 파일은 비우고 시작
+                }
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.write(header, 0);
+                size = HEADER_BYTES;
+            }
+            end = HEADER_BYTES;
+            remap(capacityFor(size));
+            scan(size);
+            if (end < size) {
+                // 닫지 못하고 끝난 경우 뒤는 미리 늘려 둔 0, 아니면 쓰다 만 레코드
+                if (end + 4 > size || map.getInt((int) end) != 0) {
+                    diskErrors++;
+                }
+                map = null;
+                channel.truncate(end);
+                remap(capacityFor(end));
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            diskErrors++;
+            map = null; // 다 읽지 못한 파일은 자르지 않음
+            close();
+            opened = true; // 이번 실행에서는 저장소 없이
+            return false;
+        }
+    }
+
+    private void scan(long size) {
+        CRC32 crc = new CRC32();
+        while (end + RECORD_HEADER_BYTES <= size) {
+            int position = (int) end;
+            int length = map.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + (long) length > size) {
+                return;
+            }
+            ByteBuffer body = slice(position + RECORD_HEADER_BYTES, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != map.getInt(position + 4)) {
+                return;
+            }
+            byte kind = body.get();
+            if (kind == STRING) {
+                addString(position + RECORD_HEADER_BYTES + 1);
+            } else if (kind == RECIPE) {
+                replace(recipes, readString(body), position);
+            } else if (kind == DETAIL) {
+                replace(details, readString(body), position);
+            } else {
+                return;
+            }
+            end = position + RECORD_HEADER_BYTES + length;
+        }
+    }
+
+    private void remap(long capacity) throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        maps++;
+    }
+
+    private static long capacityFor(long size) {
+        long capacity = MAP_MIN_BYTES;
+        while (capacity < size) {
+            capacity *= 2;
+        }
+        return Math.min(capacity, Integer.MAX_VALUE);
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer buffer = map.duplicate();
+        buffer.limit(offset + length).position(offset);
+        return buffer.slice();
+    }
+
+    // 레코드 본문 (종류 바이트 다음, id부터)
+    private ByteBuffer record(Map<String, Integer> table, String id) {
+        if (!ensureOpen()) {
+            return null;
+        }
+        Integer offset = table.get(id);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            ByteBuffer body = slice(offset + RECORD_HEADER_BYTES, map.getInt(offset));
+            body.get(); // 종류
+            return body;
+        } catch (RuntimeException e) {
+            return corrupt(table, id);
+        }
+    }
+
+    private <T> T corrupt(Map<String, Integer> table, String id) {
+        diskErrors++;
+        table.remove(id);
+        return null;
+    }
+
+    // 레코드를 덮어쓰면 이전 레코드는 죽은 바이트로
+    private void replace(Map<String, Integer> table, String id, int offset) {
+        Integer previous = table.put(id, offset);
+        if (previous != null) {
+            garbageBytes += RECORD_HEADER_BYTES + map.getInt(previous);
+        }
+    }
+
+    private boolean sameRecord(Integer offset, Buffer body) {
+        if (offset == null) {
+            return false;
+        }
+        if (map.getInt(offset) != body.length) {
+            return false;
+        }
+        byte[] stored = new byte[body.length];
+        slice(offset + RECORD_HEADER_BYTES, body.length).get(stored);
+        return Arrays.equals(stored, body.bytes());
+    }
+
+    private boolean append(Buffer out) {
+        if (out.length == 0) {
+            return true;
+        }
+        try {
+            long needed = end + out.length;
+            if (needed > map.capacity()) {
+                if (needed > Integer.MAX_VALUE) {
+                    throw new IOException("저장소가 너무 큼: " + needed);
+                }
+                remap(capacityFor(needed));
+            }
+            // 매핑에 바로 써서 방금 쓴 레코드도 같은 매핑으로 읽음
+            ByteBuffer target = map.duplicate();
+            target.position((int) end);
+            target.put(out.data, 0, out.length);
+            end = needed;
+            return true;
+        } catch (IOException e) {
+            // 문자열 번호가 파일과 어긋났을 수 있으니 다음에 파일에서 다시 읽음
+            diskErrors++;
+            close();
+            return false;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (garbageBytes >= COMPACT_MIN_BYTES && garbageBytes > end - garbageBytes) {
+            compact();
+        }
+    }
+
+    private static List<String> sortedByOffset(Map<String, Integer> table) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(table.entrySet());
+        entries.sort((a, b) -> Integer.compare(a.getValue(), b.getValue()));
+        List<String> ids = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Integer> entry : entries) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private void addString(int offset) {
+        if (stringCount == stringOffsets.length) {
+            stringOffsets = Arrays.copyOf(stringOffsets, stringCount * 2);
+            strings = Arrays.copyOf(strings, stringCount * 2);
+        }
+        stringOffsets[stringCount++] = offset;
+    }
+
+    /**
+     * 문자열 번호 + 1 (null이면 0), 표에 없으면 out에 문자열 레코드를 덧붙이고 번호를 새로 줌
+     */
+    private int intern(String value, Buffer out) {
+        if (value == null) {
+            return 0;
+        }
+        if (stringIds == null) {
+            stringIds = new HashMap<>(stringCount * 2);
+            for (int i = 0; i < stringCount; i++) {
+                stringIds.put(string(i), i);
+            }
+        }
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            Buffer body = new Buffer();
+            body.writeByte(STRING);
+            body.writeString(value);
+            int offset = (int) (end + out.length + RECORD_HEADER_BYTES + 1);
+            out.writeRecord(body);
+            id = stringCount;
+            addString(offset);
+            strings[id] = value;
+            stringIds.put(value, id);
+        }
+        return id + 1;
+    }
+
+    private String string(int id) {
+        String value = strings[id];
+        if (value == null) {
+            ByteBuffer in = map.duplicate();
+            in.position(stringOffsets[id]);
+            value = readString(in);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private String readRef(ByteBuffer in) {
+        int ref = readVarint(in);
+        if (ref > stringCount) {
+            throw new IllegalStateException("문자열 번호 범위 밖: " + ref);
+        }
+        return ref == 0 ? null : string(ref - 1);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarint(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /** 레코드를 만드는 바이트 버퍼 */
+    private static final class Buffer {
+        byte[] data = new byte[256];
+        int length;
+
+        void writeByte(int value) {
+            ensure(1);
+            data[length++] = (byte) value;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+        }
+
+        // 본문 길이 | CRC32 | 본문
+        void writeRecord(Buffer body) {
+            CRC32 crc = new CRC32();
+            crc.update(body.data, 0, body.length);
+            ensure(RECORD_HEADER_BYTES + body.length);
+            ByteBuffer.wrap(data, length, RECORD_HEADER_BYTES).putInt(body.length).putInt((int) crc.getValue());
+            length += RECORD_HEADER_BYTES;
+            System.arraycopy(body.data, 0, data, length, body.length);
+            length += body.length;
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(data, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "RecipeStore{recipes=%d, details=%d, strings=%d, bytes=%d, garbage=%d}",
+                recipes.size(), details.size(), stringCount, end, garbageBytes);
+    }
+}
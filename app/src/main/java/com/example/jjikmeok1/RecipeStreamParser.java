@@ -0,0 +1,113 @@
+package com.example.jjikmeok1;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 검색 결과 페이지 점진 파서
+ *
+ * 응답 본문을 조각(8KB)씩 읽으면서 li.common_sp_list_li 항목이 닫히는 즉시 그 조각만 Jsoup으로 파싱해 넘긴다.
+ * 전체 Document를 만들고 select를 여러 번 돌리는 대신 첫 항목이 도착하자마자 결과를 낼 수 있고,
+ * Listener가 false를 돌려주면 나머지 본문은 읽지 않는다.
+ * (jsoup 1.18의 StreamParser가 같은 일을 하지만 앱은 1.17을 쓰므로 태그 경계만 직접 찾는다)
+ */
+final class RecipeStreamParser {
+
+    interface Listener {
+        /**
+         * 항목 하나가 완성됨
+         * @return false면 읽기 중단
+         */
+        boolean onItem(Element item);
+
+        /** 읽은 조각 하나의 처리가 끝남 (모아 둔 결과를 한 번에 넘기기 좋은 시점) */
+        void onChunk();
+    }
+
+    private static final String ITEM_CLASS = "common_sp_list_li";
+    private static final int CHUNK_CHARS = 8192;
+
+    // 지금까지 읽은 본문 (항목 구조가 다른 페이지면 전체 파싱으로 대체할 때 사용)
+    private final StringBuilder text = new StringBuilder();
+    private int cursor;
+    private int itemStart = -1;
+    private int depth;
+    private int items;
+
+    /**
+     * @return 본문 끝까지 읽었으면 true, Listener가 중단시켰으면 false
+     */
+    boolean parse(Reader reader, String baseUri, Listener listener) throws IOException {
+        char[] buffer = new char[CHUNK_CHARS];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+            if (!scan(baseUri, listener)) {
+                return false;
+            }
+            listener.onChunk();
+        }
+        return true;
+    }
+
+    String getText() {
+        return text.toString();
+    }
+
+    int getItemCount() {
+        return items;
+    }
+
+    /** 읽은 글자 수 (UTF-16 단위, 본문 바이트 수와 다름) */
+    int getLength() {
+        return text.length();
+    }
+
+    // 완성된 태그만 따라가며 li 깊이를 셈 (닫는 '>'가 아직 안 왔으면 다음 조각에서 이어서)
+    private boolean scan(String baseUri, Listener listener) {
+        while (true) {
+            int lt = text.indexOf("<", cursor);
+            if (lt < 0) {
+                cursor = text.length();
+                return true;
+            }
+            int gt = text.indexOf(">", lt);
+            if (gt < 0) {
+                cursor = lt;
+                return true;
+            }
+            cursor = gt + 1;
+            if (isTag(lt, "<li")) {
+                if (itemStart >= 0) {
+                    depth++;
+                } else if (text.substring(lt, gt).contains(ITEM_CLASS)) {
+                    itemStart = lt;
+                    depth = 1;
+                }
+            } else if (isTag(lt, "</li") && itemStart >= 0 && --depth == 0) {
+                String fragment = text.substring(itemStart, gt + 1);
+                itemStart = -1;
+                Element item = Jsoup.parseBodyFragment(fragment, baseUri).selectFirst("li");
+                if (item != null) {
+                    items++;
+                    if (!listener.onItem(item)) {
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+
+    // "<li" 뒤가 공백, '>' 또는 '/'일 때만 (<link 등 제외)
+    private boolean isTag(int at, String name) {
+        int end = at + name.length();
+        if (end >= text.length() || !text.substring(at, end).equalsIgnoreCase(name)) {
+            return false;
+        }
+        char next = text.charAt(end);
+        return next == '>' || next == '/' || Character.isWhitespace(next);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.jjikmeok1;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * 같은 요청 합치기 (single-flight)
+ *
+ * 같은 key(검색어, 페이지, 레시피 id)의 요청이 이미 진행 중이면 새로 받지 않고 그 요청의 결과를 같이 받는다.
+ * 결과 객체는 기다리던 호출 모두에게 같은 것이 가고, 오류도 모두에게 전달된다.
+ * 끝난 요청은 바로 목록에서 빠지므로 그 뒤의 같은 요청은 새로 받는다 (결과 재사용은 RecipeCache가 맡음).
+ * 엔진 대기열에 있는 PREFETCH 요청에 USER 요청이 붙으면 대기 중인 요청을 취소하고 USER로 다시 넣게 한다.
+ * 받는 도중 나오는 부분 결과(점진 검색)는 늦게 붙은 호출에게 지금까지 나온 것부터 다시 전달한다.
+ * 앱 공용 인스턴스는 화면마다 만드는 RecipeCrawler들이 같이 쓰므로, 화면을 빨리 다시 열어도 요청이 한 번만 나간다.
+ */
+final class SingleFlight {
+
+    private static SingleFlight shared;
+
+    /** 요청을 기다리는 호출 하나 */
+    static final class Waiter<P, T> {
+        final Object owner;
+        final Executor executor;
+        final Consumer<P> onPartial; // null이면 부분 결과는 받지 않음
+        final Consumer<T> onSuccess;
+        final Consumer<String> onError;
+
+        /**
+         * @param owner 요청한 쪽 (leaveAll로 한꺼번에 뺄 때)
+         * @param executor 콜백을 실행할 곳
+         */
+        Waiter(Object owner, Executor executor, Consumer<P> onPartial, Consumer<T> onSuccess,
+               Consumer<String> onError) {
+            this.owner = owner;
+            this.executor = executor;
+            this.onPartial = onPartial;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+    }
+
+    /** 진행 중인 요청 하나 */
+    static final class Flight<P, T> {
+        final String key;
+        private final List<Waiter<P, T>> waiters = new ArrayList<>();
+        private final List<P> partials = new ArrayList<>();
+        // 전달할 콜백 (순서대로, 한 번에 한 스레드만 꺼내 실행)
+        private final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+        private boolean draining;
+        private CrawlerEngine.Priority priority;
+        private Future<?> future;
+        private boolean started;
+
+        Flight(String key, CrawlerEngine.Priority priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        CrawlerEngine.Priority getPriority() {
+            return priority;
+        }
+    }
+
+    private final Map<String, Flight<?, ?>> flights = new HashMap<>();
+    private long started;
+    private long coalesced;
+    private long promoted;
+    private long failed;
+
+    static synchronized SingleFlight shared() {
+        if (shared == null) {
+            shared = new SingleFlight();
+        }
+        return shared;
+    }
+
+    /**
+     * 요청에 합류
+     * 콜백은 잠금 안에서 순서대로 쌓기만 하고 잠금 밖에서 실행한다 (drain).
+     * @return 엔진에 요청을 넣어야 하면 그 Flight (처음 요청이거나 대기 중이던 PREFETCH를 USER로 올린 경우),
+     *         진행 중인 요청에 붙었으면 null
+     */
+    @SuppressWarnings("unchecked")
+    <P, T> Flight<P, T> join(String key, CrawlerEngine.Priority priority, Waiter<P, T> waiter) {
+        Flight<P, T> flight;
+        boolean promote;
+        synchronized (this) {
+            flight = (Flight<P, T>) flights.get(key);
+            if (flight == null) {
+                flight = new Flight<>(key, priority);
+                flight.waiters.add(waiter);
+                flights.put(key, flight);
+                started++;
+                return flight;
+            }
+            coalesced++;
+            flight.waiters.add(waiter);
+            if (waiter.onPartial != null) {
+                for (P partial : flight.partials) {
+                    flight.deliveries.add(() -> waiter.executor.execute(() -> waiter.onPartial.accept(partial)));
+                }
+            }
+            promote = priority == CrawlerEngine.Priority.USER && flight.priority == CrawlerEngine.Priority.PREFETCH
+                    && !flight.started && flight.future != null && flight.future.cancel(false);
+            if (promote) {
+                // 아직 시작하지 않은 미리 받기는 버리고 사용자 요청 대기열로 다시
+                flight.priority = priority;
+                flight.future = null;
+                promoted++;
+            }
+        }
+        drain(flight);
+        return promote ? flight : null;
+    }
+
+    /** 엔진에 넣은 요청 (대기 중일 때 취소/우선순위 올리기용) */
+    synchronized void attach(Flight<?, ?> flight, Future<?> future) {
+        if (!flight.started && flights.get(flight.key) == flight) {
+            flight.future = future;
+        }
+    }
+
+    /**
+     * 작업 스레드에서 요청을 시작할 때
+     * @return 이미 끝났거나 버려진 요청이면 false (받지 말 것)
+     */
+    synchronized boolean begin(Flight<?, ?> flight) {
+        if (flights.get(flight.key) != flight) {
+            return false;
+        }
+        flight.started = true;
+        return true;
+    }
+
+    /** 부분 결과: 지금 기다리는 호출에 전달하고 늦게 붙을 호출을 위해 남겨 둠 */
+    <P, T> void partial(Flight<P, T> flight, P partial) {
+        synchronized (this) {
+            if (flights.get(flight.key) != flight) {
+                return;
+            }
+            flight.partials.add(partial);
+            for (Waiter<P, T> waiter : flight.waiters) {
+                if (waiter.onPartial != null) {
+                    flight.deliveries.add(() -> waiter.executor.execute(() -> waiter.onPartial.accept(partial)));
+                }
+            }
+        }
+        drain(flight);
+    }
+
+    <P, T> void succeed(Flight<P, T> flight, T result) {
+        synchronized (this) {
+            for (Waiter<P, T> waiter : finish(flight, false)) {
+                flight.deliveries.add(() -> waiter.executor.execute(() -> waiter.onSuccess.accept(result)));
+            }
+        }
+        drain(flight);
+    }
+
+    <P, T> void fail(Flight<P, T> flight, String errorMessage) {
+        synchronized (this) {
+            for (Waiter<P, T> waiter : finish(flight, true)) {
+                flight.deliveries.add(() -> waiter.executor.execute(() -> waiter.onError.accept(errorMessage)));
+            }
+        }
+        drain(flight);
+    }
+
+    // 목록에서 빼고 기다리던 호출을 돌려줌
+    private <P, T> List<Waiter<P, T>> finish(Flight<P, T> flight, boolean error) {
+        if (flights.get(flight.key) != flight) {
+            return new ArrayList<>();
+        }
+        flights.remove(flight.key);
+        if (error) {
+            failed++;
+        }
+        return new ArrayList<>(flight.waiters);
+    }
+
+    /**
+     * 쌓인 콜백을 잠금 밖에서 순서대로 실행
+     * 이미 다른 스레드(또는 콜백 안에서 다시 부른 이 스레드)가 꺼내고 있으면 그쪽에 맡기고 바로 돌아온다.
+     * 그래서 바로 실행하는 executor의 콜백에서 join/leave를 불러도 막히지 않고 순서도 지켜진다.
+     */
+    private void drain(Flight<?, ?> flight) {
+        synchronized (this) {
+            if (flight.draining) {
+                return;
+            }
+            flight.draining = true;
+        }
+        boolean emptied = false;
+        try {
+            while (true) {
+                Runnable delivery;
+                synchronized (this) {
+                    delivery = flight.deliveries.poll();
+                    if (delivery == null) {
+                        flight.draining = false;
+                        emptied = true;
+                        return;
+                    }
+                }
+                delivery.run();
+            }
+        } finally {
+            if (!emptied) {
+                // 콜백이 예외를 던짐: 남은 콜백은 다음 drain에서
+                synchronized (this) {
+                    flight.draining = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 결과가 필요 없어진 호출 하나를 뺌
+     * 아무도 기다리지 않고 아직 시작하지 않은 요청이면 엔진 대기열에서도 취소
+     */
+    synchronized void leave(String key, Waiter<?, ?> waiter) {
+        Flight<?, ?> flight = flights.get(key);
+        if (flight == null || !flight.waiters.remove(waiter)) {
+            return;
+        }
+        if (flight.waiters.isEmpty() && !flight.started && flight.future != null && flight.future.cancel(false)) {
+            flights.remove(key);
+        }
+    }
+
+    /**
+     * owner의 호출을 모두 뺌 (콜백은 부르지 않음)
+     * 다른 호출이 기다리지 않게 된 요청은 진행 중이어도 취소한다 (인터럽트).
+     */
+    synchronized void leaveAll(Object owner) {
+        Iterator<Flight<?, ?>> it = flights.values().iterator();
+        while (it.hasNext()) {
+            Flight<?, ?> flight = it.next();
+            flight.waiters.removeIf(waiter -> waiter.owner == owner);
+            if (flight.waiters.isEmpty()) {
+                if (flight.future != null) {
+                    flight.future.cancel(true);
+                }
+                it.remove();
+            }
+        }
+    }
+
+    /** 새로 받은 요청 수 */
+    synchronized long getStarted() {
+        return started;
+    }
+
+    /** 진행 중인 같은 요청에 붙어 네트워크/파싱을 건너뛴 호출 수 */
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /** 대기 중인 미리 받기에 붙으면서 USER로 올린 횟수 */
+    synchronized long getPromoted() {
+        return promoted;
+    }
+
+    synchronized long getFailed() {
+        return failed;
+    }
+
+    synchronized int getInFlight() {
+        return flights.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "SingleFlight{started=%d, coalesced=%d, promoted=%d, failed=%d, inFlight=%d}",
+                started, coalesced, promoted, failed, flights.size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.jjikmeok1;
+
+import android.graphics.Bitmap;
+import android.graphics.RectF;
+import android.util.Log;
+
+import com.example.jjikmeok1.detection.GridNms;
+import com.example.jjikmeok1.detection.TileMerger;
+import com.example.jjikmeok1.detection.TilePlanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 고해상도 사진용 타일 추론
+ *
+ * 큰 이미지를 겹치는 640px 타일(+ 전체 이미지 패스)로 나눠 각각 분석하고,
+ * 박스를 원본 좌표로 모아 타일 간 NMS로 병합한다. 한 장 전체를 640으로 줄이면 사라지는
+ * 마늘, 고추 같은 작은 재료를 잡기 위한 모드이며, 타일 수는 TilePlanner가 최대 개수로 제한한다.
+ * 작은 이미지는 타일 없이 기존 detectObjects와 같은 한 번의 추론으로 처리된다.
+ */
+public class TiledDetector {
+    private static final String TAG = "TiledDetector";
+
+    // 전체 이미지 패스 1 + 타일 최대 8 → 추론 최대 9회
+    private static final int TILE_SIZE = 640;
+    private static final float TILE_OVERLAP = 0.2f;
+    private static final int MAX_TILES = 9;
+    private static final float IOU_THRESHOLD = 0.45f;
+    // 타일 경계에서 잘린 박스가 온전한 박스 안에 이 비율 이상 들어가 있으면 제거
+    private static final float CONTAINMENT_THRESHOLD = 0.7f;
+
+    private final TilePlanner planner;
+    private final TileMerger merger = new TileMerger(new GridNms(IOU_THRESHOLD), CONTAINMENT_THRESHOLD, 256);
+    private final List<YOLOv5Detector.Recognition> pending = new ArrayList<>();
+    private int[] keep = new int[256];
+
+    public TiledDetector() {
+        this(new TilePlanner(TILE_SIZE, TILE_OVERLAP, MAX_TILES, true));
+    }
+
+    public TiledDetector(TilePlanner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * 사진을 디코딩할 긴 변: 이보다 크게 풀어도 타일이 커져 다시 축소되므로 메모리만 더 든다
+     */
+    public int decodeLongSide(int imageWidth, int imageHeight) {
+        return planner.nativeLongSide(imageWidth, imageHeight);
+    }
+
+    public List<TilePlanner.Tile> plan(Bitmap bitmap) {
+        return planner.plan(bitmap.getWidth(), bitmap.getHeight());
+    }
+
+    /**
+     * 탐지기 하나로 타일을 순서대로 분석
+     */
+    public List<YOLOv5Detector.Recognition> detect(YOLOv5Detector detector, Bitmap bitmap) {
+        return detect(detector, bitmap, () -> false);
+    }
+
+    /**
+     * 탐지기 하나로 타일을 순서대로 분석하되, 타일 사이마다 취소 여부를 확인
+     * @throws CancellationException cancelled가 true가 되면 남은 타일은 분석하지 않음
+     */
+    public synchronized List<YOLOv5Detector.Recognition> detect(YOLOv5Detector detector, Bitmap bitmap,
+                                                                BooleanSupplier cancelled) {
+        List<TilePlanner.Tile> tiles = plan(bitmap);
+        long start = System.nanoTime();
+        begin(bitmap);
+        for (TilePlanner.Tile tile : tiles) {
+            if (cancelled.getAsBoolean()) {
+                pending.clear();
+                throw new CancellationException("Tiled detection cancelled");
+            }
+            add(tile, detector.detectRegion(bitmap, tile.getLeft(), tile.getTop(),
+                    tile.getWidth(), tile.getHeight()));
+        }
+        return finish(tiles.size(), start);
+    }
+
+    /**
+     * 탐지기 풀에 타일을 나눠 병렬로 분석
+     */
+    public synchronized List<YOLOv5Detector.Recognition> detect(DetectorPool pool, Bitmap bitmap)
+            throws InterruptedException, ExecutionException {
+        List<TilePlanner.Tile> tiles = plan(bitmap);
+        long start = System.nanoTime();
+        List<Future<List<YOLOv5Detector.Recognition>>> futures = new ArrayList<>(tiles.size());
+        for (TilePlanner.Tile tile : tiles) {
+            futures.add(pool.submitRegion(bitmap, tile.getLeft(), tile.getTop(),
+                    tile.getWidth(), tile.getHeight()));
+        }
+        begin(bitmap);
+        try {
+            for (int t = 0; t < tiles.size(); t++) {
+                add(tiles.get(t), futures.get(t).get());
+            }
+        } finally {
+            for (Future<List<YOLOv5Detector.Recognition>> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return finish(tiles.size(), start);
+    }
+
+    private void begin(Bitmap bitmap) {
+        merger.reset(bitmap.getWidth(), bitmap.getHeight());
+        pending.clear();
+    }
+
+    private void add(TilePlanner.Tile tile, List<YOLOv5Detector.Recognition> recognitions) {
+        for (YOLOv5Detector.Recognition recognition : recognitions) {
+            RectF box = recognition.getLocation();
+            merger.add(tile, recognition.getClassId(), recognition.getConfidence(),
+                    box.left, box.top, box.right, box.bottom);
+            pending.add(recognition);
+        }
+    }
+
+    private List<YOLOv5Detector.Recognition> finish(int tileCount, long start) {
+        if (keep.length < merger.size()) {
+            keep = new int[merger.size()];
+        }
+        int kept = merger.merge(keep);
+        List<YOLOv5Detector.Recognition> results = new ArrayList<>(kept);
+        for (int k = 0; k < kept; k++) {
+            results.add(pending.get(keep[k]));
+        }
+        pending.clear();
+        Log.d(TAG, String.format("%d tiles, %d boxes -> %d merged in %.1f ms",
+                tileCount, merger.size(), kept, (System.nanoTime() - start) / 1e6));
+        return results;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.jjikmeok1;
+
+import android.graphics.RectF;
+
+import com.example.jjikmeok1.detection.DetectionBuffer;
+import com.example.jjikmeok1.detection.ObjectTracker;
+import com.example.jjikmeok1.detection.SceneChangeDetector;
+import com.example.jjikmeok1.detection.YuvFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍용 탐지 건너뛰기
+ *
+ * 전체 탐지는 DETECTION_INTERVAL 프레임마다(또는 장면이 크게 바뀌었을 때)만 실행하고,
+ * 그 사이 프레임은 ObjectTracker가 운동 예측한 박스를 돌려준다.
+ * 분석 스레드 하나에서만 호출한다.
+ */
+public class TrackingDetector {
+    private static final int DETECTION_INTERVAL = 4;
+    private static final float SCENE_CHANGE_THRESHOLD = 0.12f;
+    private static final float MATCH_IOU = 0.3f;
+    private static final int MAX_MISSES = 2;
+
+    private final YOLOv5Detector detector;
+    private final ObjectTracker tracker =
+            new ObjectTracker(DETECTION_INTERVAL, SCENE_CHANGE_THRESHOLD, MATCH_IOU, MAX_MISSES);
+    private final SceneChangeDetector sceneChange = new SceneChangeDetector();
+    private final DetectionBuffer detections = new DetectionBuffer(64);
+
+    public TrackingDetector(YOLOv5Detector detector) {
+        this.detector = detector;
+    }
+
+    /**
+     * 프레임 하나 처리. 반환 좌표는 detectFrame과 같은 화면 기준 프레임 좌표
+     */
+    public List<YOLOv5Detector.Recognition> process(YuvFrame frame) {
+        float change = sceneChange.measure(frame);
+        if (tracker.needsDetection(change)) {
+            List<YOLOv5Detector.Recognition> results = detector.detectFrame(frame);
+            sceneChange.markReference();
+            detections.clear();
+            for (YOLOv5Detector.Recognition result : results) {
+                if (detections.size() == detections.capacity()) {
+                    break;
+                }
+                RectF box = result.getLocation();
+                detections.add(result.getClassId(), result.getConfidence(),
+                        box.left, box.top, box.right, box.bottom);
+            }
+            tracker.update(detections);
+        } else {
+            tracker.predict();
+        }
+
+        List<ObjectTracker.Track> tracks = tracker.getTracks();
+        List<YOLOv5Detector.Recognition> tracked = new ArrayList<>(tracks.size());
+        for (ObjectTracker.Track track : tracks) {
+            tracked.add(new YOLOv5Detector.Recognition(
+                    track.getClassId(),
+                    detector.getLabel(track.getClassId()),
+                    track.getScore(),
+                    new RectF(track.getLeft(), track.getTop(), track.getRight(), track.getBottom())));
+        }
+        return tracked;
+    }
+
+    /** 탐지를 건너뛴 프레임 비율 */
+    public float getSkippedFraction() {
+        return tracker.getSkippedFraction();
+    }
+
+    /** 스트림이 끊겼다 다시 시작할 때 */
+    public void reset() {
+        tracker.reset();
+        sceneChange.reset();
+    }
+}
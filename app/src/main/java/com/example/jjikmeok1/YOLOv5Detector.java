@@ -3,25 +3,49 @@ package com.example.jjikmeok1;
 import android.content.Context;
 import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
 import android.graphics.RectF;
 import android.util.Log;
 
+import com.example.jjikmeok1.detection.AnchorDecoder;
+import com.example.jjikmeok1.detection.BackendCalibrator;
+import com.example.jjikmeok1.detection.DetectionBuffer;
+import com.example.jjikmeok1.detection.DetectorStats;
+import com.example.jjikmeok1.detection.GridNms;
+import com.example.jjikmeok1.detection.ImagePreprocessor;
+import com.example.jjikmeok1.detection.NonMaxSuppression;
+import com.example.jjikmeok1.detection.TensorQuantization;
+import com.example.jjikmeok1.detection.TensorRecording;
+import com.example.jjikmeok1.detection.YuvConverter;
+import com.example.jjikmeok1.detection.YuvFrame;
+
+import org.tensorflow.lite.DataType;
 import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
 import org.tensorflow.lite.gpu.CompatibilityList;
 import org.tensorflow.lite.gpu.GpuDelegate;
+import org.tensorflow.lite.nnapi.NnApiDelegate;
 
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
-public class YOLOv5Detector {
+public class YOLOv5Detector implements AutoCloseable {
     private static final String TAG = "YOLOv5Detector";
 
     // 모델 설정
@@ -29,32 +53,231 @@ public class YOLOv5Detector {
     private static final float CONFIDENCE_THRESHOLD = 0.3f; // 조금 낮춤
     private static final float IOU_THRESHOLD = 0.45f;
 
+    // 통계가 켜져 있을 때 단계별 지연 시간 요약을 로그로 남기는 간격
+    private static final long STATS_LOG_INTERVAL_NANOS = 60_000_000_000L;
+
     private Interpreter tflite;
     private List<String> labels;
 
-    // [수정됨] 최신 v5u 모델은 8400개입니다.
+    // 추론 중단 상태 (cancelInference는 탐지기 락 밖에서 불리므로 별도 락)
+    private final Object cancelLock = new Object();
+    private Thread inferenceThread;
+    private boolean inferenceCancelled;
+
+    // [수정됨] 최신 v5u 모델은 8400개입니다. (실제 값은 출력 텐서 shape에서 결정)
     private int numDetections = 8400;
     private int numClasses;
 
     private GpuDelegate gpuDelegate = null;
+    private NnApiDelegate nnApiDelegate = null;
+
+    // 입력 경로 재사용 버퍼 (매 호출마다 4.9MB 다이렉트 버퍼/픽셀 배열/스케일 비트맵을 새로 만들지 않음)
+    // 입력 텐서 타입(float32/uint8/int8)은 모델 로드 후 결정
+    private ImagePreprocessor preprocessor;
+    private final Bitmap inputBitmap = Bitmap.createBitmap(INPUT_SIZE, INPUT_SIZE, Bitmap.Config.ARGB_8888);
+    private final Canvas inputCanvas = new Canvas(inputBitmap);
+    private final Matrix scaleMatrix = new Matrix();
+    private final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF srcRect = new RectF();
+    private final RectF dstRect = new RectF(0, 0, INPUT_SIZE, INPUT_SIZE);
+    private final YuvConverter yuvConverter = new YuvConverter();
+
+    // 출력 경로 재사용 버퍼 (float[1][84][8400] 중첩 배열 대신 평탄화된 다이렉트 버퍼 하나)
+    private AnchorDecoder decoder;
+    private ByteBuffer outputBuffer;
+    private FloatBuffer outputFloats;
+    private float[] outputArray;
+    private int outputElementBytes = 4;
+    private TensorQuantization outputQuantization; // 양자화 출력이면 역양자화 파라미터, float32면 null
+    private DetectionBuffer candidates;
+    private int[] keepIndices;
+
+    // 배치 추론용 버퍼 (배치가 커질 때만 다시 할당, 실제 배치 크기만큼 slice해서 사용)
+    private int interpreterBatchSize = 1;
+    private int batchCapacity = 0;
+    private ByteBuffer batchInputBuffer;
+    private ByteBuffer batchOutputBuffer;
+    private float[] batchOutputArray;
+
+    // 격자 버킷 NMS (기존 전체 쌍 비교와 같은 결과, setNms로 Soft-NMS 등으로 교체 가능)
+    private NonMaxSuppression nms = new GridNms(IOU_THRESHOLD);
+
+    // 단계별 지연 시간 계측 (꺼져 있으면 거의 비용 없음)
+    private final DetectorStats stats;
+
+    /**
+     * 탐지기 생성 옵션
+     */
+    public static class Options {
+        public static final String DEFAULT_MODEL = "yolov5su_float32.tflite";
+
+        private boolean useGpu = true;
+        private int numThreads = 4;
+        private String modelPath = DEFAULT_MODEL;
+        private BackendCalibrator.Backend backend;
+        private DetectorStats stats;
+
+        /** GPU 지원 기기에서 GpuDelegate 사용 여부 (false면 항상 CPU/XNNPACK) */
+        public Options setUseGpu(boolean useGpu) {
+            this.useGpu = useGpu;
+            return this;
+        }
+
+        /** CPU 경로의 인터프리터 스레드 수 */
+        public Options setNumThreads(int numThreads) {
+            this.numThreads = Math.max(1, numThreads);
+            return this;
+        }
+
+        /**
+         * assets 안의 모델 파일 이름
+         * int8/uint8 양자화 모델은 입출력 텐서 타입을 보고 자동으로 처리하고,
+         * float16 모델은 입출력이 float32이므로 기본 모델과 같은 경로로 동작한다.
+         */
+        public Options setModelPath(String modelPath) {
+            this.modelPath = modelPath;
+            return this;
+        }
+
+        /**
+         * 사용할 백엔드 지정 (DetectorCalibration 측정 결과 등)
+         * 지정하면 useGpu/numThreads 대신 이 값을 따른다.
+         */
+        public Options setBackend(BackendCalibrator.Backend backend) {
+            this.backend = backend;
+            return this;
+        }
+
+        /**
+         * 단계별 지연 시간을 기록할 곳 (여러 탐지기가 하나를 같이 써도 됨)
+         * 지정하지 않으면 꺼진 상태의 탐지기 전용 인스턴스를 쓴다.
+         */
+        public Options setStats(DetectorStats stats) {
+            this.stats = stats;
+            return this;
+        }
+
+        public boolean isUseGpu() { return useGpu; }
+        public int getNumThreads() { return numThreads; }
+        public String getModelPath() { return modelPath; }
+        public BackendCalibrator.Backend getBackend() { return backend; }
+        public DetectorStats getStats() { return stats; }
+    }
 
     public YOLOv5Detector(Context context) throws IOException {
+        this(context, new Options());
+    }
+
+    public YOLOv5Detector(Context context, Options detectorOptions) throws IOException {
+        stats = detectorOptions.getStats() != null ? detectorOptions.getStats() : new DetectorStats(false);
+        // 재사용 비트맵에 덮어 그림: 투명한 사진(PNG)에서 이전 이미지/타일이 비쳐 보이지 않도록 알파까지 그대로 교체
+        scalePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
         loadLabels(context);
 
+        Interpreter.Options options = interpreterOptions(detectorOptions);
+
+        // [확인] 파일 이름이 실제 assets 파일명과 같은지 꼭 확인하세요!
+        try {
+            tflite = new Interpreter(loadModelFile(context, detectorOptions.getModelPath()), options);
+        } catch (IOException | RuntimeException e) {
+            closeDelegates(); // 모델 로드 실패, 델리게이트가 모델을 지원하지 않는 경우 등
+            throw e;
+        }
+        configureInput();
+        allocateOutputBuffers();
+
+        Log.d(TAG, "Model loaded successfully: " + detectorOptions.getModelPath());
+    }
+
+    /**
+     * 백엔드가 지정되어 있으면 그대로, 아니면 GPU 지원 기기에서 GPU, 그 외에는 CPU(XNNPACK)
+     */
+    private Interpreter.Options interpreterOptions(Options detectorOptions) {
         Interpreter.Options options = new Interpreter.Options();
-        CompatibilityList compatList = new CompatibilityList();
-        if (compatList.isDelegateSupportedOnThisDevice()) {
-            GpuDelegate.Options delegateOptions = compatList.getBestOptionsForThisDevice();
-            gpuDelegate = new GpuDelegate();
-            options.addDelegate(gpuDelegate);
-        } else {
-            options.setNumThreads(4);
+        options.setCancellable(true); // cancelInference()로 진행 중인 추론 중단 허용
+        BackendCalibrator.Backend backend = detectorOptions.getBackend();
+        if (backend == null) {
+            backend = detectorOptions.isUseGpu() && isGpuSupported()
+                    ? BackendCalibrator.Backend.gpu()
+                    : BackendCalibrator.Backend.cpu(detectorOptions.getNumThreads());
+        }
+        switch (backend.getAccelerator()) {
+            case GPU:
+                try (CompatibilityList compatList = new CompatibilityList()) {
+                    // 기기별 권장 옵션을 실제로 델리게이트에 전달
+                    gpuDelegate = new GpuDelegate(compatList.getBestOptionsForThisDevice());
+                }
+                options.addDelegate(gpuDelegate);
+                break;
+            case NNAPI:
+                nnApiDelegate = new NnApiDelegate();
+                options.addDelegate(nnApiDelegate);
+                break;
+            default:
+                options.setUseXNNPACK(true);
+                options.setNumThreads(backend.getNumThreads());
+                break;
         }
+        Log.d(TAG, "Backend: " + backend);
+        return options;
+    }
 
-        // [확인] 파일 이름이 실제 assets 파일명과 같은지 꼭 확인하세요!
-        tflite = new Interpreter(loadModelFile(context, "yolov5su_float32.tflite"), options);
+    /**
+     * GPU 델리게이트 지원 기기인지 (CompatibilityList 기준)
+     */
+    public static boolean isGpuSupported() {
+        try (CompatibilityList compatList = new CompatibilityList()) {
+            return compatList.isDelegateSupportedOnThisDevice();
+        }
+    }
+
+    /**
+     * 입력 텐서 타입에 맞는 전처리기 생성
+     * 8비트 입력이면 픽셀을 float로 정규화하지 않고 RGB 바이트를 그대로(또는 테이블 변환으로) 기록
+     */
+    private void configureInput() {
+        Tensor input = tflite.getInputTensor(0);
+        TensorQuantization quantization = quantizationOf(input);
+        preprocessor = new ImagePreprocessor(INPUT_SIZE, quantization);
+        Log.d(TAG, "Input " + input.dataType()
+                + (quantization != null ? ", scale=" + quantization.getScale()
+                        + ", zeroPoint=" + quantization.getZeroPoint() : ""));
+    }
+
+    /**
+     * uint8/int8 텐서면 양자화 파라미터, float32 텐서면 null
+     */
+    private static TensorQuantization quantizationOf(Tensor tensor) {
+        DataType type = tensor.dataType();
+        if (type == DataType.FLOAT32) {
+            return null;
+        }
+        if (type != DataType.UINT8 && type != DataType.INT8) {
+            throw new IllegalArgumentException("Unsupported tensor type: " + type);
+        }
+        Tensor.QuantizationParams params = tensor.quantizationParams();
+        return new TensorQuantization(params.getScale(), params.getZeroPoint(), type == DataType.INT8);
+    }
 
-        Log.d(TAG, "Model loaded successfully");
+    /**
+     * 출력 텐서 shape을 보고 레이아웃/앵커 수를 결정하고 출력 버퍼를 한 번만 할당
+     */
+    private void allocateOutputBuffers() {
+        Tensor output = tflite.getOutputTensor(0);
+        int[] shape = output.shape();
+        outputQuantization = quantizationOf(output);
+        outputElementBytes = output.dataType().byteSize();
+        AnchorDecoder.Layout layout = AnchorDecoder.detectLayout(shape, numClasses);
+        numDetections = layout == AnchorDecoder.Layout.CHANNELS_FIRST ? shape[2] : shape[1];
+
+        decoder = new AnchorDecoder(numDetections, numClasses, INPUT_SIZE, layout);
+        outputBuffer = ByteBuffer.allocateDirect(outputElementBytes * decoder.outputSize())
+                .order(ByteOrder.nativeOrder());
+        outputFloats = outputBuffer.asFloatBuffer();
+        outputArray = new float[decoder.outputSize()];
+        candidates = new DetectionBuffer(numDetections);
+        keepIndices = new int[numDetections];
+        Log.d(TAG, "Output " + output.dataType() + " " + layout + ", anchors=" + numDetections);
     }
 
     private MappedByteBuffer loadModelFile(Context context, String modelPath) throws IOException {
@@ -80,129 +303,295 @@ public class YOLOv5Detector {
         Log.d(TAG, "Loaded " + numClasses + " labels");
     }
 
-    public List<Recognition> detectObjects(Bitmap bitmap) {
-        ByteBuffer inputBuffer = preprocessImage(bitmap);
-
-        // [수정됨] 최신 모델 출력 형태: [1, 4 + 80, 8400]
-        // (Batch, Channels, Anchors) 순서입니다.
-        float[][][] output = new float[1][numClasses + 4][numDetections];
-
-        tflite.run(inputBuffer, output);
+    /**
+     * 입력 버퍼를 재사용하므로 동시에 호출되지 않도록 동기화 (Interpreter 자체도 스레드 안전하지 않음)
+     */
+    public synchronized List<Recognition> detectObjects(Bitmap bitmap) {
+        return detectRegion(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight());
+    }
 
-        return postprocess(output[0], bitmap.getWidth(), bitmap.getHeight());
+    /**
+     * 이미지의 일부 영역만 640x640으로 스케일해서 분석 (타일 추론용)
+     * 반환 박스 좌표는 영역이 아니라 원본 이미지 기준이다.
+     */
+    public synchronized List<Recognition> detectRegion(Bitmap bitmap, int left, int top, int width, int height) {
+        resizeBatch(1);
+        drawScaled(bitmap, left, top, width, height);
+        runSingle(normalize());
+        return postprocess(outputArray, 0, width, height, left, top);
     }
 
-    private ByteBuffer preprocessImage(Bitmap bitmap) {
-        Bitmap resizedBitmap = Bitmap.createScaledBitmap(bitmap, INPUT_SIZE, INPUT_SIZE, true);
-        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(4 * INPUT_SIZE * INPUT_SIZE * 3);
-        inputBuffer.order(ByteOrder.nativeOrder());
+    /**
+     * 카메라 YUV 프레임을 Bitmap 없이 입력 버퍼로 바로 변환해서 분석 (실시간 스트리밍용)
+     * 반환 박스 좌표는 회전이 적용된 화면 기준 프레임 좌표다.
+     */
+    public synchronized List<Recognition> detectFrame(YuvFrame frame) {
+        resizeBatch(1);
+        long start = stats.start();
+        yuvConverter.convert(frame, preprocessor.getPixelBuffer(), INPUT_SIZE);
+        stats.stop(DetectorStats.Stage.RESIZE, start);
+        runSingle(normalize());
+        return postprocess(outputArray, 0, frame.getDisplayWidth(), frame.getDisplayHeight(), 0, 0);
+    }
 
-        int[] intValues = new int[INPUT_SIZE * INPUT_SIZE];
-        resizedBitmap.getPixels(intValues, 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+    /**
+     * 결과를 버리는 더미 추론 한 번 (델리게이트 초기화, 가중치 재배치 등 첫 추론 비용을 미리 치름)
+     */
+    public synchronized void warmUp() {
+        resizeBatch(1);
+        runSingle(preprocessor.process());
+    }
 
-        int pixel = 0;
-        for (int i = 0; i < INPUT_SIZE; i++) {
-            for (int j = 0; j < INPUT_SIZE; j++) {
-                int val = intValues[pixel++];
-                inputBuffer.putFloat(((val >> 16) & 0xFF) / 255.0f);
-                inputBuffer.putFloat(((val >> 8) & 0xFF) / 255.0f);
-                inputBuffer.putFloat((val & 0xFF) / 255.0f);
+    /**
+     * owner 스레드에서 진행 중인 단일 추론을 중단 (다른 스레드의 추론은 건드리지 않음)
+     * 중단된 호출은 CancellationException을 던진다. 탐지기 락을 잡지 않으므로 어느 스레드에서나 호출 가능
+     */
+    public void cancelInference(Thread owner) {
+        synchronized (cancelLock) {
+            if (inferenceThread == owner && !inferenceCancelled) {
+                inferenceCancelled = true;
+                tflite.setCancelled(true);
             }
         }
-        return inputBuffer;
     }
 
-    private List<Recognition> postprocess(float[][] output, int originalWidth, int originalHeight) {
-        List<Recognition> recognitions = new ArrayList<>();
-
-        // [수정됨] 최신 모델은 데이터가 세로(Column)로 나열되어 있습니다.
-        // i는 0부터 8400까지 돕니다.
-        for (int i = 0; i < numDetections; i++) {
-
-            // 1. 신뢰도(Confidence) 계산
-            // 최신 모델은 별도의 objectness 점수가 없고, 클래스 점수가 곧 신뢰도입니다.
-            float maxClassProb = 0;
-            int maxClassIdx = -1;
+    private ByteBuffer normalize() {
+        long start = stats.start();
+        ByteBuffer input = preprocessor.process();
+        stats.stop(DetectorStats.Stage.NORMALIZE, start);
+        return input;
+    }
 
-            // j는 0부터 80(클래스 개수)까지
-            for (int j = 0; j < numClasses; j++) {
-                // output[채널][앵커] 순서 접근
-                // 채널 0~3은 좌표, 4부터가 클래스 점수입니다.
-                float classProb = output[4 + j][i];
-                if (classProb > maxClassProb) {
-                    maxClassProb = classProb;
-                    maxClassIdx = j;
+    /**
+     * 단일 이미지 추론 후 출력을 outputArray로 읽음
+     */
+    private void runSingle(ByteBuffer inputBuffer) {
+        // [수정됨] 최신 모델 출력 형태: [1, 4 + 80, 8400]
+        // (Batch, Channels, Anchors) 순서입니다. 재사용 평탄화 버퍼로 받습니다.
+        outputBuffer.rewind();
+        synchronized (cancelLock) {
+            inferenceThread = Thread.currentThread();
+        }
+        long start = stats.start();
+        try {
+            tflite.run(inputBuffer, outputBuffer);
+        } catch (IllegalStateException e) {
+            synchronized (cancelLock) {
+                if (inferenceCancelled) {
+                    throw new CancellationException("Inference cancelled");
+                }
+            }
+            throw e;
+        } finally {
+            synchronized (cancelLock) {
+                inferenceThread = null;
+                if (inferenceCancelled) {
+                    inferenceCancelled = false;
+                    tflite.setCancelled(false);
                 }
             }
+        }
 
-            float confidence = maxClassProb;
+        // 다이렉트 버퍼 → 힙 배열 벌크 복사(양자화 출력이면 역양자화) 후 배열 위에서 디코딩
+        if (outputQuantization == null) {
+            outputFloats.rewind();
+            outputFloats.get(outputArray);
+        } else {
+            outputBuffer.rewind();
+            outputQuantization.dequantize(outputBuffer, outputArray, 0, outputArray.length);
+        }
+        stats.stop(DetectorStats.Stage.INFERENCE, start);
+    }
 
-            if (confidence < CONFIDENCE_THRESHOLD) {
-                continue;
+    /**
+     * 여러 장을 한 번의 invoke로 분석 (입력을 [B, 640, 640, 3]으로 리사이즈)
+     * 모델이 동적 배치를 지원하지 않으면 한 장씩 순서대로 분석한다.
+     *
+     * @return 입력 순서와 같은 순서의 이미지별 결과
+     */
+    public synchronized List<List<Recognition>> detectObjects(List<Bitmap> bitmaps) {
+        int batch = bitmaps.size();
+        if (batch <= 1) {
+            return batch == 0
+                    ? new ArrayList<>()
+                    : Collections.singletonList(detectObjects(bitmaps.get(0)));
+        }
+        try {
+            resizeBatch(batch);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Log.w(TAG, "Dynamic batch not supported, falling back to sequential: " + e.getMessage());
+            resizeBatch(1);
+            List<List<Recognition>> results = new ArrayList<>(batch);
+            for (Bitmap bitmap : bitmaps) {
+                results.add(detectObjects(bitmap));
             }
+            return results;
+        }
+        ensureBatchCapacity(batch);
+
+        // 입력 텐서 채우기: 이미지마다 스케일 → 정규화(또는 양자화)를 배치 버퍼에 이어서 기록
+        int inputBytes = preprocessor.bytesPerImage() * batch;
+        int outputFloatsPerImage = decoder.outputSize();
+        ByteBuffer input = slice(batchInputBuffer, inputBytes);
+        ByteBuffer output = slice(batchOutputBuffer, outputElementBytes * outputFloatsPerImage * batch);
+        for (Bitmap bitmap : bitmaps) {
+            drawScaled(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight());
+            long start = stats.start();
+            preprocessor.processInto(input);
+            stats.stop(DetectorStats.Stage.NORMALIZE, start);
+        }
+        input.rewind();
+
+        long start = stats.start();
+        tflite.run(input, output);
+
+        output.rewind();
+        if (outputQuantization == null) {
+            output.asFloatBuffer().get(batchOutputArray, 0, outputFloatsPerImage * batch);
+        } else {
+            outputQuantization.dequantize(output, batchOutputArray, 0, outputFloatsPerImage * batch);
+        }
+        stats.stop(DetectorStats.Stage.INFERENCE, start);
+
+        List<List<Recognition>> results = new ArrayList<>(batch);
+        for (int b = 0; b < batch; b++) {
+            Bitmap bitmap = bitmaps.get(b);
+            results.add(postprocess(batchOutputArray, b * outputFloatsPerImage,
+                    bitmap.getWidth(), bitmap.getHeight(), 0, 0));
+        }
+        return results;
+    }
 
-            // 2. 좌표 계산 (중심점 x, y, w, h)
-            float cx = output[0][i];
-            float cy = output[1][i];
-            float w = output[2][i];
-            float h = output[3][i];
+    private void resizeBatch(int batch) {
+        if (interpreterBatchSize == batch) {
+            return;
+        }
+        interpreterBatchSize = -1; // 리사이즈 도중 실패하면 다음 호출에서 다시 맞추도록
+        tflite.resizeInput(0, new int[]{batch, INPUT_SIZE, INPUT_SIZE, 3});
+        tflite.allocateTensors();
+        interpreterBatchSize = batch;
+    }
+
+    private void ensureBatchCapacity(int batch) {
+        if (batchCapacity >= batch) {
+            return;
+        }
+        batchInputBuffer = ByteBuffer.allocateDirect(preprocessor.bytesPerImage() * batch)
+                .order(ByteOrder.nativeOrder());
+        batchOutputBuffer = ByteBuffer.allocateDirect(outputElementBytes * decoder.outputSize() * batch)
+                .order(ByteOrder.nativeOrder());
+        batchOutputArray = new float[decoder.outputSize() * batch];
+        batchCapacity = batch;
+    }
 
-            float left = (cx - w / 2) * originalWidth / INPUT_SIZE;
-            float top = (cy - h / 2) * originalHeight / INPUT_SIZE;
-            float right = (cx + w / 2) * originalWidth / INPUT_SIZE;
-            float bottom = (cy + h / 2) * originalHeight / INPUT_SIZE;
+    // Interpreter는 버퍼 capacity가 텐서 크기와 정확히 같아야 하므로 앞부분만 잘라서 넘김
+    private static ByteBuffer slice(ByteBuffer buffer, int bytes) {
+        buffer.clear();
+        buffer.limit(bytes);
+        return buffer.slice().order(ByteOrder.nativeOrder());
+    }
 
-            RectF bbox = new RectF(left, top, right, bottom);
+    /**
+     * 미리 만들어 둔 640x640 비트맵에 원본의 (left, top, width, height) 영역을 직접 스케일해서 그리고
+     * 픽셀을 전처리기 버퍼로 읽음 (createScaledBitmap/createBitmap 잘라내기 할당 제거)
+     */
+    private void drawScaled(Bitmap bitmap, int left, int top, int width, int height) {
+        long start = stats.start();
+        srcRect.set(left, top, left + width, top + height);
+        scaleMatrix.setRectToRect(srcRect, dstRect, Matrix.ScaleToFit.FILL);
+        inputCanvas.drawBitmap(bitmap, scaleMatrix, scalePaint);
+
+        inputBitmap.getPixels(preprocessor.getPixelBuffer(), 0, INPUT_SIZE, 0, 0, INPUT_SIZE, INPUT_SIZE);
+        stats.stop(DetectorStats.Stage.RESIZE, start);
+    }
 
+    private List<Recognition> postprocess(float[] output, int offset, int originalWidth, int originalHeight,
+                                          int originX, int originY) {
+        // 신뢰도 계산/임계값 필터/좌표 변환은 AnchorDecoder가 레이아웃에 맞춰 순차 스캔으로 수행
+        long start = stats.start();
+        candidates.clear();
+        decoder.decode(output, offset, originalWidth, originalHeight, CONFIDENCE_THRESHOLD, candidates);
+        stats.stop(DetectorStats.Stage.ANCHOR_DECODE, start);
+
+        // NMS는 기본형 배열 위에서 수행하고, 살아남은 후보만 Recognition 객체로 만듦
+        start = stats.start();
+        int kept = nms.run(candidates, keepIndices);
+        stats.stop(DetectorStats.Stage.NMS, start);
+        stats.recordCandidates(candidates.size(), kept);
+        if (stats.dumpDue(System.nanoTime(), STATS_LOG_INTERVAL_NANOS)) {
+            Log.i(TAG, "Detection stats\n" + stats.summary());
+        }
+        List<Recognition> recognitions = new ArrayList<>(kept);
+        for (int k = 0; k < kept; k++) {
+            int i = keepIndices[k];
+            int classId = candidates.classId(i);
+            RectF bbox = new RectF(candidates.left(i), candidates.top(i),
+                    candidates.right(i), candidates.bottom(i));
+            if (originX != 0 || originY != 0) {
+                bbox.offset(originX, originY);
+            }
             recognitions.add(new Recognition(
-                    maxClassIdx,
-                    labels.get(maxClassIdx),
-                    confidence,
+                    classId,
+                    labels.get(classId),
+                    candidates.score(i),
                     bbox
             ));
         }
+        return recognitions;
+    }
 
-        return nms(recognitions);
+    /**
+     * 단계별 지연 시간/후보 수 통계 (Options.setStats로 넘긴 인스턴스, 없으면 꺼진 전용 인스턴스)
+     */
+    public DetectorStats getStats() {
+        return stats;
     }
 
-    private List<Recognition> nms(List<Recognition> recognitions) {
-        recognitions.sort((a, b) -> Float.compare(b.getConfidence(), a.getConfidence()));
-        List<Recognition> result = new ArrayList<>();
-        boolean[] isSuppressed = new boolean[recognitions.size()];
+    /**
+     * 클래스 번호의 라벨 (추적 결과를 Recognition으로 되돌릴 때 사용)
+     */
+    public String getLabel(int classId) {
+        return labels.get(classId);
+    }
 
-        for (int i = 0; i < recognitions.size(); i++) {
-            if (isSuppressed[i]) continue;
-            Recognition current = recognitions.get(i);
-            result.add(current);
+    /**
+     * 마지막 단일 이미지 추론의 원시 출력 텐서를 녹화 파일로 저장 (detection-core JMH 벤치마크 입력용)
+     */
+    public synchronized void writeLastOutput(OutputStream out) throws IOException {
+        int[] shape = tflite.getOutputTensor(0).shape();
+        shape[0] = 1;
+        new TensorRecording(shape, outputArray.clone()).write(out);
+    }
 
-            for (int j = i + 1; j < recognitions.size(); j++) {
-                if (isSuppressed[j]) continue;
-                Recognition other = recognitions.get(j);
+    /**
+     * NMS 전략 교체 (예: new SoftNms(...), 상위 K개 제한이 있는 GridNms)
+     */
+    public synchronized void setNms(NonMaxSuppression nms) {
+        this.nms = nms;
+    }
 
-                if (current.getClassId() == other.getClassId()) {
-                    float iou = calculateIOU(current.getLocation(), other.getLocation());
-                    if (iou > IOU_THRESHOLD) {
-                        isSuppressed[j] = true;
-                    }
-                }
-            }
+    /**
+     * 캐시에서 꺼낸 결과를 Recognition으로 (라벨은 이 탐지기의 labels.txt 기준)
+     */
+    public List<Recognition> toRecognitions(DetectionBuffer detections) {
+        List<Recognition> recognitions = new ArrayList<>(detections.size());
+        for (int i = 0; i < detections.size(); i++) {
+            recognitions.add(new Recognition(detections.classId(i), getLabel(detections.classId(i)),
+                    detections.score(i), new RectF(detections.left(i), detections.top(i),
+                    detections.right(i), detections.bottom(i))));
         }
-        return result;
+        return recognitions;
     }
 
-    private float calculateIOU(RectF box1, RectF box2) {
-        float intersectionLeft = Math.max(box1.left, box2.left);
-        float intersectionTop = Math.max(box1.top, box2.top);
-        float intersectionRight = Math.min(box1.right, box2.right);
-        float intersectionBottom = Math.min(box1.bottom, box2.bottom);
-
-        float intersectionWidth = Math.max(0, intersectionRight - intersectionLeft);
-        float intersectionHeight = Math.max(0, intersectionBottom - intersectionTop);
-        float intersectionArea = intersectionWidth * intersectionHeight;
-        float box1Area = (box1.right - box1.left) * (box1.bottom - box1.top);
-        float box2Area = (box2.right - box2.left) * (box2.bottom - box2.top);
-        float unionArea = box1Area + box2Area - intersectionArea;
-        return intersectionArea / unionArea;
+    /** 결과를 캐시 저장용 버퍼로 */
+    public static DetectionBuffer toBuffer(List<Recognition> recognitions) {
+        DetectionBuffer detections = new DetectionBuffer(recognitions.size());
+        for (Recognition recognition : recognitions) {
+            RectF box = recognition.getLocation();
+            detections.add(recognition.getClassId(), recognition.getConfidence(),
+                    box.left, box.top, box.right, box.bottom);
+        }
+        return detections;
     }
 
     public static class Recognition {
@@ -224,14 +613,24 @@ public class YOLOv5Detector {
         public RectF getLocation() { return location; }
     }
 
-    public void close() {
+    @Override
+    public synchronized void close() {
         if (tflite != null) {
             tflite.close();
             tflite = null;
         }
+        closeDelegates();
+        inputBitmap.recycle();
+    }
+
+    private void closeDelegates() {
         if (gpuDelegate != null) {
             gpuDelegate.close();
             gpuDelegate = null;
         }
+        if (nnApiDelegate != null) {
+            nnApiDelegate.close();
+            nnApiDelegate = null;
+        }
     }
 }
\ No newline at end of file
@@ -8,25 +8,31 @@ import android.graphics.Paint;
 import android.graphics.RectF;
 import android.net.Uri;
 import android.os.Bundle;
-import android.provider.MediaStore;
 import android.util.Log;
 import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.example.jjikmeok1.detection.AnalysisPipeline;
+import com.example.jjikmeok1.detection.DetectionBuffer;
+import com.example.jjikmeok1.detection.DetectionCache;
+import com.example.jjikmeok1.detection.DetectorStats;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class image_analyze extends AppCompatActivity {
+    private static final String TAG = "ImageAnalyze";
 
     private ImageView ivUserPhoto;
     private MaterialToolbar toolbar;
@@ -36,8 +42,17 @@ public class image_analyze extends AppCompatActivity {
     // (추가 1) 결과 보여줄 텍스트뷰 (xml에 추가 필요, 없으면 Toast로만 확인)
     private TextView tvResult;
 
-    // (추가 2) AI 탐지기 선언
-    private YOLOv5Detector detector;
+    // (추가 2) AI 탐지기 (앱 전체가 공유, 앱 시작 시 백그라운드에서 로딩/워밍업)
+    private CompletableFuture<YOLOv5Detector> detectorFuture;
+    private AnalysisPipeline<Intent, AnalysisResult> pipeline;
+    // 고해상도 사진은 겹치는 타일로 나눠 분석 (작은 재료 인식용, 작은 이미지는 한 번에 분석)
+    private static final boolean USE_TILED_DETECTION = true;
+    // 타일 모드가 아닐 때 추론용 디코딩 긴 변 (모델 입력 크기)
+    private static final int INFERENCE_LONG_SIDE = 640;
+    // 화면용 디코딩 목표: 화면 폭 x 16:9 (activity_image_analyze의 ImageView 비율)
+    private int displayWidth;
+    private int displayHeight;
+    private final TiledDetector tiledDetector = new TiledDetector();
     private List<String> detectedIngredientNames = new ArrayList<>(); // 찾은 재료 이름 저장
 
     @Override
@@ -53,14 +68,11 @@ public class image_analyze extends AppCompatActivity {
         // (참고) layout xml에 TextView를 추가했다면 아래 주석 해제
         // tvResult = findViewById(R.id.tv_result);
 
-        // (추가 3) YOLO Detector 초기화
-        try {
-            detector = new YOLOv5Detector(this);
-            Log.d("ImageAnalyze", "Detector loaded successfully");
-        } catch (IOException e) {
-            e.printStackTrace();
-            Toast.makeText(this, "AI 모델 로드 실패", Toast.LENGTH_SHORT).show();
-        }
+        // (추가 3) 공유 탐지기 빌리기 (이미 로딩됐으면 바로 완료된 future)
+        detectorFuture = DetectorHolder.get(this).acquire();
+        displayWidth = getResources().getDisplayMetrics().widthPixels;
+        displayHeight = displayWidth * 9 / 16;
+        pipeline = buildPipeline();
 
         setSupportActionBar(toolbar);
         if (getSupportActionBar() != null) {
@@ -100,43 +112,98 @@ public class image_analyze extends AppCompatActivity {
         });
     }
 
+    // 디코딩(백그라운드) → 탐지(추론 스레드) → 그리기(백그라운드) → 화면(메인 스레드)
+    private AnalysisPipeline<Intent, AnalysisResult> buildPipeline() {
+        DetectorHolder holder = DetectorHolder.get(this);
+        return AnalysisPipeline.<Intent>builder()
+                .then("decode", holder.getBackgroundExecutor(), this::decodeImage)
+                .then("detect", holder.getInferenceExecutor(), this::detectObjects)
+                .then("render", holder.getBackgroundExecutor(), this::renderResults)
+                .build(ContextCompat.getMainExecutor(this));
+    }
+
+    // 새 이미지를 분석하면 이전 분석은 자동으로 취소된다
     private void loadImageFromIntent() {
-        boolean fromCamera = getIntent().getBooleanExtra("fromCamera", false);
-        if (fromCamera) {
-            // 카메라 데이터 처리 (썸네일 or 파일 로드)
-            Bundle extras = getIntent().getExtras();
-            if(extras != null) {
-                Bitmap bitmap = (Bitmap) extras.get("data"); // 썸네일
-                ivUserPhoto.setImageBitmap(bitmap);
-                if (bitmap != null) analyzeImage(bitmap);
+        pipeline.submit(getIntent(), new AnalysisPipeline.Callback<AnalysisResult>() {
+            @Override
+            public void onResult(AnalysisResult result, AnalysisPipeline.Job job) {
+                showResult(result);
+                logStages(job);
             }
-        } else {
-            String imageUriString = getIntent().getStringExtra("imageUri");
-            if (imageUriString != null) {
-                Uri imageUri = Uri.parse(imageUriString);
-                try {
-                    Bitmap bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), imageUri);
-                    ivUserPhoto.setImageBitmap(bitmap);
 
-                    // 이미지가 로드되면 바로 분석 시작
-                    analyzeImage(bitmap);
+            @Override
+            public void onError(Throwable error, AnalysisPipeline.Job job) {
+                Log.e(TAG, "Analysis failed", error);
+                Toast.makeText(image_analyze.this, "이미지 분석 실패", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+    // 1. 이미지 읽기 (추론용/화면용 크기로 바로 디코딩, 화면용은 분석 전에 먼저 보여 줌)
+    private PhotoDecoder.Decoded decodeImage(Intent intent, AnalysisPipeline.Job job) throws IOException {
+        PhotoDecoder.Decoded decoded = null;
+        if (intent.getBooleanExtra("fromCamera", false)) {
+            // 카메라 데이터 처리 (썸네일은 이미 작으므로 그대로)
+            Bundle extras = intent.getExtras();
+            Bitmap thumbnail = extras != null ? (Bitmap) extras.get("data") : null;
+            if (thumbnail != null) {
+                decoded = new PhotoDecoder.Decoded(thumbnail, thumbnail);
+            }
+        } else {
+            String imageUriString = intent.getStringExtra("imageUri");
+            if (imageUriString != null) {
+                DetectorStats stats = DetectorHolder.get(this).getStats();
+                long start = stats.start();
+                decoded = PhotoDecoder.decode(getContentResolver(), Uri.parse(imageUriString),
+                        USE_TILED_DETECTION ? tiledDetector::decodeLongSide : (width, height) -> INFERENCE_LONG_SIDE,
+                        displayWidth, displayHeight);
+                stats.stop(DetectorStats.Stage.DECODE, start);
             }
         }
+        if (decoded == null) {
+            throw new IOException("No image in intent");
+        }
+        Bitmap preview = decoded.getDisplay();
+        runOnUiThread(() -> {
+            if (!job.isCancelled()) ivUserPhoto.setImageBitmap(preview);
+        });
+        return decoded;
     }
 
-    // (핵심) AI 분석 함수 구현
-    private void analyzeImage(Bitmap bitmap) {
-        if (detector == null) return;
-
-        // 1. YOLO 실행 (인식된 객체 리스트 반환)
-        List<YOLOv5Detector.Recognition> results = detector.detectObjects(bitmap);
+    // 2. YOLO 실행 (탐지기가 아직 로딩 중이면 여기서 기다림, 같은 사진을 이미 분석했으면 캐시 결과)
+    private Detection detectObjects(PhotoDecoder.Decoded decoded, AnalysisPipeline.Job job) {
+        Bitmap bitmap = decoded.getInference();
+        YOLOv5Detector detector = detectorFuture.join();
+        job.throwIfCancelled();
+
+        DetectorHolder holder = DetectorHolder.get(this);
+        DetectionCache cache = holder.getResultCache();
+        long key = DetectionCache.key(PhotoDecoder.contentHash(bitmap),
+                holder.getModelVersion() + (USE_TILED_DETECTION ? "/tiled" : "/single"));
+        DetectionBuffer cached = cache.get(key);
+        if (cached != null) {
+            Log.d(TAG, "Result cache hit: " + cache);
+            return new Detection(decoded, detector.toRecognitions(cached));
+        }
+        // 분석 중에 화면을 떠나면 진행 중인 추론을 바로 중단
+        Thread worker = Thread.currentThread();
+        job.setCancelHook(() -> detector.cancelInference(worker));
+        try {
+            List<YOLOv5Detector.Recognition> results = USE_TILED_DETECTION
+                    ? tiledDetector.detect(detector, bitmap, job::isCancelled)
+                    : detector.detectObjects(bitmap);
+            cache.put(key, YOLOv5Detector.toBuffer(results));
+            return new Detection(decoded, results);
+        } finally {
+            job.setCancelHook(null);
+        }
+    }
 
-        // 2. 결과 처리
-        Bitmap mutableBitmap = bitmap.copy(Bitmap.Config.ARGB_8888, true);
+    // 3. 결과 그리기 (화면용 크기 복사본에, 추론용 좌표를 화면용 좌표로 옮겨서)
+    private AnalysisResult renderResults(Detection detection, AnalysisPipeline.Job job) {
+        Bitmap mutableBitmap = detection.decoded.getDisplay().copy(Bitmap.Config.ARGB_8888, true);
+        float scale = detection.decoded.getDisplayScale();
+        RectF box = new RectF();
         Canvas canvas = new Canvas(mutableBitmap);
         Paint paint = new Paint();
         paint.setStyle(Paint.Style.STROKE);
@@ -144,22 +211,28 @@ public class image_analyze extends AppCompatActivity {
         paint.setColor(Color.RED);
         paint.setTextSize(40);
 
-        detectedIngredientNames.clear(); // 기존 목록 초기화
-
-        for (YOLOv5Detector.Recognition res : results) {
+        List<String> names = new ArrayList<>();
+        for (YOLOv5Detector.Recognition res : detection.results) {
             // 박스 그리기
-            canvas.drawRect(res.getLocation(), paint);
+            RectF location = res.getLocation();
+            box.set(location.left * scale, location.top * scale, location.right * scale, location.bottom * scale);
+            canvas.drawRect(box, paint);
 
             // 텍스트 그리기 (이름 + 확률)
             canvas.drawText(res.getTitle() + " " + String.format("%.1f%%", res.getConfidence() * 100),
-                    res.getLocation().left, res.getLocation().top, paint);
+                    box.left, box.top, paint);
 
             // 재료 이름 목록에 추가
-            detectedIngredientNames.add(res.getTitle());
+            names.add(res.getTitle());
         }
+        return new AnalysisResult(mutableBitmap, names);
+    }
 
-        // 3. 화면 업데이트
-        ivUserPhoto.setImageBitmap(mutableBitmap); // 박스 그려진 이미지로 교체
+    // 4. 화면 업데이트 (메인 스레드)
+    private void showResult(AnalysisResult result) {
+        ivUserPhoto.setImageBitmap(result.annotated); // 박스 그려진 이미지로 교체
+        detectedIngredientNames = result.names;
+        DetectorHolder.get(this).onDetectionShown();
 
         String resultText = "발견된 재료: " + detectedIngredientNames.toString();
         Toast.makeText(this, resultText, Toast.LENGTH_LONG).show();
@@ -168,10 +241,41 @@ public class image_analyze extends AppCompatActivity {
         // tvResult.setText(resultText);
     }
 
+    private static void logStages(AnalysisPipeline.Job job) {
+        StringBuilder stages = new StringBuilder();
+        for (int i = 0; i < job.getStageCount(); i++) {
+            stages.append(String.format(" %s=%.1fms", job.getStageName(i), job.getStageNanos(i) / 1e6));
+        }
+        Log.d(TAG, "Analysis" + stages);
+    }
+
+    /** 탐지 단계 결과 */
+    private static class Detection {
+        final PhotoDecoder.Decoded decoded;
+        final List<YOLOv5Detector.Recognition> results;
+
+        Detection(PhotoDecoder.Decoded decoded, List<YOLOv5Detector.Recognition> results) {
+            this.decoded = decoded;
+            this.results = results;
+        }
+    }
+
+    /** 화면에 보여줄 최종 결과 */
+    private static class AnalysisResult {
+        final Bitmap annotated;
+        final List<String> names;
+
+        AnalysisResult(Bitmap annotated, List<String> names) {
+            this.annotated = annotated;
+            this.names = names;
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (detector != null) detector.close(); // 메모리 해제
+        pipeline.close(); // 진행 중인 분석 취소 (추론 중이면 중단)
+        DetectorHolder.get(this).release(); // 탐지기는 닫지 않고 다른 화면과 계속 공유
     }
 
     @Override
@@ -0,0 +1,189 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 로컬 HTTP 서버(만개의 레시피 대역)를 상대로 한 CrawlerEngine/RecipeCrawler 부하 테스트
+ */
+public class CrawlerEngineTest {
+
+    private static final int LATENCY_MS = 100;
+
+    private FakeRecipeSite site;
+    private String baseUrl;
+
+    @Before
+    public void startServer() throws IOException {
+        site = new FakeRecipeSite(LATENCY_MS);
+        baseUrl = site.getBaseUrl();
+    }
+
+    @After
+    public void stopServer() {
+        site.close();
+    }
+
+    @Test
+    public void tokenBucketAllowsBurstThenPaces() {
+        long[] now = {0};
+        CrawlerEngine.TokenBucket bucket = new CrawlerEngine.TokenBucket(2, 3, () -> now[0]);
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        // 초당 2회: 네 번째는 0.5초, 다섯 번째는 1초 뒤
+        assertEquals(500_000_000L, bucket.reserve());
+        assertEquals(1_000_000_000L, bucket.reserve());
+
+        now[0] = 10_000_000_000L; // 오래 쉬어도 burst까지만 쌓임
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertTrue(bucket.reserve() > 0);
+    }
+
+    @Test
+    public void loadTestRespectsLimitsAndServesSearchesFirst() throws Exception {
+        int maxConcurrent = 4;
+        double perSecond = 15;
+        int burst = 4;
+        int prefetches = 40;
+        int searches = 8;
+        CrawlerEngine engine = new CrawlerEngine(maxConcurrent, perSecond, burst);
+        RecipeCrawler crawler = new RecipeCrawler(baseUrl, engine, null, Runnable::run);
+        CountDownLatch done = new CountDownLatch(prefetches + searches);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger recipesFound = new AtomicInteger();
+        // 콜백은 작업 스레드에서 실행되므로 검사는 테스트 스레드에서
+        List<Integer> ingredientCounts = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < prefetches; i++) {
+            crawler.prefetchRecipeDetail(String.valueOf(1000 + i), new RecipeCrawler.RecipeDetailCallback() {
+                @Override
+                public void onSuccess(RecipeCrawler.RecipeDetail detail) {
+                    ingredientCounts.add(detail.getIngredients().size());
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                    failures.incrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        // 미리 가져오기가 잔뜩 쌓인 뒤에 들어온 사용자 검색
+        for (int i = 0; i < searches; i++) {
+            crawler.search("토마토 " + i, new RecipeCrawler.RecipeSearchCallback() {
+                @Override
+                public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                    recipesFound.addAndGet(recipes.size());
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                    failures.incrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        engine.shutdown();
+
+        int total = prefetches + searches;
+        assertEquals(0, failures.get());
+        assertEquals(Collections.nCopies(prefetches, 2), ingredientCounts);
+        assertEquals(searches * 3, recipesFound.get());
+        assertEquals(total, site.getRequests());
+
+        // 동시성 상한
+        assertTrue("max in flight " + site.maxInFlight.get(), site.maxInFlight.get() <= maxConcurrent);
+        assertTrue("max in flight " + site.maxInFlight.get(), site.maxInFlight.get() >= 2);
+
+        // 호스트 속도 제한: 어느 250ms 구간에도 burst + 초당 허용량만큼만 (도착 시각 오차 2회 허용)
+        List<Long> times = new ArrayList<>(site.arrivalNanos);
+        Collections.sort(times);
+        long window = 250_000_000L;
+        int allowed = (int) (burst + perSecond * window / 1e9) + 2;
+        int worst = 0;
+        for (int i = 0, j = 0; i < times.size(); i++) {
+            while (times.get(i) - times.get(j) >= window) {
+                j++;
+            }
+            worst = Math.max(worst, i - j + 1);
+        }
+        assertTrue("requests per 250ms " + worst + " > " + allowed, worst <= allowed);
+        // 전체로도 burst 뒤에는 초당 허용량을 넘지 않음 (도착 시각 오차 2회 허용)
+        double spanSeconds = (times.get(times.size() - 1) - times.get(0)) / 1e9;
+        assertTrue("arrival span " + spanSeconds + "s", spanSeconds >= (total - burst - 2) / perSecond);
+
+        // 우선순위: 검색은 앞서 쌓인 미리 가져오기보다 먼저 서버에 도착
+        int lastSearch = -1;
+        for (int i = 0; i < site.getRequests(); i++) {
+            if (site.arrivals.get(i).startsWith("/recipe/list.html")) {
+                lastSearch = i;
+            }
+        }
+        assertTrue("last search arrived at " + lastSearch, lastSearch < maxConcurrent + searches + 2);
+    }
+
+    @Test
+    public void shutdownCancelsPendingRequestsAndDropsCallbacks() throws Exception {
+        CrawlerEngine engine = new CrawlerEngine(1, 100, 10);
+        RecipeCrawler crawler = new RecipeCrawler(baseUrl, engine, null, Runnable::run);
+        AtomicInteger callbacks = new AtomicInteger();
+        RecipeCrawler.RecipeDetailCallback callback = new RecipeCrawler.RecipeDetailCallback() {
+            @Override
+            public void onSuccess(RecipeCrawler.RecipeDetail detail) {
+                callbacks.incrementAndGet();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                callbacks.incrementAndGet();
+            }
+        };
+        for (int i = 0; i < 5; i++) {
+            crawler.getRecipeDetail(String.valueOf(i), callback);
+        }
+        crawler.shutdown();
+        crawler.getRecipeDetail("99", callback);
+        Thread.sleep(LATENCY_MS * 3);
+
+        assertEquals(0, callbacks.get());
+        // 첫 요청이 이미 나갔더라도 나머지는 서버에 가지 않음
+        assertTrue(site.getRequests() <= 1);
+
+        // 공용 엔진은 다른 크롤러가 계속 쓸 수 있음
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> title = new AtomicReference<>();
+        new RecipeCrawler(baseUrl, engine, null, Runnable::run).getRecipeDetail("7",
+                new RecipeCrawler.RecipeDetailCallback() {
+                    @Override
+                    public void onSuccess(RecipeCrawler.RecipeDetail detail) {
+                        title.set(detail.getTitle());
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                    }
+                });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("레시피 7", title.get());
+        engine.shutdown();
+    }
+}
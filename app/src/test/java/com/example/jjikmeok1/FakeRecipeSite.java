@@ -0,0 +1,255 @@
+package com.example.jjikmeok1;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 만개의 레시피 대역 로컬 HTTP 서버 (크롤러 테스트용)
+ *
+ * 검색 페이지는 레시피 3개, 상세 페이지는 재료 2개를 돌려주고, 모든 응답에 latencyMs만큼 지연을 둔다.
+ * 페이지 버전이 ETag/Last-Modified가 되며 If-None-Match가 맞으면 304를 돌려준다.
+ * setSearchPage로 녹화된 검색 페이지를 느린 회선처럼 조금씩 보내게 할 수 있다.
+ * setPagedSearch를 부르면 검색이 page 인자를 따르며, 순위가 밀린 것처럼 각 페이지 첫 항목이 앞 페이지 마지막 항목과 같다.
+ * setQueryRecipes를 부르면 검색어마다 정해 둔 레시피만 돌려준다 (정하지 않은 검색어는 빈 목록).
+ */
+final class FakeRecipeSite implements Closeable {
+
+    private final int latencyMs;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile int version = 1;
+    // 녹화된 검색 페이지를 느린 회선처럼 조각내서 보낼 때 (null이면 기본 목록 페이지)
+    private volatile byte[] searchPage;
+    private volatile int chunkBytes;
+    private volatile int chunkDelayMs;
+    // 페이지 검색 (0이면 page 인자 무시)
+    private volatile int pageCount;
+    private volatile int pageSize;
+    // 검색어별 레시피 id / 추가 지연
+    private final Map<String, int[]> queryRecipes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> queryDelayMs = new ConcurrentHashMap<>();
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    final AtomicInteger notModified = new AtomicInteger();
+    // 마지막 검색 응답에서 실제로 보낸 본문 바이트 (클라이언트가 중간에 끊으면 전체보다 작음)
+    final AtomicInteger lastSearchBytesSent = new AtomicInteger();
+    // 서버에 도착한 순서대로 (경로, 도착 시각 ns)
+    final List<String> arrivals = new ArrayList<>();
+    final List<Long> arrivalNanos = new ArrayList<>();
+    // 요청받은 검색 페이지 번호 (도착 순)
+    final List<Integer> searchPages = new ArrayList<>();
+    // 요청받은 검색어 (도착 순)
+    final List<String> searchQueries = new ArrayList<>();
+
+    FakeRecipeSite(int latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/recipe/", this::handle);
+        server.start();
+    }
+
+    String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** 페이지 내용 변경 (ETag도 바뀜) */
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * 검색 응답을 page로 바꾸고 chunkBytes씩 chunkDelayMs 간격으로 보냄 (chunked 전송)
+     */
+    void setSearchPage(byte[] page, int chunkBytes, int chunkDelayMs) {
+        this.chunkBytes = chunkBytes;
+        this.chunkDelayMs = chunkDelayMs;
+        this.searchPage = page;
+    }
+
+    /**
+     * 검색을 pageCount페이지로 나눔 (마지막 페이지는 절반만 채움, 그 뒤는 빈 목록)
+     */
+    void setPagedSearch(int pageCount, int pageSize) {
+        this.pageSize = pageSize;
+        this.pageCount = pageCount;
+    }
+
+    /** 검색어 query의 결과를 레시피 ids로 고정 */
+    void setQueryRecipes(String query, int... ids) {
+        queryRecipes.put(query, ids);
+    }
+
+    /** 검색어 query에만 delayMs만큼 지연을 더함 */
+    void setQueryDelay(String query, int delayMs) {
+        queryDelayMs.put(query, delayMs);
+    }
+
+    int getRequests() {
+        synchronized (arrivals) {
+            return arrivals.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+        String path = exchange.getRequestURI().getPath();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        int pageNumber = pageOf(rawQuery);
+        String query = queryOf(rawQuery);
+        synchronized (arrivals) {
+            arrivals.add(path);
+            arrivalNanos.add(System.nanoTime());
+            if (path.startsWith("/recipe/list.html")) {
+                searchPages.add(pageNumber);
+                searchQueries.add(query);
+            }
+        }
+        int current = version;
+        String etag = "\"v" + current + "\"";
+        try {
+            Thread.sleep(latencyMs + queryDelayMs.getOrDefault(query, 0));
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Last-Modified", "Mon, 0" + current + " Jun 2026 00:00:00 GMT");
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] page = searchPage;
+            if (page != null && path.startsWith("/recipe/list.html")) {
+                sendSlowly(exchange, page);
+                return;
+            }
+            String html;
+            if (!path.startsWith("/recipe/list.html")) {
+                html = detailPage(path, current);
+            } else if (!queryRecipes.isEmpty()) {
+                html = recipesPage(queryRecipes.getOrDefault(query, new int[0]));
+            } else if (pageCount > 0) {
+                html = pagedListPage(pageNumber, pageCount, pageSize);
+            } else {
+                html = listPage(current);
+            }
+            byte[] body = html.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void sendSlowly(HttpExchange exchange, byte[] page) throws IOException, InterruptedException {
+        lastSearchBytesSent.set(0);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int offset = 0; offset < page.length; offset += chunkBytes) {
+                int length = Math.min(chunkBytes, page.length - offset);
+                out.write(page, offset, length);
+                out.flush();
+                lastSearchBytesSent.addAndGet(length);
+                Thread.sleep(chunkDelayMs);
+            }
+        } catch (IOException e) {
+            // 클라이언트가 필요한 만큼만 읽고 연결을 끊음
+        }
+    }
+
+    private static String listPage(int version) {
+        StringBuilder sb = new StringBuilder("<html><body><ul class=\"common_sp_list_ul\">");
+        for (int i = 1; i <= 3; i++) {
+            sb.append("<li class=\"common_sp_list_li\"><a href=\"/recipe/10").append(i).append("\">")
+                    .append("<img src=\"/img/").append(i).append(".jpg\"></a>")
+                    .append("<div class=\"common_sp_caption_tit\">토마토 요리 ").append(i)
+                    .append(version > 1 ? " v" + version : "").append("</div>")
+                    .append("<div class=\"common_sp_caption_name\">작성자</div></li>");
+        }
+        return sb.append("</ul></body></html>").toString();
+    }
+
+    private static String queryOf(String rawQuery) {
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                if (param.startsWith("q=")) {
+                    try {
+                        return URLDecoder.decode(param.substring("q=".length()), "UTF-8");
+                    } catch (UnsupportedEncodingException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }
+        }
+        return "";
+    }
+
+    private static int pageOf(String rawQuery) {
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                if (param.startsWith("page=")) {
+                    return Integer.parseInt(param.substring("page=".length()));
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String recipesPage(int[] ids) {
+        StringBuilder sb = new StringBuilder("<html><body><ul class=\"common_sp_list_ul\">");
+        for (int id : ids) {
+            sb.append("<li class=\"common_sp_list_li\"><a href=\"/recipe/").append(id).append("\"></a>")
+                    .append("<div class=\"common_sp_caption_tit\">레시피 ").append(id).append("</div>")
+                    .append("<div class=\"common_sp_caption_name\">작성자 ").append(id % 7).append("</div></li>");
+        }
+        return sb.append("</ul></body></html>").toString();
+    }
+
+    // 2페이지부터는 앞 페이지 마지막 레시피가 맨 앞에 한 번 더 (새 레시피는 pageSize - 1개)
+    private static String pagedListPage(int page, int pageCount, int pageSize) {
+        if (page > pageCount) {
+            return recipesPage(new int[0]);
+        }
+        int first = page == 1 ? 1 : pageSize + (page - 2) * (pageSize - 1);
+        int[] ids = new int[page == pageCount ? pageSize / 2 : pageSize];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+        return recipesPage(ids);
+    }
+
+    private static String detailPage(String path, int version) {
+        return "<html><body><div class=\"view2_summary\"><h3>레시피 " + path.substring("/recipe/".length())
+                + (version > 1 ? " v" + version : "")
+                + "</h3></div><div class=\"ready_ingre3\"><ul><li>토마토 2개</li><li>양파 1개</li></ul></div>"
+                + "<div class=\"view_step_cont\">토마토를 썬다</div></body></html>";
+    }
+}
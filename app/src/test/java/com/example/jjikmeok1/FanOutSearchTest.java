@@ -0,0 +1,193 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class FanOutSearchTest {
+
+    private static final List<String> DETECTED = Arrays.asList("토마토", "양파", "계란", "감자", "당근", "마늘");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeRecipeSite site;
+    private CrawlerEngine engine;
+    private RecipeCrawler crawler;
+
+    @Before
+    public void setUp() throws IOException {
+        site = new FakeRecipeSite(20);
+        engine = new CrawlerEngine(4, 1000, 100);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, Runnable::run);
+
+        // 재료를 전부 이어 붙인 검색어는 결과 없음
+        site.setQueryRecipes("토마토", 1, 2, 3, 4);
+        site.setQueryRecipes("양파", 3, 5, 1);
+        site.setQueryRecipes("계란", 6, 1);
+        site.setQueryRecipes("감자", 7);
+        site.setQueryRecipes("당근", 8, 3);
+        site.setQueryRecipes("토마토 양파", 3, 1);
+        site.setQueryRecipes("토마토 계란", 1);
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        site.close();
+    }
+
+    private static List<String> ids(List<RecipeCrawler.Recipe> recipes) {
+        List<String> ids = new ArrayList<>();
+        for (RecipeCrawler.Recipe recipe : recipes) {
+            ids.add(recipe.getId());
+        }
+        return ids;
+    }
+
+    private static RecipeCrawler.Recipe recipe(String id) {
+        RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+        recipe.setId(id);
+        recipe.setTitle("레시피 " + id);
+        return recipe;
+    }
+
+    private List<RecipeCrawler.Recipe> search(List<String> ingredients, long budgetMillis, long[] elapsedNanos)
+            throws InterruptedException {
+        AtomicReference<List<RecipeCrawler.Recipe>> result = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        crawler.searchByIngredients(ingredients, budgetMillis, new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                elapsedNanos[0] = System.nanoTime() - start;
+                result.set(recipes);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                elapsedNanos[0] = System.nanoTime() - start;
+                error.set(errorMessage);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        if (result.get() == null) {
+            throw new AssertionError("error: " + error.get());
+        }
+        return result.get();
+    }
+
+    @Test
+    public void planUsesSinglesThenPairsOfLeadingIngredients() {
+        List<List<String>> plan = FanOutSearch.plan(DETECTED, 5, 3);
+        assertEquals(8, plan.size());
+        assertEquals(Collections.singletonList("토마토"), plan.get(0));
+        assertEquals(Collections.singletonList("당근"), plan.get(4));
+        assertEquals(Arrays.asList("토마토", "양파"), plan.get(5));
+        assertEquals(Arrays.asList("토마토", "계란"), plan.get(6));
+        assertEquals(Arrays.asList("토마토", "감자"), plan.get(7)); // 순번 합이 같으면(0+3, 1+2) 앞 재료부터
+
+        // 공백/중복 재료는 빼고, 재료 하나면 검색어 하나
+        assertEquals(1, FanOutSearch.plan(Arrays.asList("감자", " ", "감자 "), 5, 3).size());
+        assertTrue(FanOutSearch.plan(Collections.emptyList(), 5, 3).isEmpty());
+    }
+
+    @Test
+    public void rankingPrefersRecipesFoundByMoreQueries() {
+        FanOutSearch fanOut = new FanOutSearch(3);
+        assertFalse(fanOut.onResult(Collections.singletonList("A"), Arrays.asList(recipe("1"), recipe("2"))));
+        assertFalse(fanOut.onResult(Collections.singletonList("B"), Arrays.asList(recipe("3"), recipe("2"))));
+        assertTrue(fanOut.onResult(Arrays.asList("A", "B"), Arrays.asList(recipe("4"), recipe("2"))));
+
+        // 2: 세 번, 나머지는 한 번 → 덮는 재료 수(4는 A, B) → 결과 안 위치 → 먼저 나온 순
+        assertEquals(Arrays.asList("2", "4", "1", "3"), ids(fanOut.ranked()));
+        assertFalse(fanOut.onBudgetExpired());
+    }
+
+    @Test
+    public void fanOutFindsRecipesWhereTheJoinedQueryIsEmpty() throws Exception {
+        long[] elapsed = new long[1];
+        List<RecipeCrawler.Recipe> recipes = search(DETECTED, 5000, elapsed);
+
+        // 1: 토마토, 양파, 계란, 토마토 양파, 토마토 계란 / 3: 토마토, 양파, 당근, 토마토 양파
+        List<String> ids = ids(recipes);
+        assertEquals(Arrays.asList("1", "3"), ids.subList(0, 2));
+        assertEquals(8, ids.size());
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        synchronized (site.arrivals) {
+            assertEquals(8, site.searchQueries.size());
+            assertFalse(site.searchQueries.contains(String.join(" ", DETECTED)));
+        }
+    }
+
+    @Test
+    public void budgetReturnsPartialResultsWithoutWaitingForTheSlowestQuery() throws Exception {
+        site.setQueryDelay("감자", 2000);
+        long[] elapsed = new long[1];
+        List<RecipeCrawler.Recipe> recipes = search(DETECTED, 300, elapsed);
+
+        assertTrue(elapsed[0] < TimeUnit.SECONDS.toNanos(1));
+        assertFalse(ids(recipes).contains("7")); // 감자 결과만 늦음
+        assertEquals("1", recipes.get(0).getId());
+    }
+
+    @Test
+    public void budgetExpiringBeforeAnyResultFallsBackToTheOfflineIndex() throws Exception {
+        for (String query : Arrays.asList("토마토", "양파", "토마토 양파")) {
+            site.setQueryDelay(query, 2000);
+        }
+        long[] elapsed = new long[1];
+        // 색인이 없으면 빈 결과
+        assertTrue(search(Arrays.asList("토마토", "양파"), 100, elapsed).isEmpty());
+        assertTrue(elapsed[0] < TimeUnit.SECONDS.toNanos(1));
+
+        IngredientIndex index = new IngredientIndex(new File(folder.newFolder("index"), "ingredient_index.bin"));
+        RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+        detail.setId("100");
+        detail.setTitle("레시피 100");
+        detail.setIngredients(Arrays.asList("토마토 2개", "양파 1개"));
+        index.add(detail);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, index, Runnable::run);
+        List<RecipeCrawler.Recipe> recipes = search(Arrays.asList("토마토", "양파"), 100, elapsed);
+        assertEquals(Collections.singletonList("100"), ids(recipes));
+        assertTrue(elapsed[0] < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void allQueriesFailingReportsAnError() throws Exception {
+        site.close();
+        AtomicReference<String> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        crawler.searchByIngredients(Arrays.asList("토마토", "양파"), 5000, new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                error.set(errorMessage);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNotNull(error.get());
+    }
+}
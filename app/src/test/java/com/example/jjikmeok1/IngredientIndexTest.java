@@ -0,0 +1,282 @@
+package com.example.jjikmeok1;
+
+import com.example.jjikmeok1.detection.CoverageRanker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class IngredientIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private IngredientIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.newFolder("index"), "ingredient_index.bin");
+        index = new IngredientIndex(file);
+    }
+
+    private static RecipeCrawler.RecipeDetail detail(int id, String... ingredients) {
+        RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+        detail.setId(String.valueOf(id));
+        detail.setTitle("레시피 " + id);
+        detail.setUrl("https://www.10000recipe.com/recipe/" + id);
+        detail.setIngredients(Arrays.asList(ingredients));
+        return detail;
+    }
+
+    private static List<String> ids(List<RecipeCrawler.Recipe> recipes) {
+        List<String> ids = new ArrayList<>();
+        for (RecipeCrawler.Recipe recipe : recipes) {
+            ids.add(recipe.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void ingredientLinesAreNormalizedToTerms() {
+        assertEquals(Collections.singletonList("돼지고기"), IngredientIndex.terms("돼지고기 200g 구매"));
+        assertEquals(Collections.singletonList("양파"), IngredientIndex.terms("양파 1/2개"));
+        assertEquals(Collections.singletonList("간장"), IngredientIndex.terms("[양념] 간장 2큰술"));
+        assertEquals(Collections.singletonList("대파"), IngredientIndex.terms("대파(흰 부분) 1대"));
+        assertEquals(Collections.singletonList("소금"), IngredientIndex.terms("소금 약간"));
+        assertEquals(Arrays.asList("다진마늘", "마늘"), IngredientIndex.terms("다진 마늘 1큰술"));
+        assertEquals(Collections.singletonList("tomato"), IngredientIndex.terms("Tomato 2"));
+        assertTrue(IngredientIndex.terms("1큰술").isEmpty());
+    }
+
+    @Test
+    public void pantryTermsCanAppearAsHeadTerms() {
+        // 순위는 재료 한 줄의 마지막 재료어로 매기므로 기본양념도 그 형태여야 함
+        for (String term : CoverageRanker.PANTRY) {
+            List<String> terms = IngredientIndex.terms(term + " 1큰술");
+            assertEquals(term, terms.get(terms.size() - 1));
+        }
+    }
+
+    @Test
+    public void postingsRoundTripThroughVarintDeltas() {
+        Random random = new Random(3);
+        IngredientIndex.Postings postings = new IngredientIndex.Postings();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            int id = 6_800_000 + random.nextInt(200_000);
+            assertEquals(expected.add(id), postings.add(id)); // 순서 없이 넣어도 정렬 유지
+            if (i % 7 == 0) {
+                int victim = expected.first();
+                assertTrue(postings.remove(victim));
+                expected.remove(victim);
+            }
+        }
+        int[] decoded = postings.decode();
+        assertEquals(expected.size(), decoded.length);
+        int i = 0;
+        for (int id : expected) {
+            assertEquals(id, decoded[i++]);
+        }
+        // 촘촘한 id 차이값은 id 하나당 1~2바이트
+        assertTrue(postings.byteSize() < 2.5 * postings.size());
+    }
+
+    // 숫자는 수량으로 잘리므로 재료 이름은 글자로
+    private static String name(int n) {
+        return "재료" + (char) ('가' + n);
+    }
+
+    @Test
+    public void andOrMatchBruteForceOnRandomCorpus() {
+        Random random = new Random(11);
+        List<Set<String>> corpus = new ArrayList<>();
+        int base = 6_000_000;
+        int recipes = 5000;
+        for (int r = 0; r < recipes; r++) {
+            Set<String> ingredients = new HashSet<>();
+            int count = 4 + random.nextInt(8);
+            while (ingredients.size() < count) {
+                // 앞쪽 재료가 훨씬 자주 쓰이게 (양파, 마늘 같은 재료)
+                ingredients.add(name((int) (300 * Math.pow(random.nextDouble(), 3))));
+            }
+            corpus.add(ingredients);
+            index.add(detail(base + r, ingredients.toArray(new String[0])));
+        }
+
+        int queries = 200;
+        for (int q = 0; q < queries; q++) {
+            List<String> query = new ArrayList<>();
+            int size = 1 + random.nextInt(3);
+            while (query.size() < size) {
+                query.add(name((int) (60 * Math.pow(random.nextDouble(), 2))));
+            }
+            List<Integer> expectedAnd = new ArrayList<>();
+            List<Integer> expectedOr = new ArrayList<>();
+            for (int r = 0; r < recipes; r++) {
+                if (corpus.get(r).containsAll(query)) {
+                    expectedAnd.add(base + r);
+                }
+                if (!Collections.disjoint(corpus.get(r), query)) {
+                    expectedOr.add(base + r);
+                }
+            }
+            int[] and = index.and(query);
+            int[] or = index.or(query);
+            assertEquals(expectedAnd.toString(), Arrays.toString(and));
+            assertEquals(expectedOr.toString(), Arrays.toString(or));
+        }
+        assertTrue(index.getPostingBytes() < 2 * index.getPostingCount());
+    }
+
+    @Test
+    public void searchRanksByMatchingIngredients() {
+        index.add(detail(100, "토마토 2개", "양파 1개"));
+        index.add(detail(101, "토마토 1개", "계란 2개", "양파 1/2개"));
+        index.add(detail(102, "계란 3개"));
+        index.add(detail(103, "감자 2개"));
+
+        assertEquals(Arrays.asList("101", "100", "102"),
+                ids(index.search(Arrays.asList("토마토", "양파", "계란"), 10)));
+        // 겹치는 재료가 같으면 부족한 재료가 적은 레시피 (100은 양파만, 101은 계란/양파가 부족)
+        assertEquals(Arrays.asList("100", "101"), ids(index.search(Arrays.asList("토마토"), 10)));
+        assertEquals("레시피 102", index.search(Arrays.asList("계란"), 1).get(0).getTitle());
+        assertArrayEquals(new int[]{100, 101}, index.and(Arrays.asList("토마토", "양파")));
+    }
+
+    private static RecipeCrawler.Recipe listed(String id, String viewCount) {
+        RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+        recipe.setId(id);
+        recipe.setTitle("레시피 " + id);
+        recipe.setViewCount(viewCount);
+        return recipe;
+    }
+
+    @Test
+    public void networkResultsAreRerankedByCoverage() {
+        index.add(detail(100, "토마토 2개", "양파 1개", "소금 약간"));
+        index.add(detail(101, "토마토 1개", "계란 2개", "감자 1개", "당근 1/2개"));
+        List<RecipeCrawler.Recipe> candidates = Arrays.asList(
+                listed("101", null), listed("999", null), listed("100", null), listed("998", null));
+        Set<String> found999 = new HashSet<>(Arrays.asList("토마토", "양파"));
+
+        List<RecipeCrawler.Recipe> ranked = index.rank(candidates, Arrays.asList("토마토", "양파"),
+                recipe -> recipe.getId().equals("999") ? found999 : Collections.emptySet());
+        // 100: 다 있음, 999: 검색어로 둘 다 겹치고 부족 재료는 평균(0, 3 → 2개), 101: 셋 부족, 998: 겹침 없음은 뒤로
+        assertEquals(Arrays.asList("100", "999", "101", "998"), ids(ranked));
+    }
+
+    @Test
+    public void viewCountsBreakTiesAndSurviveReload() {
+        index.add(detail(200, "두부 1모", "대파 1대"));
+        index.add(detail(201, "두부 1모", "애호박 1개"));
+        assertEquals("200", index.search(Collections.singletonList("두부"), 1).get(0).getId());
+
+        index.notePopularity(Arrays.asList(listed("201", "조회수 1.5만"), listed("555", "100")));
+        assertEquals("201", index.search(Collections.singletonList("두부"), 1).get(0).getId());
+        index.flush();
+        assertEquals("201", new IngredientIndex(file).search(Collections.singletonList("두부"), 1).get(0).getId());
+    }
+
+    @Test
+    public void reindexingReplacesOldIngredients() {
+        index.add(detail(7, "토마토 2개", "양파 1개"));
+        assertFalse(index.add(detail(7, "토마토 2개", "양파 1개")));
+        assertTrue(index.add(detail(7, "토마토 2개", "감자 1개")));
+
+        assertEquals(0, index.or(Collections.singletonList("양파")).length);
+        assertArrayEquals(new int[]{7}, index.and(Arrays.asList("토마토", "감자")));
+        assertEquals(2, index.getTermCount());
+
+        assertTrue(index.remove("7"));
+        assertEquals(0, index.getTermCount());
+        assertEquals(0, index.getRecipeCount());
+    }
+
+    @Test
+    public void indexSurvivesReloadAndCorruptFileStartsEmpty() throws IOException {
+        index.add(detail(6_889_019, "김치 300g", "돼지고기 200g"));
+        index.add(detail(6_889_020, "김치 1/4포기", "두부 1모"));
+        index.flush();
+
+        IngredientIndex reloaded = new IngredientIndex(file);
+        assertEquals(2, reloaded.getRecipeCount());
+        assertArrayEquals(new int[]{6_889_019, 6_889_020}, reloaded.or(Collections.singletonList("김치")));
+        assertEquals("https://www.10000recipe.com/recipe/6889020",
+                reloaded.search(Collections.singletonList("두부"), 1).get(0).getUrl());
+        reloaded.add(detail(6_889_021, "김치 1컵"));
+        assertArrayEquals(new int[]{6_889_019, 6_889_020, 6_889_021}, reloaded.or(Collections.singletonList("김치")));
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        IngredientIndex corrupt = new IngredientIndex(file);
+        assertEquals(0, corrupt.getRecipeCount());
+        assertEquals(1, corrupt.getDiskErrors());
+    }
+
+    @Test
+    public void crawlerIndexesFetchedDetailsForOfflineSearch() throws Exception {
+        FakeRecipeSite site = new FakeRecipeSite(5);
+        CrawlerEngine engine = new CrawlerEngine(2, 1000, 100);
+        RecipeCrawler crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, index, Runnable::run);
+        try {
+            CountDownLatch fetched = new CountDownLatch(1);
+            crawler.getRecipeDetail("42", new RecipeCrawler.RecipeDetailCallback() {
+                @Override
+                public void onSuccess(RecipeCrawler.RecipeDetail recipeDetail) {
+                    fetched.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                }
+            });
+            assertTrue(fetched.await(5, TimeUnit.SECONDS));
+
+            site.close(); // 이후는 네트워크 없이
+            AtomicReference<List<RecipeCrawler.Recipe>> result = new AtomicReference<>();
+            CountDownLatch searched = new CountDownLatch(1);
+            crawler.searchOffline(Arrays.asList("양파", "당근"), 10, new RecipeCrawler.RecipeSearchCallback() {
+                @Override
+                public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                    result.set(recipes);
+                    searched.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                }
+            });
+            assertTrue(searched.await(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList("42"), ids(result.get()));
+            assertEquals("레시피 42", result.get().get(0).getTitle());
+        } finally {
+            engine.shutdown();
+            site.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        index.flush();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RecipeCacheTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeRecipeSite site;
+    private CrawlerEngine engine;
+    private final long[] now = {1_000_000L};
+    private RecipeCache cache;
+    private RecipeCrawler crawler;
+
+    @Before
+    public void setUp() throws IOException {
+        site = new FakeRecipeSite(20);
+        engine = new CrawlerEngine(2, 1000, 100);
+        cache = new RecipeCache(folder.newFolder("recipes"), 1 << 20, () -> now[0]);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, cache, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        site.close();
+    }
+
+    private List<RecipeCrawler.Recipe> search(String query) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<RecipeCrawler.Recipe>> result = new AtomicReference<>();
+        crawler.search(query, new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                result.set(recipes);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotNull(result.get());
+        return result.get();
+    }
+
+    private RecipeCrawler.RecipeDetail detail(String id) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<RecipeCrawler.RecipeDetail> result = new AtomicReference<>();
+        crawler.getRecipeDetail(id, new RecipeCrawler.RecipeDetailCallback() {
+            @Override
+            public void onSuccess(RecipeCrawler.RecipeDetail recipeDetail) {
+                result.set(recipeDetail);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotNull(result.get());
+        return result.get();
+    }
+
+    // 백그라운드 재검증이 캐시에 기록될 때까지 대기
+    private void awaitFresh(String path) throws InterruptedException {
+        String url = site.getBaseUrl() + path;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            RecipeCache.Entry entry = cache.peek(url);
+            if (entry != null && entry.getState() == RecipeCache.State.FRESH) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("not revalidated: " + url);
+    }
+
+    @Test
+    public void codecRoundTripKeepsNullsAndLists() throws IOException {
+        RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+        detail.setId("42");
+        detail.setTitle("김치찌개");
+        detail.setIngredients(Arrays.asList("김치 300g", "돼지고기 200g"));
+        RecipeCrawler.RecipeStep step = new RecipeCrawler.RecipeStep();
+        step.setStepNumber(1);
+        step.setDescription("볶는다");
+        detail.setSteps(Arrays.asList(step));
+
+        RecipeCrawler.RecipeDetail copy = RecipeCodec.decode(RecipeCodec.DETAIL,
+                RecipeCodec.encode(RecipeCodec.DETAIL, detail));
+        assertEquals("김치찌개", copy.getTitle());
+        assertNull(copy.getIntro());
+        assertEquals(detail.getIngredients(), copy.getIngredients());
+        assertEquals("볶는다", copy.getSteps().get(0).getDescription());
+        assertNull(copy.getSteps().get(0).getImageUrl());
+    }
+
+    @Test
+    public void freshHitSkipsNetworkAndParsing() throws Exception {
+        List<RecipeCrawler.Recipe> first = search("토마토");
+        List<RecipeCrawler.Recipe> second = search("토마토");
+
+        assertEquals(1, site.getRequests());
+        assertEquals(3, second.size());
+        assertEquals(first.get(0).getTitle(), second.get(0).getTitle());
+        assertEquals(first.get(2).getUrl(), second.get(2).getUrl());
+        assertEquals(1, cache.getFreshHits());
+        assertEquals(0.5, cache.getHitRatio(), 1e-9);
+        assertTrue(cache.getBytesSaved() > 0);
+
+        // 캐시 파일 하나가 원본 HTML보다 작음
+        assertTrue(cache.getSizeBytes() < cache.getBytesSaved());
+    }
+
+    @Test
+    public void corruptEntryIsRefetchedAndNotCountedAsHit() throws Exception {
+        String url = site.getBaseUrl() + "/recipe/list.html?q=" + URLEncoder.encode("감자", "UTF-8");
+        cache.put(url, 10 * MINUTE, DAY, null, null, 12_345, new byte[]{1, 2, 3});
+
+        assertEquals(3, search("감자").size());
+        assertEquals(1, site.getRequests());
+        assertEquals(0, cache.getFreshHits());
+        assertEquals(0, cache.getBytesSaved());
+        assertEquals(0, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void staleResultIsServedWhileRevalidatingInBackground() throws Exception {
+        search("양파");
+        site.setVersion(2);
+        now[0] += 11 * MINUTE; // 검색 ttl 10분 경과
+
+        // 낡은 결과를 바로 돌려주고 뒤에서 새로 받아 둠
+        List<RecipeCrawler.Recipe> stale = search("양파");
+        assertEquals("토마토 요리 1", stale.get(0).getTitle());
+        assertEquals(1, cache.getStaleHits());
+        awaitFresh("/recipe/list.html?q=" + URLEncoder.encode("양파", "UTF-8"));
+
+        List<RecipeCrawler.Recipe> refreshed = search("양파");
+        assertEquals("토마토 요리 1 v2", refreshed.get(0).getTitle());
+        assertEquals(2, site.getRequests());
+        assertEquals(1, cache.getFreshHits());
+    }
+
+    @Test
+    public void unchangedStalePageIsRevalidatedWith304() throws Exception {
+        detail("7");
+        now[0] += 2 * DAY; // 상세 ttl 1일 경과, 낡은 결과 허용 기간 이내
+
+        assertEquals("레시피 7", detail("7").getTitle());
+        awaitFresh("/recipe/7");
+        assertEquals(1, site.notModified.get());
+
+        // 재검증으로 저장 시각이 갱신되어 다시 신선
+        detail("7");
+        assertEquals(2, site.getRequests());
+        assertEquals(1, cache.getFreshHits());
+        assertEquals(1, cache.getStaleHits());
+    }
+
+    @Test
+    public void expiredEntryUsesConditionalRequest() throws Exception {
+        detail("9");
+        now[0] += 30 * DAY; // 낡은 결과 허용 기간도 지남
+
+        assertEquals("레시피 9", detail("9").getTitle());
+        assertEquals(2, site.getRequests());
+        assertEquals(1, site.notModified.get());
+        assertEquals(1, cache.getNotModified());
+
+        site.setVersion(3);
+        now[0] += 30 * DAY;
+        assertEquals("레시피 9 v3", detail("9").getTitle());
+        assertEquals(1, cache.getNotModified());
+        assertEquals(1.0 / 3, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void sizeIsBoundedByEvictingLeastRecentlyUsed() throws Exception {
+        File dir = folder.newFolder("small");
+        RecipeCache small = new RecipeCache(dir, 4096, () -> now[0]);
+        byte[] payload = new byte[500];
+        for (int i = 0; i < 20; i++) {
+            now[0] += 1000;
+            small.put("https://example.com/recipe/" + i, MINUTE, MINUTE, null, null, 20_000, payload);
+            assertTrue(small.getSizeBytes() <= 4096);
+        }
+        assertNotNull(small.peek("https://example.com/recipe/19"));
+        assertNull(small.peek("https://example.com/recipe/0"));
+        assertEquals(0, small.getDiskErrors());
+    }
+
+    @Test
+    public void repeatedSearchIsServedFromCache() throws Exception {
+        search("감자");
+        for (int i = 0; i < 50; i++) {
+            search("감자");
+        }
+        assertEquals(1, site.getRequests());
+        assertEquals(50.0 / 51, cache.getHitRatio(), 1e-9);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class RecipePagerTest {
+
+    private static final int PAGE_SIZE = RecipeCrawler.SEARCH_PAGE_SIZE;
+    private static final int PREFETCH_DISTANCE = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeRecipeSite site;
+    private CrawlerEngine engine;
+    // 메인 스레드 대신: 콜백과 페이저 조작을 모두 이 스레드에서
+    private ExecutorService main;
+    private RecipeCrawler crawler;
+    private final List<RecipeCrawler.Recipe> recipes = new ArrayList<>();
+    private final AtomicInteger ended = new AtomicInteger();
+    private final List<String> errors = new ArrayList<>();
+    private RecipePager pager;
+
+    @Before
+    public void setUp() throws IOException {
+        site = new FakeRecipeSite(10);
+        site.setPagedSearch(3, PAGE_SIZE);
+        engine = new CrawlerEngine(2, 1000, 100);
+        main = Executors.newSingleThreadExecutor();
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, main);
+        pager = newPager();
+    }
+
+    private RecipePager newPager() {
+        return new RecipePager(crawler, recipes, PREFETCH_DISTANCE, new RecipePager.Listener() {
+            @Override
+            public void onRecipesInserted(int start, int count) {
+                assertEquals(recipes.size(), start + count);
+            }
+
+            @Override
+            public void onEnd(int total) {
+                ended.incrementAndGet();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                errors.add(errorMessage);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        main.shutdownNow();
+        site.close();
+    }
+
+    private <T> T onMain(Callable<T> action) throws Exception {
+        return main.submit(action).get(5, TimeUnit.SECONDS);
+    }
+
+    private void scrollTo(int lastVisible) throws Exception {
+        onMain(() -> {
+            pager.onScrolled(lastVisible);
+            return null;
+        });
+    }
+
+    private void await(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!onMain(condition::getAsBoolean)) {
+            assertTrue("timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private List<Integer> requestedPages() {
+        synchronized (site.arrivals) {
+            return new ArrayList<>(site.searchPages);
+        }
+    }
+
+    @Test
+    public void nextPageIsPrefetchedOnlyNearTheEnd() throws Exception {
+        onMain(() -> {
+            pager.start("토마토");
+            return null;
+        });
+        await(() -> pager.getPagesLoaded() == 1);
+        assertEquals(PAGE_SIZE, recipes.size());
+
+        scrollTo(PAGE_SIZE - PREFETCH_DISTANCE - 1); // 남은 항목 10개: 아직
+        Thread.sleep(50);
+        assertEquals(Arrays.asList(1), requestedPages());
+
+        scrollTo(PAGE_SIZE - PREFETCH_DISTANCE); // 9개 남음
+        await(() -> pager.getPagesLoaded() == 2);
+        assertEquals(Arrays.asList(1, 2), requestedPages());
+
+        // 2페이지 첫 항목은 1페이지 마지막과 같은 레시피
+        assertEquals(2 * PAGE_SIZE - 1, recipes.size());
+        assertEquals(1, pager.getDuplicates());
+        assertEquals(0, ended.get());
+    }
+
+    @Test
+    public void scrollingToTheEndLoadsEveryPageOnceWithoutDuplicates() throws Exception {
+        onMain(() -> {
+            pager.start("토마토");
+            return null;
+        });
+        while (onMain(pager::hasMore)) {
+            scrollTo(onMain(recipes::size) - 1);
+            Thread.sleep(5);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3), requestedPages());
+        assertEquals(1, ended.get());
+        int total = PAGE_SIZE + (PAGE_SIZE - 1) + (PAGE_SIZE / 2 - 1);
+        assertEquals(total, (int) onMain(recipes::size));
+        assertEquals(2, pager.getDuplicates());
+        Set<String> ids = new HashSet<>();
+        for (RecipeCrawler.Recipe recipe : onMain(() -> new ArrayList<>(recipes))) {
+            assertTrue(ids.add(recipe.getId()));
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void reachingTheEndBeforePrefetchArrivesEscalatesToUserRequest() throws Exception {
+        onMain(() -> {
+            pager.start("토마토");
+            return null;
+        });
+        await(() -> pager.getPagesLoaded() == 1);
+
+        // 미리 가져오기에 쓸 수 있는 작업자 하나를 붙잡아 둠
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocking = new CountDownLatch(1);
+        engine.submit(CrawlerEngine.Priority.PREFETCH, site.getBaseUrl() + "/recipe/blocker", () -> {
+            blocking.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+        scrollTo(PAGE_SIZE - 5); // 미리 가져오기 요청은 대기열에
+        Thread.sleep(50);
+        assertEquals(Arrays.asList(1), requestedPages());
+        assertTrue(onMain(pager::isLoading));
+
+        // 끝에 닿음: 대기 중인 미리 가져오기를 사용자 요청으로 올려 바로 받음 (같은 페이지를 두 번 받지 않음)
+        scrollTo(PAGE_SIZE - 1);
+        await(() -> pager.getPagesLoaded() == 2);
+        assertEquals(2 * PAGE_SIZE - 1, (int) onMain(recipes::size));
+        assertEquals(1, crawler.getSingleFlight().getPromoted());
+
+        release.countDown();
+        Thread.sleep(100);
+        assertEquals(Arrays.asList(1, 2), requestedPages());
+        assertEquals(2 * PAGE_SIZE - 1, (int) onMain(recipes::size));
+        assertEquals(2, pager.getPagesLoaded());
+        assertEquals(1, pager.getDuplicates());
+    }
+
+    @Test
+    public void firstPageIsCachedAndStored() throws Exception {
+        RecipeCache cache = new RecipeCache(folder.newFolder("recipes"), 1 << 20, System::currentTimeMillis);
+        RecipeStore store = new RecipeStore(new File(folder.getRoot(), "recipe_store.bin"));
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, cache, null, store, main);
+        pager = newPager();
+        onMain(() -> {
+            pager.start("토마토");
+            return null;
+        });
+        await(() -> pager.getPagesLoaded() == 1);
+        assertEquals(PAGE_SIZE, store.getRecipeCount());
+
+        // 같은 검색을 다시 열면 1페이지는 캐시에서
+        onMain(() -> {
+            recipes.clear();
+            pager.start("토마토");
+            return null;
+        });
+        await(() -> pager.getPagesLoaded() == 1 && recipes.size() == PAGE_SIZE);
+        assertEquals(Arrays.asList(1), requestedPages());
+        assertEquals(1, cache.getFreshHits());
+        store.close();
+    }
+
+    @Test
+    public void failedPageIsRetriedOnlyOnRequest() throws Exception {
+        site.close(); // 연결 실패
+        onMain(() -> {
+            pager.start("토마토");
+            return null;
+        });
+        await(() -> !errors.isEmpty());
+        scrollTo(-1);
+        Thread.sleep(50);
+        assertEquals(1, errors.size());
+        assertTrue(onMain(pager::hasMore));
+
+        onMain(() -> {
+            pager.retry();
+            return null;
+        });
+        await(() -> errors.size() == 2);
+        assertEquals(0, pager.getPagesLoaded());
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RecipeStoreTest {
+
+    private static final String[] INGREDIENTS = {"돼지고기", "양파", "대파", "다진 마늘", "간장", "설탕", "참기름",
+            "감자", "당근", "계란", "두부", "김치", "고춧가루", "소금", "후추", "애호박", "버섯", "토마토"};
+    private static final String[] AMOUNTS = {"1개", "1/2개", "200g", "1큰술", "2큰술", "1작은술", "약간", "1대", "300g"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private RecipeStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.newFolder("store"), "recipe_store.bin");
+        store = new RecipeStore(file);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    private static RecipeCrawler.RecipeDetail detail(int id, Random random) {
+        RecipeCrawler.RecipeDetail detail = new RecipeCrawler.RecipeDetail();
+        detail.setId(String.valueOf(id));
+        detail.setUrl("https://www.10000recipe.com/recipe/" + id);
+        detail.setTitle("레시피 " + id);
+        detail.setMainImageUrl("https://recipe1.ezmember.co.kr/cache/recipe/2024/" + id + "_m.jpg");
+        detail.setIntro("맛있는 집밥 레시피 " + id + "번입니다.");
+        detail.setServings((1 + random.nextInt(4)) + "인분");
+        detail.setCookTime((10 + 10 * random.nextInt(6)) + "분 이내");
+        detail.setDifficulty(random.nextBoolean() ? "초급" : "아무나");
+        List<String> ingredients = new ArrayList<>();
+        for (int i = 0; i < 6 + random.nextInt(8); i++) {
+            ingredients.add(INGREDIENTS[random.nextInt(INGREDIENTS.length)] + " "
+                    + AMOUNTS[random.nextInt(AMOUNTS.length)]);
+        }
+        detail.setIngredients(ingredients);
+        List<RecipeCrawler.RecipeStep> steps = new ArrayList<>();
+        for (int i = 1; i <= 3 + random.nextInt(5); i++) {
+            RecipeCrawler.RecipeStep step = new RecipeCrawler.RecipeStep();
+            step.setStepNumber(i);
+            step.setDescription(INGREDIENTS[random.nextInt(INGREDIENTS.length)] + "를 " + i + "분 볶는다.");
+            step.setImageUrl(random.nextBoolean() ? null
+                    : "https://recipe1.ezmember.co.kr/cache/recipe/2024/" + id + "_" + i + ".jpg");
+            steps.add(step);
+        }
+        detail.setSteps(steps);
+        return detail;
+    }
+
+    private static RecipeCrawler.Recipe recipe(String id, String author, String viewCount) {
+        RecipeCrawler.Recipe recipe = new RecipeCrawler.Recipe();
+        recipe.setId(id);
+        recipe.setTitle("레시피 " + id);
+        recipe.setUrl("https://www.10000recipe.com/recipe/" + id);
+        recipe.setAuthor(author);
+        recipe.setViewCount(viewCount);
+        return recipe;
+    }
+
+    // 필드 비교는 기존 캐시 코덱 바이트로
+    private static void assertSameDetail(RecipeCrawler.RecipeDetail expected, RecipeCrawler.RecipeDetail actual)
+            throws IOException {
+        assertNotNull(actual);
+        assertArrayEquals(RecipeCodec.encode(RecipeCodec.DETAIL, expected), RecipeCodec.encode(RecipeCodec.DETAIL, actual));
+    }
+
+    @Test
+    public void recordsRoundTripThroughReopen() throws IOException {
+        RecipeCrawler.RecipeDetail full = detail(6_889_019, new Random(1));
+        full.getIngredients().add("½개 레몬");
+        full.getIngredients().add(null);
+        RecipeCrawler.RecipeDetail sparse = new RecipeCrawler.RecipeDetail(); // 필드 대부분 null
+        sparse.setId("7");
+        assertTrue(store.putDetail(full));
+        assertTrue(store.putDetail(sparse));
+        assertTrue(store.putRecipe(recipe("6889019", "만개의레시피", "조회수 1.2만")));
+        assertFalse(store.putRecipe(recipe(null, "작성자", null)));
+
+        assertSameDetail(full, store.getDetail("6889019"));
+        store.close();
+        RecipeStore reopened = new RecipeStore(file);
+        assertSameDetail(full, reopened.getDetail("6889019"));
+        assertSameDetail(sparse, reopened.getDetail("7"));
+        assertEquals("만개의레시피", reopened.getRecipe("6889019").getAuthor());
+        assertEquals("조회수 1.2만", reopened.getRecipe("6889019").getViewCount());
+        assertNull(reopened.getDetail("8"));
+        assertNull(reopened.getRecipe("7"));
+        assertEquals(0, reopened.getDiskErrors());
+        reopened.close();
+    }
+
+    @Test
+    public void sameContentIsNotAppendedAndNewContentWins() {
+        RecipeCrawler.RecipeDetail detail = detail(100, new Random(2));
+        assertTrue(store.putDetail(detail));
+        long bytes = store.getFileBytes();
+        assertFalse(store.putDetail(detail));
+        assertEquals(0, store.putRecipes(Collections.emptyList()));
+        assertEquals(bytes, store.getFileBytes());
+        assertEquals(0, store.getGarbageBytes());
+
+        detail.setTitle("레시피 100 (수정)");
+        assertTrue(store.putDetail(detail));
+        assertTrue(store.getGarbageBytes() > 0);
+        store.close();
+        RecipeStore reopened = new RecipeStore(file);
+        assertEquals("레시피 100 (수정)", reopened.getDetail("100").getTitle());
+        assertEquals(1, reopened.getDetailCount());
+        assertTrue(reopened.getGarbageBytes() > 0);
+        reopened.close();
+    }
+
+    @Test
+    public void tornTailIsDroppedOnOpen() throws IOException {
+        store.putDetail(detail(1, new Random(3)));
+        long firstEnd = store.getFileBytes();
+        store.putDetail(detail(2, new Random(4)));
+        long secondEnd = store.getFileBytes();
+        store.close();
+
+        // 두 번째 레코드를 쓰다가 죽은 것처럼 중간을 자름
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength((firstEnd + secondEnd) / 2);
+        }
+        RecipeStore reopened = new RecipeStore(file);
+        assertNotNull(reopened.getDetail("1"));
+        assertNull(reopened.getDetail("2"));
+        assertEquals(1, reopened.getDiskErrors());
+        assertTrue(reopened.putDetail(detail(2, new Random(4))));
+        assertNotNull(reopened.getDetail("2"));
+        reopened.close();
+
+        // 형식이 다른 파일은 비우고 시작
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(0);
+            raf.writeInt(0);
+        }
+        RecipeStore foreign = new RecipeStore(file);
+        assertEquals(0, foreign.getDetailCount());
+        assertEquals(1, foreign.getDiskErrors());
+        foreign.close();
+    }
+
+    @Test
+    public void unclosedStoreReopensWithoutErrors() {
+        store.putDetail(detail(1, new Random(7)));
+        store.putRecipe(recipe("2", "작성자", "조회수 10"));
+        long bytes = store.getFileBytes();
+        assertTrue(file.length() > bytes); // 매핑 용량만큼 미리 늘어나 있음
+
+        // 닫지 못하고 죽은 경우: 뒤쪽 0은 쓰다 만 레코드로 보지 않음
+        RecipeStore reopened = new RecipeStore(file);
+        assertNotNull(reopened.getDetail("1"));
+        assertEquals("작성자", reopened.getRecipe("2").getAuthor());
+        assertEquals(bytes, reopened.getFileBytes());
+        assertEquals(0, reopened.getDiskErrors());
+        reopened.close();
+        assertEquals(bytes, file.length());
+    }
+
+    @Test
+    public void thousandsOfDetailsAreSmallerThanCodecAndReadLazily() throws IOException {
+        Random random = new Random(5);
+        int count = 3000;
+        List<RecipeCrawler.RecipeDetail> all = new ArrayList<>(count);
+        long codecBytes = 0;
+        for (int i = 0; i < count; i++) {
+            RecipeCrawler.RecipeDetail detail = detail(6_000_000 + i, random);
+            all.add(detail);
+            codecBytes += RecipeCodec.encode(RecipeCodec.DETAIL, detail).length;
+            store.putDetail(detail);
+        }
+        long storeBytes = store.getFileBytes();
+        // 덧붙일 때마다가 아니라 용량이 두 배가 될 때만 다시 매핑
+        assertTrue("maps " + store.getMapCount(), store.getMapCount() < 10);
+        store.close();
+        assertEquals(storeBytes, file.length());
+
+        RecipeStore reopened = new RecipeStore(file);
+        assertEquals(count, reopened.getDetailCount());
+        for (int i = 0; i < 500; i++) {
+            int at = random.nextInt(count);
+            assertSameDetail(all.get(at), reopened.getDetail(all.get(at).getId()));
+        }
+        assertTrue(storeBytes < codecBytes * 0.8);
+        assertTrue(reopened.getStringCount() < count); // 재료 이름/양, 인분 등만 문자열 표에
+        reopened.close();
+    }
+
+    @Test
+    public void rewritingEverythingCompactsTheFile() throws IOException {
+        Random random = new Random(6);
+        List<RecipeCrawler.RecipeDetail> latest = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            latest.clear();
+            for (int i = 0; i < 1000; i++) {
+                RecipeCrawler.RecipeDetail detail = detail(i, random);
+                detail.setTitle("레시피 " + i + " r" + round);
+                store.putDetail(detail);
+                latest.add(detail);
+            }
+        }
+        // 죽은 바이트가 살아 있는 것보다 많아지면 옮겨 담음
+        assertTrue(store.getGarbageBytes() <= store.getFileBytes() - store.getGarbageBytes());
+        store.compact();
+        assertEquals(0, store.getGarbageBytes());
+        for (RecipeCrawler.RecipeDetail detail : latest) {
+            assertSameDetail(detail, store.getDetail(detail.getId()));
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void crawlerKeepsRecipesForOfflineUse() throws Exception {
+        FakeRecipeSite site = new FakeRecipeSite(5);
+        site.setQueryRecipes("토마토", 42);
+        CrawlerEngine engine = new CrawlerEngine(2, 1000, 100);
+        IngredientIndex index = new IngredientIndex(new File(folder.newFolder("index"), "ingredient_index.bin"));
+        RecipeCrawler crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, index, store, Runnable::run);
+        try {
+            CountDownLatch searched = new CountDownLatch(1);
+            crawler.search("토마토", new RecipeCrawler.RecipeSearchCallback() {
+                @Override
+                public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                    searched.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                }
+            });
+            assertTrue(searched.await(5, TimeUnit.SECONDS));
+            assertNotNull(detail(crawler, "42"));
+            assertTrue(store.hasDetail("42"));
+
+            site.close(); // 이후는 네트워크 없이
+            AtomicReference<List<RecipeCrawler.Recipe>> offline = new AtomicReference<>();
+            CountDownLatch found = new CountDownLatch(1);
+            crawler.searchOffline(Collections.singletonList("토마토"), 10, new RecipeCrawler.RecipeSearchCallback() {
+                @Override
+                public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                    offline.set(recipes);
+                    found.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                }
+            });
+            assertTrue(found.await(5, TimeUnit.SECONDS));
+            assertEquals("작성자 0", offline.get().get(0).getAuthor()); // 목록에서 본 작성자
+
+            RecipeCrawler.RecipeDetail stored = detail(crawler, "42");
+            assertNotNull(stored);
+            assertEquals(Arrays.asList("토마토 2개", "양파 1개"), stored.getIngredients());
+        } finally {
+            engine.shutdown();
+            site.close();
+            index.flush();
+        }
+    }
+
+    private static RecipeCrawler.RecipeDetail detail(RecipeCrawler crawler, String id) throws InterruptedException {
+        AtomicReference<RecipeCrawler.RecipeDetail> result = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        crawler.getRecipeDetail(id, new RecipeCrawler.RecipeDetailCallback() {
+            @Override
+            public void onSuccess(RecipeCrawler.RecipeDetail recipeDetail) {
+                result.set(recipeDetail);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(15, TimeUnit.SECONDS));
+        return result.get();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.jjikmeok1;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 녹화된 검색 페이지(src/test/resources/pages/search_list.html)로 점진 검색 확인
+ */
+public class RecipeStreamTest {
+
+    // 4KB씩 8ms 간격: 약 500KB/s 회선
+    private static final int CHUNK_BYTES = 4096;
+    private static final int CHUNK_DELAY_MS = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private byte[] page;
+    private FakeRecipeSite site;
+    private CrawlerEngine engine;
+    private RecipeCrawler crawler;
+
+    @Before
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/pages/search_list.html")) {
+            page = in.readAllBytes();
+        }
+        site = new FakeRecipeSite(10);
+        site.setSearchPage(page, CHUNK_BYTES, CHUNK_DELAY_MS);
+        engine = new CrawlerEngine(2, 1000, 100);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        site.close();
+    }
+
+    /** 검색 결과와 묶음 수, 첫 묶음 시각 */
+    private static final class Streamed {
+        final List<RecipeCrawler.Recipe> recipes = new ArrayList<>();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicLong firstNanos = new AtomicLong();
+        final AtomicInteger total = new AtomicInteger(-1);
+    }
+
+    private Streamed searchStreaming(int limit) throws InterruptedException {
+        Streamed result = new Streamed();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        crawler.searchStreaming("토마토", limit, new RecipeCrawler.RecipeStreamCallback() {
+            @Override
+            public void onRecipes(List<RecipeCrawler.Recipe> recipes) {
+                result.firstNanos.compareAndSet(0, System.nanoTime() - start);
+                result.batches.incrementAndGet();
+                result.recipes.addAll(recipes);
+            }
+
+            @Override
+            public void onComplete(int total) {
+                result.total.set(total);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private List<RecipeCrawler.Recipe> search(long[] elapsedNanos) throws InterruptedException {
+        AtomicReference<List<RecipeCrawler.Recipe>> result = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        crawler.search("토마토", new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                elapsedNanos[0] = System.nanoTime() - start;
+                result.set(recipes);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNotNull(result.get());
+        return result.get();
+    }
+
+    @Test
+    public void itemsSplitAcrossReadsMatchFullParse() throws IOException {
+        String html = new String(page, StandardCharsets.UTF_8);
+        int expected = Jsoup.parse(html).select("ul.common_sp_list_ul li.common_sp_list_li").size();
+        // 1~40글자씩 끊어 읽어 태그/항목이 조각 경계에 걸치게 함
+        Random random = new Random(5);
+        Reader reader = new StringReader(html) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1 + random.nextInt(40)));
+            }
+        };
+        List<String> titles = new ArrayList<>();
+        RecipeStreamParser parser = new RecipeStreamParser();
+        assertTrue(parser.parse(reader, "https://www.10000recipe.com", new RecipeStreamParser.Listener() {
+            @Override
+            public boolean onItem(Element item) {
+                titles.add(item.selectFirst(".common_sp_caption_tit").text());
+                return true;
+            }
+
+            @Override
+            public void onChunk() {
+            }
+        }));
+        assertEquals(40, expected);
+        assertEquals(expected, titles.size());
+        assertEquals("토마토 달걀볶음", titles.get(0));
+        assertEquals(html.length(), parser.getLength());
+    }
+
+    @Test
+    public void streamingDeliversSameRecipesInBatches() throws Exception {
+        List<RecipeCrawler.Recipe> full = search(new long[1]);
+        Streamed streamed = searchStreaming(100);
+
+        assertEquals(40, full.size());
+        assertEquals(full.size(), streamed.total.get());
+        assertEquals(full.size(), streamed.recipes.size());
+        for (int i = 0; i < full.size(); i++) {
+            assertEquals(full.get(i).getTitle(), streamed.recipes.get(i).getTitle());
+            assertEquals(full.get(i).getUrl(), streamed.recipes.get(i).getUrl());
+            assertEquals(full.get(i).getAuthor(), streamed.recipes.get(i).getAuthor());
+        }
+        assertTrue(streamed.batches.get() > 1);
+    }
+
+    @Test
+    public void limitStopsReadingTheBody() throws Exception {
+        Streamed streamed = searchStreaming(5);
+        assertEquals(5, streamed.total.get());
+        assertEquals(5, streamed.recipes.size());
+
+        Thread.sleep(CHUNK_DELAY_MS * 10); // 서버가 끊긴 연결을 알아챌 시간
+        assertTrue(site.lastSearchBytesSent.get() < page.length * 0.9);
+    }
+
+    @Test
+    public void fullPageAtLimitIsReadToTheEndAndCached() throws Exception {
+        // 녹화된 페이지는 40개 = 페이지 크기: limit 40이면 마지막 항목에서 limit에 닿음
+        RecipeCache cache = new RecipeCache(folder.newFolder("recipes"), 1 << 20, System::currentTimeMillis);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, cache, Runnable::run);
+
+        Streamed first = searchStreaming(RecipeCrawler.SEARCH_PAGE_SIZE);
+        Streamed second = searchStreaming(RecipeCrawler.SEARCH_PAGE_SIZE);
+
+        assertEquals(40, first.total.get());
+        assertEquals(40, second.total.get());
+        assertEquals(1, site.getRequests());
+        assertEquals(1, cache.getFreshHits());
+        // 아낀 바이트는 글자 수가 아니라 받은 UTF-8 본문 바이트 수
+        assertEquals(page.length, cache.getBytesSaved());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(first.recipes.get(i).getUrl(), second.recipes.get(i).getUrl());
+        }
+    }
+
+    @Test
+    public void firstResultArrivesBeforeFullParse() throws Exception {
+        long[] fullNanos = new long[1];
+        search(fullNanos);
+        Streamed streamed = searchStreaming(100);
+
+        assertTrue(streamed.firstNanos.get() < fullNanos[0]);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.jjikmeok1;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    private FakeRecipeSite site;
+    private CrawlerEngine engine;
+    private RecipeCrawler crawler;
+
+    private void start(int latencyMs, int workers) throws IOException {
+        site = new FakeRecipeSite(latencyMs);
+        engine = new CrawlerEngine(workers, 1000, 100);
+        crawler = new RecipeCrawler(site.getBaseUrl(), engine, null, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        site.close();
+    }
+
+    private int arrivals(String path) {
+        synchronized (site.arrivals) {
+            return Collections.frequency(site.arrivals, path);
+        }
+    }
+
+    /** 상세 정보 콜백 결과 (성공한 객체 또는 오류 메시지) */
+    private static final class Details implements RecipeCrawler.RecipeDetailCallback {
+        final List<Object> results = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        Details(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSuccess(RecipeCrawler.RecipeDetail recipeDetail) {
+            results.add(recipeDetail);
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String errorMessage) {
+            results.add(errorMessage);
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void concurrentDetailRequestsShareOneFetch() throws Exception {
+        start(200, 2);
+        Details details = new Details(6);
+        for (int i = 0; i < 5; i++) {
+            crawler.getRecipeDetail("42", details);
+        }
+        crawler.prefetchRecipeDetail("42", details);
+        assertTrue(details.done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, arrivals("/recipe/42"));
+        for (Object result : details.results) {
+            assertSame(details.results.get(0), result); // 모두 같은 결과 객체
+        }
+        SingleFlight flights = crawler.getSingleFlight();
+        assertEquals(1, flights.getStarted());
+        assertEquals(5, flights.getCoalesced());
+        assertEquals(0, flights.getInFlight());
+
+        // 끝난 요청은 남지 않음: 다음 요청은 새로 받음
+        Details again = new Details(1);
+        crawler.getRecipeDetail("42", again);
+        assertTrue(again.done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, arrivals("/recipe/42"));
+        assertNotSame(details.results.get(0), again.results.get(0));
+    }
+
+    @Test
+    public void errorReachesEveryWaiterAndIsNotRemembered() throws Exception {
+        start(10, 1);
+        // 작업자 하나를 붙잡아 두고 같은 요청 셋을 대기열에 쌓은 뒤 사이트를 닫음
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocking = new CountDownLatch(1);
+        engine.submit(CrawlerEngine.Priority.USER, site.getBaseUrl() + "/recipe/blocker", () -> {
+            blocking.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        Details details = new Details(3);
+        for (int i = 0; i < 3; i++) {
+            crawler.getRecipeDetail("7", details);
+        }
+        site.close();
+        release.countDown();
+        assertTrue(details.done.await(15, TimeUnit.SECONDS));
+
+        assertEquals(3, details.results.size());
+        for (Object result : details.results) {
+            assertTrue(result instanceof String);
+            assertEquals(details.results.get(0), result);
+        }
+        SingleFlight flights = crawler.getSingleFlight();
+        assertEquals(1, flights.getFailed());
+        assertEquals(2, flights.getCoalesced());
+
+        // 실패는 기억하지 않고 다음 요청에서 다시 시도
+        Details retry = new Details(1);
+        crawler.getRecipeDetail("7", retry);
+        assertTrue(retry.done.await(15, TimeUnit.SECONDS));
+        assertEquals(2, flights.getStarted());
+    }
+
+    @Test
+    public void reopenedScreenSharesFetchAndSurvivesTheOldScreenClosing() throws Exception {
+        start(300, 2);
+        // 화면마다 크롤러를 새로 만들어도 앱 공용 SingleFlight를 같이 씀
+        SingleFlight flights = new SingleFlight();
+        RecipeCrawler closing = new RecipeCrawler(site.getBaseUrl(), engine, null, null, null, flights, Runnable::run);
+        RecipeCrawler reopened = new RecipeCrawler(site.getBaseUrl(), engine, null, null, null, flights, Runnable::run);
+        Details old = new Details(1);
+        Details current = new Details(1);
+        closing.getRecipeDetail("42", old);
+        reopened.getRecipeDetail("42", current);
+        closing.getRecipeDetail("43", old); // 닫히는 화면만 기다리는 요청
+        closing.shutdown();
+
+        assertTrue(current.done.await(5, TimeUnit.SECONDS));
+        assertTrue(current.results.get(0) instanceof RecipeCrawler.RecipeDetail);
+        Thread.sleep(400);
+        assertTrue(old.results.isEmpty()); // 닫힌 화면에는 전달하지 않음
+        assertEquals(1, arrivals("/recipe/42"));
+        assertEquals(1, flights.getCoalesced());
+        assertEquals(0, flights.getInFlight());
+    }
+
+    /** 점진 검색 결과 */
+    private static final class Streamed implements RecipeCrawler.RecipeStreamCallback {
+        final List<String> ids = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger total = new AtomicInteger(-1);
+
+        @Override
+        public void onRecipes(List<RecipeCrawler.Recipe> recipes) {
+            for (RecipeCrawler.Recipe recipe : recipes) {
+                ids.add(recipe.getId());
+            }
+            first.countDown();
+        }
+
+        @Override
+        public void onComplete(int count) {
+            total.set(count);
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String errorMessage) {
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void lateStreamingCallerGetsEarlierBatchesReplayed() throws Exception {
+        start(10, 2);
+        byte[] page;
+        try (InputStream in = getClass().getResourceAsStream("/pages/search_list.html")) {
+            page = in.readAllBytes();
+        }
+        site.setSearchPage(page, 4096, 8);
+
+        Streamed early = new Streamed();
+        crawler.searchStreaming("토마토", 100, early);
+        assertTrue(early.first.await(5, TimeUnit.SECONDS));
+        Streamed late = new Streamed(); // 본문을 받는 도중에 같은 검색
+        crawler.searchStreaming("토마토", 100, late);
+        assertTrue(early.done.await(10, TimeUnit.SECONDS));
+        assertTrue(late.done.await(10, TimeUnit.SECONDS));
+
+        assertTrue(early.total.get() > 0);
+        assertEquals(early.total.get(), late.total.get());
+        assertEquals(early.ids, late.ids);
+        synchronized (site.arrivals) {
+            assertEquals(1, site.searchQueries.size());
+        }
+        assertEquals(1, crawler.getSingleFlight().getCoalesced());
+    }
+
+    @Test
+    public void fanOutSharesQueriesWithAConcurrentSearch() throws Exception {
+        start(10, 4);
+        site.setQueryRecipes("토마토", 1, 2);
+        site.setQueryRecipes("양파", 2, 3);
+        site.setQueryDelay("토마토", 300);
+        CountDownLatch done = new CountDownLatch(2);
+        List<List<RecipeCrawler.Recipe>> results = Collections.synchronizedList(new ArrayList<>());
+        RecipeCrawler.RecipeSearchCallback callback = new RecipeCrawler.RecipeSearchCallback() {
+            @Override
+            public void onSuccess(List<RecipeCrawler.Recipe> recipes) {
+                results.add(recipes);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                done.countDown();
+            }
+        };
+        crawler.search("토마토", callback);
+        crawler.searchByIngredients(Arrays.asList("토마토", "양파"), 5000, callback);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(2, results.size());
+        synchronized (site.arrivals) {
+            assertEquals(1, Collections.frequency(site.searchQueries, "토마토"));
+            assertEquals(1, Collections.frequency(site.searchQueries, "양파"));
+        }
+        assertEquals(1, crawler.getSingleFlight().getCoalesced());
+    }
+
+    @Test
+    public void directCallbacksCanJoinFromAnotherThreadWithoutDeadlock() throws Exception {
+        start(10, 1);
+        SingleFlight flights = new SingleFlight();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        SingleFlight.Waiter<String, String> second = new SingleFlight.Waiter<>(this, Runnable::run,
+                p -> events.add("second:" + p), r -> events.add("second:done"), e -> { });
+        List<Boolean> joinedInTime = new ArrayList<>();
+        SingleFlight.Waiter<String, String> first = new SingleFlight.Waiter<>(this, Runnable::run, p -> {
+            events.add("first:" + p);
+            if (p.equals("a")) {
+                // 콜백 실행 중 다른 스레드가 같은 요청에 합류 (잠금을 쥐고 있으면 여기서 멈춤)
+                Thread other = new Thread(() -> flights.join("k", CrawlerEngine.Priority.USER, second));
+                other.start();
+                try {
+                    other.join(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                joinedInTime.add(!other.isAlive());
+            }
+        }, r -> events.add("first:done"), e -> { });
+
+        SingleFlight.Flight<String, String> flight = flights.join("k", CrawlerEngine.Priority.USER, first);
+        assertNotNull(flight);
+        flights.partial(flight, "a");
+        flights.partial(flight, "b");
+        flights.succeed(flight, "r");
+
+        assertEquals(Collections.singletonList(true), joinedInTime);
+        // 늦게 붙은 쪽의 재생도 앞 콜백이 끝난 뒤 순서대로
+        assertEquals(Arrays.asList("first:a", "second:a", "first:b", "second:b", "first:done", "second:done"),
+                events);
+        assertEquals(0, flights.getInFlight());
+    }
+}
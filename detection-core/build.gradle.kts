@@ -0,0 +1,26 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// 안드로이드 의존성 없는 순수 자바 모듈: 전처리/디코딩/NMS, 레시피 재료 순위 로직을 일반 JVM(CI)에서 테스트/프로파일링
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// ./gradlew :detection-core:jmh
+// 녹화된 출력 사용: ./gradlew :detection-core:jmh -Djjikmeok.recordedOutput=/path/output.jtns
+jmh {
+    jmhVersion.set(libs.versions.jmhCore)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    System.getProperty("jjikmeok.recordedOutput")?.let {
+        jvmArgsAppend.add("-Djjikmeok.recordedOutput=$it")
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.jjikmeok1.detection;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * 벤치마크 공용 입력 데이터
+ *
+ * 녹화된 모델 출력(TensorRecording)을 다음 순서로 찾는다.
+ * 1. -Djjikmeok.recordedOutput=<path> (YOLOv5Detector.writeLastOutput으로 기기에서 저장한 파일)
+ * 2. 클래스패스 /recorded/output.jtns (src/jmh/resources)
+ * 3. 없으면 고정 시드로 만든 합성 출력 (실제 출력과 비슷하게 대부분 저점수 + 일부 물체 주변 고점수)
+ */
+final class BenchmarkData {
+
+    static final int INPUT_SIZE = 640;
+    static final int NUM_ANCHORS = 8400;
+    static final int NUM_CLASSES = 80;
+    static final float CONFIDENCE_THRESHOLD = 0.3f;
+    static final float IOU_THRESHOLD = 0.45f;
+
+    private BenchmarkData() {
+    }
+
+    /** [1, 4 + C, N] 출력 */
+    static TensorRecording modelOutput() {
+        try {
+            String path = System.getProperty("jjikmeok.recordedOutput");
+            if (path != null) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+                    return TensorRecording.read(in);
+                }
+            }
+            InputStream resource = BenchmarkData.class.getResourceAsStream("/recorded/output.jtns");
+            if (resource != null) {
+                try (InputStream in = new BufferedInputStream(resource)) {
+                    return TensorRecording.read(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return syntheticOutput(new Random(2024));
+    }
+
+    static int[] randomPixels(int count, long seed) {
+        Random random = new Random(seed);
+        int[] pixels = new int[count];
+        for (int i = 0; i < count; i++) {
+            pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+        }
+        return pixels;
+    }
+
+    /**
+     * 물체가 몰려 있는 장면의 NMS 후보 (물체마다 조금씩 흔들린 박스 여러 개)
+     */
+    static DetectionBuffer denseScene(int count, int objects, int classes, long seed) {
+        Random random = new Random(seed);
+        DetectionBuffer buffer = new DetectionBuffer(count);
+        float[][] centers = new float[objects][];
+        for (int o = 0; o < objects; o++) {
+            centers[o] = new float[]{
+                    random.nextFloat() * 3000f, random.nextFloat() * 4000f,
+                    40f + random.nextFloat() * 300f, 40f + random.nextFloat() * 300f,
+                    random.nextInt(classes)};
+        }
+        for (int i = 0; i < count; i++) {
+            float[] c = centers[random.nextInt(objects)];
+            float cx = c[0] + (float) random.nextGaussian() * c[2] * 0.15f;
+            float cy = c[1] + (float) random.nextGaussian() * c[3] * 0.15f;
+            float w = c[2] * (0.8f + random.nextFloat() * 0.4f);
+            float h = c[3] * (0.8f + random.nextFloat() * 0.4f);
+            buffer.add((int) c[4], 0.3f + random.nextFloat() * 0.7f,
+                    cx - w / 2, cy - h / 2, cx + w / 2, cy + h / 2);
+        }
+        return buffer;
+    }
+
+    private static TensorRecording syntheticOutput(Random random) {
+        int channels = NUM_CLASSES + 4;
+        float[] data = new float[channels * NUM_ANCHORS];
+        float[][] objects = new float[30][];
+        for (int o = 0; o < objects.length; o++) {
+            objects[o] = new float[]{
+                    random.nextFloat() * INPUT_SIZE, random.nextFloat() * INPUT_SIZE,
+                    20f + random.nextFloat() * 150f, 20f + random.nextFloat() * 150f,
+                    random.nextInt(NUM_CLASSES)};
+        }
+        for (int i = 0; i < NUM_ANCHORS; i++) {
+            float[] object = objects[random.nextInt(objects.length)];
+            boolean hit = random.nextInt(8) == 0;
+            data[i] = hit ? object[0] + (float) random.nextGaussian() * 4f : random.nextFloat() * INPUT_SIZE;
+            data[NUM_ANCHORS + i] = hit ? object[1] + (float) random.nextGaussian() * 4f : random.nextFloat() * INPUT_SIZE;
+            data[2 * NUM_ANCHORS + i] = hit ? object[2] : random.nextFloat() * 100f;
+            data[3 * NUM_ANCHORS + i] = hit ? object[3] : random.nextFloat() * 100f;
+            for (int j = 0; j < NUM_CLASSES; j++) {
+                float p = random.nextFloat();
+                data[(4 + j) * NUM_ANCHORS + i] = p * p * p * 0.05f;
+            }
+            if (hit) {
+                data[(4 + (int) object[4]) * NUM_ANCHORS + i] = 0.3f + random.nextFloat() * 0.65f;
+            }
+        }
+        return new TensorRecording(new int[]{1, channels, NUM_ANCHORS}, data);
+    }
+}
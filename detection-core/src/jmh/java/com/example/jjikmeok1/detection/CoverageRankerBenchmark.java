@@ -0,0 +1,124 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레시피 10만 개 재료 순위 (결과는 ms/질의)
+ * bitset 은 CoverageRanker, naiveScan 은 레시피마다 재료어 집합을 훑는 같은 점수식의 단순 구현
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CoverageRankerBenchmark {
+
+    private static final int RECIPES = 100_000;
+    private static final int VOCABULARY = 256;
+    private static final int QUERIES = 30;
+    private static final int LIMIT = 40;
+
+    private CoverageRanker ranker;
+    private final List<Set<String>> recipeTerms = new ArrayList<>(RECIPES);
+    private final List<Float> popularity = new ArrayList<>(RECIPES);
+    private final List<Set<String>> queries = new ArrayList<>(QUERIES);
+    private final List<long[]> queryMasks = new ArrayList<>(QUERIES);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(23);
+        List<String> vocabulary = new ArrayList<>(CoverageRanker.PANTRY);
+        Collections.sort(vocabulary);
+        while (vocabulary.size() < VOCABULARY) {
+            vocabulary.add("재료" + (char) ('가' + vocabulary.size()));
+        }
+        ranker = new CoverageRanker(vocabulary);
+        for (int r = 0; r < RECIPES; r++) {
+            Set<String> terms = new HashSet<>();
+            int count = 5 + random.nextInt(8);
+            while (terms.size() < count) {
+                // 앞쪽(기본양념, 흔한 재료)이 훨씬 자주 쓰이게
+                terms.add(vocabulary.get((int) (vocabulary.size() * Math.pow(random.nextDouble(), 3))));
+            }
+            long views = random.nextInt(4) == 0 ? 0 : (long) Math.pow(10, 1 + 5 * random.nextDouble());
+            ranker.add(String.valueOf(r), terms, views, 0);
+            recipeTerms.add(terms);
+            popularity.add((float) Math.log10(1 + views));
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            Set<String> query = new HashSet<>();
+            int size = 3 + random.nextInt(4);
+            while (query.size() < size) {
+                query.add(vocabulary.get(CoverageRanker.PANTRY.size()
+                        + (int) (60 * Math.pow(random.nextDouble(), 2))));
+            }
+            queries.add(query);
+            queryMasks.add(ranker.mask(query));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int bitset() {
+        int found = 0;
+        for (long[] mask : queryMasks) {
+            found += ranker.rank(mask, null, LIMIT).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int naiveScan() {
+        int found = 0;
+        for (Set<String> query : queries) {
+            found += naiveRank(query).size();
+        }
+        return found;
+    }
+
+    private List<Integer> naiveRank(Set<String> query) {
+        PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) ->
+                a[0] != b[0] ? Double.compare(a[0], b[0]) : Double.compare(b[1], a[1]));
+        for (int row = 0; row < recipeTerms.size(); row++) {
+            int coverage = 0;
+            int missing = 0;
+            for (String term : recipeTerms.get(row)) {
+                if (query.contains(term)) {
+                    coverage++;
+                } else if (!CoverageRanker.PANTRY.contains(term)) {
+                    missing++;
+                }
+            }
+            if (coverage == 0) {
+                continue;
+            }
+            double score = coverage * CoverageRanker.COVERAGE_WEIGHT - missing * CoverageRanker.MISSING_WEIGHT
+                    + popularity.get(row) * CoverageRanker.POPULARITY_WEIGHT;
+            heap.add(new double[]{score, row});
+            if (heap.size() > LIMIT) {
+                heap.poll();
+            }
+        }
+        List<Integer> rows = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            rows.add((int) heap.poll()[1]);
+        }
+        Collections.reverse(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 녹화된 출력 텐서의 앵커 디코딩 (임계값 필터 + 좌표 변환)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecodeBenchmark {
+
+    private float[] output;
+    private AnchorDecoder decoder;
+    private DetectionBuffer candidates;
+
+    @Setup
+    public void setUp() {
+        TensorRecording recording = BenchmarkData.modelOutput();
+        int[] shape = recording.getShape();
+        int numClasses = BenchmarkData.NUM_CLASSES;
+        AnchorDecoder.Layout layout = AnchorDecoder.detectLayout(shape, numClasses);
+        int anchors = layout == AnchorDecoder.Layout.CHANNELS_FIRST ? shape[2] : shape[1];
+
+        output = recording.getData();
+        decoder = new AnchorDecoder(anchors, numClasses, BenchmarkData.INPUT_SIZE, layout);
+        candidates = new DetectionBuffer(anchors);
+    }
+
+    @Benchmark
+    public int decodeAnchors() {
+        candidates.clear();
+        return decoder.decode(output, 0, 3024, 4032, BenchmarkData.CONFIDENCE_THRESHOLD, candidates);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단계 하나를 start/stop으로 기록하는 비용 (꺼짐/켜짐)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DetectorStatsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private DetectorStats stats;
+
+    @Setup
+    public void setUp() {
+        stats = new DetectorStats(enabled);
+    }
+
+    @Benchmark
+    public void stage() {
+        long t = stats.start();
+        stats.stop(DetectorStats.Stage.NMS, t);
+    }
+}
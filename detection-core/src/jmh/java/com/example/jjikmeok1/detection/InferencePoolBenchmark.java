@@ -0,0 +1,92 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 풀 크기별 처리량 (결과는 images/s)
+ * 실제 인터프리터는 기기에서만 돌릴 수 있으므로 이미지당 CPU 작업으로 후처리(디코딩 + NMS)를 사용한다.
+ * 한 번에 BATCH장을 넣고 모두 끝나기를 기다린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InferencePoolBenchmark {
+
+    private static final int BATCH = 32;
+
+    @Param({"1", "2", "4", "8"})
+    public int poolSize;
+
+    private float[] output;
+    private int anchors;
+    private AnchorDecoder.Layout layout;
+    private InferencePool<PostprocessEngine> pool;
+    private final List<Future<Integer>> futures = new ArrayList<>(BATCH);
+
+    @Setup
+    public void setUp() throws Exception {
+        TensorRecording recording = BenchmarkData.modelOutput();
+        int[] shape = recording.getShape();
+        layout = AnchorDecoder.detectLayout(shape, BenchmarkData.NUM_CLASSES);
+        anchors = layout == AnchorDecoder.Layout.CHANNELS_FIRST ? shape[2] : shape[1];
+        output = recording.getData();
+        pool = new InferencePool<>(poolSize, BATCH, "bench", index -> new PostprocessEngine(anchors, layout));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int images() throws Exception {
+        futures.clear();
+        for (int i = 0; i < BATCH; i++) {
+            futures.add(pool.submit(engine -> engine.process(output)));
+        }
+        int kept = 0;
+        for (Future<Integer> future : futures) {
+            kept += future.get();
+        }
+        return kept;
+    }
+
+    /** 엔진마다 전용 버퍼를 가진 후처리 파이프라인 */
+    private static final class PostprocessEngine implements AutoCloseable {
+        private final AnchorDecoder decoder;
+        private final DetectionBuffer candidates;
+        private final GridNms nms = new GridNms(BenchmarkData.IOU_THRESHOLD);
+        private final int[] keep;
+
+        PostprocessEngine(int anchors, AnchorDecoder.Layout layout) {
+            decoder = new AnchorDecoder(anchors, BenchmarkData.NUM_CLASSES, BenchmarkData.INPUT_SIZE, layout);
+            candidates = new DetectionBuffer(anchors);
+            keep = new int[anchors];
+        }
+
+        int process(float[] output) {
+            candidates.clear();
+            decoder.decode(output, 0, 3024, 4032, BenchmarkData.CONFIDENCE_THRESHOLD, candidates);
+            return nms.run(candidates, keep);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 박스 쌍 IoU 계산 (1024쌍 연속, 결과는 ns/쌍)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IouBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    private float[] boxes;
+
+    @Setup
+    public void setUp() {
+        boxes = BenchmarkData.denseScene(PAIRS * 2, 40, 8, 3).boxes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public float iou() {
+        float sum = 0f;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += BoxMath.iou(boxes, 2 * i, 2 * i + 1);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NMS 전략별 비교
+ * scene=recorded 는 녹화 출력을 디코딩한 실제 후보, 그 외는 해당 개수의 밀집 합성 장면
+ * legacyPairwise 는 기존 YOLOv5Detector.nms (점수 정렬 + 같은 클래스 전체 쌍 IoU)를 그대로 옮긴 기준선
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NmsBenchmark {
+
+    @Param({"recorded", "500", "2000", "6000"})
+    public String scene;
+
+    private DetectionBuffer candidates;
+    private float[] originalScores;
+    private int[] keep;
+    private LegacyBox[] legacyBoxes;
+
+    private final GridNms gridNms = new GridNms(BenchmarkData.IOU_THRESHOLD);
+    private final GridNms gridNmsTop100 = new GridNms(BenchmarkData.IOU_THRESHOLD, true, 0, 100);
+    private final SoftNms softNms = new SoftNms(SoftNms.Method.GAUSSIAN,
+            BenchmarkData.IOU_THRESHOLD, 0.5f, BenchmarkData.CONFIDENCE_THRESHOLD, true, 100);
+
+    @Setup
+    public void setUp() {
+        if ("recorded".equals(scene)) {
+            TensorRecording recording = BenchmarkData.modelOutput();
+            int[] shape = recording.getShape();
+            AnchorDecoder.Layout layout = AnchorDecoder.detectLayout(shape, BenchmarkData.NUM_CLASSES);
+            int anchors = layout == AnchorDecoder.Layout.CHANNELS_FIRST ? shape[2] : shape[1];
+            AnchorDecoder decoder = new AnchorDecoder(anchors, BenchmarkData.NUM_CLASSES,
+                    BenchmarkData.INPUT_SIZE, layout);
+            candidates = new DetectionBuffer(anchors);
+            decoder.decode(recording.getData(), 0, 3024, 4032, BenchmarkData.CONFIDENCE_THRESHOLD, candidates);
+        } else {
+            candidates = BenchmarkData.denseScene(Integer.parseInt(scene), 60, 8, 7);
+        }
+        originalScores = candidates.scores().clone();
+        keep = new int[candidates.capacity()];
+        legacyBoxes = new LegacyBox[candidates.size()];
+        for (int i = 0; i < legacyBoxes.length; i++) {
+            legacyBoxes[i] = new LegacyBox(candidates.classId(i), candidates.score(i),
+                    candidates.left(i), candidates.top(i), candidates.right(i), candidates.bottom(i));
+        }
+    }
+
+    // Soft-NMS가 점수를 감쇠시키므로 매 호출 전에 원래 점수로 복원
+    @Setup(Level.Invocation)
+    public void restoreScores() {
+        System.arraycopy(originalScores, 0, candidates.scores(), 0, candidates.size());
+    }
+
+    @Benchmark
+    public int legacyPairwise() {
+        // 기존 코드는 postprocess가 새로 만든 목록을 정렬했으므로 매번 복사본을 정렬
+        return legacyNms(new ArrayList<>(Arrays.asList(legacyBoxes))).size();
+    }
+
+    @Benchmark
+    public int grid() {
+        return gridNms.run(candidates, keep);
+    }
+
+    @Benchmark
+    public int gridTop100() {
+        return gridNmsTop100.run(candidates, keep);
+    }
+
+    @Benchmark
+    public int softGaussianTop100() {
+        return softNms.run(candidates, keep);
+    }
+
+    private static List<LegacyBox> legacyNms(List<LegacyBox> recognitions) {
+        recognitions.sort((a, b) -> Float.compare(b.confidence, a.confidence));
+        List<LegacyBox> result = new ArrayList<>();
+        boolean[] isSuppressed = new boolean[recognitions.size()];
+
+        for (int i = 0; i < recognitions.size(); i++) {
+            if (isSuppressed[i]) continue;
+            LegacyBox current = recognitions.get(i);
+            result.add(current);
+
+            for (int j = i + 1; j < recognitions.size(); j++) {
+                if (isSuppressed[j]) continue;
+                LegacyBox other = recognitions.get(j);
+
+                if (current.classId == other.classId) {
+                    float iou = calculateIOU(current, other);
+                    if (iou > BenchmarkData.IOU_THRESHOLD) {
+                        isSuppressed[j] = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static float calculateIOU(LegacyBox box1, LegacyBox box2) {
+        float intersectionLeft = Math.max(box1.left, box2.left);
+        float intersectionTop = Math.max(box1.top, box2.top);
+        float intersectionRight = Math.min(box1.right, box2.right);
+        float intersectionBottom = Math.min(box1.bottom, box2.bottom);
+
+        float intersectionWidth = Math.max(0, intersectionRight - intersectionLeft);
+        float intersectionHeight = Math.max(0, intersectionBottom - intersectionTop);
+        float intersectionArea = intersectionWidth * intersectionHeight;
+        float box1Area = (box1.right - box1.left) * (box1.bottom - box1.top);
+        float box2Area = (box2.right - box2.left) * (box2.bottom - box2.top);
+        float unionArea = box1Area + box2Area - intersectionArea;
+        return intersectionArea / unionArea;
+    }
+
+    /** 기존 Recognition + RectF 대신 (객체 하나에 박스 하나) */
+    private static final class LegacyBox {
+        final int classId;
+        final float confidence;
+        final float left;
+        final float top;
+        final float right;
+        final float bottom;
+
+        LegacyBox(int classId, float confidence, float left, float top, float right, float bottom) {
+            this.classId = classId;
+            this.confidence = confidence;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jjikmeok1.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ARGB 픽셀 → 입력 텐서 변환 (float 정규화 / uint8 그대로 복사 / int8 테이블 양자화)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PreprocessBenchmark {
+
+    private ImagePreprocessor preprocessor;
+    private ImagePreprocessor uint8Preprocessor;
+    private ImagePreprocessor int8Preprocessor;
+
+    @Setup
+    public void setUp() {
+        int size = BenchmarkData.INPUT_SIZE;
+        preprocessor = new ImagePreprocessor(size);
+        uint8Preprocessor = new ImagePreprocessor(size, new TensorQuantization(1f / 255f, 0, false));
+        int8Preprocessor = new ImagePreprocessor(size, new TensorQuantization(1f / 255f, -128, true));
+        int[] pixels = BenchmarkData.randomPixels(size * size, 1);
+        for (ImagePreprocessor p : new ImagePreprocessor[]{preprocessor, uint8Preprocessor, int8Preprocessor}) {
+            System.arraycopy(pixels, 0, p.getPixelBuffer(), 0, pixels.length);
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer normalizeToFloat() {
+        return preprocessor.process();
+    }
+
+    @Benchmark
+    public ByteBuffer copyUint8() {
+        return uint8Preprocessor.process();
+    }
+
+    @Benchmark
+    public ByteBuffer quantizeInt8() {
+        return int8Preprocessor.process();
+    }
+}
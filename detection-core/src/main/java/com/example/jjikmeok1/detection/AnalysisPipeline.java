@@ -0,0 +1,256 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 단계별 비동기 분석 파이프라인 (예: 디코딩 → 탐지 → 그리기)
+ *
+ * 각 단계는 지정한 Executor에서 순서대로 실행되고, 최종 결과는 콜백 Executor(보통 메인 스레드)로 전달된다.
+ * 새 작업을 submit하면 이전 작업은 자동으로 취소되며, 취소된 작업은 다음 단계를 시작하지 않고
+ * 결과/오류도 전달하지 않는다. 실행 중인 단계는 Job.setCancelHook으로 등록한 동작(추론 중단 등)으로 끊을 수 있다.
+ */
+public final class AnalysisPipeline<I, O> implements AutoCloseable {
+
+    public interface Stage<A, B> {
+        /** 단계 Executor에서 호출. 오래 걸리는 단계는 중간중간 job.throwIfCancelled()로 확인 */
+        B apply(A input, Job job) throws Exception;
+    }
+
+    public interface Callback<O> {
+        /** 콜백 Executor에서 호출 (취소된 작업은 호출되지 않음) */
+        void onResult(O result, Job job);
+
+        void onError(Throwable error, Job job);
+    }
+
+    /** 제출된 작업 하나 */
+    public static final class Job {
+        private final long id;
+        private final String[] stageNames;
+        private final long[] stageNanos;
+        private boolean cancelled;
+        private Runnable cancelHook;
+
+        Job(long id, String[] stageNames) {
+            this.id = id;
+            this.stageNames = stageNames;
+            this.stageNanos = new long[stageNames.length];
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * 작업 취소 (실행 중인 단계에 등록된 cancel hook도 호출)
+         * @return 이번 호출로 취소됐으면 true
+         */
+        public synchronized boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            if (cancelHook != null) {
+                cancelHook.run();
+            }
+            return true;
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void throwIfCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException("Job " + id + " cancelled");
+            }
+        }
+
+        /**
+         * 실행 중인 단계를 끊는 동작 등록 (null이면 해제). 이미 취소된 상태면 바로 호출한다.
+         * 해제(null)는 진행 중인 hook 호출이 끝날 때까지 기다리므로, 해제 뒤에는 hook이 불리지 않는다.
+         */
+        public synchronized void setCancelHook(Runnable hook) {
+            cancelHook = hook;
+            if (cancelled && hook != null) {
+                hook.run();
+            }
+        }
+
+        public int getStageCount() {
+            return stageNames.length;
+        }
+
+        public String getStageName(int index) {
+            return stageNames[index];
+        }
+
+        /** 단계 실행 시간 (아직 실행 전이면 0) */
+        public synchronized long getStageNanos(int index) {
+            return stageNanos[index];
+        }
+
+        synchronized void recordStage(int index, long nanos) {
+            stageNanos[index] = nanos;
+        }
+    }
+
+    private static final class StageEntry {
+        final String name;
+        final Executor executor;
+        final Stage<Object, Object> stage;
+
+        StageEntry(String name, Executor executor, Stage<Object, Object> stage) {
+            this.name = name;
+            this.executor = executor;
+            this.stage = stage;
+        }
+    }
+
+    public static final class Builder<I, O> {
+        private final List<StageEntry> stages;
+
+        private Builder(List<StageEntry> stages) {
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> then(String name, Executor executor, Stage<? super O, ? extends N> stage) {
+            List<StageEntry> next = new ArrayList<>(stages);
+            next.add(new StageEntry(name, executor, (Stage<Object, Object>) (Stage<?, ?>) stage));
+            return new Builder<>(next);
+        }
+
+        public AnalysisPipeline<I, O> build(Executor callbackExecutor) {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline needs at least one stage");
+            }
+            return new AnalysisPipeline<>(Collections.unmodifiableList(stages), callbackExecutor);
+        }
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(new ArrayList<>());
+    }
+
+    private final List<StageEntry> stages;
+    private final String[] stageNames;
+    private final Executor callbackExecutor;
+    private Job current;
+    private long nextId;
+    private boolean closed;
+
+    private AnalysisPipeline(List<StageEntry> stages, Executor callbackExecutor) {
+        this.stages = stages;
+        this.callbackExecutor = callbackExecutor;
+        this.stageNames = new String[stages.size()];
+        for (int i = 0; i < stageNames.length; i++) {
+            stageNames[i] = stages.get(i).name;
+        }
+    }
+
+    /**
+     * 작업 제출 (진행 중인 이전 작업은 취소)
+     */
+    public Job submit(I input, Callback<? super O> callback) {
+        Job job;
+        Job previous;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Pipeline closed");
+            }
+            job = new Job(++nextId, stageNames);
+            previous = current;
+            current = job;
+        }
+        if (previous != null) {
+            previous.cancel();
+        }
+        @SuppressWarnings("unchecked")
+        Callback<Object> untyped = (Callback<Object>) callback;
+        runStage(job, 0, input, untyped);
+        return job;
+    }
+
+    /** 진행 중인 작업 취소 (화면을 떠날 때 등) */
+    public void cancel() {
+        Job job;
+        synchronized (this) {
+            job = current;
+            current = null;
+        }
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    /** 진행 중인 작업을 취소하고 이후 submit을 막음 (Executor는 호출한 쪽이 관리) */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        cancel();
+    }
+
+    private void runStage(Job job, int index, Object input, Callback<Object> callback) {
+        StageEntry entry = stages.get(index);
+        try {
+            entry.executor.execute(() -> {
+                if (job.isCancelled()) {
+                    return;
+                }
+                Object output;
+                long start = System.nanoTime();
+                try {
+                    output = entry.stage.apply(input, job);
+                } catch (Throwable e) {
+                    deliverError(job, e, callback);
+                    return;
+                } finally {
+                    job.recordStage(index, System.nanoTime() - start);
+                }
+                if (index + 1 < stages.size()) {
+                    runStage(job, index + 1, output, callback);
+                } else {
+                    deliverResult(job, output, callback);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            deliverError(job, e, callback);
+        }
+    }
+
+    private void deliverResult(Job job, Object result, Callback<Object> callback) {
+        callbackExecutor.execute(() -> {
+            // 콜백 스레드에 도착하기 전에 취소됐을 수도 있으므로 한 번 더 확인
+            if (!job.isCancelled()) {
+                finish(job);
+                callback.onResult(result, job);
+            }
+        });
+    }
+
+    private void deliverError(Job job, Throwable error, Callback<Object> callback) {
+        if (job.isCancelled() || error instanceof CancellationException) {
+            return;
+        }
+        callbackExecutor.execute(() -> {
+            if (!job.isCancelled()) {
+                finish(job);
+                callback.onError(error, job);
+            }
+        });
+    }
+
+    private synchronized void finish(Job job) {
+        if (current == job) {
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.Arrays;
+
+/**
+ * YOLOv5u/v8 계열 출력 텐서 디코더
+ * 출력 한 장 (4 + numClasses 채널 x numAnchors 앵커)을 임계값 이상 후보로 변환한다.
+ *
+ * 출력 레이아웃에 맞춰 메모리를 항상 순차적으로 읽는다.
+ * - CHANNELS_FIRST [C][N]: 채널 행 단위로 앵커를 훑으며 앵커별 최대 점수를 갱신
+ * - ANCHORS_FIRST  [N][C]: 앵커 행 안에서 클래스 점수를 훑음
+ *
+ * 앵커별 최대 점수/클래스 배열은 재사용하므로 decode() 호출당 할당이 없다.
+ * 스레드 안전하지 않음.
+ */
+public final class AnchorDecoder {
+
+    /** 출력 텐서 메모리 레이아웃 */
+    public enum Layout {
+        /** [1, 4 + C, N] (ultralytics 기본 export) */
+        CHANNELS_FIRST,
+        /** [1, N, 4 + C] */
+        ANCHORS_FIRST
+    }
+
+    private final int numAnchors;
+    private final int numClasses;
+    private final int inputSize;
+    private final Layout layout;
+
+    private final float[] bestScores;
+    private final int[] bestClasses;
+
+    public AnchorDecoder(int numAnchors, int numClasses, int inputSize, Layout layout) {
+        if (numAnchors <= 0 || numClasses <= 0 || inputSize <= 0) {
+            throw new IllegalArgumentException("numAnchors=" + numAnchors
+                    + ", numClasses=" + numClasses + ", inputSize=" + inputSize);
+        }
+        this.numAnchors = numAnchors;
+        this.numClasses = numClasses;
+        this.inputSize = inputSize;
+        this.layout = layout;
+        this.bestScores = layout == Layout.CHANNELS_FIRST ? new float[numAnchors] : null;
+        this.bestClasses = layout == Layout.CHANNELS_FIRST ? new int[numAnchors] : null;
+    }
+
+    /**
+     * 출력 텐서 shape ([1, a, b])으로부터 레이아웃 판별
+     * @throws IllegalArgumentException 어느 축도 4 + numClasses가 아닌 경우
+     */
+    public static Layout detectLayout(int[] shape, int numClasses) {
+        int channels = numClasses + 4;
+        if (shape.length == 3 && shape[1] == channels) {
+            return Layout.CHANNELS_FIRST;
+        }
+        if (shape.length == 3 && shape[2] == channels) {
+            return Layout.ANCHORS_FIRST;
+        }
+        throw new IllegalArgumentException("Unexpected output shape " + Arrays.toString(shape)
+                + " for " + numClasses + " classes");
+    }
+
+    public int getNumAnchors() { return numAnchors; }
+    public int getNumClasses() { return numClasses; }
+    public Layout getLayout() { return layout; }
+
+    /** 출력 한 장의 float 개수 */
+    public int outputSize() {
+        return numAnchors * (numClasses + 4);
+    }
+
+    /**
+     * @param output 출력 텐서 (평탄화된 배열)
+     * @param offset 해당 이미지 출력의 시작 위치 (배치 처리용)
+     * @param imageWidth 원본 이미지 너비 (박스 좌표 변환용)
+     * @param imageHeight 원본 이미지 높이
+     * @param threshold 신뢰도 임계값 (미만은 버림)
+     * @param out 후보를 추가할 버퍼 (clear하지 않음)
+     * @return 추가된 후보 수
+     */
+    public int decode(float[] output, int offset, int imageWidth, int imageHeight,
+                      float threshold, DetectionBuffer out) {
+        return layout == Layout.CHANNELS_FIRST
+                ? decodeChannelsFirst(output, offset, imageWidth, imageHeight, threshold, out)
+                : decodeAnchorsFirst(output, offset, imageWidth, imageHeight, threshold, out);
+    }
+
+    private int decodeChannelsFirst(float[] output, int offset, int imageWidth, int imageHeight,
+                                    float threshold, DetectionBuffer out) {
+        final int n = numAnchors;
+        final float[] scores = bestScores;
+        final int[] classes = bestClasses;
+        Arrays.fill(scores, 0f);
+        Arrays.fill(classes, -1);
+
+        // 클래스 채널 행을 하나씩 순차 스캔 (output[4 + j][i] 열 방향 접근 대신)
+        for (int j = 0; j < numClasses; j++) {
+            int row = offset + (4 + j) * n;
+            for (int i = 0; i < n; i++) {
+                float prob = output[row + i];
+                if (prob > scores[i]) {
+                    scores[i] = prob;
+                    classes[i] = j;
+                }
+            }
+        }
+
+        int added = 0;
+        for (int i = 0; i < n; i++) {
+            float confidence = scores[i];
+            if (confidence < threshold || classes[i] < 0) {
+                continue;
+            }
+            float cx = output[offset + i];
+            float cy = output[offset + n + i];
+            float w = output[offset + 2 * n + i];
+            float h = output[offset + 3 * n + i];
+            addBox(out, classes[i], confidence, cx, cy, w, h, imageWidth, imageHeight);
+            added++;
+        }
+        return added;
+    }
+
+    private int decodeAnchorsFirst(float[] output, int offset, int imageWidth, int imageHeight,
+                                   float threshold, DetectionBuffer out) {
+        final int stride = numClasses + 4;
+        int added = 0;
+        for (int i = 0, row = offset; i < numAnchors; i++, row += stride) {
+            float maxClassProb = 0;
+            int maxClassIdx = -1;
+            for (int j = 0; j < numClasses; j++) {
+                float prob = output[row + 4 + j];
+                if (prob > maxClassProb) {
+                    maxClassProb = prob;
+                    maxClassIdx = j;
+                }
+            }
+            if (maxClassProb < threshold || maxClassIdx < 0) {
+                continue;
+            }
+            addBox(out, maxClassIdx, maxClassProb,
+                    output[row], output[row + 1], output[row + 2], output[row + 3],
+                    imageWidth, imageHeight);
+            added++;
+        }
+        return added;
+    }
+
+    // 좌표 변환식은 기존 YOLOv5Detector.postprocess와 연산 순서까지 동일하게 유지 (결과 비트 단위 일치)
+    private void addBox(DetectionBuffer out, int classId, float confidence,
+                        float cx, float cy, float w, float h, int imageWidth, int imageHeight) {
+        float left = (cx - w / 2) * imageWidth / inputSize;
+        float top = (cy - h / 2) * imageHeight / inputSize;
+        float right = (cx + w / 2) * imageWidth / inputSize;
+        float bottom = (cy + h / 2) * imageHeight / inputSize;
+        out.add(classId, confidence, left, top, right, bottom);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 추론 백엔드(CPU 스레드 수 / NNAPI / GPU) 자동 선택
+ *
+ * 후보마다 세션(인터프리터)을 만들어 워밍업 후 추론 시간을 재고, 중앙값이 가장 짧은 후보를 고른다.
+ * 세션 생성이나 실행에 실패한 후보(GPU가 없는 기기 등)는 건너뛴다.
+ * 결과는 모델 버전별로 Store에 저장해 두고, 다음 실행부터는 측정 없이 저장된 값을 사용한다.
+ */
+public final class BackendCalibrator {
+
+    public enum Accelerator { CPU, NNAPI, GPU }
+
+    /** 측정 후보 하나 (CPU면 스레드 수 포함) */
+    public static final class Backend {
+        private final Accelerator accelerator;
+        private final int numThreads;
+
+        private Backend(Accelerator accelerator, int numThreads) {
+            this.accelerator = accelerator;
+            this.numThreads = numThreads;
+        }
+
+        public static Backend cpu(int numThreads) {
+            if (numThreads <= 0) {
+                throw new IllegalArgumentException("numThreads must be positive: " + numThreads);
+            }
+            return new Backend(Accelerator.CPU, numThreads);
+        }
+
+        public static Backend nnapi() {
+            return new Backend(Accelerator.NNAPI, 0);
+        }
+
+        public static Backend gpu() {
+            return new Backend(Accelerator.GPU, 0);
+        }
+
+        public Accelerator getAccelerator() { return accelerator; }
+        public int getNumThreads() { return numThreads; }
+
+        /** 저장용 문자열 (예: "cpu:4", "nnapi", "gpu") */
+        public String key() {
+            return accelerator == Accelerator.CPU
+                    ? "cpu:" + numThreads
+                    : accelerator.name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * key()로 만든 문자열 복원 (형식이 맞지 않으면 null)
+         */
+        public static Backend fromKey(String key) {
+            if (key == null) {
+                return null;
+            }
+            if (key.equals("nnapi")) {
+                return nnapi();
+            }
+            if (key.equals("gpu")) {
+                return gpu();
+            }
+            if (key.startsWith("cpu:")) {
+                try {
+                    int threads = Integer.parseInt(key.substring(4));
+                    return threads > 0 ? cpu(threads) : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Backend)) {
+                return false;
+            }
+            Backend other = (Backend) o;
+            return accelerator == other.accelerator && numThreads == other.numThreads;
+        }
+
+        @Override
+        public int hashCode() {
+            return accelerator.hashCode() * 31 + numThreads;
+        }
+
+        @Override
+        public String toString() {
+            return key();
+        }
+    }
+
+    /** 후보 백엔드로 만든 추론 세션 (run() 한 번 = 추론 한 번) */
+    public interface Session extends AutoCloseable {
+        void run() throws Exception;
+
+        /** 세션 해제 (예외를 던지지 않음) */
+        @Override
+        void close();
+    }
+
+    public interface SessionFactory {
+        /** 백엔드를 쓸 수 없으면 예외를 던진다 */
+        Session open(Backend backend) throws Exception;
+    }
+
+    /** 모델 버전별 선택 결과 저장소 */
+    public interface Store {
+        /** 저장된 Backend.key(), 없으면 null */
+        String load(String modelVersion);
+
+        void save(String modelVersion, String backendKey);
+    }
+
+    public static final class Result {
+        private final Backend backend;
+        private final Map<Backend, Long> medianNanos;
+        private final Map<Backend, String> failures;
+        private final boolean fromStore;
+
+        Result(Backend backend, Map<Backend, Long> medianNanos, Map<Backend, String> failures,
+               boolean fromStore) {
+            this.backend = backend;
+            this.medianNanos = Collections.unmodifiableMap(medianNanos);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.fromStore = fromStore;
+        }
+
+        public Backend getBackend() { return backend; }
+        /** 후보별 추론 시간 중앙값 (측정 순서), 저장된 값을 쓴 경우 비어 있음 */
+        public Map<Backend, Long> getMedianNanos() { return medianNanos; }
+        /** 실패한 후보와 실패 사유 */
+        public Map<Backend, String> getFailures() { return failures; }
+        public boolean isFromStore() { return fromStore; }
+    }
+
+    private static final int[] CPU_THREAD_CANDIDATES = {1, 2, 4, 8};
+
+    private final int warmupRuns;
+    private final int measuredRuns;
+    private final LongSupplier clock;
+
+    public BackendCalibrator(int warmupRuns, int measuredRuns) {
+        this(warmupRuns, measuredRuns, System::nanoTime);
+    }
+
+    BackendCalibrator(int warmupRuns, int measuredRuns, LongSupplier clock) {
+        if (warmupRuns < 0 || measuredRuns <= 0) {
+            throw new IllegalArgumentException("warmupRuns=" + warmupRuns + ", measuredRuns=" + measuredRuns);
+        }
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+        this.clock = clock;
+    }
+
+    /**
+     * 기본 후보 목록: CPU 1/2/4/8 스레드(코어 수 이하만), 그다음 NNAPI, GPU
+     */
+    public static List<Backend> defaultCandidates(int availableCores, boolean nnapiAvailable,
+                                                  boolean gpuAvailable) {
+        List<Backend> candidates = new ArrayList<>();
+        for (int threads : CPU_THREAD_CANDIDATES) {
+            if (threads == 1 || threads <= availableCores) {
+                candidates.add(Backend.cpu(threads));
+            }
+        }
+        if (nnapiAvailable) {
+            candidates.add(Backend.nnapi());
+        }
+        if (gpuAvailable) {
+            candidates.add(Backend.gpu());
+        }
+        return candidates;
+    }
+
+    /**
+     * 저장된 선택이 후보 목록에 있으면 그대로 쓰고, 없으면 측정 후 저장
+     */
+    public Result select(String modelVersion, List<Backend> candidates, SessionFactory factory, Store store) {
+        Backend stored = Backend.fromKey(store.load(modelVersion));
+        if (stored != null && candidates.contains(stored)) {
+            return new Result(stored, new LinkedHashMap<>(), new LinkedHashMap<>(), true);
+        }
+        Result result = calibrate(candidates, factory);
+        store.save(modelVersion, result.getBackend().key());
+        return result;
+    }
+
+    /**
+     * 모든 후보를 측정해 가장 빠른 후보 선택
+     * @throws IllegalStateException 모든 후보가 실패한 경우
+     */
+    public Result calibrate(List<Backend> candidates, SessionFactory factory) {
+        Map<Backend, Long> medians = new LinkedHashMap<>();
+        Map<Backend, String> failures = new LinkedHashMap<>();
+        Backend best = null;
+        long bestNanos = Long.MAX_VALUE;
+        for (Backend backend : candidates) {
+            long median;
+            try {
+                median = measure(backend, factory);
+            } catch (Exception e) {
+                failures.put(backend, String.valueOf(e.getMessage()));
+                continue;
+            }
+            medians.put(backend, median);
+            if (median < bestNanos) {
+                bestNanos = median;
+                best = backend;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("no usable backend: " + failures);
+        }
+        return new Result(best, medians, failures, false);
+    }
+
+    private long measure(Backend backend, SessionFactory factory) throws Exception {
+        try (Session session = factory.open(backend)) {
+            for (int i = 0; i < warmupRuns; i++) {
+                session.run();
+            }
+            long[] samples = new long[measuredRuns];
+            for (int i = 0; i < measuredRuns; i++) {
+                long start = clock.getAsLong();
+                session.run();
+                samples[i] = clock.getAsLong() - start;
+            }
+            Arrays.sort(samples);
+            return samples[measuredRuns / 2];
+        }
+    }
+}
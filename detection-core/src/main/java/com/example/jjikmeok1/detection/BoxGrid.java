@@ -0,0 +1,150 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.Arrays;
+
+/**
+ * NMS용 균일 격자 공간 버킷
+ * 박스를 자신이 걸치는 모든 셀에 등록해 두고, 질의 박스와 같은 셀에 있는 박스만 비교 대상으로 돌려준다.
+ * 넓이가 0보다 큰 교집합을 가지는 두 박스는 반드시 한 셀 이상을 공유하므로
+ * IoU > 0 인 쌍을 하나도 놓치지 않는다.
+ *
+ * 셀 목록은 int 배열 연결 리스트로 관리하며, 배열은 커질 때만 다시 할당한다.
+ */
+final class BoxGrid {
+
+    // 셀 수 상한 (후보가 적을 때 빈 셀 초기화 비용이 지배하지 않도록)
+    private static final int MAX_CELLS = 4096;
+
+    private float originX;
+    private float originY;
+    private float invCellSize;
+    private int cols;
+    private int rows;
+
+    private int[] cellHead = new int[0];
+    private int[] entryNext = new int[64];
+    private int[] entryBox = new int[64];
+    private int entryCount;
+
+    // 한 번의 질의에서 같은 박스를 여러 셀에서 중복 방문하지 않기 위한 표시
+    private int[] visitStamp = new int[0];
+    private int stamp;
+
+    private int[] neighbors = new int[64];
+
+    /**
+     * order[0..count) 박스들이 들어갈 격자를 준비 (셀 크기는 박스 평균 크기 기준)
+     */
+    void reset(float[] boxes, int[] order, int count) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        double dimSum = 0;
+        int maxIndex = -1;
+        for (int k = 0; k < count; k++) {
+            int idx = order[k];
+            int b = idx * 4;
+            minX = Math.min(minX, boxes[b]);
+            minY = Math.min(minY, boxes[b + 1]);
+            maxX = Math.max(maxX, boxes[b + 2]);
+            maxY = Math.max(maxY, boxes[b + 3]);
+            dimSum += Math.max(boxes[b + 2] - boxes[b], boxes[b + 3] - boxes[b + 1]);
+            maxIndex = Math.max(maxIndex, idx);
+        }
+
+        float extentX = Math.max(maxX - minX, 1f);
+        float extentY = Math.max(maxY - minY, 1f);
+        float cellSize = count > 0 ? (float) (dimSum / count) : 1f;
+        // 격자가 너무 잘게 쪼개지지 않도록 하한 적용
+        float minCell = (float) Math.sqrt(extentX * (double) extentY / Math.min(MAX_CELLS, Math.max(count, 1)));
+        cellSize = Math.max(Math.max(cellSize, minCell), 1e-3f);
+
+        originX = count > 0 ? minX : 0f;
+        originY = count > 0 ? minY : 0f;
+        invCellSize = 1f / cellSize;
+        cols = Math.max(1, Math.min((int) (extentX * invCellSize) + 1, MAX_CELLS));
+        rows = Math.max(1, Math.min((int) (extentY * invCellSize) + 1, MAX_CELLS / cols));
+
+        int cells = cols * rows;
+        if (cellHead.length < cells) {
+            cellHead = new int[cells];
+        }
+        Arrays.fill(cellHead, 0, cells, -1);
+        entryCount = 0;
+
+        if (visitStamp.length <= maxIndex) {
+            visitStamp = new int[maxIndex + 1];
+            stamp = 0;
+        }
+    }
+
+    /** 박스를 걸치는 모든 셀에 등록 */
+    void insert(float[] boxes, int box) {
+        int b = box * 4;
+        int c0 = col(boxes[b]);
+        int c1 = col(boxes[b + 2]);
+        int r0 = row(boxes[b + 1]);
+        int r1 = row(boxes[b + 3]);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                if (entryCount == entryBox.length) {
+                    entryBox = Arrays.copyOf(entryBox, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                entryBox[entryCount] = box;
+                entryNext[entryCount] = cellHead[cell];
+                cellHead[cell] = entryCount++;
+            }
+        }
+    }
+
+    /**
+     * 질의 박스와 셀을 공유하는 박스들을 중복 없이 수집
+     * @return 수집된 개수 (결과는 neighbors()의 앞부분)
+     */
+    int query(float[] boxes, int box) {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+        int b = box * 4;
+        int c0 = col(boxes[b]);
+        int c1 = col(boxes[b + 2]);
+        int r0 = row(boxes[b + 1]);
+        int r1 = row(boxes[b + 3]);
+        int found = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = cellHead[r * cols + c]; e >= 0; e = entryNext[e]) {
+                    int other = entryBox[e];
+                    if (visitStamp[other] == stamp) {
+                        continue;
+                    }
+                    visitStamp[other] = stamp;
+                    if (found == neighbors.length) {
+                        neighbors = Arrays.copyOf(neighbors, found * 2);
+                    }
+                    neighbors[found++] = other;
+                }
+            }
+        }
+        return found;
+    }
+
+    /** 직전 query() 결과 */
+    int[] neighbors() {
+        return neighbors;
+    }
+
+    private int col(float x) {
+        int c = (int) Math.floor((x - originX) * invCellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) Math.floor((y - originY) * invCellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.Arrays;
+
+/**
+ * 박스 연산/정렬 유틸리티 (boxes 배열은 [left, top, right, bottom] x N)
+ */
+public final class BoxMath {
+
+    private BoxMath() {
+    }
+
+    /**
+     * 두 박스의 IoU
+     * 기존 YOLOv5Detector.calculateIOU와 같은 연산 순서 (결과 비트 단위 일치)
+     */
+    public static float iou(float[] boxes, int a, int b) {
+        int i = a * 4;
+        int j = b * 4;
+        float intersectionLeft = Math.max(boxes[i], boxes[j]);
+        float intersectionTop = Math.max(boxes[i + 1], boxes[j + 1]);
+        float intersectionRight = Math.min(boxes[i + 2], boxes[j + 2]);
+        float intersectionBottom = Math.min(boxes[i + 3], boxes[j + 3]);
+
+        float intersectionWidth = Math.max(0, intersectionRight - intersectionLeft);
+        float intersectionHeight = Math.max(0, intersectionBottom - intersectionTop);
+        float intersectionArea = intersectionWidth * intersectionHeight;
+        float box1Area = (boxes[i + 2] - boxes[i]) * (boxes[i + 3] - boxes[i + 1]);
+        float box2Area = (boxes[j + 2] - boxes[j]) * (boxes[j + 3] - boxes[j + 1]);
+        float unionArea = box1Area + box2Area - intersectionArea;
+        return intersectionArea / unionArea;
+    }
+
+    /**
+     * 박스 a가 박스 b 안에 들어가 있는 비율 (교집합 / a의 넓이)
+     * 타일 경계에서 잘린 박스가 온전한 박스에 포함되는지 판단할 때 사용
+     */
+    public static float containment(float[] boxes, int a, int b) {
+        int i = a * 4;
+        int j = b * 4;
+        float intersectionWidth = Math.max(0, Math.min(boxes[i + 2], boxes[j + 2]) - Math.max(boxes[i], boxes[j]));
+        float intersectionHeight = Math.max(0, Math.min(boxes[i + 3], boxes[j + 3]) - Math.max(boxes[i + 1], boxes[j + 1]));
+        float area = (boxes[i + 2] - boxes[i]) * (boxes[i + 3] - boxes[i + 1]);
+        return area > 0 ? intersectionWidth * intersectionHeight / area : 0f;
+    }
+
+    /** 박스 넓이 */
+    public static float area(float[] boxes, int index) {
+        int i = index * 4;
+        return (boxes[i + 2] - boxes[i]) * (boxes[i + 3] - boxes[i + 1]);
+    }
+
+    /**
+     * 인덱스 0..count-1을 점수 내림차순으로 정렬하여 order에 기록
+     * 동점은 인덱스 오름차순 (List.sort의 안정 정렬과 같은 순서)
+     *
+     * @param keys 작업용 배열 (길이 >= count)
+     */
+    public static void sortByScoreDescending(float[] scores, int count, long[] keys, int[] order) {
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) ~sortableBits(scores[i]) << 32) | i;
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keys[i];
+        }
+    }
+
+    /** float 대소 관계를 그대로 보존하는 int 값 */
+    static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 디코딩된 픽셀용 빠른 64비트 해시 (암호학적 해시 아님)
+ *
+ * 행 단위로 update()해서 큰 비트맵도 전체 픽셀 배열을 한 번에 만들지 않고 해시할 수 있다.
+ * 같은 사진을 다시 열었을 때 같은 결과 캐시를 찾는 용도라 충돌 저항성보다 속도가 중요하다.
+ */
+public final class ContentHash {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0xFF51AFD7ED558CCDL;
+
+    private long state = SEED;
+    private long count;
+
+    public ContentHash update(int[] values, int offset, int length) {
+        long h = state;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (values[i] & 0xFFFFFFFFL)) * MULTIPLIER;
+            h ^= h >>> 29;
+        }
+        state = h;
+        count += length;
+        return this;
+    }
+
+    public ContentHash update(long value) {
+        state = mix(state ^ value);
+        count++;
+        return this;
+    }
+
+    public ContentHash update(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h = state;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * MULTIPLIER;
+        }
+        state = mix(h ^ bytes.length);
+        return this;
+    }
+
+    public long finish() {
+        return mix(state ^ count);
+    }
+
+    /** 픽셀 배열 전체 + 크기 해시 */
+    public static long of(int[] pixels, int width, int height) {
+        return new ContentHash().update(width).update(height).update(pixels, 0, width * height).finish();
+    }
+
+    // murmur3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= MULTIPLIER;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
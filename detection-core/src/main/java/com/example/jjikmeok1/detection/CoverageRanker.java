@@ -0,0 +1,290 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 인식된 재료로 레시피 순위 매기기 (비트셋)
+ *
+ * 고정된 재료 어휘의 재료어마다 비트 자리를 정하고 레시피마다 재료를 long 몇 개짜리 비트셋으로 저장한다.
+ * 점수는 long 단위 AND / AND-NOT 후 bitCount로 한 번에 센다:
+ *  - 겹침: 레시피 재료 중 인식된 재료 수 (r & q)
+ *  - 부족: 레시피 재료 중 없는 재료 수 (r & ~q & ~기본양념) + 어휘 밖 재료 수
+ *  - 인기: 조회수 log10
+ * 소금/간장 같은 기본양념은 집에 있다고 보고 부족 재료로 세지 않는다.
+ * 레시피 행은 비트셋 배열 하나에 이어 붙여 두어 수만 개도 캐시 친화적으로 훑는다. 스레드 안전하지 않음.
+ */
+public final class CoverageRanker {
+
+    // 점수 가중치: 겹치는 재료 하나가 부족한 재료 몇 개, 조회수 몇 자릿수보다 중요한지
+    static final double COVERAGE_WEIGHT = 10;
+    static final double MISSING_WEIGHT = 1.5;
+    static final double POPULARITY_WEIGHT = 1;
+
+    // 부족 재료로 세지 않는 기본양념 (재료 한 줄의 마지막 재료어 Doc.heads 형태, "다진마늘" 같은 합성어는 나오지 않음)
+    public static final Set<String> PANTRY = new HashSet<>(Arrays.asList(
+            "소금", "후추", "설탕", "간장", "진간장", "국간장", "식용유", "참기름", "들기름", "물",
+            "깨", "통깨", "참깨", "식초", "올리고당", "물엿", "맛술", "미림", "고춧가루"));
+
+    /** 순위 결과 하나 */
+    public static final class Scored {
+        public final int row;
+        public final String id;
+        public final int coverage;
+        public final int missing;
+        public final double score;
+
+        Scored(int row, String id, int coverage, int missing, double score) {
+            this.row = row;
+            this.id = id;
+            this.coverage = coverage;
+            this.missing = missing;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Integer> bitOf = new HashMap<>();
+    private final int words;
+    private final long[] pantry;
+
+    private long[] bits = new long[0];
+    private short[] other = new short[0];
+    private float[] popularity = new float[0];
+    private String[] ids = new String[0];
+    private int size;
+
+    /**
+     * @param vocabulary 재료어 목록 (순서대로 비트 자리, 중복은 무시)
+     */
+    public CoverageRanker(List<String> vocabulary) {
+        for (String term : vocabulary) {
+            bitOf.putIfAbsent(term, bitOf.size());
+        }
+        words = Math.max(1, (bitOf.size() + 63) >>> 6);
+        pantry = mask(PANTRY);
+    }
+
+    int getWords() {
+        return words;
+    }
+
+    int getVocabularySize() {
+        return bitOf.size();
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getId(int row) {
+        return ids[row];
+    }
+
+    /** 비트 자리, 어휘에 없으면 -1 */
+    int bitOf(String term) {
+        Integer bit = bitOf.get(term);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * 레시피 한 행 추가
+     * @param terms 레시피 재료어 (어휘 밖 재료는 부족 재료로만 셈)
+     * @param views 조회수 (모르면 0)
+     * @param extraMissing 재료 목록 밖에서 더할 부족 재료 수 (재료를 모르는 레시피의 추정치)
+     * @return 행 번호
+     */
+    public int add(String id, Collection<String> terms, long views, int extraMissing) {
+        if (size == ids.length) {
+            int capacity = Math.max(16, size * 2);
+            bits = Arrays.copyOf(bits, capacity * words);
+            other = Arrays.copyOf(other, capacity);
+            popularity = Arrays.copyOf(popularity, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        int row = size++;
+        int base = row * words;
+        int outside = extraMissing;
+        for (String term : new HashSet<>(terms)) {
+            int bit = bitOf(term);
+            if (bit >= 0) {
+                bits[base + (bit >>> 6)] |= 1L << bit;
+            } else if (!PANTRY.contains(term)) {
+                outside++;
+            }
+        }
+        other[row] = (short) Math.min(Short.MAX_VALUE, outside);
+        ids[row] = id;
+        setViews(row, views);
+        return row;
+    }
+
+    public void setViews(int row, long views) {
+        popularity[row] = (float) Math.log10(1 + Math.max(0, views));
+    }
+
+    /** 재료어 목록 → 비트셋 (어휘 밖 재료는 빠짐) */
+    public long[] mask(Collection<String> terms) {
+        long[] mask = new long[words];
+        for (String term : terms) {
+            int bit = bitOf(term);
+            if (bit >= 0) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 전체 행 중 인식된 재료가 하나라도 겹치는 레시피를 점수 순으로 limit개
+     */
+    List<Scored> rank(Collection<String> detected, int limit) {
+        return rank(mask(detected), null, limit);
+    }
+
+    /**
+     * @param query 인식된 재료 비트셋 (mask)
+     * @param rows 후보 행, null이면 전체
+     * @param limit 최대 결과 수
+     * @return 점수 내림차순 (같으면 행 번호 순), 겹치는 재료가 없는 레시피는 빠짐
+     */
+    public List<Scored> rank(long[] query, int[] rows, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        // missing 계산용: 없는 재료 중 기본양념 제외 (~q & ~pantry)
+        long[] absent = new long[words];
+        for (int w = 0; w < words; w++) {
+            absent[w] = ~query[w] & ~pantry[w];
+        }
+        // 점수 하위가 맨 앞인 최소 힙 (행 번호만 들고 점수는 따로)
+        int[] heap = new int[limit];
+        double[] heapScore = new double[limit];
+        int heapSize = 0;
+        int count = rows != null ? rows.length : size;
+        for (int i = 0; i < count; i++) {
+            int row = rows != null ? rows[i] : i;
+            int base = row * words;
+            int coverage = 0;
+            int missing = other[row];
+            for (int w = 0; w < words; w++) {
+                long recipe = bits[base + w];
+                coverage += Long.bitCount(recipe & query[w]);
+                missing += Long.bitCount(recipe & absent[w]);
+            }
+            if (coverage == 0) {
+                continue;
+            }
+            double score = coverage * COVERAGE_WEIGHT - missing * MISSING_WEIGHT + popularity[row] * POPULARITY_WEIGHT;
+            if (heapSize < limit) {
+                heap[heapSize] = row;
+                heapScore[heapSize] = score;
+                siftUp(heap, heapScore, heapSize++);
+            } else if (better(score, row, heapScore[0], heap[0])) {
+                heap[0] = row;
+                heapScore[0] = score;
+                siftDown(heap, heapScore, heapSize);
+            }
+        }
+        List<Scored> result = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            result.add(score(heap[i], query, absent, heapScore[i]));
+        }
+        result.sort((a, b) -> better(a.score, a.row, b.score, b.row) ? -1 : 1);
+        return result;
+    }
+
+    private Scored score(int row, long[] query, long[] absent, double score) {
+        int base = row * words;
+        int coverage = 0;
+        int missing = other[row];
+        for (int w = 0; w < words; w++) {
+            coverage += Long.bitCount(bits[base + w] & query[w]);
+            missing += Long.bitCount(bits[base + w] & absent[w]);
+        }
+        return new Scored(row, ids[row], coverage, missing, score);
+    }
+
+    // 점수가 높거나, 같으면 앞 행이 앞
+    private static boolean better(double score, int row, double otherScore, int otherRow) {
+        return score > otherScore || (score == otherScore && row < otherRow);
+    }
+
+    private static void siftUp(int[] heap, double[] scores, int at) {
+        while (at > 0) {
+            int parent = (at - 1) >>> 1;
+            if (!better(scores[parent], heap[parent], scores[at], heap[at])) {
+                break;
+            }
+            swap(heap, scores, at, parent);
+            at = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] scores, int size) {
+        int at = 0;
+        while (true) {
+            int left = 2 * at + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(scores[worst], heap[worst], scores[right], heap[right])) {
+                worst = right;
+            }
+            if (!better(scores[at], heap[at], scores[worst], heap[worst])) {
+                return;
+            }
+            swap(heap, scores, at, worst);
+            at = worst;
+        }
+    }
+
+    private static void swap(int[] heap, double[] scores, int a, int b) {
+        int row = heap[a];
+        heap[a] = heap[b];
+        heap[b] = row;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    /**
+     * 목록의 조회수 문구 → 숫자 ("조회수 1.2만" → 12000, "3,456" → 3456), 못 읽으면 0
+     */
+    public static long parseViewCount(String text) {
+        if (text == null) {
+            return 0;
+        }
+        StringBuilder number = new StringBuilder();
+        double unit = 1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                number.append(c);
+            } else if (c == '만' && number.length() > 0) {
+                unit = 10_000;
+                break;
+            } else if (c == '천' && number.length() > 0) {
+                unit = 1_000;
+                break;
+            } else if (c == 'k' || c == 'K') {
+                unit = 1_000;
+                break;
+            } else if (c != ',' && number.length() > 0) {
+                break;
+            }
+        }
+        try {
+            return number.length() > 0 ? Math.round(Double.parseDouble(number.toString()) * unit) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
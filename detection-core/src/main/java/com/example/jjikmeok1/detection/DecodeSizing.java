@@ -0,0 +1,79 @@
+package com.example.jjikmeok1.detection;
+
+/**
+ * 사진 디코딩 크기 계산
+ *
+ * 12~50MP 사진을 원본 크기 ARGB_8888로 풀면 수십~수백 MB가 되지만, 추론은 640(타일이면 타일 크기),
+ * 화면은 ImageView 크기만 있으면 된다. 디코더에 목표 크기를 넘겨 처음부터 작게 풀 때 쓰는 크기를 계산한다.
+ * 원본보다 크게 키우는 경우는 없다.
+ */
+public final class DecodeSizing {
+
+    /** ARGB_8888 픽셀당 바이트 */
+    public static final int ARGB_BYTES = 4;
+
+    // 두 목표의 픽셀 수 차이가 이 비율 이내면 큰 쪽 하나만 디코딩
+    private static final float SHARE_RATIO = 1.5f;
+
+    /** 디코딩 목표 크기 */
+    public static final class Target {
+        private final int width;
+        private final int height;
+
+        Target(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+
+        /** ARGB_8888 비트맵 크기 */
+        public long getBytes() {
+            return argbBytes(width, height);
+        }
+
+        @Override
+        public String toString() {
+            return width + "x" + height;
+        }
+    }
+
+    private DecodeSizing() {
+    }
+
+    /**
+     * 긴 변이 longSide가 되도록 비율을 유지해 축소 (이미 작으면 원본 크기)
+     */
+    public static Target fitLongSide(int width, int height, int longSide) {
+        return scale(width, height, Math.min(1f, (float) longSide / Math.max(width, height)));
+    }
+
+    /**
+     * centerCrop 표시용: viewWidth x viewHeight를 빈틈없이 덮는 가장 작은 크기
+     */
+    public static Target coverView(int width, int height, int viewWidth, int viewHeight) {
+        float scale = Math.max((float) viewWidth / width, (float) viewHeight / height);
+        return scale(width, height, Math.min(1f, scale));
+    }
+
+    /**
+     * 두 목표의 픽셀 수 차이가 SHARE_RATIO 이내라 큰 쪽 한 장을 같이 써도 되는지
+     */
+    public static boolean canShare(Target a, Target b) {
+        long larger = Math.max(a.getBytes(), b.getBytes());
+        long smaller = Math.min(a.getBytes(), b.getBytes());
+        return larger <= smaller * SHARE_RATIO;
+    }
+
+    public static long argbBytes(int width, int height) {
+        return (long) width * height * ARGB_BYTES;
+    }
+
+    private static Target scale(int width, int height, float scale) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid image size: " + width + "x" + height);
+        }
+        return new Target(Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)));
+    }
+}
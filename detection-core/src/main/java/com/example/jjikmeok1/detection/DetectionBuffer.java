@@ -0,0 +1,64 @@
+package com.example.jjikmeok1.detection;
+
+/**
+ * 후보 박스를 객체 없이 기본형 배열로 담는 재사용 버퍼
+ * 박스 좌표는 [left, top, right, bottom] 순서로 boxes에 4개씩 연속 저장된다.
+ *
+ * 용량은 생성 시 고정 (보통 앵커 수)이므로 프레임마다 새로 할당하지 않는다.
+ */
+public final class DetectionBuffer {
+
+    private final int capacity;
+    private final int[] classIds;
+    private final float[] scores;
+    private final float[] boxes;
+    private int size;
+
+    public DetectionBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.classIds = new int[capacity];
+        this.scores = new float[capacity];
+        this.boxes = new float[capacity * 4];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 후보 추가
+     * @return 추가된 인덱스
+     */
+    public int add(int classId, float score, float left, float top, float right, float bottom) {
+        if (size == capacity) {
+            throw new IllegalStateException("DetectionBuffer is full: " + capacity);
+        }
+        int index = size++;
+        classIds[index] = classId;
+        scores[index] = score;
+        int b = index * 4;
+        boxes[b] = left;
+        boxes[b + 1] = top;
+        boxes[b + 2] = right;
+        boxes[b + 3] = bottom;
+        return index;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+
+    public int classId(int index) { return classIds[index]; }
+    public float score(int index) { return scores[index]; }
+    public float left(int index) { return boxes[index * 4]; }
+    public float top(int index) { return boxes[index * 4 + 1]; }
+    public float right(int index) { return boxes[index * 4 + 2]; }
+    public float bottom(int index) { return boxes[index * 4 + 3]; }
+
+    /** 내부 배열 직접 접근 (NMS 등 핫 루프용, 유효 범위는 size()까지) */
+    public int[] classIds() { return classIds; }
+    public float[] scores() { return scores; }
+    public float[] boxes() { return boxes; }
+}
@@ -0,0 +1,285 @@
+package com.example.jjikmeok1.detection;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 탐지 결과 2단 캐시 (메모리 LRU + 디스크 파일 하나)
+ *
+ * 키는 추론 해상도 픽셀의 ContentHash와 모델 버전을 섞은 64비트 값이다.
+ * 메모리에서 찾으면 복사 없이 바로 돌려주고, 디스크에서 찾으면 읽어서 메모리에 올린다.
+ * 디스크 파일은 레코드를 뒤에 덧붙이기만 하다가 maxDiskBytes를 넘으면 최근에 쓴 항목만 남겨
+ * 절반 크기로 다시 쓴다(compact). 디스크 오류가 나면 디스크 단계만 끄고 메모리 캐시로 계속 동작한다.
+ *
+ * 파일 형식: "JDC1" | version(int) | 레코드...
+ * 레코드: key(long) | count(short) | count x [classId(short) | score | left | top | right | bottom (float)]
+ */
+public final class DetectionCache implements Closeable {
+
+    private static final int MAGIC = 0x4A444331; // "JDC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8 + 2;
+    private static final int DETECTION_BYTES = 2 + 4 * 5;
+
+    private final int maxMemoryEntries;
+    private final long maxDiskBytes;
+    private final File diskFile;
+    private final LinkedHashMap<Long, DetectionBuffer> memory;
+    // 디스크 레코드 위치 (접근 순서: compact 때 오래 안 쓴 항목부터 버림)
+    private final LinkedHashMap<Long, Long> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private RandomAccessFile disk;
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long diskErrors;
+
+    /**
+     * @param diskFile null이면 메모리 캐시만 사용
+     */
+    public DetectionCache(int maxMemoryEntries, File diskFile, long maxDiskBytes) {
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.maxDiskBytes = maxDiskBytes;
+        this.diskFile = diskFile;
+        this.memory = new LinkedHashMap<Long, DetectionBuffer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DetectionBuffer> eldest) {
+                return size() > DetectionCache.this.maxMemoryEntries;
+            }
+        };
+        if (diskFile != null) {
+            try {
+                openDisk();
+            } catch (IOException e) {
+                disableDisk();
+            }
+        }
+    }
+
+    /** 캐시 키: 내용 해시 + 모델 버전 (모델이 바뀌면 이전 결과는 자연히 안 맞음) */
+    public static long key(long contentHash, String modelVersion) {
+        return new ContentHash().update(contentHash).update(modelVersion).finish();
+    }
+
+    /**
+     * @return 캐시된 결과 (읽기 전용으로 다룰 것), 없으면 null
+     */
+    public synchronized DetectionBuffer get(long key) {
+        DetectionBuffer cached = memory.get(key);
+        if (cached != null) {
+            memoryHits++;
+            return cached;
+        }
+        Long offset = diskIndex.get(key);
+        if (offset != null && disk != null) {
+            try {
+                cached = readRecord(offset, key);
+                memory.put(key, cached);
+                diskHits++;
+                return cached;
+            } catch (IOException e) {
+                disableDisk();
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /** 결과 저장 (detections는 복사하므로 호출한 쪽에서 재사용해도 됨) */
+    public synchronized void put(long key, DetectionBuffer detections) {
+        DetectionBuffer copy = copyOf(detections);
+        memory.put(key, copy);
+        if (disk == null || diskIndex.containsKey(key)) {
+            return;
+        }
+        try {
+            long offset = disk.length();
+            disk.seek(offset);
+            disk.write(encode(key, copy));
+            diskIndex.put(key, offset);
+            if (disk.length() > maxDiskBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            disableDisk();
+        }
+    }
+
+    public synchronized void clear() {
+        memory.clear();
+        diskIndex.clear();
+        if (disk != null) {
+            try {
+                disk.setLength(HEADER_BYTES);
+            } catch (IOException e) {
+                disableDisk();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (disk != null) {
+            disk.close();
+            disk = null;
+        }
+    }
+
+    public synchronized long getMemoryHits() { return memoryHits; }
+    public synchronized long getDiskHits() { return diskHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getDiskErrors() { return diskErrors; }
+    public synchronized int getMemoryEntries() { return memory.size(); }
+    public synchronized int getDiskEntries() { return diskIndex.size(); }
+
+    public synchronized long getDiskBytes() {
+        try {
+            return disk != null ? disk.length() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void openDisk() throws IOException {
+        disk = new RandomAccessFile(diskFile, "rw");
+        if (disk.length() < HEADER_BYTES || disk.readInt() != MAGIC || disk.readInt() != VERSION) {
+            // 새 파일이거나 형식이 다르면 비우고 시작
+            disk.setLength(0);
+            disk.seek(0);
+            disk.writeInt(MAGIC);
+            disk.writeInt(VERSION);
+            return;
+        }
+        long length = disk.length();
+        long offset = HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= length) {
+            disk.seek(offset);
+            long key = disk.readLong();
+            int count = disk.readUnsignedShort();
+            long end = offset + RECORD_HEADER_BYTES + (long) count * DETECTION_BYTES;
+            if (end > length) {
+                break;
+            }
+            diskIndex.put(key, offset);
+            offset = end;
+        }
+        if (offset < length) {
+            // 쓰다가 끊긴 마지막 레코드 제거
+            disk.setLength(offset);
+        }
+    }
+
+    private DetectionBuffer readRecord(long offset, long key) throws IOException {
+        disk.seek(offset);
+        byte[] header = new byte[RECORD_HEADER_BYTES];
+        disk.readFully(header);
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        if (buffer.getLong() != key) {
+            throw new IOException("Corrupt cache record at " + offset);
+        }
+        int count = buffer.getShort() & 0xFFFF;
+        byte[] body = new byte[count * DETECTION_BYTES];
+        disk.readFully(body);
+        buffer = ByteBuffer.wrap(body);
+        DetectionBuffer detections = new DetectionBuffer(count);
+        for (int i = 0; i < count; i++) {
+            detections.add(buffer.getShort() & 0xFFFF, buffer.getFloat(),
+                    buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        }
+        return detections;
+    }
+
+    private static byte[] encode(long key, DetectionBuffer detections) {
+        int count = detections.size();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + count * DETECTION_BYTES);
+        buffer.putLong(key);
+        buffer.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            buffer.putShort((short) detections.classId(i));
+            buffer.putFloat(detections.score(i));
+            buffer.putFloat(detections.left(i));
+            buffer.putFloat(detections.top(i));
+            buffer.putFloat(detections.right(i));
+            buffer.putFloat(detections.bottom(i));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 최근에 쓴 항목부터 maxDiskBytes의 절반까지만 남겨 새 파일로 다시 씀
+     */
+    private void compact() throws IOException {
+        List<Long> keys = new ArrayList<>(diskIndex.keySet()); // 오래된 것 → 최근
+        List<byte[]> kept = new ArrayList<>();
+        List<Long> keptKeys = new ArrayList<>();
+        long budget = maxDiskBytes / 2 - HEADER_BYTES;
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            long key = keys.get(i);
+            byte[] record = encode(key, readRecord(diskIndex.get(key), key));
+            if (record.length > budget) {
+                break;
+            }
+            budget -= record.length;
+            kept.add(record);
+            keptKeys.add(key);
+        }
+
+        File temp = new File(diskFile.getPath() + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            out.setLength(0);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (int i = kept.size() - 1; i >= 0; i--) {
+                out.write(kept.get(i));
+            }
+        }
+        disk.close();
+        disk = null;
+        if (!temp.renameTo(diskFile)) {
+            throw new IOException("Failed to replace " + diskFile);
+        }
+        disk = new RandomAccessFile(diskFile, "rw");
+        diskIndex.clear();
+        long offset = HEADER_BYTES;
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            diskIndex.put(keptKeys.get(i), offset);
+            offset += kept.get(i).length;
+        }
+    }
+
+    private void disableDisk() {
+        diskErrors++;
+        diskIndex.clear();
+        if (disk != null) {
+            try {
+                disk.close();
+            } catch (IOException ignored) {
+                // 이미 실패한 파일
+            }
+            disk = null;
+        }
+    }
+
+    private static DetectionBuffer copyOf(DetectionBuffer source) {
+        DetectionBuffer copy = new DetectionBuffer(source.size());
+        for (int i = 0; i < source.size(); i++) {
+            copy.add(source.classId(i), source.score(i),
+                    source.left(i), source.top(i), source.right(i), source.bottom(i));
+        }
+        return copy;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DetectionCache{memoryHits=" + memoryHits + ", diskHits=" + diskHits + ", misses=" + misses
+                + ", memory=" + memory.size() + ", disk=" + diskIndex.size() + "}";
+    }
+}
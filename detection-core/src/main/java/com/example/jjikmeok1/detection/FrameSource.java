@@ -0,0 +1,20 @@
+package com.example.jjikmeok1.detection;
+
+/**
+ * 연속 프레임 공급원 (Camera2, 테스트용 합성 프레임 생성기 등)
+ */
+public interface FrameSource {
+
+    interface Listener {
+        /**
+         * 새 프레임 도착 (공급원 스레드에서 호출)
+         * 프레임 소유권은 리스너로 넘어가며, 리스너가 release()해야 한다.
+         */
+        void onFrame(YuvFrame frame);
+    }
+
+    void start(Listener listener);
+
+    /** 프레임 공급 중지 (이후 onFrame은 호출되지 않음) */
+    void stop();
+}
@@ -0,0 +1,92 @@
+package com.example.jjikmeok1.detection;
+
+/**
+ * 격자 버킷 기반 Hard NMS
+ *
+ * 점수 순으로 후보를 보며, 이미 채택된 박스 중 같은 셀에 있는 것과만 IoU를 비교한다.
+ * 억제된 박스는 다른 박스를 억제하지 않으므로 결과는 기존 전체 쌍 비교(O(n²)) NMS와 완전히 같고,
+ * 비교 횟수는 박스 주변 밀도에만 비례한다.
+ *
+ * - classAware: 같은 클래스끼리만 억제 (기존 동작)
+ * - maxCandidates: NMS 전에 점수 상위 K개만 고려 (0이면 제한 없음)
+ * - maxDetections: 채택 개수가 K개가 되면 조기 종료 (0이면 제한 없음)
+ */
+public final class GridNms implements NonMaxSuppression {
+
+    private final float iouThreshold;
+    private final boolean classAware;
+    private final int maxCandidates;
+    private final int maxDetections;
+
+    private final BoxGrid grid = new BoxGrid();
+    private long[] sortKeys = new long[0];
+    private int[] order = new int[0];
+
+    public GridNms(float iouThreshold) {
+        this(iouThreshold, true, 0, 0);
+    }
+
+    public GridNms(float iouThreshold, boolean classAware, int maxCandidates, int maxDetections) {
+        if (iouThreshold < 0f || iouThreshold > 1f) {
+            throw new IllegalArgumentException("iouThreshold must be in [0, 1]: " + iouThreshold);
+        }
+        this.iouThreshold = iouThreshold;
+        this.classAware = classAware;
+        this.maxCandidates = maxCandidates;
+        this.maxDetections = maxDetections;
+    }
+
+    @Override
+    public int run(DetectionBuffer candidates, int[] keep) {
+        int n = candidates.size();
+        if (n == 0) {
+            return 0;
+        }
+        ensureCapacity(n);
+        final float[] boxes = candidates.boxes();
+        final int[] classIds = candidates.classIds();
+
+        BoxMath.sortByScoreDescending(candidates.scores(), n, sortKeys, order);
+        int considered = maxCandidates > 0 ? Math.min(n, maxCandidates) : n;
+        grid.reset(boxes, order, considered);
+
+        int kept = 0;
+        for (int k = 0; k < considered; k++) {
+            int current = order[k];
+            int cls = classIds[current];
+
+            int found = grid.query(boxes, current);
+            int[] neighbors = grid.neighbors();
+            boolean suppressed = false;
+            for (int t = 0; t < found; t++) {
+                int other = neighbors[t];
+                if (classAware && classIds[other] != cls) {
+                    continue;
+                }
+                // 기존 구현과 같이 (채택된 박스, 후보) 순서로 IoU 계산
+                if (BoxMath.iou(boxes, other, current) > iouThreshold) {
+                    suppressed = true;
+                    break;
+                }
+            }
+            if (suppressed) {
+                continue;
+            }
+
+            keep[kept++] = current;
+            if (kept == maxDetections) {
+                break;
+            }
+            grid.insert(boxes, current);
+        }
+        return kept;
+    }
+
+    private void ensureCapacity(int n) {
+        if (order.length < n) {
+            int capacity = Math.max(n, order.length * 2);
+            order = new int[capacity];
+            sortKeys = new long[capacity];
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * YOLO 입력 텐서 전처리기
+ * ARGB 픽셀을 [1, size, size, 3] float32 텐서로 변환한다.
+ * 양자화 모델(uint8/int8 입력)이면 픽셀을 float로 바꾸지 않고 채널 바이트를 바로 기록한다.
+ *
+ * 입력 버퍼, 픽셀 배열, 행(row) 스테이징 배열을 생성 시 한 번만 할당하고
+ * 이후 호출에서는 재사용하므로 process() 호출당 힙/다이렉트 메모리 할당이 없다.
+ * 안드로이드 의존성이 없어 JVM 단위 테스트에서 그대로 검증할 수 있다.
+ *
+ * 스레드 안전하지 않음: 인터프리터 하나당 인스턴스 하나를 사용할 것.
+ */
+public final class ImagePreprocessor {
+
+    // 0~255 채널 값 → 0~1 float 변환 테이블 (기존 v / 255.0f 와 비트 단위로 동일한 값)
+    private static final float[] NORMALIZE_LUT = new float[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            NORMALIZE_LUT[i] = i / 255.0f;
+        }
+    }
+
+    private final int inputSize;
+    private final int[] pixels;
+    private final ByteBuffer inputBuffer;
+
+    // float32 입력용
+    private final float[] rowBuffer;
+    private final FloatBuffer floatView;
+
+    // 8비트 양자화 입력용 (quantizeTable이 null이면 채널 값을 그대로 복사)
+    private final boolean quantized;
+    private final byte[] rowBytes;
+    private final byte[] quantizeTable;
+
+    public ImagePreprocessor(int inputSize) {
+        this(inputSize, null);
+    }
+
+    /**
+     * @param inputQuantization 입력 텐서가 uint8/int8이면 그 양자화 파라미터, float32 입력이면 null
+     */
+    public ImagePreprocessor(int inputSize, TensorQuantization inputQuantization) {
+        if (inputSize <= 0) {
+            throw new IllegalArgumentException("inputSize must be positive: " + inputSize);
+        }
+        this.inputSize = inputSize;
+        this.pixels = new int[inputSize * inputSize];
+        this.quantized = inputQuantization != null;
+        if (quantized) {
+            this.rowBuffer = null;
+            this.rowBytes = new byte[inputSize * 3];
+            this.quantizeTable = inputQuantization.isRawPixelInput()
+                    ? null : inputQuantization.pixelQuantizationTable();
+            this.inputBuffer = ByteBuffer.allocateDirect(inputSize * inputSize * 3)
+                    .order(ByteOrder.nativeOrder());
+            this.floatView = null;
+        } else {
+            this.rowBuffer = new float[inputSize * 3];
+            this.rowBytes = null;
+            this.quantizeTable = null;
+            this.inputBuffer = ByteBuffer.allocateDirect(4 * inputSize * inputSize * 3)
+                    .order(ByteOrder.nativeOrder());
+            this.floatView = inputBuffer.asFloatBuffer();
+        }
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public boolean isQuantized() {
+        return quantized;
+    }
+
+    /**
+     * 이미지 한 장의 입력 텐서 바이트 수 (배치 버퍼 크기 계산용)
+     */
+    public int bytesPerImage() {
+        return inputBuffer.capacity();
+    }
+
+    /**
+     * 호출자가 ARGB 픽셀을 채워 넣을 배열 (size * size, 행 우선)
+     * 예: bitmap.getPixels(preprocessor.getPixelBuffer(), 0, size, 0, 0, size, size)
+     */
+    public int[] getPixelBuffer() {
+        return pixels;
+    }
+
+    /**
+     * 입력 텐서 버퍼 (native order, 위치 0으로 되감긴 상태)
+     */
+    public ByteBuffer getInputBuffer() {
+        inputBuffer.rewind();
+        return inputBuffer;
+    }
+
+    /**
+     * getPixelBuffer()에 채워진 픽셀을 정규화하여 입력 버퍼에 기록
+     * @return 인터프리터에 바로 넘길 수 있는 입력 버퍼
+     */
+    public ByteBuffer process() {
+        if (quantized) {
+            inputBuffer.clear();
+            processInto(inputBuffer);
+        } else {
+            floatView.clear();
+            processInto(floatView);
+        }
+        return getInputBuffer();
+    }
+
+    /**
+     * 입력 텐서 형식에 맞춰 dst의 현재 위치부터 기록 (배치 입력 채우기용)
+     * 호출 후 dst 위치는 bytesPerImage() 만큼 전진한다.
+     */
+    public void processInto(ByteBuffer dst) {
+        if (!quantized) {
+            FloatBuffer floats = dst.asFloatBuffer();
+            processInto(floats);
+            dst.position(dst.position() + 4 * floats.position());
+            return;
+        }
+        int rowLength = inputSize * 3;
+        for (int y = 0, offset = 0; y < inputSize; y++, offset += inputSize) {
+            if (quantizeTable == null) {
+                argbToRgbBytes(pixels, offset, rowBytes, 0, inputSize);
+            } else {
+                argbToQuantizedBytes(pixels, offset, rowBytes, 0, inputSize, quantizeTable);
+            }
+            dst.put(rowBytes, 0, rowLength);
+        }
+    }
+
+    /**
+     * getPixelBuffer()에 채워진 픽셀을 정규화하여 dst의 현재 위치부터 기록 (float32 입력 전용)
+     * 호출 후 dst 위치는 size * size * 3 만큼 전진한다.
+     */
+    public void processInto(FloatBuffer dst) {
+        if (quantized) {
+            throw new IllegalStateException("quantized input: use processInto(ByteBuffer)");
+        }
+        int rowFloats = inputSize * 3;
+        for (int y = 0, offset = 0; y < inputSize; y++, offset += inputSize) {
+            argbToRgbFloats(pixels, offset, rowBuffer, 0, inputSize);
+            // 행 단위 벌크 put: putFloat 반복 호출 대비 경계 검사/위치 갱신이 행당 1회로 줄어듦
+            dst.put(rowBuffer, 0, rowFloats);
+        }
+    }
+
+    /**
+     * ARGB 픽셀 count개를 RGB float(0~1) 3*count개로 변환
+     */
+    static void argbToRgbFloats(int[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        final float[] lut = NORMALIZE_LUT;
+        int d = dstOffset;
+        for (int i = srcOffset, end = srcOffset + count; i < end; i++) {
+            int val = src[i];
+            dst[d++] = lut[(val >> 16) & 0xFF];
+            dst[d++] = lut[(val >> 8) & 0xFF];
+            dst[d++] = lut[val & 0xFF];
+        }
+    }
+
+    /**
+     * ARGB 픽셀 count개를 RGB 바이트 3*count개로 복사 (scale=1/255, zp=0 인 uint8 입력)
+     */
+    static void argbToRgbBytes(int[] src, int srcOffset, byte[] dst, int dstOffset, int count) {
+        int d = dstOffset;
+        for (int i = srcOffset, end = srcOffset + count; i < end; i++) {
+            int val = src[i];
+            dst[d++] = (byte) (val >> 16);
+            dst[d++] = (byte) (val >> 8);
+            dst[d++] = (byte) val;
+        }
+    }
+
+    /**
+     * ARGB 픽셀 count개를 양자화 테이블로 변환한 RGB 바이트 3*count개로 기록
+     */
+    static void argbToQuantizedBytes(int[] src, int srcOffset, byte[] dst, int dstOffset, int count,
+                                     byte[] table) {
+        int d = dstOffset;
+        for (int i = srcOffset, end = srcOffset + count; i < end; i++) {
+            int val = src[i];
+            dst[d++] = table[(val >> 16) & 0xFF];
+            dst[d++] = table[(val >> 8) & 0xFF];
+            dst[d++] = table[val & 0xFF];
+        }
+    }
+}
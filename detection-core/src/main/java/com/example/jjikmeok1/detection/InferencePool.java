@@ -0,0 +1,154 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 스레드 안전하지 않은 추론 엔진(Interpreter 등) N개를 묶어 동시에 사용하는 풀
+ *
+ * 워커 스레드 N개가 유휴 엔진 큐에서 엔진을 하나 빌려 작업을 수행하고 돌려준다.
+ * 엔진 수와 워커 수가 같으므로 엔진 대기는 생기지 않으며, 한 엔진은 한 번에 한 작업만 사용한다.
+ * 대기 작업 큐는 크기가 제한되어 있어 가득 차면 submit()이 RejectedExecutionException을 던진다.
+ *
+ * @param <E> 엔진 타입 (close()로 해제)
+ */
+public final class InferencePool<E extends AutoCloseable> implements AutoCloseable {
+
+    /** 엔진 생성 (index: 0..size-1) */
+    public interface EngineFactory<E> {
+        E create(int index) throws Exception;
+    }
+
+    /** 엔진 하나를 독점 사용하는 작업 */
+    public interface Task<E, R> {
+        R run(E engine) throws Exception;
+    }
+
+    private final List<E> engines;
+    private final BlockingQueue<E> idleEngines;
+    private final ThreadPoolExecutor executor;
+    private boolean closed; // this로 보호
+
+    public InferencePool(int size, int queueCapacity, String threadName, EngineFactory<E> factory)
+            throws Exception {
+        if (size <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("size=" + size + ", queueCapacity=" + queueCapacity);
+        }
+        engines = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                engines.add(factory.create(i));
+            }
+        } catch (Exception e) {
+            closeEngines(engines);
+            throw e;
+        }
+        idleEngines = new ArrayBlockingQueue<>(size, false, engines);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, threadName + "-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 코어 수와 엔진당 스레드 수로 권장 풀 크기 계산
+     * (예: 8코어, 인터프리터당 2스레드 → 4개)
+     */
+    public static int recommendedSize(int availableCores, int threadsPerEngine) {
+        return Math.max(1, availableCores / Math.max(1, threadsPerEngine));
+    }
+
+    /**
+     * 풀 크기가 정해졌을 때 엔진당 할당할 스레드 수
+     */
+    public static int threadsPerEngine(int availableCores, int poolSize) {
+        return Math.max(1, availableCores / Math.max(1, poolSize));
+    }
+
+    public int size() {
+        return engines.size();
+    }
+
+    /** 대기 중인 작업 수 */
+    public int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @throws RejectedExecutionException 대기 큐가 가득 찼거나 종료된 경우
+     */
+    public <R> Future<R> submit(Task<E, R> task) {
+        return executor.submit(() -> {
+            E engine = idleEngines.take();
+            try {
+                return task.run(engine);
+            } finally {
+                release(engine);
+            }
+        });
+    }
+
+    // 닫힌 뒤에 돌아온 엔진은 바로 해제
+    private void release(E engine) {
+        synchronized (this) {
+            if (!closed) {
+                idleEngines.add(engine);
+                return;
+            }
+        }
+        closeEngines(Collections.singletonList(engine));
+    }
+
+    /**
+     * 진행 중인 작업이 끝나기를 기다린 뒤 엔진을 모두 해제
+     * 제한 시간 안에 끝나지 않으면 대기 작업을 취소하고, 사용 중인 엔진은 작업이 끝나 돌아올 때 해제한다.
+     */
+    @Override
+    public void close() {
+        close(5, TimeUnit.SECONDS);
+    }
+
+    void close(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        boolean terminated = false;
+        try {
+            terminated = executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!terminated) {
+            executor.shutdownNow();
+        }
+        List<E> idle = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            idleEngines.drainTo(idle);
+        }
+        closeEngines(idle);
+    }
+
+    private void closeEngines(List<E> targets) {
+        for (E engine : targets) {
+            try {
+                engine.close();
+            } catch (Exception ignored) {
+                // 해제 실패는 무시 (나머지 엔진은 계속 해제)
+            }
+        }
+    }
+}
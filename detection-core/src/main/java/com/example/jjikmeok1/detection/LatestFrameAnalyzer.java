@@ -0,0 +1,126 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 최신 프레임만 분석하는 전용 분석 스레드
+ *
+ * 대기 슬롯이 하나뿐이라, 분석 중에 새 프레임이 오면 아직 분석하지 않은 이전 프레임은 즉시 버리고
+ * (release) 가장 최근 프레임만 남긴다. 그래서 분석이 카메라보다 느려도 큐가 쌓이지 않고
+ * 결과 지연은 최대 "분석 1회 + 프레임 간격"으로 유지된다.
+ */
+public final class LatestFrameAnalyzer implements FrameSource.Listener, AutoCloseable {
+
+    public interface Processor {
+        /**
+         * 분석 스레드에서 호출 (프레임 release는 분석기가 처리)
+         * @return 분석하지 않고 넘겼으면 false (모델 준비 전 등, 버린 프레임으로 셈)
+         */
+        boolean process(YuvFrame frame) throws Exception;
+    }
+
+    private final Processor processor;
+    private final Thread worker;
+    private final Object lock = new Object();
+    private YuvFrame pending;
+    private boolean closed;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong analyzed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public LatestFrameAnalyzer(String threadName, Processor processor) {
+        this.processor = processor;
+        this.worker = new Thread(this::loop, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void onFrame(YuvFrame frame) {
+        YuvFrame stale;
+        synchronized (lock) {
+            if (closed) {
+                stale = frame;
+            } else {
+                received.incrementAndGet();
+                stale = pending;
+                pending = frame;
+                lock.notify();
+            }
+        }
+        if (stale != null) {
+            if (stale != frame) {
+                dropped.incrementAndGet();
+            }
+            stale.release();
+        }
+    }
+
+    private void loop() {
+        while (true) {
+            YuvFrame frame;
+            synchronized (lock) {
+                while (pending == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                frame = pending;
+                pending = null;
+            }
+            try {
+                if (processor.process(frame)) {
+                    analyzed.incrementAndGet();
+                } else {
+                    dropped.incrementAndGet();
+                }
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            } finally {
+                frame.release();
+            }
+        }
+    }
+
+    /** 받은 프레임 수 */
+    public long getReceived() { return received.get(); }
+    /** 분석을 마친 프레임 수 */
+    public long getAnalyzed() { return analyzed.get(); }
+    /** 분석 전에 더 새 프레임으로 교체되었거나 분석하지 않고 넘긴 프레임 수 */
+    public long getDropped() { return dropped.get(); }
+    /** 분석 중 예외가 난 프레임 수 */
+    public long getFailed() { return failed.get(); }
+
+    /**
+     * 분석 스레드 종료 (진행 중인 분석은 끝까지 기다리고, 대기 프레임은 반환)
+     * 기다리는 중에 인터럽트되면 인터럽트 상태만 남기고 바로 돌아온다.
+     */
+    @Override
+    public void close() {
+        YuvFrame stale;
+        synchronized (lock) {
+            closed = true;
+            stale = pending;
+            pending = null;
+            lock.notifyAll();
+        }
+        if (stale != null) {
+            dropped.incrementAndGet();
+            stale.release();
+        }
+        if (Thread.currentThread() != worker) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.jjikmeok1.detection;
+
+/**
+ * NMS(Non-Maximum Suppression) 전략 인터페이스
+ * 후보 버퍼를 받아 남길 후보의 인덱스를 점수 내림차순으로 keep에 기록한다.
+ *
+ * 구현체는 내부 작업 배열을 재사용하므로 스레드 안전하지 않다.
+ */
+public interface NonMaxSuppression {
+
+    /**
+     * @param candidates 후보 버퍼 (구현에 따라 점수가 갱신될 수 있음, 예: Soft-NMS)
+     * @param keep 결과 인덱스를 기록할 배열 (길이 >= candidates.size())
+     * @return keep에 기록된 개수
+     */
+    int run(DetectionBuffer candidates, int[] keep);
+}
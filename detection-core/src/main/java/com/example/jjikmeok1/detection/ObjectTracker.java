@@ -0,0 +1,279 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 탐지 건너뛰기용 경량 다중 객체 추적기
+ *
+ * 전체 탐지는 N 프레임마다 한 번(또는 장면 변화가 클 때)만 하고, 그 사이 프레임에서는
+ * 추적 중인 박스를 등속 운동으로 옮겨(predict) 결과를 대신한다.
+ * 탐지가 들어오면 운동 예측한 박스와 같은 클래스 탐지를 IoU 큰 순으로 짝지어(greedy) 갱신하고,
+ * 박스는 예측과 측정을 섞어 떨림을 줄인다.
+ *
+ * 사용 순서 (프레임마다 한 번):
+ * <pre>
+ * if (tracker.needsDetection(sceneChange)) tracker.update(detections); else tracker.predict();
+ * tracker.getTracks();
+ * </pre>
+ */
+public final class ObjectTracker {
+
+    /** 추적 중인 객체 하나 */
+    public static final class Track {
+        private final int id;
+        private final int classId;
+        private float score;
+        private final float[] box = new float[4];
+        private float velocityX;
+        private float velocityY;
+        private float measuredCenterX;
+        private float measuredCenterY;
+        private int framesSinceMeasurement;
+        private int hits;
+        private int misses;
+
+        Track(int id, int classId, float score, float[] boxes, int index) {
+            this.id = id;
+            this.classId = classId;
+            this.score = score;
+            System.arraycopy(boxes, index * 4, box, 0, 4);
+            measuredCenterX = centerX();
+            measuredCenterY = centerY();
+            hits = 1;
+        }
+
+        public int getId() { return id; }
+        public int getClassId() { return classId; }
+        public float getScore() { return score; }
+        public float getLeft() { return box[0]; }
+        public float getTop() { return box[1]; }
+        public float getRight() { return box[2]; }
+        public float getBottom() { return box[3]; }
+        /** 프레임당 중심 이동량 추정치 */
+        public float getVelocityX() { return velocityX; }
+        public float getVelocityY() { return velocityY; }
+        /** 지금까지 탐지와 짝지어진 횟수 */
+        public int getHits() { return hits; }
+
+        float centerX() { return (box[0] + box[2]) * 0.5f; }
+        float centerY() { return (box[1] + box[3]) * 0.5f; }
+
+        void advance() {
+            box[0] += velocityX;
+            box[2] += velocityX;
+            box[1] += velocityY;
+            box[3] += velocityY;
+            framesSinceMeasurement++;
+        }
+    }
+
+    private final int detectionInterval;
+    private final float sceneChangeThreshold;
+    private final float matchIou;
+    private final int maxMisses;
+    // 박스 갱신 시 측정값 비중 (1이면 탐지 박스 그대로)
+    private final float measurementWeight;
+    // 속도 갱신 시 새 측정 비중
+    private final float velocityWeight;
+
+    private final List<Track> tracks = new ArrayList<>();
+    private final List<Track> view = Collections.unmodifiableList(tracks);
+    private final float[] pairBoxes = new float[8];
+    // update() 작업 버퍼 (프레임마다 새로 만들지 않도록 재사용)
+    private boolean[] trackUsed = new boolean[0];
+    private boolean[] detectionUsed = new boolean[0];
+    private long[] pairKeys = new long[0];
+    private int[] pairTrack = new int[0];
+    private int[] pairDetection = new int[0];
+    private int nextId = 1;
+    private int framesSinceDetection = -1; // 아직 탐지 전
+    private long detections;
+    private long frames;
+
+    /**
+     * @param detectionInterval 전체 탐지 간격 (프레임, 1이면 매 프레임 탐지)
+     * @param sceneChangeThreshold 이 값 이상 장면이 바뀌면 간격과 상관없이 탐지
+     * @param matchIou 예측 박스와 탐지를 같은 객체로 볼 최소 IoU
+     * @param maxMisses 탐지에서 연속으로 이 횟수보다 많이 빠지면 추적 종료
+     */
+    public ObjectTracker(int detectionInterval, float sceneChangeThreshold, float matchIou, int maxMisses) {
+        this(detectionInterval, sceneChangeThreshold, matchIou, maxMisses, 0.6f, 0.5f);
+    }
+
+    public ObjectTracker(int detectionInterval, float sceneChangeThreshold, float matchIou, int maxMisses,
+                         float measurementWeight, float velocityWeight) {
+        if (detectionInterval <= 0) {
+            throw new IllegalArgumentException("detectionInterval must be positive: " + detectionInterval);
+        }
+        this.detectionInterval = detectionInterval;
+        this.sceneChangeThreshold = sceneChangeThreshold;
+        this.matchIou = matchIou;
+        this.maxMisses = maxMisses;
+        this.measurementWeight = measurementWeight;
+        this.velocityWeight = velocityWeight;
+    }
+
+    /**
+     * 이번 프레임에 전체 탐지가 필요한지
+     * @param sceneChange 직전 탐지 프레임 대비 장면 변화량 (SceneChangeDetector, 0~1)
+     */
+    public boolean needsDetection(float sceneChange) {
+        return framesSinceDetection < 0
+                || framesSinceDetection + 1 >= detectionInterval
+                || sceneChange >= sceneChangeThreshold;
+    }
+
+    /**
+     * 탐지하지 않은 프레임: 모든 추적 박스를 운동 예측만큼 이동
+     */
+    public void predict() {
+        frames++;
+        if (framesSinceDetection >= 0) {
+            framesSinceDetection++;
+        }
+        for (int t = 0; t < tracks.size(); t++) {
+            tracks.get(t).advance();
+        }
+    }
+
+    /**
+     * 탐지한 프레임: 운동 예측 후 탐지와 짝지어 갱신, 새 객체 추가, 오래 안 보인 객체 제거
+     */
+    public void update(DetectionBuffer detections) {
+        frames++;
+        this.detections++;
+        framesSinceDetection = 0;
+        for (int t = 0; t < tracks.size(); t++) {
+            tracks.get(t).advance();
+        }
+
+        int n = detections.size();
+        int trackCount = tracks.size();
+        float[] boxes = detections.boxes();
+        int[] classIds = detections.classIds();
+        ensureCapacity(trackCount, n);
+        Arrays.fill(trackUsed, 0, trackCount, false);
+        Arrays.fill(detectionUsed, 0, n, false);
+
+        // 같은 클래스 (추적, 탐지) 쌍 중 IoU가 큰 것부터 짝지음
+        int pairCount = 0;
+        for (int t = 0; t < trackCount; t++) {
+            Track track = tracks.get(t);
+            System.arraycopy(track.box, 0, pairBoxes, 0, 4);
+            for (int d = 0; d < n; d++) {
+                if (classIds[d] != track.classId) {
+                    continue;
+                }
+                System.arraycopy(boxes, d * 4, pairBoxes, 4, 4);
+                float iou = BoxMath.iou(pairBoxes, 0, 1);
+                if (iou >= matchIou) {
+                    if (pairCount == pairKeys.length) {
+                        growPairs();
+                    }
+                    // 상위 32비트 IoU(양수라 float 비트 순서 = 값 순서), 하위는 동점일 때 먼저 나온 쌍이 뒤로 가도록 뒤집은 순번
+                    pairKeys[pairCount] = ((long) Float.floatToIntBits(iou) << 32) | (0xFFFFFFFFL - pairCount);
+                    pairTrack[pairCount] = t;
+                    pairDetection[pairCount] = d;
+                    pairCount++;
+                }
+            }
+        }
+        Arrays.sort(pairKeys, 0, pairCount);
+        for (int k = pairCount - 1; k >= 0; k--) {
+            int pair = (int) (0xFFFFFFFFL - (pairKeys[k] & 0xFFFFFFFFL));
+            int t = pairTrack[pair];
+            int d = pairDetection[pair];
+            if (trackUsed[t] || detectionUsed[d]) {
+                continue;
+            }
+            trackUsed[t] = true;
+            detectionUsed[d] = true;
+            correct(tracks.get(t), detections, d);
+        }
+
+        // 남는 추적은 앞으로 당겨 제자리 정리
+        int kept = 0;
+        for (int t = 0; t < trackCount; t++) {
+            Track track = tracks.get(t);
+            if (!trackUsed[t] && ++track.misses > maxMisses) {
+                continue;
+            }
+            tracks.set(kept++, track);
+        }
+        for (int t = trackCount - 1; t >= kept; t--) {
+            tracks.remove(t);
+        }
+        for (int d = 0; d < n; d++) {
+            if (!detectionUsed[d]) {
+                tracks.add(new Track(nextId++, classIds[d], detections.score(d), boxes, d));
+            }
+        }
+    }
+
+    private void ensureCapacity(int trackCount, int detectionCount) {
+        if (trackUsed.length < trackCount) {
+            trackUsed = new boolean[Math.max(trackCount, trackUsed.length * 2)];
+        }
+        if (detectionUsed.length < detectionCount) {
+            detectionUsed = new boolean[Math.max(detectionCount, detectionUsed.length * 2)];
+        }
+    }
+
+    private void growPairs() {
+        int capacity = Math.max(16, pairKeys.length * 2);
+        pairKeys = Arrays.copyOf(pairKeys, capacity);
+        pairTrack = Arrays.copyOf(pairTrack, capacity);
+        pairDetection = Arrays.copyOf(pairDetection, capacity);
+    }
+
+    private void correct(Track track, DetectionBuffer detections, int d) {
+        float[] boxes = detections.boxes();
+        int b = d * 4;
+        float measuredX = (boxes[b] + boxes[b + 2]) * 0.5f;
+        float measuredY = (boxes[b + 1] + boxes[b + 3]) * 0.5f;
+        int elapsed = Math.max(1, track.framesSinceMeasurement);
+        float observedVx = (measuredX - track.measuredCenterX) / elapsed;
+        float observedVy = (measuredY - track.measuredCenterY) / elapsed;
+        track.velocityX += velocityWeight * (observedVx - track.velocityX);
+        track.velocityY += velocityWeight * (observedVy - track.velocityY);
+        track.measuredCenterX = measuredX;
+        track.measuredCenterY = measuredY;
+        track.framesSinceMeasurement = 0;
+
+        for (int i = 0; i < 4; i++) {
+            track.box[i] += measurementWeight * (boxes[b + i] - track.box[i]);
+        }
+        track.score = detections.score(d);
+        track.hits++;
+        track.misses = 0;
+    }
+
+    /** 현재 추적 중인 객체 (읽기 전용, 다음 update/predict 전까지 유효) */
+    public List<Track> getTracks() {
+        return view;
+    }
+
+    /** 처리한 프레임 수 */
+    public long getFrames() {
+        return frames;
+    }
+
+    /** 전체 탐지를 실행한 프레임 수 */
+    public long getDetections() {
+        return detections;
+    }
+
+    /** 탐지를 건너뛴 프레임 비율 */
+    public float getSkippedFraction() {
+        return frames == 0 ? 0f : 1f - (float) detections / frames;
+    }
+
+    /** 추적 상태 초기화 (다음 프레임은 반드시 탐지) */
+    public void reset() {
+        tracks.clear();
+        framesSinceDetection = -1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 프레임 간 장면 변화량 측정
+ *
+ * Y(밝기) 평면을 GRID x GRID 점으로만 샘플링한 썸네일을 기준 프레임(마지막 탐지 프레임)과 비교해
+ * 평균 절대 차이를 0~1로 돌려준다. 프레임당 GRID² 번 읽기뿐이라 추론 대비 비용은 무시할 만하다.
+ */
+public final class SceneChangeDetector {
+
+    private static final int GRID = 16;
+
+    private final int[] reference = new int[GRID * GRID];
+    private final int[] current = new int[GRID * GRID];
+    private boolean hasReference;
+
+    /**
+     * 기준 프레임 대비 변화량 (기준이 없으면 1)
+     */
+    public float measure(YuvFrame frame) {
+        sample(frame, current);
+        if (!hasReference) {
+            return 1f;
+        }
+        long sum = 0;
+        for (int i = 0; i < current.length; i++) {
+            sum += Math.abs(current[i] - reference[i]);
+        }
+        return sum / (255f * current.length);
+    }
+
+    /**
+     * 마지막으로 measure한 프레임을 새 기준으로 (탐지를 실행한 프레임에서 호출)
+     */
+    public void markReference() {
+        System.arraycopy(current, 0, reference, 0, current.length);
+        hasReference = true;
+    }
+
+    public void reset() {
+        hasReference = false;
+    }
+
+    private static void sample(YuvFrame frame, int[] dst) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        int rowStride = frame.getYRowStride();
+        ByteBuffer y = frame.getYPlane();
+        int i = 0;
+        for (int gy = 0; gy < GRID; gy++) {
+            int row = (int) ((gy + 0.5f) * height / GRID);
+            for (int gx = 0; gx < GRID; gx++) {
+                int col = (int) ((gx + 0.5f) * width / GRID);
+                dst[i++] = y.get(row * rowStride + col) & 0xFF;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 여러 화면이 함께 쓰는 무거운 자원(탐지기 등)의 참조 카운트 보관소
+ *
+ * preload()로 앱 시작 시 백그라운드 로딩을 미리 시작하고, 화면은 acquire()/release()로 빌려 쓴다.
+ * 사용자가 0이 되어도 바로 닫지 않고 남겨 두었다가 다음 화면이 로딩 없이 바로 쓰게 하며,
+ * 메모리가 부족할 때 trim()으로 쓰는 곳이 없을 때만 닫는다.
+ * 로딩이 실패하면 그 future는 예외로 끝나고, 다음 acquire()/preload()에서 다시 로딩한다.
+ */
+public final class SharedResource<T extends AutoCloseable> {
+
+    public interface Loader<T> {
+        /** 로딩 스레드에서 호출 */
+        T load() throws Exception;
+    }
+
+    private final Loader<T> loader;
+    private final Executor executor;
+    private CompletableFuture<T> future;
+    private int refCount;
+    private int loads;
+
+    public SharedResource(Loader<T> loader, Executor executor) {
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * 아직 로딩 전이면(또는 이전 로딩이 실패했으면) 백그라운드 로딩 시작. 참조 카운트는 바꾸지 않음
+     * @return 로딩 완료 future (준비 여부 확인용)
+     */
+    public synchronized CompletableFuture<T> preload() {
+        if (future == null || future.isCompletedExceptionally()) {
+            loads++;
+            CompletableFuture<T> loading = new CompletableFuture<>();
+            future = loading;
+            executor.execute(() -> {
+                try {
+                    loading.complete(loader.load());
+                } catch (Throwable e) {
+                    loading.completeExceptionally(e);
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * 자원 빌리기. 반환된 future가 끝나면 사용 가능하며, 다 쓰면 반드시 release() 한 번 호출
+     */
+    public synchronized CompletableFuture<T> acquire() {
+        refCount++;
+        return preload();
+    }
+
+    public synchronized void release() {
+        if (refCount == 0) {
+            throw new IllegalStateException("release() without acquire()");
+        }
+        refCount--;
+    }
+
+    /**
+     * 쓰는 곳이 없으면 자원을 닫고 다음 acquire()에서 다시 로딩
+     * @return 닫았으면 true (로딩 중이면 로딩이 끝난 뒤 닫힘)
+     */
+    public boolean trim() {
+        CompletableFuture<T> unused;
+        synchronized (this) {
+            if (refCount > 0 || future == null) {
+                return false;
+            }
+            unused = future;
+            future = null;
+        }
+        unused.thenAccept(SharedResource::closeQuietly);
+        return true;
+    }
+
+    /** 로딩이 끝나 바로 쓸 수 있는지 */
+    public synchronized boolean isReady() {
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    public synchronized int getRefCount() {
+        return refCount;
+    }
+
+    /** 지금까지 로딩을 시작한 횟수 */
+    public synchronized int getLoadCount() {
+        return loads;
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // 닫기 실패는 되돌릴 방법이 없으므로 무시
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.Arrays;
+
+/**
+ * 격자 버킷 기반 Soft-NMS (Bodla et al., 2017)
+ *
+ * 겹치는 박스를 바로 제거하지 않고 IoU에 따라 점수를 감쇠시킨다.
+ * 붙어 있는 같은 재료(마늘 여러 쪽 등)가 한꺼번에 사라지는 것을 줄여 준다.
+ * 최고 점수 박스 선택은 지연 갱신 힙으로, 감쇠 대상 탐색은 격자 버킷으로 수행한다.
+ *
+ * 후보 버퍼의 점수를 직접 감쇠된 값으로 갱신한다.
+ */
+public final class SoftNms implements NonMaxSuppression {
+
+    /** 점수 감쇠 함수 */
+    public enum Method {
+        /** iou > iouThreshold 이면 score *= (1 - iou) */
+        LINEAR,
+        /** score *= exp(-iou² / sigma) */
+        GAUSSIAN
+    }
+
+    private final Method method;
+    private final float iouThreshold;
+    private final float sigma;
+    private final float scoreThreshold;
+    private final boolean classAware;
+    private final int maxDetections;
+
+    private final BoxGrid grid = new BoxGrid();
+    private long[] heap = new long[0];
+    private int heapSize;
+    private int[] order = new int[0];
+    private boolean[] removed = new boolean[0];
+
+    public SoftNms(Method method, float iouThreshold, float sigma, float scoreThreshold,
+                   boolean classAware, int maxDetections) {
+        if (sigma <= 0f) {
+            throw new IllegalArgumentException("sigma must be positive: " + sigma);
+        }
+        this.method = method;
+        this.iouThreshold = iouThreshold;
+        this.sigma = sigma;
+        this.scoreThreshold = scoreThreshold;
+        this.classAware = classAware;
+        this.maxDetections = maxDetections;
+    }
+
+    @Override
+    public int run(DetectionBuffer candidates, int[] keep) {
+        int n = candidates.size();
+        if (n == 0) {
+            return 0;
+        }
+        ensureCapacity(n);
+        final float[] boxes = candidates.boxes();
+        final float[] scores = candidates.scores();
+        final int[] classIds = candidates.classIds();
+
+        // 정렬된 키 배열은 그 자체로 유효한 최소 힙
+        BoxMath.sortByScoreDescending(scores, n, heap, order);
+        heapSize = n;
+        Arrays.fill(removed, 0, n, false);
+
+        grid.reset(boxes, order, n);
+        for (int k = 0; k < n; k++) {
+            grid.insert(boxes, order[k]);
+        }
+
+        int kept = 0;
+        while (heapSize > 0) {
+            long key = pop();
+            int current = (int) key;
+            if (removed[current] || (int) ~(key >> 32) != BoxMath.sortableBits(scores[current])) {
+                continue; // 이미 처리됐거나 감쇠 이전 점수의 항목
+            }
+            removed[current] = true;
+            if (scores[current] < scoreThreshold) {
+                break; // 유효한 최고 점수가 임계값 미만이면 나머지도 모두 미만
+            }
+            keep[kept++] = current;
+            if (kept == maxDetections) {
+                break;
+            }
+
+            int cls = classIds[current];
+            int found = grid.query(boxes, current);
+            int[] neighbors = grid.neighbors();
+            for (int t = 0; t < found; t++) {
+                int other = neighbors[t];
+                if (removed[other] || (classAware && classIds[other] != cls)) {
+                    continue;
+                }
+                float iou = BoxMath.iou(boxes, current, other);
+                float weight = decay(iou);
+                if (weight < 1f) {
+                    scores[other] *= weight;
+                    push(((long) ~BoxMath.sortableBits(scores[other]) << 32) | other);
+                }
+            }
+        }
+        return kept;
+    }
+
+    private float decay(float iou) {
+        if (!(iou > 0f)) {
+            return 1f;
+        }
+        if (method == Method.LINEAR) {
+            return iou > iouThreshold ? 1f - iou : 1f;
+        }
+        return (float) Math.exp(-(iou * iou) / sigma);
+    }
+
+    private void ensureCapacity(int n) {
+        if (order.length < n) {
+            int capacity = Math.max(n, order.length * 2);
+            order = new int[capacity];
+            removed = new boolean[capacity];
+        }
+        if (heap.length < n) {
+            heap = new long[Math.max(n, heap.length * 2)];
+        }
+    }
+
+    // ---- long 최소 힙 ----
+
+    private void push(long key) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
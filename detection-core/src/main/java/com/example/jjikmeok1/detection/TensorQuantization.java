@@ -0,0 +1,80 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 8비트 양자화 텐서(uint8/int8)의 scale, zero-point 변환
+ * real = (q - zeroPoint) * scale
+ *
+ * 값의 범위가 256가지뿐이므로 양자화/역양자화 모두 256칸 테이블 조회로 처리한다.
+ */
+public final class TensorQuantization {
+
+    private final float scale;
+    private final int zeroPoint;
+    private final boolean signed;
+    private final float[] dequantizeTable = new float[256];
+    private byte[] staging = new byte[0];
+
+    /**
+     * @param signed true면 int8, false면 uint8
+     */
+    public TensorQuantization(float scale, int zeroPoint, boolean signed) {
+        if (!(scale > 0f)) {
+            throw new IllegalArgumentException("scale must be positive: " + scale);
+        }
+        this.scale = scale;
+        this.zeroPoint = zeroPoint;
+        this.signed = signed;
+        for (int i = 0; i < 256; i++) {
+            int q = signed ? (byte) i : i;
+            dequantizeTable[i] = (q - zeroPoint) * scale;
+        }
+    }
+
+    public float getScale() { return scale; }
+    public int getZeroPoint() { return zeroPoint; }
+    public boolean isSigned() { return signed; }
+
+    /**
+     * 0~255 픽셀 채널 값이 그대로 양자화 값이 되는지 (uint8, scale=1/255, zp=0)
+     * 이 경우 RGB 바이트를 변환 없이 입력 텐서에 복사할 수 있다.
+     */
+    public boolean isRawPixelInput() {
+        return !signed && zeroPoint == 0 && Math.abs(scale * 255f - 1f) < 1e-4f;
+    }
+
+    /**
+     * 0~255 픽셀 채널 값 → 양자화 바이트 테이블 (정규화 값 v/255 을 양자화)
+     */
+    public byte[] pixelQuantizationTable() {
+        byte[] table = new byte[256];
+        int min = signed ? -128 : 0;
+        int max = signed ? 127 : 255;
+        for (int v = 0; v < 256; v++) {
+            int q = Math.round(v / 255.0f / scale) + zeroPoint;
+            table[v] = (byte) Math.max(min, Math.min(max, q));
+        }
+        return table;
+    }
+
+    public float dequantize(byte q) {
+        return dequantizeTable[q & 0xFF];
+    }
+
+    /**
+     * src의 현재 위치부터 count 바이트를 역양자화하여 dst[offset..]에 기록
+     * (스테이징 배열을 재사용하므로 스레드 안전하지 않음)
+     */
+    public void dequantize(ByteBuffer src, float[] dst, int offset, int count) {
+        if (staging.length < count) {
+            staging = new byte[count];
+        }
+        src.get(staging, 0, count);
+        final float[] table = dequantizeTable;
+        final byte[] bytes = staging;
+        for (int i = 0; i < count; i++) {
+            dst[offset + i] = table[bytes[i] & 0xFF];
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.jjikmeok1.detection;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 모델 입출력 텐서 녹화 파일 (벤치마크/회귀 테스트 재현용)
+ *
+ * 형식: "JTNS" | version(int) | rank(int) | dims(int x rank) | float32 little-endian 데이터
+ */
+public final class TensorRecording {
+
+    private static final int MAGIC = 0x4A544E53; // "JTNS"
+    private static final int VERSION = 1;
+
+    private final int[] shape;
+    private final float[] data;
+
+    public TensorRecording(int[] shape, float[] data) {
+        long expected = 1;
+        for (int dim : shape) {
+            expected *= dim;
+        }
+        if (expected != data.length) {
+            throw new IllegalArgumentException("shape does not match data length " + data.length);
+        }
+        this.shape = shape.clone();
+        this.data = data;
+    }
+
+    public int[] getShape() { return shape.clone(); }
+    public float[] getData() { return data; }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeInt(shape.length);
+        for (int dim : shape) {
+            dos.writeInt(dim);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(4 * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < data.length; ) {
+            chunk.clear();
+            int n = Math.min(4096, data.length - i);
+            chunk.asFloatBuffer().put(data, i, n);
+            dos.write(chunk.array(), 0, n * 4);
+            i += n;
+        }
+        dos.flush();
+    }
+
+    public static TensorRecording read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(in);
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Not a tensor recording");
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported tensor recording version " + version);
+        }
+        int rank = dis.readInt();
+        if (rank <= 0 || rank > 8) {
+            throw new IOException("Invalid rank " + rank);
+        }
+        int[] shape = new int[rank];
+        long length = 1;
+        for (int i = 0; i < rank; i++) {
+            shape[i] = dis.readInt();
+            length *= shape[i];
+        }
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid shape");
+        }
+        float[] data = new float[(int) length];
+        byte[] bytes = new byte[4 * 4096];
+        ByteBuffer wrapped = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < data.length; ) {
+            int n = Math.min(4096, data.length - i);
+            dis.readFully(bytes, 0, n * 4);
+            wrapped.clear();
+            wrapped.asFloatBuffer().get(data, i, n);
+            i += n;
+        }
+        return new TensorRecording(shape, data);
+    }
+}
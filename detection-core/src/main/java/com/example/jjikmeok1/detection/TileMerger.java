@@ -0,0 +1,137 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.Arrays;
+
+/**
+ * 타일별 탐지 결과를 원본 이미지 좌표로 모아 타일 간 NMS로 병합
+ *
+ * 겹침 영역에서 같은 물체가 여러 타일에 잡히면 NMS로 하나만 남긴다.
+ * 타일 안쪽 경계(이미지 경계가 아닌 쪽)에 닿아 잘린 박스는 온전한 박스와 IoU가 낮아 NMS로 지워지지 않고,
+ * 점수가 더 높으면 오히려 온전한 박스를 억제할 수 있다. 그래서 NMS 전에, 같은 클래스의 더 큰 박스 안에
+ * containmentThreshold 이상 들어가 있는 잘린 박스를 먼저 제거한다.
+ *
+ * 스레드 안전하지 않음: reset → add → merge 를 한 스레드에서 호출할 것.
+ */
+public final class TileMerger {
+
+    // 박스가 타일 경계에 "닿았다"고 보는 거리 (이미지 픽셀)
+    private static final float EDGE_MARGIN = 2f;
+
+    private final NonMaxSuppression nms;
+    private final float containmentThreshold;
+
+    private DetectionBuffer merged;
+    private DetectionBuffer filtered;
+    private boolean[] truncated;
+    private int[] filteredToMerged;
+    private int[] keep;
+    private int imageWidth;
+    private int imageHeight;
+
+    /**
+     * @param nms 타일 간 병합에 쓸 NMS (보통 단일 이미지와 같은 IoU 임계값의 GridNms)
+     * @param containmentThreshold 잘린 박스를 제거할 포함 비율 (0~1)
+     */
+    public TileMerger(NonMaxSuppression nms, float containmentThreshold, int initialCapacity) {
+        this.nms = nms;
+        this.containmentThreshold = containmentThreshold;
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    public void reset(int imageWidth, int imageHeight) {
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        merged.clear();
+    }
+
+    /**
+     * 타일에서 찾은 박스 추가 (좌표는 이미 원본 이미지 기준)
+     * @return 추가된 인덱스 (merge 결과가 이 인덱스를 돌려준다)
+     */
+    public int add(TilePlanner.Tile tile, int classId, float score,
+                   float left, float top, float right, float bottom) {
+        if (merged.size() == merged.capacity()) {
+            grow();
+        }
+        int index = merged.add(classId, score, left, top, right, bottom);
+        truncated[index] = !tile.isFullImage() && touchesInnerEdge(tile, left, top, right, bottom);
+        return index;
+    }
+
+    public int size() {
+        return merged.size();
+    }
+
+    /** add로 모은 박스 (merge 결과 인덱스로 조회) */
+    public DetectionBuffer detections() {
+        return merged;
+    }
+
+    /**
+     * 잘린 박스 제거 + NMS
+     * @param out 채택된 add 인덱스 (NMS 순서, GridNms면 점수 내림차순), 길이 >= size()
+     * @return 채택 개수
+     */
+    public int merge(int[] out) {
+        int n = merged.size();
+        if (n == 0) {
+            return 0;
+        }
+        float[] boxes = merged.boxes();
+        int[] classIds = merged.classIds();
+        filtered.clear();
+        for (int i = 0; i < n; i++) {
+            if (truncated[i] && coveredByLarger(i, n, boxes, classIds)) {
+                continue;
+            }
+            filteredToMerged[filtered.size()] = i;
+            filtered.add(classIds[i], merged.score(i),
+                    merged.left(i), merged.top(i), merged.right(i), merged.bottom(i));
+        }
+        int kept = nms.run(filtered, keep);
+        for (int k = 0; k < kept; k++) {
+            out[k] = filteredToMerged[keep[k]];
+        }
+        return kept;
+    }
+
+    // 잘린 박스가 같은 클래스의 더 큰 박스 안에 대부분 들어가 있는지 (잘린 박스 수 x 전체 후보 수)
+    private boolean coveredByLarger(int a, int n, float[] boxes, int[] classIds) {
+        float areaA = BoxMath.area(boxes, a);
+        for (int b = 0; b < n; b++) {
+            if (b == a || classIds[b] != classIds[a] || BoxMath.area(boxes, b) <= areaA) {
+                continue;
+            }
+            if (BoxMath.containment(boxes, a, b) >= containmentThreshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean touchesInnerEdge(TilePlanner.Tile tile, float left, float top, float right, float bottom) {
+        return (tile.getLeft() > 0 && left <= tile.getLeft() + EDGE_MARGIN)
+                || (tile.getTop() > 0 && top <= tile.getTop() + EDGE_MARGIN)
+                || (tile.getRight() < imageWidth && right >= tile.getRight() - EDGE_MARGIN)
+                || (tile.getBottom() < imageHeight && bottom >= tile.getBottom() - EDGE_MARGIN);
+    }
+
+    private void allocate(int capacity) {
+        DetectionBuffer previous = merged;
+        merged = new DetectionBuffer(capacity);
+        if (previous != null) {
+            for (int i = 0; i < previous.size(); i++) {
+                merged.add(previous.classId(i), previous.score(i),
+                        previous.left(i), previous.top(i), previous.right(i), previous.bottom(i));
+            }
+        }
+        filtered = new DetectionBuffer(capacity);
+        truncated = truncated == null ? new boolean[capacity] : Arrays.copyOf(truncated, capacity);
+        filteredToMerged = new int[capacity];
+        keep = new int[capacity];
+    }
+
+    private void grow() {
+        allocate(merged.capacity() * 2);
+    }
+}
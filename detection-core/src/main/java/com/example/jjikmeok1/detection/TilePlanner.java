@@ -0,0 +1,157 @@
+package com.example.jjikmeok1.detection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 고해상도 이미지를 서로 겹치는 타일로 나누는 계획기
+ *
+ * 기본 타일 한 변은 모델 입력 크기(640)와 같은 이미지 픽셀 수로 잡아, 작은 재료도 축소 없이 보이게 한다.
+ * 타일 수가 maxTiles를 넘으면 타일 한 변을 키워(=타일 안에서 약간 축소) 개수를 줄이므로
+ * 이미지가 아무리 커도 추론 횟수는 maxTiles 이하로 유지된다.
+ * includeFullImage면 큰 물체가 타일 경계에서 잘리지 않도록 전체 이미지 패스 하나를 함께 넣는다.
+ */
+public final class TilePlanner {
+
+    // 이미지 긴 변이 타일 크기의 이 배수 이하면 나누지 않고 전체 이미지 한 번만 분석
+    private static final float SINGLE_TILE_RATIO = 1.25f;
+    // 타일 수가 넘칠 때 타일 한 변을 키우는 비율 (작을수록 예산에 딱 맞는 가장 작은 타일을 찾음)
+    private static final float GROW_STEP = 1.05f;
+
+    /** 원본 이미지 좌표 기준 영역 */
+    public static final class Tile {
+        private final int left;
+        private final int top;
+        private final int width;
+        private final int height;
+        private final boolean fullImage;
+
+        Tile(int left, int top, int width, int height, boolean fullImage) {
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+            this.fullImage = fullImage;
+        }
+
+        public int getLeft() { return left; }
+        public int getTop() { return top; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public int getRight() { return left + width; }
+        public int getBottom() { return top + height; }
+        public boolean isFullImage() { return fullImage; }
+
+        @Override
+        public String toString() {
+            return (fullImage ? "full" : "tile") + "[" + left + "," + top + " " + width + "x" + height + "]";
+        }
+    }
+
+    private final int tileSize;
+    private final float overlap;
+    private final int maxTiles;
+    private final boolean includeFullImage;
+
+    /**
+     * @param tileSize 기본 타일 한 변 (이미지 픽셀)
+     * @param overlap 이웃 타일끼리 겹치는 비율 (0 이상 0.5 미만)
+     * @param maxTiles 전체 이미지 패스를 포함한 최대 추론 횟수
+     */
+    public TilePlanner(int tileSize, float overlap, int maxTiles, boolean includeFullImage) {
+        if (tileSize <= 0 || overlap < 0f || overlap >= 0.5f || maxTiles < (includeFullImage ? 2 : 1)) {
+            throw new IllegalArgumentException("tileSize=" + tileSize + ", overlap=" + overlap
+                    + ", maxTiles=" + maxTiles);
+        }
+        this.tileSize = tileSize;
+        this.overlap = overlap;
+        this.maxTiles = maxTiles;
+        this.includeFullImage = includeFullImage;
+    }
+
+    public int getMaxTiles() {
+        return maxTiles;
+    }
+
+    /**
+     * 이미지 크기에 맞춘 타일 목록 (전체 이미지 패스가 있으면 맨 앞)
+     */
+    public List<Tile> plan(int imageWidth, int imageHeight) {
+        List<Tile> tiles = new ArrayList<>();
+        Tile full = new Tile(0, 0, imageWidth, imageHeight, true);
+        if (Math.max(imageWidth, imageHeight) <= tileSize * SINGLE_TILE_RATIO) {
+            tiles.add(full);
+            return tiles;
+        }
+
+        int budget = includeFullImage ? maxTiles - 1 : maxTiles;
+        int longSide = Math.max(imageWidth, imageHeight);
+        float side = tileSize;
+        int cols;
+        int rows;
+        while (true) {
+            cols = tilesAlong(imageWidth, side);
+            rows = tilesAlong(imageHeight, side);
+            if (cols * rows <= budget || side >= longSide) {
+                break;
+            }
+            side = Math.min(longSide, side * GROW_STEP);
+        }
+        if (cols * rows <= 1) {
+            tiles.add(full);
+            return tiles;
+        }
+
+        if (includeFullImage) {
+            tiles.add(full);
+        }
+        int tileWidth = Math.min(imageWidth, Math.round(side));
+        int tileHeight = Math.min(imageHeight, Math.round(side));
+        for (int row = 0; row < rows; row++) {
+            int top = position(row, rows, imageHeight, tileHeight);
+            for (int col = 0; col < cols; col++) {
+                int left = position(col, cols, imageWidth, tileWidth);
+                tiles.add(new Tile(left, top, tileWidth, tileHeight, false));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * 이 비율의 이미지를 기본 타일 크기 그대로(타일을 키우지 않고) 덮을 수 있는 최대 긴 변
+     * 이보다 크게 디코딩해도 plan()이 타일을 키워 다시 축소하므로, 타일 모드 디코딩 목표 크기로 쓴다.
+     */
+    public int nativeLongSide(int imageWidth, int imageHeight) {
+        int budget = includeFullImage ? maxTiles - 1 : maxTiles;
+        float stride = tileSize * (1f - overlap);
+        boolean landscape = imageWidth >= imageHeight;
+        float aspect = landscape ? (float) imageWidth / imageHeight : (float) imageHeight / imageWidth;
+        int best = Math.round(tileSize * SINGLE_TILE_RATIO);
+        for (int along = 1; along <= budget; along++) {
+            int across = budget / along;
+            // 긴 변 방향 along개, 짧은 변 방향 across개 타일로 덮을 수 있는 길이
+            float longCover = tileSize + (along - 1) * stride;
+            float shortCover = tileSize + (across - 1) * stride;
+            int longSide = (int) Math.min(longCover, shortCover * aspect);
+            best = Math.max(best, longSide);
+        }
+        return best;
+    }
+
+    // 길이 length를 한 변 side, 겹침 overlap으로 덮는 데 필요한 타일 수
+    private int tilesAlong(int length, float side) {
+        if (length <= side) {
+            return 1;
+        }
+        float stride = side * (1f - overlap);
+        return (int) Math.ceil((length - side) / stride) + 1;
+    }
+
+    // count개 타일을 양 끝에 맞춰 균등 배치했을 때 index번째 시작 위치
+    private static int position(int index, int count, int length, int size) {
+        if (count == 1) {
+            return (length - size) / 2;
+        }
+        return Math.round((float) (length - size) * index / (count - 1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * YUV_420_888 프레임 → 정사각 ARGB 픽셀 배열 (회전 + 최근접 이웃 스케일을 한 번에)
+ *
+ * Bitmap을 거치지 않고 ImagePreprocessor.getPixelBuffer()에 바로 기록하기 위한 변환기.
+ * 색 변환은 카메라 YUV(JFIF, BT.601 full range) 기준 고정소수점 정수 연산이다.
+ * 프레임 크기가 같으면 열/행 매핑 테이블을 재사용하므로 프레임당 할당이 없다.
+ *
+ * 스레드 안전하지 않음: 분석 스레드 하나에서만 사용할 것.
+ */
+public final class YuvConverter {
+
+    private int cachedDisplayWidth = -1;
+    private int cachedDisplayHeight = -1;
+    private int cachedSize = -1;
+    private int[] columnMap = new int[0];
+    private int[] rowMap = new int[0];
+
+    /**
+     * 프레임을 화면 방향으로 돌리고 size x size로 늘려 dst에 ARGB로 기록
+     * (전체 이미지를 정사각형으로 늘리는 방식은 기존 Bitmap 경로의 스케일과 같다)
+     */
+    public void convert(YuvFrame frame, int[] dst, int size) {
+        if (dst.length < size * size) {
+            throw new IllegalArgumentException("dst too small: " + dst.length + " < " + size * size);
+        }
+        int displayWidth = frame.getDisplayWidth();
+        int displayHeight = frame.getDisplayHeight();
+        updateMaps(displayWidth, displayHeight, size);
+
+        final ByteBuffer yPlane = frame.getYPlane();
+        final ByteBuffer uPlane = frame.getUPlane();
+        final ByteBuffer vPlane = frame.getVPlane();
+        final int yRowStride = frame.getYRowStride();
+        final int uvRowStride = frame.getUvRowStride();
+        final int uvPixelStride = frame.getUvPixelStride();
+        final int width = frame.getWidth();
+        final int height = frame.getHeight();
+        final int rotation = frame.getRotationDegrees();
+
+        int d = 0;
+        for (int y = 0; y < size; y++) {
+            int v = rowMap[y];
+            for (int x = 0; x < size; x++) {
+                int u = columnMap[x];
+                // 화면 좌표 (u, v) → 센서 좌표 (sx, sy)
+                int sx;
+                int sy;
+                switch (rotation) {
+                    case 90:
+                        sx = v;
+                        sy = height - 1 - u;
+                        break;
+                    case 180:
+                        sx = width - 1 - u;
+                        sy = height - 1 - v;
+                        break;
+                    case 270:
+                        sx = width - 1 - v;
+                        sy = u;
+                        break;
+                    default:
+                        sx = u;
+                        sy = v;
+                        break;
+                }
+                int uvIndex = (sy >> 1) * uvRowStride + (sx >> 1) * uvPixelStride;
+                dst[d++] = yuvToArgb(yPlane.get(sy * yRowStride + sx) & 0xFF,
+                        uPlane.get(uvIndex) & 0xFF,
+                        vPlane.get(uvIndex) & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * YUV 한 픽셀 → 불투명 ARGB (BT.601 full range, 16비트 고정소수점)
+     */
+    static int yuvToArgb(int y, int u, int v) {
+        int cb = u - 128;
+        int cr = v - 128;
+        int r = y + ((91881 * cr) >> 16);
+        int g = y - ((22554 * cb + 46802 * cr) >> 16);
+        int b = y + ((116130 * cb) >> 16);
+        r = r < 0 ? 0 : (r > 255 ? 255 : r);
+        g = g < 0 ? 0 : (g > 255 ? 255 : g);
+        b = b < 0 ? 0 : (b > 255 ? 255 : b);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private void updateMaps(int displayWidth, int displayHeight, int size) {
+        if (displayWidth == cachedDisplayWidth && displayHeight == cachedDisplayHeight && size == cachedSize) {
+            return;
+        }
+        if (columnMap.length < size) {
+            columnMap = new int[size];
+            rowMap = new int[size];
+        }
+        // 출력 픽셀 중심을 화면 좌표로 되돌린 최근접 이웃
+        for (int i = 0; i < size; i++) {
+            columnMap[i] = Math.min(displayWidth - 1, (int) ((i + 0.5f) * displayWidth / size));
+            rowMap[i] = Math.min(displayHeight - 1, (int) ((i + 0.5f) * displayHeight / size));
+        }
+        cachedDisplayWidth = displayWidth;
+        cachedDisplayHeight = displayHeight;
+        cachedSize = size;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.jjikmeok1.detection;
+
+import java.nio.ByteBuffer;
+
+/**
+ * YUV_420_888 카메라 프레임 (안드로이드 Image 없이 평면 버퍼만 담음)
+ *
+ * U/V 평면은 가로세로 절반 해상도이며, pixelStride가 2면 NV12/NV21처럼 UV가 섞여 있는 형식이다.
+ * rotationDegrees는 화면에 똑바로 보이도록 시계 방향으로 돌려야 하는 각도(0/90/180/270)다.
+ * 프레임을 넘겨받은 쪽은 다 쓴 뒤 반드시 release()를 호출해야 한다 (카메라 버퍼 반환).
+ */
+public final class YuvFrame {
+
+    private final int width;
+    private final int height;
+    private final ByteBuffer yPlane;
+    private final ByteBuffer uPlane;
+    private final ByteBuffer vPlane;
+    private final int yRowStride;
+    private final int uvRowStride;
+    private final int uvPixelStride;
+    private final int rotationDegrees;
+    private final long timestampNanos;
+    private final Runnable releaser;
+    private boolean released;
+
+    public YuvFrame(int width, int height,
+                    ByteBuffer yPlane, ByteBuffer uPlane, ByteBuffer vPlane,
+                    int yRowStride, int uvRowStride, int uvPixelStride,
+                    int rotationDegrees, long timestampNanos, Runnable releaser) {
+        if (rotationDegrees % 90 != 0) {
+            throw new IllegalArgumentException("rotationDegrees must be a multiple of 90: " + rotationDegrees);
+        }
+        this.width = width;
+        this.height = height;
+        this.yPlane = yPlane;
+        this.uPlane = uPlane;
+        this.vPlane = vPlane;
+        this.yRowStride = yRowStride;
+        this.uvRowStride = uvRowStride;
+        this.uvPixelStride = uvPixelStride;
+        this.rotationDegrees = ((rotationDegrees % 360) + 360) % 360;
+        this.timestampNanos = timestampNanos;
+        this.releaser = releaser;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public ByteBuffer getYPlane() { return yPlane; }
+    public ByteBuffer getUPlane() { return uPlane; }
+    public ByteBuffer getVPlane() { return vPlane; }
+    public int getYRowStride() { return yRowStride; }
+    public int getUvRowStride() { return uvRowStride; }
+    public int getUvPixelStride() { return uvPixelStride; }
+    public int getRotationDegrees() { return rotationDegrees; }
+    public long getTimestampNanos() { return timestampNanos; }
+
+    /** 회전을 적용한 (화면 기준) 너비 */
+    public int getDisplayWidth() {
+        return rotationDegrees % 180 == 0 ? width : height;
+    }
+
+    /** 회전을 적용한 (화면 기준) 높이 */
+    public int getDisplayHeight() {
+        return rotationDegrees % 180 == 0 ? height : width;
+    }
+
+    /**
+     * 카메라 버퍼 반환 (두 번 이상 호출해도 한 번만 반환)
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (releaser != null) {
+            releaser.run();
+        }
+    }
+
+    public synchronized boolean isReleased() {
+        return released;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AnalysisPipelineTest {
+
+    private final ExecutorService io = Executors.newFixedThreadPool(2);
+    private final ExecutorService inference = Executors.newSingleThreadExecutor();
+    // 메인 스레드 대신 단일 스레드
+    private final ExecutorService ui = Executors.newSingleThreadExecutor();
+
+    private final List<String> results = new CopyOnWriteArrayList<>();
+    private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        io.shutdownNow();
+        inference.shutdownNow();
+        ui.shutdownNow();
+    }
+
+    private AnalysisPipeline.Callback<String> collect(CountDownLatch done) {
+        return new AnalysisPipeline.Callback<String>() {
+            @Override
+            public void onResult(String result, AnalysisPipeline.Job job) {
+                results.add(result);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable error, AnalysisPipeline.Job job) {
+                errors.add(error);
+                done.countDown();
+            }
+        };
+    }
+
+    @Test
+    public void stagesRunInOrderOnTheirExecutors() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        AnalysisPipeline<Integer, String> pipeline = AnalysisPipeline.<Integer>builder()
+                .then("decode", io, (Integer n, AnalysisPipeline.Job job) -> {
+                    threads.add(Thread.currentThread().getName());
+                    return n * 2;
+                })
+                .then("infer", inference, (Integer n, AnalysisPipeline.Job job) -> {
+                    threads.add(Thread.currentThread().getName());
+                    return "v" + n;
+                })
+                .build(ui);
+
+        CountDownLatch done = new CountDownLatch(1);
+        AnalysisPipeline.Job job = pipeline.submit(21, collect(done));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("[v42]", results.toString());
+        assertEquals(2, threads.size());
+        assertNotEquals(threads.get(0), threads.get(1));
+        assertEquals("infer", job.getStageName(1));
+    }
+
+    @Test
+    public void newSubmitCancelsStaleWorkBeforeInference() throws Exception {
+        CountDownLatch decodeStarted = new CountDownLatch(1);
+        CountDownLatch releaseDecode = new CountDownLatch(1);
+        AtomicInteger inferences = new AtomicInteger();
+        AnalysisPipeline<String, String> pipeline = AnalysisPipeline.<String>builder()
+                .then("decode", io, (String name, AnalysisPipeline.Job job) -> {
+                    if (name.equals("old")) {
+                        decodeStarted.countDown();
+                        releaseDecode.await();
+                    }
+                    return name;
+                })
+                .then("infer", inference, (String name, AnalysisPipeline.Job job) -> {
+                    inferences.incrementAndGet();
+                    return name + "-result";
+                })
+                .build(ui);
+
+        CountDownLatch done = new CountDownLatch(1);
+        AnalysisPipeline.Job old = pipeline.submit("old", collect(new CountDownLatch(1)));
+        assertTrue(decodeStarted.await(5, TimeUnit.SECONDS));
+        pipeline.submit("new", collect(done));
+        assertTrue(old.isCancelled());
+        releaseDecode.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        inference.submit(() -> { }).get();
+        ui.submit(() -> { }).get();
+        // 이전 작업은 추론 단계에 들어가지 못하고 결과도 전달되지 않는다
+        assertEquals(1, inferences.get());
+        assertEquals("[new-result]", results.toString());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void cancelHookInterruptsRunningStage() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AnalysisPipeline<String, String> pipeline = AnalysisPipeline.<String>builder()
+                .then("infer", inference, (String name, AnalysisPipeline.Job job) -> {
+                    CountDownLatch abort = new CountDownLatch(1);
+                    job.setCancelHook(abort::countDown);
+                    try {
+                        running.countDown();
+                        assertTrue(abort.await(5, TimeUnit.SECONDS));
+                        interrupted.countDown();
+                        job.throwIfCancelled();
+                        return name;
+                    } finally {
+                        job.setCancelHook(null);
+                    }
+                })
+                .build(ui);
+
+        pipeline.submit("photo", collect(new CountDownLatch(1)));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        pipeline.close();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        inference.submit(() -> { }).get();
+        ui.submit(() -> { }).get();
+        assertTrue(results.isEmpty());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void stageFailureIsDeliveredAsError() throws Exception {
+        AnalysisPipeline<String, String> pipeline = AnalysisPipeline.<String>builder()
+                .<String>then("decode", io, (String name, AnalysisPipeline.Job job) -> {
+                    throw new java.io.IOException("unreadable " + name);
+                })
+                .build(ui);
+        CountDownLatch done = new CountDownLatch(1);
+        pipeline.submit("broken.jpg", collect(done));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof java.io.IOException);
+    }
+}
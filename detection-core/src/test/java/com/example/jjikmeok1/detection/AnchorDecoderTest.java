@@ -0,0 +1,165 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class AnchorDecoderTest {
+
+    private static final int INPUT_SIZE = 640;
+    private static final int NUM_ANCHORS = 8400;
+    private static final int NUM_CLASSES = 80;
+    private static final float THRESHOLD = 0.3f;
+    private static final int IMAGE_WIDTH = 3024;
+    private static final int IMAGE_HEIGHT = 4032;
+
+    @Test
+    public void detectLayout_fromShape() {
+        assertEquals(AnchorDecoder.Layout.CHANNELS_FIRST,
+                AnchorDecoder.detectLayout(new int[]{1, 84, 8400}, NUM_CLASSES));
+        assertEquals(AnchorDecoder.Layout.ANCHORS_FIRST,
+                AnchorDecoder.detectLayout(new int[]{1, 8400, 84}, NUM_CLASSES));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void detectLayout_rejectsUnknownShape() {
+        AnchorDecoder.detectLayout(new int[]{1, 85, 8400}, NUM_CLASSES);
+    }
+
+    @Test
+    public void channelsFirst_matchesLegacyPostprocess() {
+        float[][] nested = randomOutput(new Random(7));
+        float[] flat = new float[(NUM_CLASSES + 4) * NUM_ANCHORS];
+        for (int c = 0; c < NUM_CLASSES + 4; c++) {
+            System.arraycopy(nested[c], 0, flat, c * NUM_ANCHORS, NUM_ANCHORS);
+        }
+
+        AnchorDecoder decoder = new AnchorDecoder(NUM_ANCHORS, NUM_CLASSES, INPUT_SIZE,
+                AnchorDecoder.Layout.CHANNELS_FIRST);
+        DetectionBuffer actual = new DetectionBuffer(NUM_ANCHORS);
+        decoder.decode(flat, 0, IMAGE_WIDTH, IMAGE_HEIGHT, THRESHOLD, actual);
+
+        assertSameBoxes(legacyPostprocess(nested), actual);
+    }
+
+    @Test
+    public void anchorsFirst_matchesLegacyPostprocess() {
+        float[][] nested = randomOutput(new Random(11));
+        int stride = NUM_CLASSES + 4;
+        float[] flat = new float[stride * NUM_ANCHORS];
+        for (int i = 0; i < NUM_ANCHORS; i++) {
+            for (int c = 0; c < stride; c++) {
+                flat[i * stride + c] = nested[c][i];
+            }
+        }
+
+        AnchorDecoder decoder = new AnchorDecoder(NUM_ANCHORS, NUM_CLASSES, INPUT_SIZE,
+                AnchorDecoder.Layout.ANCHORS_FIRST);
+        DetectionBuffer actual = new DetectionBuffer(NUM_ANCHORS);
+        decoder.decode(flat, 0, IMAGE_WIDTH, IMAGE_HEIGHT, THRESHOLD, actual);
+
+        assertSameBoxes(legacyPostprocess(nested), actual);
+    }
+
+    @Test
+    public void decode_allocatesNothingAfterWarmup() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        float[][] nested = randomOutput(new Random(3));
+        float[] flat = new float[(NUM_CLASSES + 4) * NUM_ANCHORS];
+        for (int c = 0; c < NUM_CLASSES + 4; c++) {
+            System.arraycopy(nested[c], 0, flat, c * NUM_ANCHORS, NUM_ANCHORS);
+        }
+        AnchorDecoder decoder = new AnchorDecoder(NUM_ANCHORS, NUM_CLASSES, INPUT_SIZE,
+                AnchorDecoder.Layout.CHANNELS_FIRST);
+        DetectionBuffer buffer = new DetectionBuffer(NUM_ANCHORS);
+
+        int iterations = 100;
+        for (int i = 0; i < iterations; i++) {
+            buffer.clear();
+            decoder.decode(flat, 0, IMAGE_WIDTH, IMAGE_HEIGHT, THRESHOLD, buffer);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            buffer.clear();
+            decoder.decode(flat, 0, IMAGE_WIDTH, IMAGE_HEIGHT, THRESHOLD, buffer);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, allocated / iterations);
+    }
+
+    private static float[][] randomOutput(Random random) {
+        float[][] output = new float[NUM_CLASSES + 4][NUM_ANCHORS];
+        for (int i = 0; i < NUM_ANCHORS; i++) {
+            output[0][i] = random.nextFloat() * INPUT_SIZE;
+            output[1][i] = random.nextFloat() * INPUT_SIZE;
+            output[2][i] = random.nextFloat() * 200f;
+            output[3][i] = random.nextFloat() * 200f;
+            for (int j = 0; j < NUM_CLASSES; j++) {
+                // 대부분 낮은 점수, 일부 앵커만 임계값을 넘도록 분포를 치우침
+                float p = random.nextFloat();
+                output[4 + j][i] = p * p * p * p * 0.4f;
+            }
+            if (random.nextInt(20) == 0) {
+                output[4 + random.nextInt(NUM_CLASSES)][i] = 0.3f + random.nextFloat() * 0.7f;
+            }
+        }
+        return output;
+    }
+
+    /** 기존 YOLOv5Detector.postprocess의 후보 생성부 (NMS 이전) */
+    private static List<float[]> legacyPostprocess(float[][] output) {
+        List<float[]> result = new ArrayList<>();
+        for (int i = 0; i < NUM_ANCHORS; i++) {
+            float maxClassProb = 0;
+            int maxClassIdx = -1;
+            for (int j = 0; j < NUM_CLASSES; j++) {
+                float classProb = output[4 + j][i];
+                if (classProb > maxClassProb) {
+                    maxClassProb = classProb;
+                    maxClassIdx = j;
+                }
+            }
+            float confidence = maxClassProb;
+            if (confidence < THRESHOLD) {
+                continue;
+            }
+            float cx = output[0][i];
+            float cy = output[1][i];
+            float w = output[2][i];
+            float h = output[3][i];
+            float left = (cx - w / 2) * IMAGE_WIDTH / INPUT_SIZE;
+            float top = (cy - h / 2) * IMAGE_HEIGHT / INPUT_SIZE;
+            float right = (cx + w / 2) * IMAGE_WIDTH / INPUT_SIZE;
+            float bottom = (cy + h / 2) * IMAGE_HEIGHT / INPUT_SIZE;
+            result.add(new float[]{maxClassIdx, confidence, left, top, right, bottom});
+        }
+        return result;
+    }
+
+    private static void assertSameBoxes(List<float[]> expected, DetectionBuffer actual) {
+        assertTrue("fixture should produce candidates", expected.size() > 100);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            float[] e = expected.get(i);
+            assertEquals((int) e[0], actual.classId(i));
+            assertEquals(Float.floatToIntBits(e[1]), Float.floatToIntBits(actual.score(i)));
+            assertEquals(Float.floatToIntBits(e[2]), Float.floatToIntBits(actual.left(i)));
+            assertEquals(Float.floatToIntBits(e[3]), Float.floatToIntBits(actual.top(i)));
+            assertEquals(Float.floatToIntBits(e[4]), Float.floatToIntBits(actual.right(i)));
+            assertEquals(Float.floatToIntBits(e[5]), Float.floatToIntBits(actual.bottom(i)));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.jjikmeok1.detection;
+
+import com.example.jjikmeok1.detection.BackendCalibrator.Backend;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BackendCalibratorTest {
+
+    /** run() 한 번에 백엔드별 비용만큼 가짜 시계를 전진시키는 세션 */
+    private static final class FakeBackends implements BackendCalibrator.SessionFactory {
+        final long[] now = new long[1];
+        final Map<Backend, Long> costs = new HashMap<>();
+        int opened;
+
+        FakeBackends cost(Backend backend, long nanos) {
+            costs.put(backend, nanos);
+            return this;
+        }
+
+        @Override
+        public BackendCalibrator.Session open(Backend backend) {
+            Long cost = costs.get(backend);
+            if (cost == null) {
+                throw new IllegalStateException(backend + " not supported on this device");
+            }
+            opened++;
+            return new BackendCalibrator.Session() {
+                @Override
+                public void run() {
+                    now[0] += cost;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+
+    private static final class MapStore implements BackendCalibrator.Store {
+        final Map<String, String> values = new HashMap<>();
+
+        @Override
+        public String load(String modelVersion) {
+            return values.get(modelVersion);
+        }
+
+        @Override
+        public void save(String modelVersion, String backendKey) {
+            values.put(modelVersion, backendKey);
+        }
+    }
+
+    @Test
+    public void picksFastestBackend() {
+        FakeBackends backends = new FakeBackends()
+                .cost(Backend.cpu(1), 400)
+                .cost(Backend.cpu(2), 220)
+                .cost(Backend.cpu(4), 130)
+                .cost(Backend.cpu(8), 150)
+                .cost(Backend.nnapi(), 300)
+                .cost(Backend.gpu(), 60);
+        BackendCalibrator calibrator = new BackendCalibrator(2, 5, () -> backends.now[0]);
+
+        BackendCalibrator.Result result = calibrator.calibrate(
+                BackendCalibrator.defaultCandidates(8, true, true), backends);
+
+        assertEquals(Backend.gpu(), result.getBackend());
+        assertEquals(6, result.getMedianNanos().size());
+        assertEquals(Long.valueOf(130), result.getMedianNanos().get(Backend.cpu(4)));
+        assertTrue(result.getFailures().isEmpty());
+    }
+
+    @Test
+    public void fallsBackToCpuWhenGpuAndNnapiFail() {
+        // GPU/NNAPI가 없는 리눅스 테스트 머신: 델리게이트 생성이 실패해도 CPU 스레드 수는 측정
+        FakeBackends backends = new FakeBackends()
+                .cost(Backend.cpu(1), 400)
+                .cost(Backend.cpu(2), 210)
+                .cost(Backend.cpu(4), 250);
+        BackendCalibrator calibrator = new BackendCalibrator(1, 3, () -> backends.now[0]);
+
+        BackendCalibrator.Result result = calibrator.calibrate(
+                BackendCalibrator.defaultCandidates(4, true, true), backends);
+
+        assertEquals(Backend.cpu(2), result.getBackend());
+        assertEquals(3, result.getMedianNanos().size());
+        assertTrue(result.getFailures().containsKey(Backend.gpu()));
+        assertTrue(result.getFailures().containsKey(Backend.nnapi()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsWhenNoBackendWorks() {
+        new BackendCalibrator(0, 1).calibrate(Arrays.asList(Backend.gpu()), new FakeBackends());
+    }
+
+    @Test
+    public void storedChoiceSkipsMeasurementPerModelVersion() {
+        FakeBackends backends = new FakeBackends()
+                .cost(Backend.cpu(1), 300)
+                .cost(Backend.cpu(2), 100);
+        BackendCalibrator calibrator = new BackendCalibrator(1, 3, () -> backends.now[0]);
+        MapStore store = new MapStore();
+        List<Backend> candidates = BackendCalibrator.defaultCandidates(2, false, false);
+
+        BackendCalibrator.Result first = calibrator.select("model-v1", candidates, backends, store);
+        assertFalse(first.isFromStore());
+        assertEquals("cpu:2", store.values.get("model-v1"));
+        int openedAfterFirst = backends.opened;
+
+        BackendCalibrator.Result second = calibrator.select("model-v1", candidates, backends, store);
+        assertTrue(second.isFromStore());
+        assertEquals(Backend.cpu(2), second.getBackend());
+        assertEquals(openedAfterFirst, backends.opened);
+
+        // 모델 버전이 바뀌면 다시 측정
+        calibrator.select("model-v2", candidates, backends, store);
+        assertTrue(backends.opened > openedAfterFirst);
+    }
+
+    @Test
+    public void storedChoiceIgnoredWhenNoLongerAvailable() {
+        FakeBackends backends = new FakeBackends().cost(Backend.cpu(1), 100);
+        MapStore store = new MapStore();
+        store.save("model", "gpu");
+
+        BackendCalibrator.Result result = new BackendCalibrator(0, 1, () -> backends.now[0])
+                .select("model", BackendCalibrator.defaultCandidates(1, false, false), backends, store);
+
+        assertFalse(result.isFromStore());
+        assertEquals(Backend.cpu(1), result.getBackend());
+        assertEquals("cpu:1", store.values.get("model"));
+    }
+
+    @Test
+    public void defaultCandidatesRespectCoreCount() {
+        assertEquals(Arrays.asList(Backend.cpu(1), Backend.cpu(2)),
+                BackendCalibrator.defaultCandidates(3, false, false));
+        assertEquals(Arrays.asList(Backend.cpu(1), Backend.cpu(2), Backend.cpu(4), Backend.cpu(8), Backend.gpu()),
+                BackendCalibrator.defaultCandidates(8, false, true));
+    }
+
+    @Test
+    public void backendKeyRoundTrip() {
+        for (Backend backend : BackendCalibrator.defaultCandidates(8, true, true)) {
+            assertEquals(backend, Backend.fromKey(backend.key()));
+        }
+        assertNull(Backend.fromKey("cpu:0"));
+        assertNull(Backend.fromKey("tpu"));
+        assertNull(Backend.fromKey(null));
+    }
+}
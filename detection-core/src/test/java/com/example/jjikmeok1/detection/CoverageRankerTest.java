@@ -0,0 +1,151 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CoverageRankerTest {
+
+    private static final List<String> VOCABULARY = Arrays.asList("토마토", "양파", "계란", "감자", "소금", "간장");
+
+    private static List<String> ids(List<CoverageRanker.Scored> scored) {
+        List<String> ids = new ArrayList<>();
+        for (CoverageRanker.Scored s : scored) {
+            ids.add(s.id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void viewCountTextIsParsed() {
+        assertEquals(12_000, CoverageRanker.parseViewCount("조회수 1.2만"));
+        assertEquals(3_456, CoverageRanker.parseViewCount("3,456"));
+        assertEquals(5_000, CoverageRanker.parseViewCount("5천"));
+        assertEquals(2_500, CoverageRanker.parseViewCount("2.5k"));
+        assertEquals(0, CoverageRanker.parseViewCount("조회수"));
+        assertEquals(0, CoverageRanker.parseViewCount(null));
+    }
+
+    @Test
+    public void scoresCoverageMissingAndPantry() {
+        CoverageRanker ranker = new CoverageRanker(VOCABULARY);
+        ranker.add("A", Arrays.asList("토마토", "양파", "소금", "간장"), 0, 0);
+        ranker.add("B", Arrays.asList("토마토", "계란", "감자"), 0, 0);
+        ranker.add("C", Collections.singletonList("감자"), 0, 0);
+        ranker.add("D", Arrays.asList("토마토", "트러플"), 0, 0); // 어휘 밖 재료도 부족 재료
+        ranker.add("E", Collections.singletonList("토마토"), 0, 3); // 재료를 모르는 레시피의 추정치
+
+        List<CoverageRanker.Scored> scored = ranker.rank(Collections.singletonList("토마토"), 10);
+        // A: 양파만 부족 (소금/간장은 기본양념), D: 트러플, B: 계란/감자, E: 추정 3개, C: 겹침 없음
+        assertEquals(Arrays.asList("A", "D", "B", "E"), ids(scored));
+        assertEquals(1, scored.get(0).coverage);
+        assertEquals(1, scored.get(0).missing);
+        assertEquals(2, scored.get(2).missing);
+        assertEquals(10 - 1.5, scored.get(0).score, 1e-9);
+
+        // 조회수 10만이면 부족 재료 하나쯤은 뒤집힘 (log10 → 5점)
+        ranker.setViews(1, 100_000);
+        assertEquals(Arrays.asList("B", "A"), ids(ranker.rank(Collections.singletonList("토마토"), 2)));
+        assertEquals(Arrays.asList("A", "B"), ids(ranker.rank(Arrays.asList("토마토", "양파"), 2)));
+        assertEquals(-1, ranker.bitOf("트러플"));
+    }
+
+    // 비교용: 레시피마다 재료어 집합을 훑는 단순 구현 (같은 점수식, 같은 동점 규칙)
+    private static final class NaiveRanker {
+        final List<Set<String>> terms = new ArrayList<>();
+        final List<Float> popularity = new ArrayList<>();
+
+        void add(Set<String> recipeTerms, long views) {
+            terms.add(recipeTerms);
+            popularity.add((float) Math.log10(1 + views));
+        }
+
+        List<Integer> rank(Set<String> query, int limit) {
+            PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) ->
+                    a[0] != b[0] ? Double.compare(a[0], b[0]) : Double.compare(b[1], a[1]));
+            for (int row = 0; row < terms.size(); row++) {
+                int coverage = 0;
+                int missing = 0;
+                for (String term : terms.get(row)) {
+                    if (query.contains(term)) {
+                        coverage++;
+                    } else if (!CoverageRanker.PANTRY.contains(term)) {
+                        missing++;
+                    }
+                }
+                if (coverage == 0) {
+                    continue;
+                }
+                double score = coverage * CoverageRanker.COVERAGE_WEIGHT - missing * CoverageRanker.MISSING_WEIGHT
+                        + popularity.get(row) * CoverageRanker.POPULARITY_WEIGHT;
+                heap.add(new double[]{score, row});
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<Integer> rows = new ArrayList<>();
+            while (!heap.isEmpty()) {
+                rows.add((int) heap.poll()[1]);
+            }
+            Collections.reverse(rows);
+            return rows;
+        }
+    }
+
+    @Test
+    public void bitsetRankingMatchesNaiveScanOnHundredThousandRecipes() {
+        Random random = new Random(23);
+        List<String> vocabulary = new ArrayList<>(CoverageRanker.PANTRY);
+        Collections.sort(vocabulary);
+        while (vocabulary.size() < 256) {
+            vocabulary.add("재료" + (char) ('가' + vocabulary.size()));
+        }
+        CoverageRanker ranker = new CoverageRanker(vocabulary);
+        NaiveRanker naive = new NaiveRanker();
+        int recipes = 100_000;
+        for (int r = 0; r < recipes; r++) {
+            Set<String> terms = new HashSet<>();
+            int count = 5 + random.nextInt(8);
+            while (terms.size() < count) {
+                // 앞쪽(기본양념, 흔한 재료)이 훨씬 자주 쓰이게
+                terms.add(vocabulary.get((int) (vocabulary.size() * Math.pow(random.nextDouble(), 3))));
+            }
+            long views = random.nextInt(4) == 0 ? 0 : (long) Math.pow(10, 1 + 5 * random.nextDouble());
+            ranker.add(String.valueOf(r), terms, views, 0);
+            naive.add(terms, views);
+        }
+        assertEquals(4, ranker.getWords());
+
+        int queries = 30;
+        int limit = 40;
+        List<Set<String>> querySets = new ArrayList<>();
+        for (int q = 0; q < queries; q++) {
+            Set<String> query = new HashSet<>();
+            int size = 3 + random.nextInt(4);
+            while (query.size() < size) {
+                query.add(vocabulary.get(CoverageRanker.PANTRY.size()
+                        + (int) (60 * Math.pow(random.nextDouble(), 2))));
+            }
+            querySets.add(query);
+        }
+        for (Set<String> query : querySets) {
+            List<CoverageRanker.Scored> scored = ranker.rank(query, limit);
+            List<Integer> expected = naive.rank(query, limit);
+
+            List<Integer> rows = new ArrayList<>();
+            for (CoverageRanker.Scored s : scored) {
+                rows.add(s.row);
+            }
+            assertEquals(expected, rows);
+        }
+    }
+}
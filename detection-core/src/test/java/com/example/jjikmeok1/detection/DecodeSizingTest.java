@@ -0,0 +1,101 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DecodeSizingTest {
+
+    // 흔한 휴대폰 사진 크기 (12MP 4:3, 50MP 4:3, 12MP 세로)
+    private static final int[][] PHOTOS = {{4032, 3024}, {8160, 6120}, {3024, 4032}};
+    // 1080px 폭 화면의 16:9 centerCrop ImageView
+    private static final int VIEW_WIDTH = 1080;
+    private static final int VIEW_HEIGHT = 608;
+
+    private final TilePlanner planner = new TilePlanner(640, 0.2f, 9, true);
+
+    @Test
+    public void fitLongSideKeepsAspectAndNeverUpscales() {
+        DecodeSizing.Target target = DecodeSizing.fitLongSide(4032, 3024, 640);
+        assertEquals(640, target.getWidth());
+        assertEquals(480, target.getHeight());
+
+        target = DecodeSizing.fitLongSide(3024, 4032, 640);
+        assertEquals(480, target.getWidth());
+        assertEquals(640, target.getHeight());
+
+        target = DecodeSizing.fitLongSide(320, 240, 640);
+        assertEquals(320, target.getWidth());
+        assertEquals(240, target.getHeight());
+    }
+
+    @Test
+    public void coverViewFillsCenterCropView() {
+        DecodeSizing.Target target = DecodeSizing.coverView(4032, 3024, VIEW_WIDTH, VIEW_HEIGHT);
+        assertEquals(VIEW_WIDTH, target.getWidth());
+        assertTrue(target.getHeight() >= VIEW_HEIGHT);
+
+        // 세로 사진은 높이가 아니라 폭이 뷰를 덮어야 한다
+        target = DecodeSizing.coverView(3024, 4032, VIEW_WIDTH, VIEW_HEIGHT);
+        assertEquals(VIEW_WIDTH, target.getWidth());
+        assertEquals(1440, target.getHeight());
+    }
+
+    @Test
+    public void tiledTargetKeepsNativeTileSize() {
+        for (int[] photo : PHOTOS) {
+            int longSide = planner.nativeLongSide(photo[0], photo[1]);
+            DecodeSizing.Target target = DecodeSizing.fitLongSide(photo[0], photo[1], longSide);
+            List<TilePlanner.Tile> tiles = planner.plan(target.getWidth(), target.getHeight());
+            assertTrue(tiles.size() > 2);
+            assertTrue(tiles.size() <= planner.getMaxTiles());
+            for (TilePlanner.Tile tile : tiles.subList(1, tiles.size())) {
+                assertEquals(640, Math.max(tile.getWidth(), tile.getHeight()));
+            }
+        }
+    }
+
+    // 사진 한 장을 분석할 때 디코딩된 비트맵이 쓰는 바이트 상한 (추론용 + 화면용)
+    private static final long SINGLE_PEAK_BOUND = 8_000_000;
+    private static final long TILED_PEAK_BOUND = 16_000_000;
+
+    @Test
+    public void peakHeapPerPhotoStaysFarBelowFullDecode() {
+        for (int[] photo : PHOTOS) {
+            int width = photo[0];
+            int height = photo[1];
+            long fullDecode = DecodeSizing.argbBytes(width, height);
+            DecodeSizing.Target display = DecodeSizing.coverView(width, height, VIEW_WIDTH, VIEW_HEIGHT);
+            DecodeSizing.Target single = DecodeSizing.fitLongSide(width, height, 640);
+            DecodeSizing.Target tiled = DecodeSizing.fitLongSide(width, height, planner.nativeLongSide(width, height));
+
+            long singlePeak = peakBytes(single, display);
+            long tiledPeak = peakBytes(tiled, display);
+            String photoSize = width + "x" + height;
+            assertTrue(photoSize + " single " + singlePeak, singlePeak < SINGLE_PEAK_BOUND);
+            assertTrue(photoSize + " tiled " + tiledPeak, tiledPeak < TILED_PEAK_BOUND);
+            assertTrue(photoSize, singlePeak * 5 < fullDecode);
+            assertTrue(photoSize, tiledPeak * 2 < fullDecode);
+        }
+    }
+
+    // PhotoDecoder와 같은 선택: 비슷하면 큰 쪽 한 장, 아니면 두 장
+    private static long peakBytes(DecodeSizing.Target inference, DecodeSizing.Target display) {
+        if (DecodeSizing.canShare(inference, display)) {
+            return Math.max(inference.getBytes(), display.getBytes());
+        }
+        return inference.getBytes() + display.getBytes();
+    }
+
+    @Test
+    public void sharesOneDecodeOnlyWhenTargetsAreClose() {
+        DecodeSizing.Target inference = DecodeSizing.fitLongSide(4032, 3024, 640);
+        // 640x480 추론용과 1080x810 화면용은 따로 디코딩
+        assertFalse(DecodeSizing.canShare(inference, DecodeSizing.coverView(4032, 3024, VIEW_WIDTH, VIEW_HEIGHT)));
+        // 720x540 화면용이면 큰 쪽 한 장으로 충분
+        assertTrue(DecodeSizing.canShare(inference, DecodeSizing.coverView(4032, 3024, 720, 540)));
+        assertTrue(DecodeSizing.canShare(inference, inference));
+    }
+}
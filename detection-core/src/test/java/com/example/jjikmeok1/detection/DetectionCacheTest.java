@@ -0,0 +1,140 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DetectionCacheTest {
+
+    private static final String MODEL = "yolov5su_float32.tflite@1234";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DetectionBuffer detections(int seed, int count) {
+        Random random = new Random(seed);
+        DetectionBuffer buffer = new DetectionBuffer(count);
+        for (int i = 0; i < count; i++) {
+            float left = random.nextFloat() * 500;
+            float top = random.nextFloat() * 300;
+            buffer.add(random.nextInt(80), random.nextFloat(), left, top, left + 60, top + 40);
+        }
+        return buffer;
+    }
+
+    private static void assertSameDetections(DetectionBuffer expected, DetectionBuffer actual) {
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.classId(i), actual.classId(i));
+            assertEquals(expected.score(i), actual.score(i), 0f);
+            assertEquals(expected.left(i), actual.left(i), 0f);
+            assertEquals(expected.bottom(i), actual.bottom(i), 0f);
+        }
+    }
+
+    @Test
+    public void contentHashIsStableAndRowWiseEqualsWhole() {
+        int width = 64;
+        int height = 48;
+        int[] pixels = new int[width * height];
+        Random random = new Random(1);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        long whole = ContentHash.of(pixels, width, height);
+        ContentHash rows = new ContentHash().update(width).update(height);
+        for (int y = 0; y < height; y++) {
+            rows.update(pixels, y * width, width);
+        }
+        assertEquals(whole, rows.finish());
+
+        pixels[1234] ^= 1;
+        assertNotEquals(whole, ContentHash.of(pixels, width, height));
+        assertNotEquals(DetectionCache.key(whole, MODEL), DetectionCache.key(whole, MODEL + "-int8"));
+    }
+
+    @Test
+    public void memoryHitsAndLruEvictionFallBackToDisk() throws Exception {
+        try (DetectionCache cache = new DetectionCache(2, folder.newFile("cache.bin"), 1 << 20)) {
+            assertNull(cache.get(1));
+            cache.put(1, detections(1, 5));
+            cache.put(2, detections(2, 3));
+            assertSameDetections(detections(1, 5), cache.get(1));
+            cache.put(3, detections(3, 0));
+
+            // 1을 방금 썼으므로 메모리에서는 2가 밀려남
+            assertEquals(2, cache.getMemoryEntries());
+            assertSameDetections(detections(2, 3), cache.get(2));
+            assertEquals(1, cache.getDiskHits());
+            assertEquals(1, cache.getMemoryHits());
+            assertEquals(1, cache.getMisses());
+            assertEquals(0, cache.get(3).size());
+        }
+    }
+
+    @Test
+    public void diskTierSurvivesReopenAndTruncatedTail() throws Exception {
+        File file = folder.newFile("cache.bin");
+        try (DetectionCache cache = new DetectionCache(8, file, 1 << 20)) {
+            for (int i = 0; i < 10; i++) {
+                cache.put(i, detections(i, i + 1));
+            }
+        }
+        // 마지막 레코드를 쓰다가 끊긴 상황
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 7);
+        }
+        try (DetectionCache cache = new DetectionCache(8, file, 1 << 20)) {
+            assertEquals(9, cache.getDiskEntries());
+            for (int i = 0; i < 9; i++) {
+                assertSameDetections(detections(i, i + 1), cache.get(i));
+            }
+            assertNull(cache.get(9));
+            assertEquals(9, cache.getDiskHits());
+        }
+    }
+
+    @Test
+    public void compactionBoundsFileAndKeepsRecentEntries() throws Exception {
+        File file = folder.newFile("cache.bin");
+        long maxBytes = 4096;
+        try (DetectionCache cache = new DetectionCache(4, file, maxBytes)) {
+            for (int i = 0; i < 200; i++) {
+                cache.put(i, detections(i, 4));
+                assertTrue(cache.getDiskBytes() <= maxBytes);
+            }
+            assertEquals(0, cache.getDiskErrors());
+            assertTrue(cache.getDiskEntries() > 10);
+            assertSameDetections(detections(199, 4), cache.get(199));
+            assertNull(cache.get(0));
+        }
+        try (DetectionCache cache = new DetectionCache(4, file, maxBytes)) {
+            assertSameDetections(detections(198, 4), cache.get(198));
+        }
+    }
+
+    @Test
+    public void memoryAndDiskHitsForFullFrame() throws Exception {
+        int[] pixels = new Random(7).ints(640 * 480).toArray();
+        File file = folder.newFile("cache.bin");
+        try (DetectionCache cache = new DetectionCache(16, file, 1 << 20)) {
+            long key = DetectionCache.key(ContentHash.of(pixels, 640, 480), MODEL);
+            cache.put(key, detections(7, 20));
+            DetectionBuffer hit = cache.get(key);
+
+            DetectionBuffer fromDisk;
+            try (DetectionCache reopened = new DetectionCache(16, file, 1 << 20)) {
+                fromDisk = reopened.get(key);
+            }
+            assertSameDetections(detections(7, 20), hit);
+            assertSameDetections(detections(7, 20), fromDisk);
+        }
+    }
+}
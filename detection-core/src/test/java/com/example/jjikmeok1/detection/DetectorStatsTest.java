@@ -0,0 +1,92 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DetectorStatsTest {
+
+    @Test
+    public void bucketsCoverValuesContiguously() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.lowerBound(bucket) <= value);
+            assertTrue(Histogram.upperBound(bucket) >= value);
+        }
+        assertEquals(Histogram.bucketOf(1L << 50), Histogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesWithinBucketError() {
+        Random random = new Random(3);
+        long[] values = new long[20_000];
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            // 로그 정규 분포 비슷한 지연 시간 (중앙값 약 30 ms)
+            values[i] = (long) (30e6 * Math.exp(random.nextGaussian() * 0.4));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double p : new double[]{50, 90, 99}) {
+            long exact = values[(int) Math.ceil(values.length * p / 100) - 1];
+            long estimate = histogram.getPercentile(p);
+            assertTrue(p + ": " + estimate + " vs " + exact, estimate >= exact);
+            assertTrue(p + ": " + estimate + " vs " + exact, estimate <= exact * 1.13);
+        }
+        assertEquals(values[values.length - 1], histogram.getPercentile(100));
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    public void disabledStatsRecordNothing() {
+        DetectorStats stats = new DetectorStats(false);
+        long t = stats.start();
+        stats.stop(DetectorStats.Stage.INFERENCE, t);
+        stats.recordCandidates(120, 4);
+        assertEquals(0, stats.getStage(DetectorStats.Stage.INFERENCE).getCount());
+        assertEquals(0, stats.getCandidatesBeforeNms().getCount());
+        assertFalse(stats.dumpDue(0, 0));
+        assertEquals("", stats.summary());
+
+        // 단계 도중에 켜져도 시작 시각이 없으면 기록하지 않음
+        t = stats.start();
+        stats.setEnabled(true);
+        stats.stop(DetectorStats.Stage.INFERENCE, t);
+        assertEquals(0, stats.getStage(DetectorStats.Stage.INFERENCE).getCount());
+    }
+
+    @Test
+    public void enabledStatsRecordStagesAndCandidates() throws Exception {
+        DetectorStats stats = new DetectorStats(true);
+        for (int i = 0; i < 10; i++) {
+            long t = stats.start();
+            Thread.sleep(2);
+            stats.stop(DetectorStats.Stage.INFERENCE, t);
+            stats.recordCandidates(100 + i, 3);
+        }
+        Histogram inference = stats.getStage(DetectorStats.Stage.INFERENCE);
+        assertEquals(10, inference.getCount());
+        assertTrue(inference.getPercentile(50) >= 2_000_000);
+        assertEquals(3, stats.getCandidatesAfterNms().getPercentile(50));
+        assertEquals(109, stats.getCandidatesBeforeNms().getMax());
+        assertTrue(stats.summary().contains("INFERENCE"));
+        assertFalse(stats.summary().contains("ANCHOR_DECODE"));
+
+        stats.reset();
+        assertEquals(0, inference.getCount());
+    }
+
+    @Test
+    public void dumpDueOncePerInterval() {
+        DetectorStats stats = new DetectorStats(true);
+        long second = 1_000_000_000L;
+        assertFalse(stats.dumpDue(0, second));
+        assertFalse(stats.dumpDue(second / 2, second));
+        assertTrue(stats.dumpDue(second, second));
+        assertFalse(stats.dumpDue(second + 1, second));
+        assertTrue(stats.dumpDue(2 * second + 5, second));
+    }
+}
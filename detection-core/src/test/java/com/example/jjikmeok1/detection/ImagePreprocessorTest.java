@@ -0,0 +1,139 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ImagePreprocessorTest {
+
+    private static final int INPUT_SIZE = 640;
+
+    @Test
+    public void process_matchesPerPixelPutFloat() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(INPUT_SIZE);
+        int[] pixels = preprocessor.getPixelBuffer();
+        Random random = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+
+        // 기존 YOLOv5Detector.preprocessImage 방식
+        ByteBuffer expected = ByteBuffer.allocateDirect(4 * INPUT_SIZE * INPUT_SIZE * 3);
+        expected.order(ByteOrder.nativeOrder());
+        for (int val : pixels) {
+            expected.putFloat(((val >> 16) & 0xFF) / 255.0f);
+            expected.putFloat(((val >> 8) & 0xFF) / 255.0f);
+            expected.putFloat((val & 0xFF) / 255.0f);
+        }
+        expected.rewind();
+
+        ByteBuffer actual = preprocessor.process();
+        assertEquals(0, actual.position());
+        assertEquals(expected.capacity(), actual.remaining());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void process_reusesSameBuffer() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(INPUT_SIZE);
+        assertSame(preprocessor.process(), preprocessor.process());
+    }
+
+    @Test
+    public void processInto_appendsImagesForBatchInput() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(8);
+        int[] pixels = preprocessor.getPixelBuffer();
+        int imageFloats = 8 * 8 * 3;
+        FloatBuffer batch = FloatBuffer.allocate(imageFloats * 2);
+
+        Arrays.fill(pixels, 0xFF336699);
+        preprocessor.processInto(batch);
+        Arrays.fill(pixels, 0xFFFFFFFF);
+        preprocessor.processInto(batch);
+
+        assertEquals(imageFloats * 2, batch.position());
+        assertEquals(0x33 / 255.0f, batch.get(0), 0f);
+        assertEquals(0x99 / 255.0f, batch.get(imageFloats - 1), 0f);
+        assertEquals(1.0f, batch.get(imageFloats), 0f);
+    }
+
+    @Test
+    public void process_rawUint8InputCopiesChannelBytes() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(INPUT_SIZE,
+                new TensorQuantization(1f / 255f, 0, false));
+        int[] pixels = preprocessor.getPixelBuffer();
+        Random random = new Random(7);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+
+        ByteBuffer actual = preprocessor.process();
+        assertEquals(INPUT_SIZE * INPUT_SIZE * 3, actual.remaining());
+        for (int i = 0; i < pixels.length; i++) {
+            assertEquals((pixels[i] >> 16) & 0xFF, actual.get(3 * i) & 0xFF);
+            assertEquals((pixels[i] >> 8) & 0xFF, actual.get(3 * i + 1) & 0xFF);
+            assertEquals(pixels[i] & 0xFF, actual.get(3 * i + 2) & 0xFF);
+        }
+    }
+
+    @Test
+    public void process_int8InputQuantizesNormalizedPixels() {
+        TensorQuantization quantization = new TensorQuantization(1f / 255f, -128, true);
+        ImagePreprocessor preprocessor = new ImagePreprocessor(4, quantization);
+        Arrays.fill(preprocessor.getPixelBuffer(), 0xFF00FF80);
+
+        ByteBuffer actual = preprocessor.process();
+        assertEquals(-128, actual.get(0));
+        assertEquals(127, actual.get(1));
+        assertEquals(0, actual.get(2));
+        // 역양자화하면 원래 정규화 값과 한 단계(scale) 이내
+        assertEquals(0x80 / 255f, quantization.dequantize(actual.get(2)), quantization.getScale());
+    }
+
+    @Test
+    public void processInto_byteBufferMatchesFloatPath() {
+        ImagePreprocessor preprocessor = new ImagePreprocessor(8);
+        Arrays.fill(preprocessor.getPixelBuffer(), 0xFF336699);
+        ByteBuffer batch = ByteBuffer.allocate(2 * preprocessor.bytesPerImage()).order(ByteOrder.nativeOrder());
+        preprocessor.processInto(batch);
+        preprocessor.processInto(batch);
+
+        assertEquals(batch.capacity(), batch.position());
+        assertEquals(0x33 / 255.0f, batch.getFloat(preprocessor.bytesPerImage()), 0f);
+    }
+
+    @Test
+    public void process_allocatesNothingAfterWarmup() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        ImagePreprocessor preprocessor = new ImagePreprocessor(INPUT_SIZE);
+        int[] pixels = preprocessor.getPixelBuffer();
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xFF000000 | (i * 31);
+        }
+        for (int i = 0; i < 200; i++) {
+            preprocessor.process();
+        }
+
+        int iterations = 200;
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            preprocessor.process();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, allocated / iterations);
+    }
+}
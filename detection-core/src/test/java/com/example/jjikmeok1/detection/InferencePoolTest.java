@@ -0,0 +1,149 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class InferencePoolTest {
+
+    @Test
+    public void engineIsNeverSharedBetweenTasks() throws Exception {
+        AtomicInteger violations = new AtomicInteger();
+        try (InferencePool<FakeEngine> pool = new InferencePool<>(3, 64, "test",
+                index -> new FakeEngine())) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                futures.add(pool.submit(engine -> {
+                    if (!engine.inUse.compareAndSet(false, true)) {
+                        violations.incrementAndGet();
+                    }
+                    Thread.sleep(1);
+                    engine.inUse.set(false);
+                    return engine.runs.incrementAndGet();
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        }
+        assertEquals(0, violations.get());
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (InferencePool<FakeEngine> pool = new InferencePool<>(1, 2, "test",
+                index -> new FakeEngine())) {
+            pool.submit(engine -> release.await(5, TimeUnit.SECONDS));
+            pool.submit(engine -> null);
+            pool.submit(engine -> null);
+            try {
+                pool.submit(engine -> null);
+                fail("queue should be full");
+            } catch (RejectedExecutionException expected) {
+                // ok
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void closesAllEngines() throws Exception {
+        List<FakeEngine> created = new ArrayList<>();
+        InferencePool<FakeEngine> pool = new InferencePool<>(4, 4, "test", index -> {
+            FakeEngine engine = new FakeEngine();
+            created.add(engine);
+            return engine;
+        });
+        pool.submit(engine -> 1).get();
+        pool.close();
+        assertEquals(4, created.size());
+        for (FakeEngine engine : created) {
+            assertTrue(engine.closed);
+        }
+    }
+
+    @Test
+    public void poolSizing() {
+        assertEquals(4, InferencePool.recommendedSize(8, 2));
+        assertEquals(1, InferencePool.recommendedSize(1, 4));
+        assertEquals(2, InferencePool.threadsPerEngine(8, 4));
+        assertEquals(1, InferencePool.threadsPerEngine(2, 4));
+    }
+
+    @Test
+    public void enginesRunConcurrently() throws Exception {
+        int size = 4;
+        CyclicBarrier allRunning = new CyclicBarrier(size);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Set<FakeEngine> used = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        try (InferencePool<FakeEngine> pool = new InferencePool<>(size, 16, "test",
+                index -> new FakeEngine())) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                futures.add(pool.submit(engine -> {
+                    used.add(engine);
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    // 작업 4개가 동시에 엔진을 쥐고 있어야만 통과
+                    int arrival = allRunning.await(5, TimeUnit.SECONDS);
+                    active.decrementAndGet();
+                    return arrival;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        }
+        assertEquals(size, maxActive.get());
+        assertEquals(size, used.size());
+    }
+
+    @Test
+    public void engineInUseAtCloseTimeoutIsClosedWhenReturned() throws Exception {
+        FakeEngine engine = new FakeEngine();
+        AtomicBoolean release = new AtomicBoolean();
+        CountDownLatch running = new CountDownLatch(1);
+        InferencePool<FakeEngine> pool = new InferencePool<>(1, 1, "test", index -> engine);
+        Future<Integer> future = pool.submit(e -> {
+            running.countDown();
+            while (!release.get()) {
+                LockSupport.parkNanos(1_000_000); // 인터럽트를 무시하는 네이티브 호출 흉내
+            }
+            return 1;
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        pool.close(50, TimeUnit.MILLISECONDS);
+        assertFalse(engine.closed);
+        release.set(true);
+        assertEquals(1, (int) future.get(5, TimeUnit.SECONDS));
+        assertTrue(engine.closed);
+    }
+
+    private static final class FakeEngine implements AutoCloseable {
+        final AtomicBoolean inUse = new AtomicBoolean();
+        final AtomicInteger runs = new AtomicInteger();
+        volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
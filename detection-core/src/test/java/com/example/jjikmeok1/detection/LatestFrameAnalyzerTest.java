@@ -0,0 +1,202 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class LatestFrameAnalyzerTest {
+
+    /**
+     * 일정 간격으로 합성 YUV 프레임을 만드는 공급원 (카메라 대신 JVM 테스트용)
+     * 반환(release)되지 않은 프레임 수와 중복 반환 횟수를 센다.
+     */
+    static final class SyntheticFrameSource implements FrameSource {
+        final int width;
+        final int height;
+        final long intervalNanos;
+        final int frameCount;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger doubleReleases = new AtomicInteger();
+        private Thread thread;
+        private volatile boolean running;
+
+        SyntheticFrameSource(int width, int height, int fps, int frameCount) {
+            this.width = width;
+            this.height = height;
+            this.intervalNanos = 1_000_000_000L / fps;
+            this.frameCount = frameCount;
+        }
+
+        @Override
+        public void start(Listener listener) {
+            running = true;
+            thread = new Thread(() -> {
+                long next = System.nanoTime();
+                for (int i = 0; i < frameCount && running; i++) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    next += intervalNanos;
+                    listener.onFrame(frame(i, System.nanoTime()));
+                }
+            }, "synthetic-camera");
+            thread.start();
+        }
+
+        YuvFrame frame(int index, long timestamp) {
+            ByteBuffer y = ByteBuffer.allocateDirect(width * height);
+            ByteBuffer uv = ByteBuffer.allocateDirect(width * height / 2);
+            for (int i = 0; i < y.capacity(); i++) {
+                y.put(i, (byte) (index + i));
+            }
+            outstanding.incrementAndGet();
+            boolean[] released = new boolean[1];
+            // NV12 형식: U, V가 같은 버퍼에 섞여 있음 (pixelStride 2)
+            ByteBuffer v = uv.duplicate();
+            v.position(1);
+            return new YuvFrame(width, height, y, uv, v.slice(), width, width, 2, 90, timestamp, () -> {
+                synchronized (released) {
+                    if (released[0]) {
+                        doubleReleases.incrementAndGet();
+                    }
+                    released[0] = true;
+                }
+                outstanding.decrementAndGet();
+            });
+        }
+
+        void join() throws InterruptedException {
+            thread.join();
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+
+    @Test
+    public void slowAnalyzerKeepsOnlyLatestFrame() throws Exception {
+        // 60fps 카메라, 분석 1회 25ms (~40fps 이하) → 일부 프레임은 버려져야 함
+        SyntheticFrameSource source = new SyntheticFrameSource(64, 48, 60, 120);
+        AtomicLong lastTimestamp = new AtomicLong();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AtomicLong maxAgeNanos = new AtomicLong();
+
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> {
+            long age = System.nanoTime() - frame.getTimestampNanos();
+            maxAgeNanos.accumulateAndGet(age, Math::max);
+            if (frame.getTimestampNanos() <= lastTimestamp.getAndSet(frame.getTimestampNanos())) {
+                outOfOrder.incrementAndGet();
+            }
+            Thread.sleep(25);
+            return true;
+        });
+        source.start(analyzer);
+        source.join();
+        analyzer.close();
+
+        long received = analyzer.getReceived();
+
+        assertEquals(120, received);
+        assertEquals(received, analyzer.getAnalyzed() + analyzer.getDropped());
+        assertTrue(analyzer.getDropped() > 0);
+        assertEquals(0, outOfOrder.get());
+        // 큐가 쌓이지 않으므로 분석 시점의 프레임 나이는 프레임 간격 + 분석 1회 정도
+        assertTrue("frame age " + maxAgeNanos.get() / 1e6 + " ms", maxAgeNanos.get() < TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(0, source.outstanding.get());
+        assertEquals(0, source.doubleReleases.get());
+    }
+
+    @Test
+    public void fastAnalyzerDropsNothing() throws Exception {
+        SyntheticFrameSource source = new SyntheticFrameSource(64, 48, 30, 30);
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> true);
+        source.start(analyzer);
+        source.join();
+        // 마지막 프레임 분석이 끝날 때까지 잠깐 대기
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (analyzer.getAnalyzed() + analyzer.getDropped() < 30 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        analyzer.close();
+
+        assertEquals(30, analyzer.getAnalyzed() + analyzer.getDropped());
+        // 스케줄링 지연으로 한두 장은 겹칠 수 있지만 분석이 빠르면 사실상 모두 분석
+        assertTrue("dropped " + analyzer.getDropped(), analyzer.getDropped() <= 1);
+        assertEquals(0, source.outstanding.get());
+    }
+
+    @Test
+    public void failingProcessorStillReleasesFrames() throws Exception {
+        SyntheticFrameSource source = new SyntheticFrameSource(16, 16, 200, 20);
+        CountDownLatch firstFailure = new CountDownLatch(1);
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> {
+            firstFailure.countDown();
+            throw new IllegalStateException("model not ready");
+        });
+        source.start(analyzer);
+        source.join();
+        assertTrue(firstFailure.await(2, TimeUnit.SECONDS));
+        analyzer.close();
+
+        assertTrue(analyzer.getFailed() > 0);
+        assertEquals(0, analyzer.getAnalyzed());
+        assertEquals(0, source.outstanding.get());
+    }
+
+    @Test
+    public void framesAfterCloseAreReleased() throws Exception {
+        SyntheticFrameSource source = new SyntheticFrameSource(16, 16, 30, 1);
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> true);
+        analyzer.close();
+        YuvFrame frame = source.frame(0, 0);
+        analyzer.onFrame(frame);
+        assertTrue(frame.isReleased());
+        assertEquals(0, analyzer.getReceived());
+    }
+
+    @Test
+    public void framesSkippedBeforeReadyCountAsDropped() throws Exception {
+        SyntheticFrameSource source = new SyntheticFrameSource(16, 16, 200, 20);
+        AtomicInteger calls = new AtomicInteger();
+        // 처음 몇 장은 모델이 아직 준비되지 않아 그냥 넘김
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> calls.incrementAndGet() > 3);
+        source.start(analyzer);
+        source.join();
+        analyzer.close();
+
+        assertTrue(calls.get() > 3);
+        assertEquals(calls.get() - 3, analyzer.getAnalyzed());
+        assertEquals(20, analyzer.getAnalyzed() + analyzer.getDropped());
+        assertEquals(0, source.outstanding.get());
+    }
+
+    @Test
+    public void streamingWithRealConversion() throws Exception {
+        // 640x480 NV12 프레임을 640 입력으로 변환 + 정규화하는 전체 CPU 경로 (추론 제외)
+        SyntheticFrameSource source = new SyntheticFrameSource(640, 480, 30, 60);
+        YuvConverter converter = new YuvConverter();
+        ImagePreprocessor preprocessor = new ImagePreprocessor(640);
+        LatestFrameAnalyzer analyzer = new LatestFrameAnalyzer("analysis", frame -> {
+            converter.convert(frame, preprocessor.getPixelBuffer(), 640);
+            preprocessor.process();
+            return true;
+        });
+        source.start(analyzer);
+        source.join();
+        analyzer.close();
+
+        assertTrue(analyzer.getAnalyzed() > 0);
+        assertEquals(analyzer.getReceived(), analyzer.getAnalyzed() + analyzer.getDropped());
+        assertEquals(0, source.outstanding.get());
+    }
+}
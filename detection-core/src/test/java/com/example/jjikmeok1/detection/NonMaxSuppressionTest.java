@@ -0,0 +1,183 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NonMaxSuppressionTest {
+
+    private static final float IOU_THRESHOLD = 0.45f;
+
+    @Test
+    public void gridNms_matchesLegacyOnDenseScenes() {
+        for (int seed = 0; seed < 20; seed++) {
+            DetectionBuffer candidates = denseScene(new Random(seed), 2000, 40, 8);
+            int[] expected = legacyNms(candidates);
+
+            int[] keep = new int[candidates.size()];
+            int kept = new GridNms(IOU_THRESHOLD).run(candidates, keep);
+
+            assertEquals("seed " + seed, expected.length, kept);
+            for (int k = 0; k < kept; k++) {
+                assertEquals("seed " + seed + " rank " + k, expected[k], keep[k]);
+            }
+        }
+    }
+
+    @Test
+    public void gridNms_classAgnosticSuppressesAcrossClasses() {
+        DetectionBuffer candidates = new DetectionBuffer(4);
+        candidates.add(0, 0.9f, 0, 0, 100, 100);
+        candidates.add(1, 0.8f, 5, 5, 105, 105);
+        int[] keep = new int[2];
+
+        assertEquals(2, new GridNms(IOU_THRESHOLD).run(candidates, keep));
+        assertEquals(1, new GridNms(IOU_THRESHOLD, false, 0, 0).run(candidates, keep));
+        assertEquals(0, keep[0]);
+    }
+
+    @Test
+    public void gridNms_topKCaps() {
+        DetectionBuffer candidates = denseScene(new Random(1), 2000, 40, 8);
+        int[] all = new int[candidates.size()];
+        int keptAll = new GridNms(IOU_THRESHOLD).run(candidates, all);
+        assertTrue(keptAll > 10);
+
+        int[] keep = new int[candidates.size()];
+        int kept = new GridNms(IOU_THRESHOLD, true, 0, 10).run(candidates, keep);
+        assertEquals(10, kept);
+        for (int k = 0; k < kept; k++) {
+            assertEquals(all[k], keep[k]);
+        }
+
+        kept = new GridNms(IOU_THRESHOLD, true, 5, 0).run(candidates, keep);
+        assertTrue(kept <= 5);
+    }
+
+    @Test
+    public void softNms_decaysOverlapsInsteadOfRemoving() {
+        DetectionBuffer candidates = new DetectionBuffer(3);
+        candidates.add(0, 0.9f, 0, 0, 100, 100);
+        candidates.add(0, 0.8f, 10, 0, 110, 100);   // IoU ≈ 0.82
+        candidates.add(0, 0.7f, 300, 300, 400, 400); // 겹치지 않음
+        int[] keep = new int[3];
+
+        int kept = new SoftNms(SoftNms.Method.GAUSSIAN, IOU_THRESHOLD, 0.5f, 0.001f, true, 0)
+                .run(candidates, keep);
+
+        assertEquals(3, kept);
+        assertEquals(0, keep[0]);
+        assertEquals(2, keep[1]);
+        assertEquals(1, keep[2]);
+        assertEquals(0.7f, candidates.score(2), 0f);
+        assertTrue(candidates.score(1) < 0.8f * 0.3f);
+    }
+
+    @Test
+    public void softNms_linearDropsBelowScoreThreshold() {
+        DetectionBuffer candidates = new DetectionBuffer(2);
+        candidates.add(0, 0.9f, 0, 0, 100, 100);
+        candidates.add(0, 0.35f, 2, 0, 102, 100);
+        int[] keep = new int[2];
+
+        int kept = new SoftNms(SoftNms.Method.LINEAR, IOU_THRESHOLD, 0.5f, 0.3f, true, 0)
+                .run(candidates, keep);
+
+        assertEquals(1, kept);
+        assertEquals(0, keep[0]);
+    }
+
+    @Test
+    public void gridAndSoftNms_handleLargeDenseScene() {
+        DetectionBuffer candidates = denseScene(new Random(99), 6000, 120, 5);
+        int[] expected = legacyNms(candidates);
+
+        int[] keep = new int[candidates.size()];
+        int kept = new GridNms(IOU_THRESHOLD).run(candidates, keep);
+        assertEquals(expected.length, kept);
+        for (int k = 0; k < kept; k++) {
+            assertEquals(expected[k], keep[k]);
+        }
+
+        kept = new SoftNms(SoftNms.Method.GAUSSIAN, IOU_THRESHOLD, 0.5f, 0.3f, true, 100).run(candidates, keep);
+        assertEquals(100, kept);
+        for (int k = 1; k < kept; k++) {
+            assertTrue(candidates.score(keep[k - 1]) >= candidates.score(keep[k]));
+        }
+    }
+
+    /**
+     * 냉장고 사진처럼 물체가 몰려 있는 장면: 물체마다 살짝 흔들린 박스 여러 개가 후보로 나옴
+     */
+    private static DetectionBuffer denseScene(Random random, int count, int objects, int classes) {
+        DetectionBuffer buffer = new DetectionBuffer(count);
+        float[][] centers = new float[objects][];
+        for (int o = 0; o < objects; o++) {
+            centers[o] = new float[]{
+                    random.nextFloat() * 3000f, random.nextFloat() * 4000f,
+                    40f + random.nextFloat() * 300f, 40f + random.nextFloat() * 300f,
+                    random.nextInt(classes)};
+        }
+        for (int i = 0; i < count; i++) {
+            float[] c = centers[random.nextInt(objects)];
+            float cx = c[0] + (float) random.nextGaussian() * c[2] * 0.15f;
+            float cy = c[1] + (float) random.nextGaussian() * c[3] * 0.15f;
+            float w = c[2] * (0.8f + random.nextFloat() * 0.4f);
+            float h = c[3] * (0.8f + random.nextFloat() * 0.4f);
+            int cls = random.nextInt(10) == 0 ? random.nextInt(classes) : (int) c[4];
+            // 동점 처리 순서도 검증되도록 점수를 거칠게 양자화
+            float score = 0.3f + Math.round(random.nextFloat() * 50) / 50f * 0.7f;
+            buffer.add(cls, score, cx - w / 2, cy - h / 2, cx + w / 2, cy + h / 2);
+        }
+        return buffer;
+    }
+
+    /** 기존 YOLOv5Detector.nms (List 정렬 + 전체 쌍 비교), 반환값은 원래 인덱스 */
+    private static int[] legacyNms(DetectionBuffer buffer) {
+        List<float[]> recognitions = new ArrayList<>();
+        for (int i = 0; i < buffer.size(); i++) {
+            recognitions.add(new float[]{i, buffer.classId(i), buffer.score(i),
+                    buffer.left(i), buffer.top(i), buffer.right(i), buffer.bottom(i)});
+        }
+        recognitions.sort((a, b) -> Float.compare(b[2], a[2]));
+        List<float[]> result = new ArrayList<>();
+        boolean[] isSuppressed = new boolean[recognitions.size()];
+        for (int i = 0; i < recognitions.size(); i++) {
+            if (isSuppressed[i]) continue;
+            float[] current = recognitions.get(i);
+            result.add(current);
+            for (int j = i + 1; j < recognitions.size(); j++) {
+                if (isSuppressed[j]) continue;
+                float[] other = recognitions.get(j);
+                if (current[1] == other[1]) {
+                    if (legacyIou(current, other) > IOU_THRESHOLD) {
+                        isSuppressed[j] = true;
+                    }
+                }
+            }
+        }
+        int[] indices = new int[result.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = (int) result.get(i)[0];
+        }
+        return indices;
+    }
+
+    private static float legacyIou(float[] box1, float[] box2) {
+        float intersectionLeft = Math.max(box1[3], box2[3]);
+        float intersectionTop = Math.max(box1[4], box2[4]);
+        float intersectionRight = Math.min(box1[5], box2[5]);
+        float intersectionBottom = Math.min(box1[6], box2[6]);
+        float intersectionWidth = Math.max(0, intersectionRight - intersectionLeft);
+        float intersectionHeight = Math.max(0, intersectionBottom - intersectionTop);
+        float intersectionArea = intersectionWidth * intersectionHeight;
+        float box1Area = (box1[5] - box1[3]) * (box1[6] - box1[4]);
+        float box2Area = (box2[5] - box2[3]) * (box2[6] - box2[4]);
+        float unionArea = box1Area + box2Area - intersectionArea;
+        return intersectionArea / unionArea;
+    }
+}
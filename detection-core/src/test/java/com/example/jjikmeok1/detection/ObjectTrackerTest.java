@@ -0,0 +1,229 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ObjectTrackerTest {
+
+    /** 녹화된 탐지 결과 한 프레임 */
+    private static final class RecordedFrame {
+        int scene;
+        final DetectionBuffer detections = new DetectionBuffer(16);
+    }
+
+    /** 재생 결과 */
+    private static final class Replay {
+        float skipped;
+        float meanIou;
+        float trackedJitter;
+        float rawJitter;
+        final List<Integer> detectedFrames = new ArrayList<>();
+    }
+
+    @Test
+    public void staticSceneSkipsMostInferencesAndSmoothsBoxes() throws IOException {
+        List<RecordedFrame> frames = load("sequences/static_scene.csv");
+        Replay replay = replay(frames, new ObjectTracker(5, 0.3f, 0.3f, 2));
+        assertEquals(0.8f, replay.skipped, 0.01f);
+        assertTrue(replay.meanIou > 0.9f);
+        assertTrue(replay.trackedJitter < replay.rawJitter);
+    }
+
+    @Test
+    public void panningSceneFollowsMotionAndRedetectsOnCut() throws IOException {
+        List<RecordedFrame> frames = load("sequences/panning_scene.csv");
+        Replay replay = replay(frames, new ObjectTracker(5, 0.3f, 0.3f, 2));
+        assertTrue(replay.skipped > 0.7f);
+        // 차는 탐지 사이 4프레임 동안 16px를 움직이지만 속도 예측으로 박스가 따라간다
+        assertTrue(replay.meanIou > 0.8f);
+        // 장면이 바뀐 첫 프레임은 간격과 상관없이 탐지
+        assertTrue(replay.detectedFrames.contains(60));
+    }
+
+    @Test
+    public void everyFrameIntervalNeverSkips() throws IOException {
+        List<RecordedFrame> frames = load("sequences/static_scene.csv");
+        Replay replay = replay(frames, new ObjectTracker(1, 1f, 0.3f, 2));
+        assertEquals(0f, replay.skipped, 0f);
+        assertEquals(frames.size(), replay.detectedFrames.size());
+    }
+
+    @Test
+    public void tracksKeepIdentityAndDropAfterMisses() {
+        ObjectTracker tracker = new ObjectTracker(1, 1f, 0.3f, 1);
+        DetectionBuffer detections = new DetectionBuffer(4);
+        detections.add(0, 0.9f, 10, 10, 50, 50);
+        detections.add(1, 0.8f, 100, 100, 150, 150);
+        tracker.update(detections);
+        assertEquals(2, tracker.getTracks().size());
+        int firstId = tracker.getTracks().get(0).getId();
+
+        detections.clear();
+        detections.add(0, 0.9f, 14, 10, 54, 50);
+        tracker.update(detections);
+        assertEquals(2, tracker.getTracks().size());
+        assertEquals(firstId, tracker.getTracks().get(0).getId());
+        assertTrue(tracker.getTracks().get(0).getVelocityX() > 0);
+
+        // 클래스가 다르면 겹쳐도 같은 객체로 보지 않는다
+        detections.clear();
+        detections.add(2, 0.9f, 14, 10, 54, 50);
+        tracker.update(detections);
+        tracker.update(detections);
+        for (ObjectTracker.Track track : tracker.getTracks()) {
+            assertEquals(2, track.getClassId());
+        }
+    }
+
+    @Test
+    public void update_allocatesNothingForStableScene() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        ObjectTracker tracker = new ObjectTracker(1, 1f, 0.3f, 2);
+        DetectionBuffer detections = new DetectionBuffer(16);
+        for (int i = 0; i < 12; i++) {
+            detections.add(i % 3, 0.9f, i * 60, 10, i * 60 + 50, 60);
+        }
+        for (int i = 0; i < 200; i++) {
+            tracker.update(detections);
+        }
+
+        int iterations = 200;
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            tracker.update(detections);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(12, tracker.getTracks().size());
+        assertEquals(0, allocated / iterations);
+    }
+
+    @Test
+    public void sceneChangeDetectorMeasuresLumaDifference() {
+        SceneChangeDetector detector = new SceneChangeDetector();
+        assertEquals(1f, detector.measure(lumaFrame(64, 48, 100)), 0f);
+        detector.markReference();
+        assertEquals(0f, detector.measure(lumaFrame(64, 48, 100)), 0f);
+        assertEquals(20f / 255, detector.measure(lumaFrame(64, 48, 120)), 1e-4f);
+        assertEquals(155f / 255, detector.measure(lumaFrame(64, 48, 255)), 1e-4f);
+    }
+
+    private static Replay replay(List<RecordedFrame> frames, ObjectTracker tracker) {
+        Replay replay = new Replay();
+        int referenceScene = -1;
+        double iouSum = 0;
+        int iouCount = 0;
+        float[] pair = new float[8];
+        float[][] lastTracked = new float[100][];
+        float[][] lastRaw = new float[100][];
+        double trackedMotion = 0;
+        double rawMotion = 0;
+        int motionCount = 0;
+
+        for (int f = 0; f < frames.size(); f++) {
+            RecordedFrame frame = frames.get(f);
+            // 녹화본의 장면 번호가 바뀌면 장면 변화 1, 아니면 0
+            float sceneChange = frame.scene == referenceScene ? 0f : 1f;
+            if (tracker.needsDetection(sceneChange)) {
+                tracker.update(frame.detections);
+                referenceScene = frame.scene;
+                replay.detectedFrames.add(f);
+            } else {
+                tracker.predict();
+            }
+
+            // 녹화된 (매 프레임) 탐지와 추적 박스의 일치도
+            DetectionBuffer recorded = frame.detections;
+            for (int d = 0; d < recorded.size(); d++) {
+                System.arraycopy(recorded.boxes(), d * 4, pair, 4, 4);
+                float best = 0;
+                for (ObjectTracker.Track track : tracker.getTracks()) {
+                    if (track.getClassId() != recorded.classId(d)) {
+                        continue;
+                    }
+                    pair[0] = track.getLeft();
+                    pair[1] = track.getTop();
+                    pair[2] = track.getRight();
+                    pair[3] = track.getBottom();
+                    best = Math.max(best, BoxMath.iou(pair, 0, 1));
+                }
+                iouSum += best;
+                iouCount++;
+
+                // 떨림: 클래스별 박스 중심의 프레임 간 이동량 (정지 장면에서만 의미 있음)
+                int cls = recorded.classId(d);
+                float[] raw = {(recorded.left(d) + recorded.right(d)) / 2, (recorded.top(d) + recorded.bottom(d)) / 2};
+                if (lastRaw[cls] != null) {
+                    rawMotion += Math.hypot(raw[0] - lastRaw[cls][0], raw[1] - lastRaw[cls][1]);
+                    motionCount++;
+                }
+                lastRaw[cls] = raw;
+            }
+            for (ObjectTracker.Track track : tracker.getTracks()) {
+                int cls = track.getClassId();
+                float[] center = {(track.getLeft() + track.getRight()) / 2, (track.getTop() + track.getBottom()) / 2};
+                if (lastTracked[cls] != null) {
+                    trackedMotion += Math.hypot(center[0] - lastTracked[cls][0], center[1] - lastTracked[cls][1]);
+                }
+                lastTracked[cls] = center;
+            }
+        }
+        replay.skipped = tracker.getSkippedFraction();
+        replay.meanIou = (float) (iouSum / Math.max(1, iouCount));
+        replay.rawJitter = (float) (rawMotion / Math.max(1, motionCount));
+        replay.trackedJitter = (float) (trackedMotion / Math.max(1, motionCount));
+        return replay;
+    }
+
+    private static List<RecordedFrame> load(String resource) throws IOException {
+        List<RecordedFrame> frames = new ArrayList<>();
+        InputStream in = ObjectTrackerTest.class.getClassLoader().getResourceAsStream(resource);
+        assertNotNull(resource, in);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.startsWith("frame")) {
+                    continue;
+                }
+                String[] cols = line.split(",");
+                int index = Integer.parseInt(cols[0]);
+                while (frames.size() <= index) {
+                    frames.add(new RecordedFrame());
+                }
+                RecordedFrame frame = frames.get(index);
+                frame.scene = Integer.parseInt(cols[1]);
+                frame.detections.add(Integer.parseInt(cols[2]), Float.parseFloat(cols[3]),
+                        Float.parseFloat(cols[4]), Float.parseFloat(cols[5]),
+                        Float.parseFloat(cols[6]), Float.parseFloat(cols[7]));
+            }
+        }
+        return frames;
+    }
+
+    private static YuvFrame lumaFrame(int width, int height, int luma) {
+        ByteBuffer y = ByteBuffer.allocate(width * height);
+        for (int i = 0; i < width * height; i++) {
+            y.put((byte) Math.min(255, luma));
+        }
+        y.rewind();
+        ByteBuffer uv = ByteBuffer.allocate(width * height / 2);
+        return new YuvFrame(width, height, y, uv, uv, width, width / 2, 1, 0, 0, null);
+    }
+}
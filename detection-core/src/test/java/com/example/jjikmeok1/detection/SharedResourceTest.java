@@ -0,0 +1,106 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SharedResourceTest {
+
+    private static final class FakeDetector implements AutoCloseable {
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+
+    @Test
+    public void concurrentAcquiresShareOneLoad() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch loading = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        SharedResource<FakeDetector> resource = new SharedResource<>(() -> {
+            loads.incrementAndGet();
+            loading.await();
+            return new FakeDetector();
+        }, executor);
+
+        CompletableFuture<FakeDetector> preloaded = resource.preload();
+        List<CompletableFuture<FakeDetector>> screens = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            screens.add(resource.acquire());
+        }
+        assertFalse(resource.isReady());
+        loading.countDown();
+
+        FakeDetector detector = preloaded.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<FakeDetector> screen : screens) {
+            assertSame(detector, screen.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(resource.isReady());
+        assertEquals(1, loads.get());
+        assertEquals(3, resource.getRefCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void trimClosesOnlyWhenUnused() throws Exception {
+        SharedResource<FakeDetector> resource = new SharedResource<>(FakeDetector::new, Runnable::run);
+        FakeDetector first = resource.acquire().get();
+        assertFalse(resource.trim());
+        assertFalse(first.closed.get());
+
+        // 사용자가 0이 되어도 남겨 두었다가 다음 화면에서 그대로 재사용
+        resource.release();
+        assertSame(first, resource.acquire().get());
+        assertEquals(1, resource.getLoadCount());
+
+        resource.release();
+        assertTrue(resource.trim());
+        assertTrue(first.closed.get());
+
+        FakeDetector second = resource.acquire().get();
+        assertNotSame(first, second);
+        assertEquals(2, resource.getLoadCount());
+    }
+
+    @Test
+    public void failedLoadIsRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SharedResource<FakeDetector> resource = new SharedResource<>(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new java.io.IOException("model missing");
+            }
+            return new FakeDetector();
+        }, Runnable::run);
+
+        try {
+            resource.acquire().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof java.io.IOException);
+        }
+        assertFalse(resource.isReady());
+        resource.release();
+
+        assertNotNull(resource.acquire().get());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unbalancedReleaseThrows() {
+        new SharedResource<>(FakeDetector::new, Runnable::run).release();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class TensorQuantizationTest {
+
+    @Test
+    public void dequantize_uint8AndInt8() {
+        TensorQuantization uint8 = new TensorQuantization(0.5f, 10, false);
+        assertEquals(-5f, uint8.dequantize((byte) 0), 0f);
+        assertEquals((255 - 10) * 0.5f, uint8.dequantize((byte) 0xFF), 0f);
+
+        TensorQuantization int8 = new TensorQuantization(0.25f, -128, true);
+        assertEquals(0f, int8.dequantize((byte) -128), 0f);
+        assertEquals(255 * 0.25f, int8.dequantize((byte) 127), 0f);
+    }
+
+    @Test
+    public void dequantize_bufferMatchesFormula() {
+        TensorQuantization quantization = new TensorQuantization(0.0039f, -3, true);
+        ByteBuffer src = ByteBuffer.allocate(256);
+        for (int i = 0; i < 256; i++) {
+            src.put((byte) i);
+        }
+        src.flip();
+
+        float[] dst = new float[260];
+        quantization.dequantize(src, dst, 4, 256);
+        assertEquals(0, src.remaining());
+        for (int i = 0; i < 256; i++) {
+            assertEquals(((byte) i - (-3)) * 0.0039f, dst[4 + i], 0f);
+        }
+    }
+
+    @Test
+    public void rawPixelInputOnlyForUnitUint8() {
+        assertTrue(new TensorQuantization(1f / 255f, 0, false).isRawPixelInput());
+        assertFalse(new TensorQuantization(1f / 255f, -128, true).isRawPixelInput());
+        assertFalse(new TensorQuantization(0.5f, 0, false).isRawPixelInput());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TilingTest {
+
+    private final TilePlanner planner = new TilePlanner(640, 0.2f, 9, true);
+
+    @Test
+    public void smallImageIsNotTiled() {
+        List<TilePlanner.Tile> tiles = planner.plan(800, 600);
+        assertEquals(1, tiles.size());
+        assertTrue(tiles.get(0).isFullImage());
+    }
+
+    @Test
+    public void tilesOverlapAndCoverImage() {
+        int width = 1600;
+        int height = 1200;
+        List<TilePlanner.Tile> tiles = planner.plan(width, height);
+        assertTrue(tiles.get(0).isFullImage());
+        assertTrue(tiles.size() > 2);
+
+        boolean[][] covered = new boolean[height][width];
+        for (TilePlanner.Tile tile : tiles.subList(1, tiles.size())) {
+            assertFalse(tile.isFullImage());
+            assertTrue(tile.getLeft() >= 0 && tile.getRight() <= width);
+            assertTrue(tile.getTop() >= 0 && tile.getBottom() <= height);
+            assertTrue(tile.getWidth() >= 640);
+            assertEquals(tiles.get(1).getWidth(), tile.getWidth());
+            for (int y = tile.getTop(); y < tile.getBottom(); y++) {
+                for (int x = tile.getLeft(); x < tile.getRight(); x++) {
+                    covered[y][x] = true;
+                }
+            }
+        }
+        for (boolean[] row : covered) {
+            for (boolean pixel : row) {
+                assertTrue(pixel);
+            }
+        }
+        // 이웃 타일은 최소 overlap 만큼 겹침
+        TilePlanner.Tile first = tiles.get(1);
+        TilePlanner.Tile second = tiles.get(2);
+        assertTrue(first.getRight() - second.getLeft() >= 0.2f * first.getWidth());
+    }
+
+    @Test
+    public void tileCountStaysBoundedForHugeImages() {
+        int[][] sizes = {{4032, 3024}, {8000, 6000}, {12000, 500}, {3000, 3000}};
+        for (int[] size : sizes) {
+            List<TilePlanner.Tile> tiles = planner.plan(size[0], size[1]);
+            assertTrue(size[0] + "x" + size[1] + ": " + tiles.size(), tiles.size() <= planner.getMaxTiles());
+        }
+    }
+
+    @Test
+    public void mergeRemovesCrossTileDuplicates() {
+        TilePlanner.Tile left = tileAt(planner.plan(1600, 640), 0);
+        TilePlanner.Tile right = tileAt(planner.plan(1600, 640), 1);
+        assertTrue(left.getRight() > right.getLeft());
+
+        TileMerger merger = new TileMerger(new GridNms(0.45f), 0.7f, 4);
+        merger.reset(1600, 640);
+        // 겹침 영역 안의 같은 물체가 두 타일에서 잡힘
+        float x = right.getLeft() + 10;
+        int a = merger.add(left, 3, 0.8f, x, 100, x + 40, 140);
+        int b = merger.add(right, 3, 0.7f, x + 1, 101, x + 41, 141);
+        // 작은 물체 (다른 위치)
+        int c = merger.add(left, 5, 0.6f, 50, 50, 70, 66);
+
+        int[] out = new int[merger.size()];
+        int kept = merger.merge(out);
+        assertEquals(2, kept);
+        assertEquals(a, out[0]);
+        assertEquals(c, out[1]);
+        assertNotEquals(b, out[1]);
+    }
+
+    @Test
+    public void mergeDropsBoxesTruncatedAtInnerTileEdge() {
+        List<TilePlanner.Tile> tiles = planner.plan(1600, 640);
+        TilePlanner.Tile full = tiles.get(0);
+        TilePlanner.Tile left = tileAt(tiles, 0);
+        assertTrue(full.isFullImage());
+
+        TileMerger merger = new TileMerger(new GridNms(0.45f), 0.7f, 4);
+        merger.reset(1600, 640);
+        // 전체 이미지 패스에서 잡힌 큰 물체와, 왼쪽 타일 오른쪽 경계에서 잘린 조각
+        float edge = left.getRight();
+        int whole = merger.add(full, 1, 0.6f, edge - 200, 100, edge + 200, 400);
+        int piece = merger.add(left, 1, 0.9f, edge - 200, 100, edge, 400);
+
+        int[] out = new int[merger.size()];
+        int kept = merger.merge(out);
+        assertEquals(1, kept);
+        assertEquals(whole, out[0]);
+        assertNotEquals(piece, out[0]);
+    }
+
+    @Test
+    public void mergerGrowsBeyondInitialCapacity() {
+        TileMerger merger = new TileMerger(new GridNms(0.45f), 0.7f, 1);
+        merger.reset(4000, 4000);
+        TilePlanner.Tile full = planner.plan(4000, 4000).get(0);
+        for (int i = 0; i < 100; i++) {
+            merger.add(full, 0, 0.5f, i * 40, 0, i * 40 + 20, 20);
+        }
+        assertEquals(100, merger.merge(new int[100]));
+    }
+
+    private static TilePlanner.Tile tileAt(List<TilePlanner.Tile> tiles, int index) {
+        return tiles.get(tiles.get(0).isFullImage() ? index + 1 : index);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.jjikmeok1.detection;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class YuvConverterTest {
+
+    @Test
+    public void yuvToArgb_knownColors() {
+        assertEquals(0xFF000000, YuvConverter.yuvToArgb(0, 128, 128));
+        assertEquals(0xFFFFFFFF, YuvConverter.yuvToArgb(255, 128, 128));
+        assertEquals(0xFF808080, YuvConverter.yuvToArgb(128, 128, 128));
+        // 순수 빨강 (JFIF: Y=76, U=85, V=255)
+        int red = YuvConverter.yuvToArgb(76, 85, 255);
+        assertTrue(((red >> 16) & 0xFF) >= 250);
+        assertTrue(((red >> 8) & 0xFF) <= 5);
+        assertTrue((red & 0xFF) <= 5);
+    }
+
+    @Test
+    public void convert_identityScaleWithRowPadding() {
+        // 4x4 프레임, 행 끝에 패딩 4바이트, I420 (pixelStride 1)
+        int width = 4;
+        int height = 4;
+        YuvFrame frame = gradientFrame(width, height, 8, 1, 0);
+        int[] dst = new int[16];
+        new YuvConverter().convert(frame, dst, 4);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(gray(luma(x, y)), dst[y * 4 + x]);
+            }
+        }
+    }
+
+    @Test
+    public void convert_appliesRotation() {
+        int width = 4;
+        int height = 2;
+        int[] dst = new int[16];
+        YuvConverter converter = new YuvConverter();
+
+        // 90도: 화면 기준 2x4, 화면 왼쪽 위 = 센서 왼쪽 아래
+        converter.convert(gradientFrame(width, height, width, 2, 90), dst, 4);
+        assertEquals(gray(luma(0, height - 1)), dst[0]);
+        // 화면 오른쪽 아래 = 센서 오른쪽 위
+        assertEquals(gray(luma(width - 1, 0)), dst[15]);
+
+        // 180도: 화면 왼쪽 위 = 센서 오른쪽 아래
+        converter.convert(gradientFrame(width, height, width, 2, 180), dst, 4);
+        assertEquals(gray(luma(width - 1, height - 1)), dst[0]);
+
+        // 270도: 화면 왼쪽 위 = 센서 오른쪽 위
+        converter.convert(gradientFrame(width, height, width, 2, 270), dst, 4);
+        assertEquals(gray(luma(width - 1, 0)), dst[0]);
+    }
+
+    @Test
+    public void convert_downscalesWithNearestNeighbor() {
+        YuvFrame frame = gradientFrame(8, 8, 8, 2, 0);
+        int[] dst = new int[4];
+        new YuvConverter().convert(frame, dst, 2);
+        // 출력 픽셀 중심 (0.5 → 2, 1.5 → 6)
+        assertEquals(gray(luma(2, 2)), dst[0]);
+        assertEquals(gray(luma(6, 6)), dst[3]);
+    }
+
+    private static int luma(int x, int y) {
+        return 10 + x * 20 + y * 3;
+    }
+
+    private static int gray(int value) {
+        return 0xFF000000 | (value << 16) | (value << 8) | value;
+    }
+
+    /** Y = luma(x, y), U = V = 128 (무채색) 프레임 */
+    private static YuvFrame gradientFrame(int width, int height, int rowStride, int uvPixelStride, int rotation) {
+        ByteBuffer y = ByteBuffer.allocate(rowStride * height);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                y.put(row * rowStride + col, (byte) luma(col, row));
+            }
+        }
+        int uvRowStride = uvPixelStride == 2 ? rowStride : rowStride / 2;
+        ByteBuffer u = ByteBuffer.allocate(uvRowStride * height / 2 + 1);
+        ByteBuffer v = ByteBuffer.allocate(uvRowStride * height / 2 + 1);
+        for (int i = 0; i < u.capacity(); i++) {
+            u.put(i, (byte) 128);
+            v.put(i, (byte) 128);
+        }
+        return new YuvFrame(width, height, y, u, v, rowStride, uvRowStride, uvPixelStride, rotation, 0, null);
+    }
+}
@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "jjikmeok1"
 include(":app")
+include(":detection-core")
  
\ No newline at end of file